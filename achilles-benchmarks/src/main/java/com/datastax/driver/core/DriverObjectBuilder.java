@@ -0,0 +1,65 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.driver.core;
+
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.datastax.driver.core.ColumnDefinitions.Definition;
+
+/**
+ * Build driver objects which are normally only created from server responses,
+ * so that benchmarks exercise real Row decoding and BoundStatement
+ * serialization instead of mocks
+ */
+public class DriverObjectBuilder {
+
+	public static ColumnDefinitions buildColumnDefinitions(String keyspace, String table, Map<String, DataType> columns) {
+		Definition[] definitions = new Definition[columns.size()];
+		int i = 0;
+		for (Entry<String, DataType> entry : columns.entrySet()) {
+			definitions[i++] = new Definition(keyspace, table, entry.getKey(), entry.getValue());
+		}
+		return new ColumnDefinitions(definitions);
+	}
+
+	public static Row buildRow(ColumnDefinitions columnDefinitions, Object... values) {
+		List<ByteBuffer> data = new ArrayList<ByteBuffer>(values.length);
+		for (int i = 0; i < values.length; i++) {
+			data.add(values[i] == null ? null : columnDefinitions.getType(i).serialize(values[i]));
+		}
+		return Row.fromData(columnDefinitions, data);
+	}
+
+	public static PreparedStatement buildPreparedStatement(String query, String keyspace,
+			ColumnDefinitions variables) {
+		try {
+			Constructor<PreparedStatement> constructor = PreparedStatement.class.getDeclaredConstructor(
+					ColumnDefinitions.class, ColumnDefinitions.class, MD5Digest.class, int[].class, String.class,
+					String.class);
+			constructor.setAccessible(true);
+			MD5Digest id = MD5Digest.wrap(new byte[16]);
+			return constructor.newInstance(variables, ColumnDefinitions.EMPTY, id, null, query, keyspace);
+		} catch (Exception e) {
+			throw new IllegalStateException("Cannot build prepared statement for query " + query, e);
+		}
+	}
+}
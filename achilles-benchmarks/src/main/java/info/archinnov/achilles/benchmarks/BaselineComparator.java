@@ -0,0 +1,130 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+
+/**
+ * Compare a JMH JSON result file (-rf json) with a baseline produced the same
+ * way. A benchmark regresses when its score is worse than the baseline by more
+ * than the tolerance, in percent, and by more than the measurement noise, the
+ * sum of the score errors reported by JMH for both runs. Scores are compared per
+ * benchmark and parameters, lower is better for time modes and higher is better
+ * for throughput
+ * 
+ * <pre>
+ * java -cp target/benchmarks.jar info.archinnov.achilles.benchmarks.BaselineComparator \
+ *     baseline/micro-benchmarks.json target/micro-benchmarks.json 10
+ * </pre>
+ */
+public class BaselineComparator {
+
+	private static final String THROUGHPUT_MODE = "thrpt";
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: BaselineComparator <baseline.json> <results.json> [tolerance percent]");
+			System.exit(2);
+		}
+		double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+		Map<String, JsonNode> baseline = readResults(new File(args[0]));
+		Map<String, JsonNode> results = readResults(new File(args[1]));
+
+		int regressions = 0;
+		for (Entry<String, JsonNode> entry : results.entrySet()) {
+			JsonNode result = entry.getValue();
+			JsonNode reference = baseline.get(entry.getKey());
+			double score = result.path("primaryMetric").path("score").asDouble();
+			double scoreError = readScoreError(result);
+			String unit = result.path("primaryMetric").path("scoreUnit").asText();
+			if (reference == null) {
+				System.out.println(String.format("%-90s %12.3f %-8s (no baseline)", entry.getKey(), score, unit));
+				continue;
+			}
+			double referenceScore = reference.path("primaryMetric").path("score").asDouble();
+			double change = computeChange(result.path("mode").asText(), referenceScore, score);
+			double noise = computeNoise(referenceScore, readScoreError(reference), scoreError);
+			boolean regressed = isRegression(change, noise, tolerance);
+			if (regressed) {
+				regressions++;
+			}
+			System.out.println(String.format("%-90s %12.3f %-8s %+7.1f%% (noise %5.1f%%) %s", entry.getKey(), score,
+					unit, change, noise, regressed ? "REGRESSION" : ""));
+		}
+		if (regressions > 0) {
+			System.out.println(regressions + " benchmark(s) regressed by more than " + tolerance
+					+ "% and beyond their noise");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Degradation in percent, positive when the result is worse than the
+	 * reference
+	 */
+	static double computeChange(String mode, double referenceScore, double score) {
+		double change = (score - referenceScore) / referenceScore * 100;
+		return THROUGHPUT_MODE.equals(mode) ? -change : change;
+	}
+
+	/**
+	 * Measurement noise in percent of the reference score: the sum of the
+	 * half-widths of both confidence intervals
+	 */
+	static double computeNoise(double referenceScore, double referenceScoreError, double scoreError) {
+		return (referenceScoreError + scoreError) / referenceScore * 100;
+	}
+
+	static boolean isRegression(double change, double noise, double tolerance) {
+		return change > tolerance && change > noise;
+	}
+
+	/**
+	 * JMH writes "NaN" when there are too few iterations to compute an error
+	 */
+	private static double readScoreError(JsonNode result) {
+		double scoreError = result.path("primaryMetric").path("scoreError").asDouble();
+		return Double.isNaN(scoreError) ? 0 : scoreError;
+	}
+
+	private static Map<String, JsonNode> readResults(File file) throws IOException {
+		Map<String, JsonNode> results = new LinkedHashMap<String, JsonNode>();
+		for (JsonNode result : new ObjectMapper().readTree(file)) {
+			results.put(buildKey(result), result);
+		}
+		return results;
+	}
+
+	private static String buildKey(JsonNode result) {
+		StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+		JsonNode params = result.path("params");
+		Iterator<Entry<String, JsonNode>> fields = params.getFields();
+		while (fields.hasNext()) {
+			Entry<String, JsonNode> param = fields.next();
+			key.append(":").append(param.getKey()).append("=").append(param.getValue().asText());
+		}
+		return key.toString();
+	}
+}
@@ -0,0 +1,55 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks.endtoend;
+
+import info.archinnov.achilles.embedded.CassandraEmbeddedServerBuilder;
+import info.archinnov.achilles.entity.manager.PersistenceManager;
+
+import java.io.File;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Start one embedded Cassandra server per forked JVM and bootstrap Achilles on
+ * the benchmark entities
+ */
+@State(Scope.Benchmark)
+public class EmbeddedCassandraState {
+
+	public static final String ENTITY_PACKAGE = "info.archinnov.achilles.benchmarks.entity";
+
+	public static final String KEYSPACE = "achilles_benchmarks";
+
+	private static final String DATA_FOLDER = "target/cassandra_benchmarks/data";
+	private static final String COMMIT_LOG_FOLDER = "target/cassandra_benchmarks/commitlog";
+	private static final String SAVED_CACHES_FOLDER = "target/cassandra_benchmarks/saved_caches";
+
+	public PersistenceManager manager;
+
+	@Setup(Level.Trial)
+	public void startServer() {
+		for (String folder : new String[] { DATA_FOLDER, COMMIT_LOG_FOLDER, SAVED_CACHES_FOLDER }) {
+			new File(folder).mkdirs();
+		}
+		manager = CassandraEmbeddedServerBuilder.withEntityPackages(ENTITY_PACKAGE).withDataFolder(DATA_FOLDER)
+				.withCommitLogFolder(COMMIT_LOG_FOLDER).withSavedCachesFolder(SAVED_CACHES_FOLDER)
+				.cleanDataFilesAtStartup(true).withKeyspaceName(KEYSPACE).buildPersistenceManager();
+	}
+}
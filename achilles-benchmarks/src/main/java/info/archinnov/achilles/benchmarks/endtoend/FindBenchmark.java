@@ -0,0 +1,67 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks.endtoend;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import info.archinnov.achilles.benchmarks.entity.UserEntity;
+import info.archinnov.achilles.benchmarks.micro.MappingFixtures;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FindBenchmark {
+
+	private static final int USERS_COUNT = 1000;
+
+	@Setup(Level.Trial)
+	public void insertUsers(EmbeddedCassandraState state) {
+		for (long id = 1; id <= USERS_COUNT; id++) {
+			state.manager.persist(MappingFixtures.buildUser(id));
+		}
+	}
+
+	@Benchmark
+	public UserEntity find(EmbeddedCassandraState state) {
+		return state.manager.find(UserEntity.class, randomId());
+	}
+
+	@Benchmark
+	public UserEntity getReference(EmbeddedCassandraState state) {
+		return state.manager.getReference(UserEntity.class, randomId());
+	}
+
+	private long randomId() {
+		return ThreadLocalRandom.current().nextLong(1, USERS_COUNT + 1);
+	}
+}
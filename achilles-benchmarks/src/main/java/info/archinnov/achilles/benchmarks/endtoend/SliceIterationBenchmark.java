@@ -0,0 +1,74 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks.endtoend;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import info.archinnov.achilles.benchmarks.entity.TimelineEntity;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SliceIterationBenchmark {
+
+	private static final Long PARTITION_KEY = 1L;
+
+	private static final int ROWS_COUNT = 5000;
+
+	@Param({ "100", "1000" })
+	public int batchSize;
+
+	@Setup(Level.Trial)
+	public void insertTimeline(EmbeddedCassandraState state) {
+		for (int position = 0; position < ROWS_COUNT; position++) {
+			state.manager.persist(new TimelineEntity(PARTITION_KEY, position, "content " + position));
+		}
+	}
+
+	@Benchmark
+	public void iterate(EmbeddedCassandraState state, Blackhole blackhole) {
+		Iterator<TimelineEntity> iterator = state.manager.sliceQuery(TimelineEntity.class)
+				.partitionComponents(PARTITION_KEY).limit(ROWS_COUNT).iterator(batchSize);
+		while (iterator.hasNext()) {
+			blackhole.consume(iterator.next());
+		}
+	}
+
+	@Benchmark
+	public List<TimelineEntity> getAll(EmbeddedCassandraState state) {
+		return state.manager.sliceQuery(TimelineEntity.class).partitionComponents(PARTITION_KEY).get(ROWS_COUNT);
+	}
+}
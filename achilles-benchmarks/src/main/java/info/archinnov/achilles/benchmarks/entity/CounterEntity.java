@@ -0,0 +1,58 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks.entity;
+
+import static info.archinnov.achilles.benchmarks.entity.CounterEntity.TABLE_NAME;
+import info.archinnov.achilles.annotations.Column;
+import info.archinnov.achilles.annotations.Entity;
+import info.archinnov.achilles.annotations.Id;
+import info.archinnov.achilles.type.Counter;
+
+@Entity(table = TABLE_NAME)
+public class CounterEntity {
+
+	public static final String TABLE_NAME = "benchmark_counter";
+
+	@Id
+	private Long id;
+
+	@Column
+	private Counter hits;
+
+	public CounterEntity() {
+	}
+
+	public CounterEntity(Long id) {
+		this.id = id;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Counter getHits() {
+		return hits;
+	}
+
+	public void setHits(Counter hits) {
+		this.hits = hits;
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks.entity;
+
+import static info.archinnov.achilles.benchmarks.entity.TimelineEntity.TABLE_NAME;
+import info.archinnov.achilles.annotations.Column;
+import info.archinnov.achilles.annotations.EmbeddedId;
+import info.archinnov.achilles.annotations.Entity;
+import info.archinnov.achilles.annotations.Order;
+
+@Entity(table = TABLE_NAME)
+public class TimelineEntity {
+
+	public static final String TABLE_NAME = "benchmark_timeline";
+
+	@EmbeddedId
+	private TimelineKey id;
+
+	@Column
+	private String content;
+
+	public TimelineEntity() {
+	}
+
+	public TimelineEntity(Long userId, Integer position, String content) {
+		this.id = new TimelineKey(userId, position);
+		this.content = content;
+	}
+
+	public TimelineKey getId() {
+		return id;
+	}
+
+	public void setId(TimelineKey id) {
+		this.id = id;
+	}
+
+	public String getContent() {
+		return content;
+	}
+
+	public void setContent(String content) {
+		this.content = content;
+	}
+
+	public static class TimelineKey {
+		@Column
+		@Order(1)
+		private Long userId;
+
+		@Column
+		@Order(2)
+		private Integer position;
+
+		public TimelineKey() {
+		}
+
+		public TimelineKey(Long userId, Integer position) {
+			this.userId = userId;
+			this.position = position;
+		}
+
+		public Long getUserId() {
+			return userId;
+		}
+
+		public void setUserId(Long userId) {
+			this.userId = userId;
+		}
+
+		public Integer getPosition() {
+			return position;
+		}
+
+		public void setPosition(Integer position) {
+			this.position = position;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks.entity;
+
+import static info.archinnov.achilles.benchmarks.entity.UserEntity.TABLE_NAME;
+import info.archinnov.achilles.annotations.Column;
+import info.archinnov.achilles.annotations.Entity;
+import info.archinnov.achilles.annotations.Id;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Entity(table = TABLE_NAME)
+public class UserEntity {
+
+	public static final String TABLE_NAME = "benchmark_user";
+
+	@Id
+	private Long id;
+
+	@Column
+	private String login;
+
+	@Column
+	private String email;
+
+	@Column
+	private Integer age;
+
+	@Column
+	private List<String> friends;
+
+	@Column
+	private Set<String> followers;
+
+	@Column
+	private Map<Integer, String> preferences;
+
+	@Column
+	private Address address;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getLogin() {
+		return login;
+	}
+
+	public void setLogin(String login) {
+		this.login = login;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public void setEmail(String email) {
+		this.email = email;
+	}
+
+	public Integer getAge() {
+		return age;
+	}
+
+	public void setAge(Integer age) {
+		this.age = age;
+	}
+
+	public List<String> getFriends() {
+		return friends;
+	}
+
+	public void setFriends(List<String> friends) {
+		this.friends = friends;
+	}
+
+	public Set<String> getFollowers() {
+		return followers;
+	}
+
+	public void setFollowers(Set<String> followers) {
+		this.followers = followers;
+	}
+
+	public Map<Integer, String> getPreferences() {
+		return preferences;
+	}
+
+	public void setPreferences(Map<Integer, String> preferences) {
+		this.preferences = preferences;
+	}
+
+	public Address getAddress() {
+		return address;
+	}
+
+	public void setAddress(Address address) {
+		this.address = address;
+	}
+}
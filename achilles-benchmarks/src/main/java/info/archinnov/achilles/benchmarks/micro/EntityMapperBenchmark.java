@@ -0,0 +1,80 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks.micro;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import info.archinnov.achilles.benchmarks.entity.UserEntity;
+import info.archinnov.achilles.entity.EntityMapper;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.datastax.driver.core.Row;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityMapperBenchmark {
+
+	private EntityMapper mapper = new EntityMapper();
+
+	private EntityMeta meta;
+
+	private Row row;
+
+	private Map<String, PropertyMeta> propertiesMap = new HashMap<String, PropertyMeta>();
+
+	@Setup
+	public void setUp() {
+		meta = MappingFixtures.buildEntityMetas(MappingFixtures.buildConfigContext(), UserEntity.class).get(
+				UserEntity.class);
+		row = MappingFixtures.buildRow(meta, MappingFixtures.buildColumnDefinitions(meta),
+				MappingFixtures.buildUser(10L));
+		for (Entry<String, PropertyMeta> entry : meta.getPropertyMetas().entrySet()) {
+			propertiesMap.put(entry.getKey().toLowerCase(), entry.getValue());
+		}
+	}
+
+	@Benchmark
+	public UserEntity mapRowToEntity() {
+		return mapper.mapRowToEntityWithPrimaryKey(meta, row, propertiesMap, true);
+	}
+
+	@Benchmark
+	public UserEntity setEagerPropertiesToEntity() {
+		UserEntity entity = new UserEntity();
+		mapper.setEagerPropertiesToEntity(row, meta, entity);
+		return entity;
+	}
+}
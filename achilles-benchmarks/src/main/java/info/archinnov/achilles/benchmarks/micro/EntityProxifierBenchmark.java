@@ -0,0 +1,88 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks.micro;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import info.archinnov.achilles.benchmarks.entity.UserEntity;
+import info.archinnov.achilles.context.ConfigurationContext;
+import info.archinnov.achilles.context.PersistenceContext;
+import info.archinnov.achilles.context.PersistenceContextFactory;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.operations.EntityProxifier;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityProxifierBenchmark {
+
+	private EntityProxifier proxifier = new EntityProxifier();
+
+	private PersistenceContext context;
+
+	private UserEntity user;
+
+	private UserEntity proxy;
+
+	@Setup
+	public void setUp() {
+		ConfigurationContext configContext = MappingFixtures.buildConfigContext();
+		Map<Class<?>, EntityMeta> entityMetaMap = MappingFixtures.buildEntityMetas(configContext, UserEntity.class);
+
+		// No DaoContext : only eagerly loaded properties are read through the proxy
+		PersistenceContextFactory contextFactory = new PersistenceContextFactory(null, configContext, entityMetaMap);
+		user = MappingFixtures.buildUser(10L);
+		context = contextFactory.newContext(user);
+		proxy = proxifier.buildProxy(user, context);
+	}
+
+	@Benchmark
+	public UserEntity buildProxy() {
+		return proxifier.buildProxy(user, context);
+	}
+
+	@Benchmark
+	public String interceptSimpleGetter() {
+		return proxy.getLogin();
+	}
+
+	@Benchmark
+	public List<String> interceptCollectionGetter() {
+		return proxy.getFriends();
+	}
+
+	@Benchmark
+	public UserEntity unwrapProxy() {
+		return proxifier.unwrap(proxy);
+	}
+}
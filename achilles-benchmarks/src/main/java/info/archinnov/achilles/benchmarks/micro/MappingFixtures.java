@@ -0,0 +1,159 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks.micro;
+
+import info.archinnov.achilles.benchmarks.entity.Address;
+import info.archinnov.achilles.benchmarks.entity.UserEntity;
+import info.archinnov.achilles.context.ConfigurationContext;
+import info.archinnov.achilles.cql.TypeMapper;
+import info.archinnov.achilles.entity.discovery.AchillesBootstraper;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.json.DefaultObjectMapperFactory;
+import info.archinnov.achilles.type.ConsistencyLevel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.DriverObjectBuilder;
+import com.datastax.driver.core.Row;
+
+/**
+ * Entity metadata, rows and entities shared by the micro benchmarks. Metadata
+ * is parsed by the real AchillesBootstraper so that benchmarks follow the same
+ * code paths as a bootstrapped PersistenceManager
+ */
+public class MappingFixtures {
+
+	public static final String KEYSPACE = "achilles_benchmarks";
+
+	private static final Map<DataType.Name, DataType> PRIMITIVE_TYPES = new HashMap<DataType.Name, DataType>();
+
+	static {
+		for (DataType type : DataType.allPrimitiveTypes()) {
+			PRIMITIVE_TYPES.put(type.getName(), type);
+		}
+	}
+
+	public static ConfigurationContext buildConfigContext() {
+		ConfigurationContext configContext = new ConfigurationContext();
+		configContext.setObjectMapperFactory(new DefaultObjectMapperFactory());
+		configContext.setDefaultReadConsistencyLevel(ConsistencyLevel.ONE);
+		configContext.setDefaultWriteConsistencyLevel(ConsistencyLevel.ONE);
+		return configContext;
+	}
+
+	public static Map<Class<?>, EntityMeta> buildEntityMetas(ConfigurationContext configContext,
+			Class<?>... entityClasses) {
+		List<Class<?>> entities = Arrays.<Class<?>> asList(entityClasses);
+		return new AchillesBootstraper().buildMetaDatas(configContext, entities).left;
+	}
+
+	public static UserEntity buildUser(long id) {
+		UserEntity user = new UserEntity();
+		user.setId(id);
+		user.setLogin("user" + id);
+		user.setEmail("user" + id + "@achilles.info");
+		user.setAge(33);
+		user.setFriends(Arrays.asList("john", "helen", "paul", "mary"));
+		user.setFollowers(new HashSet<String>(Arrays.asList("george", "ringo", "jim")));
+		Map<Integer, String> preferences = new HashMap<Integer, String>();
+		preferences.put(1, "FR");
+		preferences.put(2, "Paris");
+		preferences.put(3, "75014");
+		user.setPreferences(preferences);
+		user.setAddress(new Address("1 rue de Rivoli", "Paris", 75001));
+		return user;
+	}
+
+	/**
+	 * Column definitions for a SELECT * on the entity table, id first then all
+	 * other properties
+	 */
+	public static ColumnDefinitions buildColumnDefinitions(EntityMeta meta) {
+		Map<String, DataType> columns = new LinkedHashMap<String, DataType>();
+		PropertyMeta idMeta = meta.getIdMeta();
+		columns.put(idMeta.getPropertyName().toLowerCase(), toDataType(idMeta));
+		for (PropertyMeta pm : meta.getAllMetasExceptIdMeta()) {
+			columns.put(pm.getPropertyName().toLowerCase(), toDataType(pm));
+		}
+		return DriverObjectBuilder.buildColumnDefinitions(KEYSPACE, meta.getTableName(), columns);
+	}
+
+	/**
+	 * Row holding the encoded values of the entity, in the order of
+	 * {@link #buildColumnDefinitions(EntityMeta)}
+	 */
+	public static Row buildRow(EntityMeta meta, ColumnDefinitions columnDefinitions, Object entity) {
+		List<Object> values = new ArrayList<Object>();
+		values.add(meta.getIdMeta().encode(meta.getPrimaryKey(entity)));
+		for (PropertyMeta pm : meta.getAllMetasExceptIdMeta()) {
+			values.add(encode(pm, pm.getValueFromField(entity)));
+		}
+		return DriverObjectBuilder.buildRow(columnDefinitions, values.toArray());
+	}
+
+	public static DataType toDataType(PropertyMeta pm) {
+		switch (pm.type()) {
+			case LIST:
+			case LAZY_LIST:
+				return DataType.list(toDataType(pm.getValueClassForTableCreation()));
+			case SET:
+			case LAZY_SET:
+				return DataType.set(toDataType(pm.getValueClassForTableCreation()));
+			case MAP:
+			case LAZY_MAP:
+				return DataType.map(toDataType(pm.getKeyClass()), toDataType(pm.getValueClassForTableCreation()));
+			case COUNTER:
+				return DataType.counter();
+			default:
+				return toDataType(pm.getValueClassForTableCreation());
+		}
+	}
+
+	private static DataType toDataType(Class<?> javaType) {
+		return PRIMITIVE_TYPES.get(TypeMapper.toCQLType(javaType));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object encode(PropertyMeta pm, Object value) {
+		if (value == null) {
+			return null;
+		}
+		switch (pm.type()) {
+			case LIST:
+			case LAZY_LIST:
+				return pm.encode((List) value);
+			case SET:
+			case LAZY_SET:
+				return pm.encode((Set) value);
+			case MAP:
+			case LAZY_MAP:
+				return pm.encode((Map) value);
+			default:
+				return pm.encode(value);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks.micro;
+
+import static com.datastax.driver.core.DriverObjectBuilder.buildColumnDefinitions;
+import static com.datastax.driver.core.DriverObjectBuilder.buildPreparedStatement;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import info.archinnov.achilles.benchmarks.entity.UserEntity;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.entity.metadata.PropertyType;
+import info.archinnov.achilles.statement.prepared.PreparedStatementBinder;
+import info.archinnov.achilles.statement.wrapper.BoundStatementWrapper;
+import info.archinnov.achilles.type.ConsistencyLevel;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.PreparedStatement;
+import com.google.common.base.Optional;
+import com.google.common.collect.FluentIterable;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PreparedStatementBinderBenchmark {
+
+	private static final Optional<Integer> NO_TTL = Optional.absent();
+
+	private PreparedStatementBinder binder = new PreparedStatementBinder();
+
+	private EntityMeta meta;
+
+	private UserEntity user;
+
+	private List<PropertyMeta> updatedMetas;
+
+	private PreparedStatement insertPs;
+
+	private PreparedStatement updatePs;
+
+	private PreparedStatement selectPs;
+
+	@Setup
+	public void setUp() {
+		meta = MappingFixtures.buildEntityMetas(MappingFixtures.buildConfigContext(), UserEntity.class).get(
+				UserEntity.class);
+		user = MappingFixtures.buildUser(10L);
+		PropertyMeta idMeta = meta.getIdMeta();
+		List<PropertyMeta> nonCounterMetas = FluentIterable.from(meta.getAllMetasExceptIdMeta())
+				.filter(PropertyType.excludeCounterType).toImmutableList();
+
+		// Same bind markers layout as the generated INSERT : primary key, columns then TTL
+		Map<String, DataType> insertVariables = new LinkedHashMap<String, DataType>();
+		insertVariables.put(idMeta.getPropertyName(), MappingFixtures.toDataType(idMeta));
+		for (PropertyMeta pm : nonCounterMetas) {
+			insertVariables.put(pm.getPropertyName(), MappingFixtures.toDataType(pm));
+		}
+		insertVariables.put("[ttl]", DataType.cint());
+		insertPs = buildPreparedStatement("INSERT", MappingFixtures.KEYSPACE,
+				buildColumnDefinitions(MappingFixtures.KEYSPACE, meta.getTableName(), insertVariables));
+
+		// Same bind markers layout as the generated UPDATE : TTL, columns then primary key
+		updatedMetas = nonCounterMetas.subList(0, 3);
+		Map<String, DataType> updateVariables = new LinkedHashMap<String, DataType>();
+		updateVariables.put("[ttl]", DataType.cint());
+		for (PropertyMeta pm : updatedMetas) {
+			updateVariables.put(pm.getPropertyName(), MappingFixtures.toDataType(pm));
+		}
+		updateVariables.put(idMeta.getPropertyName(), MappingFixtures.toDataType(idMeta));
+		updatePs = buildPreparedStatement("UPDATE", MappingFixtures.KEYSPACE,
+				buildColumnDefinitions(MappingFixtures.KEYSPACE, meta.getTableName(), updateVariables));
+
+		Map<String, DataType> selectVariables = new LinkedHashMap<String, DataType>();
+		selectVariables.put(idMeta.getPropertyName(), MappingFixtures.toDataType(idMeta));
+		selectPs = buildPreparedStatement("SELECT", MappingFixtures.KEYSPACE,
+				buildColumnDefinitions(MappingFixtures.KEYSPACE, meta.getTableName(), selectVariables));
+	}
+
+	@Benchmark
+	public BoundStatementWrapper bindForInsert() {
+		return binder.bindForInsert(insertPs, meta, user, ConsistencyLevel.ONE, NO_TTL);
+	}
+
+	@Benchmark
+	public BoundStatementWrapper bindForUpdate() {
+		return binder.bindForUpdate(updatePs, meta, updatedMetas, user, ConsistencyLevel.ONE, NO_TTL);
+	}
+
+	@Benchmark
+	public BoundStatementWrapper bindForSelectByPrimaryKey() {
+		return binder.bindStatementWithOnlyPKInWhereClause(selectPs, meta, user.getId(), ConsistencyLevel.ONE);
+	}
+}
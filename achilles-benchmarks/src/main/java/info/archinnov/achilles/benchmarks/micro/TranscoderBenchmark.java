@@ -0,0 +1,99 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks.micro;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import info.archinnov.achilles.benchmarks.entity.UserEntity;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TranscoderBenchmark {
+
+	private PropertyMeta addressMeta;
+
+	private PropertyMeta preferencesMeta;
+
+	private PropertyMeta friendsMeta;
+
+	private UserEntity user;
+
+	private String encodedAddress;
+
+	private Map<Object, Object> encodedPreferences;
+
+	@Setup
+	public void setUp() {
+		EntityMeta meta = MappingFixtures.buildEntityMetas(MappingFixtures.buildConfigContext(), UserEntity.class)
+				.get(UserEntity.class);
+		addressMeta = meta.getPropertyMetas().get("address");
+		preferencesMeta = meta.getPropertyMetas().get("preferences");
+		friendsMeta = meta.getPropertyMetas().get("friends");
+		user = MappingFixtures.buildUser(10L);
+		encodedAddress = (String) addressMeta.encode(user.getAddress());
+		encodedPreferences = preferencesMeta.encode(user.getPreferences());
+	}
+
+	@Benchmark
+	public Object encodeJSON() {
+		return addressMeta.encode(user.getAddress());
+	}
+
+	@Benchmark
+	public Object decodeJSON() {
+		return addressMeta.decode(encodedAddress);
+	}
+
+	@Benchmark
+	public Map<Object, Object> encodeMap() {
+		return preferencesMeta.encode(user.getPreferences());
+	}
+
+	@Benchmark
+	public Map<Object, Object> decodeMap() {
+		return preferencesMeta.decode(encodedPreferences);
+	}
+
+	@Benchmark
+	public Object encodeList() {
+		return friendsMeta.encode(user.getFriends());
+	}
+
+	@Benchmark
+	public List<Object> decodeList() {
+		return friendsMeta.decode(user.getFriends());
+	}
+}
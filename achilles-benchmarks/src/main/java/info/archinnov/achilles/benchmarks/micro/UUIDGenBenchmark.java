@@ -0,0 +1,60 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.benchmarks.micro;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import info.archinnov.achilles.utils.UUIDGen;
+
+import java.util.UUID;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of time UUID and write timestamp generation. All threads share
+ * the same generator, run with increasing <em>-t</em> values (1, 4, max) to
+ * check how it scales under contention
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UUIDGenBenchmark {
+
+	@Benchmark
+	public UUID timeUUID() {
+		return UUIDGen.getTimeUUID();
+	}
+
+	@Benchmark
+	public long increasingMicroTimestamp() {
+		return UUIDGen.increasingMicroTimestamp();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public UUID timeUUIDAllCores() {
+		return UUIDGen.getTimeUUID();
+	}
+}
@@ -25,28 +25,71 @@ import static info.archinnov.achilles.configuration.ConfigurationParameters.CONS
 import static info.archinnov.achilles.configuration.ConfigurationParameters.CONSISTENCY_LEVEL_READ_MAP_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.CONSISTENCY_LEVEL_WRITE_DEFAULT_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.CONSISTENCY_LEVEL_WRITE_MAP_PARAM;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_HEDGED_READS_MIN_DELAY_IN_MS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_INSERT_STRATEGY;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_LEVEL;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_SCAN_CONCURRENCY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_SCAN_PAGE_SIZE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_SLICE_PREFETCH_THRESHOLD;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_THROTTLING_SCOPE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_WRITE_BEHIND_BATCH_SIZE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_WRITE_BEHIND_OVERFLOW_POLICY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_WRITE_BEHIND_QUEUE_CAPACITY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_WRITE_BEHIND_WORKERS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_WRITE_RETRY_BACKOFF_IN_MS;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.DISABLE_JMX;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.DISABLE_METRICS;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.ENTITY_PACKAGES_PARAM;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.EVENT_INTERCEPTORS_ASYNC_EXECUTOR_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.EVENT_INTERCEPTORS_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.FORCE_TABLE_CREATION_PARAM;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.HEDGED_READS_MIN_DELAY_IN_MS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.HEDGED_READS_PERCENTILE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.INSERT_STRATEGY_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.KEYSPACE_NAME_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.LOAD_BALANCING_POLICY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.METRICS_ENABLED;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.METRICS_JMX_ENABLED;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.METRICS_REGISTRY;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.NATIVE_SESSION_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.OBJECT_MAPPER_FACTORY_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.OBJECT_MAPPER_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.PASSWORD;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.RECONNECTION_POLICY;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.RETRY_POLICY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SCAN_CONCURRENCY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SCAN_PAGE_SIZE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SLICE_PREFETCH_THRESHOLD;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SLOW_STATEMENT_LISTENERS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SLOW_STATEMENT_SAMPLING_RATE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SLOW_STATEMENT_THRESHOLD_IN_MS;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.SSL_ENABLED;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.SSL_OPTIONS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.THROTTLING_MAX_IN_FLIGHT;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.THROTTLING_PERMITS_PER_SECOND;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.THROTTLING_SCOPE;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.USERNAME;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_BEHIND_BATCH_SIZE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_BEHIND_OVERFLOW_POLICY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_BEHIND_QUEUE_CAPACITY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_BEHIND_WORKERS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_RETRY_BACKOFF_IN_MS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_RETRY_MAX_RETRIES;
 import info.archinnov.achilles.context.ConfigurationContext;
 import info.archinnov.achilles.interceptor.EventInterceptor;
 import info.archinnov.achilles.json.DefaultObjectMapperFactory;
 import info.archinnov.achilles.json.ObjectMapperFactory;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.statement.hedging.HedgedReadExecutor;
+import info.archinnov.achilles.statement.retry.WriteRetryPolicy;
+import info.archinnov.achilles.statement.slowlog.SlowStatementListener;
+import info.archinnov.achilles.statement.slowlog.SlowStatementLogger;
+import info.archinnov.achilles.statement.slowlog.SlowStatementTracker;
+import info.archinnov.achilles.statement.throttling.StatementThrottler;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.InsertStrategy;
+import info.archinnov.achilles.type.OverflowPolicy;
+import info.archinnov.achilles.type.ThrottlingScope;
 import info.archinnov.achilles.validation.Validator;
 
 import java.util.ArrayList;
@@ -55,12 +98,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.lang.StringUtils;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ProtocolOptions;
 import com.datastax.driver.core.SSLOptions;
@@ -94,6 +139,21 @@ public class ArgumentExtractor {
 		configContext.setObjectMapperFactory(initObjectMapperFactory(configurationMap));
 		configContext.setDefaultReadConsistencyLevel(initDefaultReadConsistencyLevel(configurationMap));
 		configContext.setDefaultWriteConsistencyLevel(initDefaultWriteConsistencyLevel(configurationMap));
+		configContext.setInsertStrategy(initInsertStrategy(configurationMap));
+		configContext.setMetrics(initMetrics(configurationMap));
+		configContext.setMetricsJmxReporting(initMetricsJmxReporting(configurationMap));
+		configContext.setSlowStatementTracker(initSlowStatementTracker(configurationMap));
+		configContext.setStatementThrottler(initStatementThrottler(configurationMap, configContext.getMetrics()));
+		configContext.setHedgedReadExecutor(initHedgedReadExecutor(configurationMap, configContext.getMetrics()));
+		configContext.setWriteRetryPolicy(initWriteRetryPolicy(configurationMap));
+		configContext.setSlicePrefetchThreshold(initSlicePrefetchThreshold(configurationMap));
+		configContext.setScanConcurrency(initScanConcurrency(configurationMap));
+		configContext.setScanPageSize(initScanPageSize(configurationMap));
+		configContext.setWriteBehindQueueCapacity(initWriteBehindQueueCapacity(configurationMap));
+		configContext.setWriteBehindWorkers(initWriteBehindWorkers(configurationMap));
+		configContext.setWriteBehindBatchSize(initWriteBehindBatchSize(configurationMap));
+		configContext.setWriteBehindOverflowPolicy(initWriteBehindOverflowPolicy(configurationMap));
+		configContext.setEventInterceptorExecutor(initEventInterceptorExecutor(configurationMap));
 		return configContext;
 	}
 
@@ -134,6 +194,217 @@ public class ArgumentExtractor {
 		};
 	}
 
+	AchillesMetrics initMetrics(Map<String, Object> configurationMap) {
+		log.trace("Extract metrics configuration from configuration map");
+
+		MetricRegistry registry = (MetricRegistry) configurationMap.get(METRICS_REGISTRY);
+		Boolean metricsEnabled = (Boolean) configurationMap.get(METRICS_ENABLED);
+		if (registry == null && (metricsEnabled == null || !metricsEnabled)) {
+			return AchillesMetrics.disabled();
+		}
+
+		return new AchillesMetrics(registry != null ? registry : new MetricRegistry());
+	}
+
+	boolean initMetricsJmxReporting(Map<String, Object> configurationMap) {
+		log.trace("Extract metrics JMX reporting from configuration map");
+
+		Boolean jmxEnabled = (Boolean) configurationMap.get(METRICS_JMX_ENABLED);
+		return jmxEnabled != null && jmxEnabled;
+	}
+
+	SlowStatementTracker initSlowStatementTracker(Map<String, Object> configurationMap) {
+		log.trace("Extract slow statement log configuration from configuration map");
+
+		Long thresholdInMillis = (Long) configurationMap.get(SLOW_STATEMENT_THRESHOLD_IN_MS);
+		if (thresholdInMillis == null) {
+			return SlowStatementTracker.disabled();
+		}
+		Validator.validateTrue(thresholdInMillis >= 0, "%s property should be positive",
+				SLOW_STATEMENT_THRESHOLD_IN_MS);
+
+		Double samplingRate = (Double) configurationMap.get(SLOW_STATEMENT_SAMPLING_RATE);
+		if (samplingRate == null) {
+			samplingRate = 1.0;
+		}
+		Validator.validateTrue(samplingRate > 0 && samplingRate <= 1.0, "%s property should be in ]0,1]",
+				SLOW_STATEMENT_SAMPLING_RATE);
+
+		@SuppressWarnings("unchecked")
+		List<SlowStatementListener> listeners = (List<SlowStatementListener>) configurationMap
+				.get(SLOW_STATEMENT_LISTENERS);
+		if (listeners == null || listeners.isEmpty()) {
+			listeners = Arrays.<SlowStatementListener> asList(new SlowStatementLogger());
+		}
+		return new SlowStatementTracker(thresholdInMillis, samplingRate, listeners);
+	}
+
+	StatementThrottler initStatementThrottler(Map<String, Object> configurationMap, AchillesMetrics metrics) {
+		log.trace("Extract statement throttling configuration from configuration map");
+
+		Double permitsPerSecond = (Double) configurationMap.get(THROTTLING_PERMITS_PER_SECOND);
+		Integer maxInFlight = (Integer) configurationMap.get(THROTTLING_MAX_IN_FLIGHT);
+		if (permitsPerSecond == null && maxInFlight == null) {
+			return StatementThrottler.disabled();
+		}
+		if (permitsPerSecond != null) {
+			Validator.validateTrue(permitsPerSecond > 0, "%s property should be strictly positive",
+					THROTTLING_PERMITS_PER_SECOND);
+		}
+		if (maxInFlight != null) {
+			Validator.validateTrue(maxInFlight > 0, "%s property should be strictly positive",
+					THROTTLING_MAX_IN_FLIGHT);
+		}
+		return new StatementThrottler(permitsPerSecond == null ? 0 : permitsPerSecond, maxInFlight == null ? 0
+				: maxInFlight, initThrottlingScope(configurationMap), metrics);
+	}
+
+	ThrottlingScope initThrottlingScope(Map<String, Object> configurationMap) {
+		Object scope = configurationMap.get(THROTTLING_SCOPE);
+		if (scope == null) {
+			return DEFAULT_THROTTLING_SCOPE;
+		} else if (scope instanceof ThrottlingScope) {
+			return (ThrottlingScope) scope;
+		}
+		try {
+			return ThrottlingScope.valueOf((String) scope);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("'" + scope + "' is not a valid throttling scope");
+		}
+	}
+
+	HedgedReadExecutor initHedgedReadExecutor(Map<String, Object> configurationMap, AchillesMetrics metrics) {
+		log.trace("Extract hedged reads configuration from configuration map");
+
+		Double percentile = (Double) configurationMap.get(HEDGED_READS_PERCENTILE);
+		if (percentile == null) {
+			return HedgedReadExecutor.disabled();
+		}
+		Validator.validateTrue(percentile > 0 && percentile < 1, "%s property should be in ]0,1[",
+				HEDGED_READS_PERCENTILE);
+		Long minDelayInMillis = (Long) configurationMap.get(HEDGED_READS_MIN_DELAY_IN_MS);
+		if (minDelayInMillis == null) {
+			minDelayInMillis = DEFAULT_HEDGED_READS_MIN_DELAY_IN_MS;
+		}
+		Validator.validateTrue(minDelayInMillis >= 0, "%s property should be positive", HEDGED_READS_MIN_DELAY_IN_MS);
+		return new HedgedReadExecutor(percentile, minDelayInMillis, metrics);
+	}
+
+	WriteRetryPolicy initWriteRetryPolicy(Map<String, Object> configurationMap) {
+		log.trace("Extract write retry configuration from configuration map");
+
+		Integer maxRetries = (Integer) configurationMap.get(WRITE_RETRY_MAX_RETRIES);
+		if (maxRetries == null || maxRetries == 0) {
+			return WriteRetryPolicy.disabled();
+		}
+		Validator.validateTrue(maxRetries > 0, "%s property should be positive", WRITE_RETRY_MAX_RETRIES);
+		Long backoffInMillis = (Long) configurationMap.get(WRITE_RETRY_BACKOFF_IN_MS);
+		if (backoffInMillis == null) {
+			backoffInMillis = DEFAULT_WRITE_RETRY_BACKOFF_IN_MS;
+		}
+		Validator.validateTrue(backoffInMillis >= 0, "%s property should be positive", WRITE_RETRY_BACKOFF_IN_MS);
+		return new WriteRetryPolicy(maxRetries, backoffInMillis);
+	}
+
+	double initSlicePrefetchThreshold(Map<String, Object> configurationMap) {
+		log.trace("Extract slice prefetch threshold from configuration map");
+
+		Double threshold = (Double) configurationMap.get(SLICE_PREFETCH_THRESHOLD);
+		if (threshold == null) {
+			return DEFAULT_SLICE_PREFETCH_THRESHOLD;
+		}
+		Validator.validateTrue(threshold >= 0 && threshold <= 1.0, "%s property should be in [0,1]",
+				SLICE_PREFETCH_THRESHOLD);
+		return threshold;
+	}
+
+	int initScanConcurrency(Map<String, Object> configurationMap) {
+		log.trace("Extract full table scan concurrency from configuration map");
+
+		Integer concurrency = (Integer) configurationMap.get(SCAN_CONCURRENCY);
+		if (concurrency == null) {
+			return DEFAULT_SCAN_CONCURRENCY;
+		}
+		Validator.validateTrue(concurrency > 0, "%s property should be strictly positive", SCAN_CONCURRENCY);
+		return concurrency;
+	}
+
+	int initScanPageSize(Map<String, Object> configurationMap) {
+		log.trace("Extract full table scan page size from configuration map");
+
+		Integer pageSize = (Integer) configurationMap.get(SCAN_PAGE_SIZE);
+		if (pageSize == null) {
+			return DEFAULT_SCAN_PAGE_SIZE;
+		}
+		Validator.validateTrue(pageSize > 0, "%s property should be strictly positive", SCAN_PAGE_SIZE);
+		return pageSize;
+	}
+
+	int initWriteBehindQueueCapacity(Map<String, Object> configurationMap) {
+		log.trace("Extract write-behind queue capacity from configuration map");
+
+		Integer capacity = (Integer) configurationMap.get(WRITE_BEHIND_QUEUE_CAPACITY);
+		if (capacity == null) {
+			return DEFAULT_WRITE_BEHIND_QUEUE_CAPACITY;
+		}
+		Validator.validateTrue(capacity > 0, "%s property should be strictly positive", WRITE_BEHIND_QUEUE_CAPACITY);
+		return capacity;
+	}
+
+	int initWriteBehindWorkers(Map<String, Object> configurationMap) {
+		log.trace("Extract write-behind workers count from configuration map");
+
+		Integer workers = (Integer) configurationMap.get(WRITE_BEHIND_WORKERS);
+		if (workers == null) {
+			return DEFAULT_WRITE_BEHIND_WORKERS;
+		}
+		Validator.validateTrue(workers > 0, "%s property should be strictly positive", WRITE_BEHIND_WORKERS);
+		return workers;
+	}
+
+	int initWriteBehindBatchSize(Map<String, Object> configurationMap) {
+		log.trace("Extract write-behind batch size from configuration map");
+
+		Integer batchSize = (Integer) configurationMap.get(WRITE_BEHIND_BATCH_SIZE);
+		if (batchSize == null) {
+			return DEFAULT_WRITE_BEHIND_BATCH_SIZE;
+		}
+		Validator.validateTrue(batchSize > 0, "%s property should be strictly positive", WRITE_BEHIND_BATCH_SIZE);
+		return batchSize;
+	}
+
+	OverflowPolicy initWriteBehindOverflowPolicy(Map<String, Object> configurationMap) {
+		log.trace("Extract write-behind overflow policy from configuration map");
+
+		Object policy = configurationMap.get(WRITE_BEHIND_OVERFLOW_POLICY);
+		if (policy == null) {
+			return DEFAULT_WRITE_BEHIND_OVERFLOW_POLICY;
+		} else if (policy instanceof OverflowPolicy) {
+			return (OverflowPolicy) policy;
+		}
+		try {
+			return OverflowPolicy.valueOf((String) policy);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("'" + policy + "' is not a valid write-behind overflow policy");
+		}
+	}
+
+	InsertStrategy initInsertStrategy(Map<String, Object> configurationMap) {
+		log.trace("Extract default insert strategy from configuration map");
+
+		Object strategy = configurationMap.get(INSERT_STRATEGY_PARAM);
+		if (strategy == null) {
+			return DEFAULT_INSERT_STRATEGY;
+		} else if (strategy instanceof InsertStrategy) {
+			return (InsertStrategy) strategy;
+		}
+		try {
+			return InsertStrategy.valueOf((String) strategy);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("'" + strategy + "' is not a valid insert strategy");
+		}
+	}
+
 	ConsistencyLevel initDefaultReadConsistencyLevel(Map<String, Object> configMap) {
 		log.trace("Extract default read Consistency level from configuration map");
 
@@ -294,6 +565,12 @@ public class ArgumentExtractor {
 		return level;
 	}
 
+	Executor initEventInterceptorExecutor(Map<String, Object> configurationMap) {
+		log.trace("Extract asynchronous event interceptors executor from configuration map");
+
+		return (Executor) configurationMap.get(EVENT_INTERCEPTORS_ASYNC_EXECUTOR_PARAM);
+	}
+
 	public List<EventInterceptor<?>> initEventInterceptor(Map<String, Object> configurationMap) {
 
 		@SuppressWarnings("unchecked")
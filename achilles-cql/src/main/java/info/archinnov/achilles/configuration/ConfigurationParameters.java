@@ -18,6 +18,9 @@
 package info.archinnov.achilles.configuration;
 
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.InsertStrategy;
+import info.archinnov.achilles.type.OverflowPolicy;
+import info.archinnov.achilles.type.ThrottlingScope;
 
 public interface ConfigurationParameters {
 	String ENTITY_PACKAGES_PARAM = "achilles.entity.packages";
@@ -30,6 +33,8 @@ public interface ConfigurationParameters {
 	String CONSISTENCY_LEVEL_READ_MAP_PARAM = "achilles.consistency.read.map";
 	String CONSISTENCY_LEVEL_WRITE_MAP_PARAM = "achilles.consistency.write.map";
 	String EVENT_INTERCEPTORS_PARAM = "achilles.event.interceptors";
+	String EVENT_INTERCEPTORS_ASYNC_EXECUTOR_PARAM = "achilles.event.interceptors.async.executor";
+	String INSERT_STRATEGY_PARAM = "achilles.insert.strategy";
 
 	String FORCE_TABLE_CREATION_PARAM = "achilles.ddl.force.table.creation";
 
@@ -49,5 +54,44 @@ public interface ConfigurationParameters {
 	String SSL_ENABLED = "achilles.cassandra.ssl.enabled";
 	String SSL_OPTIONS = "achilles.cassandra.ssl.options";
 
+	String METRICS_ENABLED = "achilles.metrics.enabled";
+	String METRICS_REGISTRY = "achilles.metrics.registry";
+	String METRICS_JMX_ENABLED = "achilles.metrics.jmx.enabled";
+
+	String SLOW_STATEMENT_THRESHOLD_IN_MS = "achilles.slow.statement.threshold.ms";
+	String SLOW_STATEMENT_SAMPLING_RATE = "achilles.slow.statement.sampling.rate";
+	String SLOW_STATEMENT_LISTENERS = "achilles.slow.statement.listeners";
+
+	String SLICE_PREFETCH_THRESHOLD = "achilles.slice.prefetch.threshold";
+
+	String SCAN_CONCURRENCY = "achilles.scan.concurrency";
+	String SCAN_PAGE_SIZE = "achilles.scan.page.size";
+
+	String WRITE_BEHIND_QUEUE_CAPACITY = "achilles.write.behind.queue.capacity";
+	String WRITE_BEHIND_WORKERS = "achilles.write.behind.workers";
+	String WRITE_BEHIND_BATCH_SIZE = "achilles.write.behind.batch.size";
+	String WRITE_BEHIND_OVERFLOW_POLICY = "achilles.write.behind.overflow.policy";
+
+	String THROTTLING_PERMITS_PER_SECOND = "achilles.throttling.permits.per.second";
+	String THROTTLING_MAX_IN_FLIGHT = "achilles.throttling.max.in.flight";
+	String THROTTLING_SCOPE = "achilles.throttling.scope";
+
+	String HEDGED_READS_PERCENTILE = "achilles.hedged.reads.percentile";
+	String HEDGED_READS_MIN_DELAY_IN_MS = "achilles.hedged.reads.min.delay.ms";
+
+	String WRITE_RETRY_MAX_RETRIES = "achilles.write.retry.max.retries";
+	String WRITE_RETRY_BACKOFF_IN_MS = "achilles.write.retry.backoff.ms";
+
 	ConsistencyLevel DEFAULT_LEVEL = ConsistencyLevel.ONE;
+	InsertStrategy DEFAULT_INSERT_STRATEGY = InsertStrategy.ALL_FIELDS;
+	double DEFAULT_SLICE_PREFETCH_THRESHOLD = 0.5;
+	int DEFAULT_SCAN_CONCURRENCY = 4;
+	int DEFAULT_SCAN_PAGE_SIZE = 100;
+	int DEFAULT_WRITE_BEHIND_QUEUE_CAPACITY = 10000;
+	int DEFAULT_WRITE_BEHIND_WORKERS = 2;
+	int DEFAULT_WRITE_BEHIND_BATCH_SIZE = 100;
+	OverflowPolicy DEFAULT_WRITE_BEHIND_OVERFLOW_POLICY = OverflowPolicy.BLOCK;
+	ThrottlingScope DEFAULT_THROTTLING_SCOPE = ThrottlingScope.GLOBAL;
+	long DEFAULT_HEDGED_READS_MIN_DELAY_IN_MS = 5;
+	long DEFAULT_WRITE_RETRY_BACKOFF_IN_MS = 50;
 }
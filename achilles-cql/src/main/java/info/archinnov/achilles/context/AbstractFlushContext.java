@@ -16,6 +16,7 @@
  */
 package info.archinnov.achilles.context;
 
+import info.archinnov.achilles.entity.cache.CacheInvalidation;
 import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
 import info.archinnov.achilles.type.ConsistencyLevel;
 
@@ -29,6 +30,8 @@ public abstract class AbstractFlushContext {
 
 	protected List<AbstractStatementWrapper> statementWrappers = new ArrayList<AbstractStatementWrapper>();
 
+	protected List<CacheInvalidation> cacheInvalidations = new ArrayList<CacheInvalidation>();
+
 	protected ConsistencyLevel consistencyLevel;
 
 	public AbstractFlushContext(DaoContext daoContext, ConsistencyLevel consistencyLevel) {
@@ -37,14 +40,16 @@ public abstract class AbstractFlushContext {
 	}
 
 	protected AbstractFlushContext(DaoContext daoContext, List<AbstractStatementWrapper> statementWrappers,
-			ConsistencyLevel consistencyLevel) {
+			List<CacheInvalidation> cacheInvalidations, ConsistencyLevel consistencyLevel) {
 		this.statementWrappers = statementWrappers;
+		this.cacheInvalidations = cacheInvalidations;
 		this.daoContext = daoContext;
 		this.consistencyLevel = consistencyLevel;
 	}
 
 	public void cleanUp() {
 		statementWrappers.clear();
+		cacheInvalidations.clear();
 		consistencyLevel = null;
 	}
 
@@ -52,6 +57,20 @@ public abstract class AbstractFlushContext {
 		statementWrappers.add(statementWrapper);
 	}
 
+	/**
+	 * Register a cached entity to invalidate once the pending statements are
+	 * actually executed, and not merely flushed
+	 */
+	public void pushCacheInvalidation(CacheInvalidation cacheInvalidation) {
+		cacheInvalidations.add(cacheInvalidation);
+	}
+
+	protected void invalidateCaches() {
+		for (CacheInvalidation cacheInvalidation : cacheInvalidations) {
+			cacheInvalidation.invalidate();
+		}
+	}
+
 	public ResultSet executeImmediate(AbstractStatementWrapper statementWrapper) {
 		return daoContext.execute(statementWrapper);
 	}
@@ -75,7 +94,7 @@ public abstract class AbstractFlushContext {
 	public abstract AbstractFlushContext duplicate();
 
 	public static enum FlushType {
-		BATCH, IMMEDIATE;
+		BATCH, IMMEDIATE, WRITE_BEHIND;
 	}
 
 	@Override
@@ -17,6 +17,7 @@
 package info.archinnov.achilles.context;
 
 import info.archinnov.achilles.consistency.ConsistencyConverter;
+import info.archinnov.achilles.entity.cache.CacheInvalidation;
 import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
 import info.archinnov.achilles.type.ConsistencyLevel;
 
@@ -27,6 +28,7 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.policies.FallthroughRetryPolicy;
 
 public class BatchingFlushContext extends AbstractFlushContext {
 	private static final Logger log = LoggerFactory.getLogger(BatchingFlushContext.class);
@@ -35,8 +37,8 @@ public class BatchingFlushContext extends AbstractFlushContext {
 	}
 
 	private BatchingFlushContext(DaoContext daoContext, List<AbstractStatementWrapper> statementWrappers,
-			ConsistencyLevel consistencyLevel) {
-		super(daoContext, statementWrappers, consistencyLevel);
+			List<CacheInvalidation> cacheInvalidations, ConsistencyLevel consistencyLevel) {
+		super(daoContext, statementWrappers, cacheInvalidations, consistencyLevel);
 	}
 
 	@Override
@@ -59,14 +61,25 @@ public class BatchingFlushContext extends AbstractFlushContext {
 		 */
 
 		BatchStatement batch = new BatchStatement();
+		boolean idempotent = true;
         AbstractStatementWrapper.writeDMLStartBatch();
 		for (AbstractStatementWrapper statementWrapper : statementWrappers) {
             batch.add(statementWrapper.getStatement());
             statementWrapper.logDMLStatement(true, "\t");
+            if (!statementWrapper.isIdempotent()) {
+				idempotent = false;
+                batch.setRetryPolicy(FallthroughRetryPolicy.INSTANCE);
+            }
 		}
         AbstractStatementWrapper.writeDMLEndBatch(consistencyLevel);
         batch.setConsistencyLevel(ConsistencyConverter.getCQLLevel(consistencyLevel));
-		daoContext.executeBatch(batch);
+		try {
+			daoContext.executeBatch(batch, idempotent);
+		} finally {
+			// A failed batch, a timed out logged batch especially, may still
+			// have been applied
+			invalidateCaches();
+		}
 //		for (AbstractStatementWrapper statementWrapper : statementWrappers) {
 //			daoContext.execute(statementWrapper);
 //		}
@@ -85,6 +98,6 @@ public class BatchingFlushContext extends AbstractFlushContext {
 
 	@Override
 	public BatchingFlushContext duplicate() {
-		return new BatchingFlushContext(daoContext, statementWrappers, consistencyLevel);
+		return new BatchingFlushContext(daoContext, statementWrappers, cacheInvalidations, consistencyLevel);
 	}
 }
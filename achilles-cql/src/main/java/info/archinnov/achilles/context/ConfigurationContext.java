@@ -16,8 +16,28 @@
  */
 package info.archinnov.achilles.context;
 
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_INSERT_STRATEGY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_SCAN_CONCURRENCY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_SCAN_PAGE_SIZE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_SLICE_PREFETCH_THRESHOLD;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_WRITE_BEHIND_BATCH_SIZE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_WRITE_BEHIND_OVERFLOW_POLICY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_WRITE_BEHIND_QUEUE_CAPACITY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.DEFAULT_WRITE_BEHIND_WORKERS;
+import info.archinnov.achilles.entity.cache.EntityCache;
+import info.archinnov.achilles.entity.cache.SnapshotInterner;
 import info.archinnov.achilles.json.ObjectMapperFactory;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.query.projection.ProjectionMapper;
+import info.archinnov.achilles.statement.hedging.HedgedReadExecutor;
+import info.archinnov.achilles.statement.retry.WriteRetryPolicy;
+import info.archinnov.achilles.statement.slowlog.SlowStatementTracker;
+import info.archinnov.achilles.statement.throttling.StatementThrottler;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.InsertStrategy;
+import info.archinnov.achilles.type.OverflowPolicy;
+
+import java.util.concurrent.Executor;
 
 public class ConfigurationContext {
 	private boolean forceColumnFamilyCreation;
@@ -25,6 +45,25 @@ public class ConfigurationContext {
 	private ObjectMapperFactory objectMapperFactory;
     private ConsistencyLevel defaultReadConsistencyLevel;
     private ConsistencyLevel defaultWriteConsistencyLevel;
+    private InsertStrategy insertStrategy = DEFAULT_INSERT_STRATEGY;
+    private AchillesMetrics metrics = AchillesMetrics.disabled();
+    private boolean metricsJmxReporting = false;
+    private SlowStatementTracker slowStatementTracker = SlowStatementTracker.disabled();
+    private StatementThrottler statementThrottler = StatementThrottler.disabled();
+    private HedgedReadExecutor hedgedReadExecutor = HedgedReadExecutor.disabled();
+    private WriteRetryPolicy writeRetryPolicy = WriteRetryPolicy.disabled();
+    private double slicePrefetchThreshold = DEFAULT_SLICE_PREFETCH_THRESHOLD;
+    private int scanConcurrency = DEFAULT_SCAN_CONCURRENCY;
+    private int scanPageSize = DEFAULT_SCAN_PAGE_SIZE;
+    private int writeBehindQueueCapacity = DEFAULT_WRITE_BEHIND_QUEUE_CAPACITY;
+    private int writeBehindWorkers = DEFAULT_WRITE_BEHIND_WORKERS;
+    private int writeBehindBatchSize = DEFAULT_WRITE_BEHIND_BATCH_SIZE;
+    private OverflowPolicy writeBehindOverflowPolicy = DEFAULT_WRITE_BEHIND_OVERFLOW_POLICY;
+    private EntityCache entityCache = new EntityCache();
+    private SnapshotInterner snapshotInterner = new SnapshotInterner();
+    private ProjectionMapper projectionMapper = new ProjectionMapper();
+    private boolean eventInterceptorsRegistered = false;
+    private Executor eventInterceptorExecutor;
 
 	public boolean isForceColumnFamilyCreation() {
 		return forceColumnFamilyCreation;
@@ -57,4 +96,168 @@ public class ConfigurationContext {
     public void setDefaultWriteConsistencyLevel(ConsistencyLevel defaultWriteConsistencyLevel) {
         this.defaultWriteConsistencyLevel = defaultWriteConsistencyLevel;
     }
+
+    public InsertStrategy getInsertStrategy() {
+        return insertStrategy;
+    }
+
+    public void setInsertStrategy(InsertStrategy insertStrategy) {
+        this.insertStrategy = insertStrategy;
+    }
+
+    public AchillesMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(AchillesMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public SlowStatementTracker getSlowStatementTracker() {
+        return slowStatementTracker;
+    }
+
+    public void setSlowStatementTracker(SlowStatementTracker slowStatementTracker) {
+        this.slowStatementTracker = slowStatementTracker;
+    }
+
+    public double getSlicePrefetchThreshold() {
+        return slicePrefetchThreshold;
+    }
+
+    public void setSlicePrefetchThreshold(double slicePrefetchThreshold) {
+        this.slicePrefetchThreshold = slicePrefetchThreshold;
+    }
+
+    public int getScanConcurrency() {
+        return scanConcurrency;
+    }
+
+    public void setScanConcurrency(int scanConcurrency) {
+        this.scanConcurrency = scanConcurrency;
+    }
+
+    public int getScanPageSize() {
+        return scanPageSize;
+    }
+
+    public void setScanPageSize(int scanPageSize) {
+        this.scanPageSize = scanPageSize;
+    }
+
+    public int getWriteBehindQueueCapacity() {
+        return writeBehindQueueCapacity;
+    }
+
+    public void setWriteBehindQueueCapacity(int writeBehindQueueCapacity) {
+        this.writeBehindQueueCapacity = writeBehindQueueCapacity;
+    }
+
+    public int getWriteBehindWorkers() {
+        return writeBehindWorkers;
+    }
+
+    public void setWriteBehindWorkers(int writeBehindWorkers) {
+        this.writeBehindWorkers = writeBehindWorkers;
+    }
+
+    public int getWriteBehindBatchSize() {
+        return writeBehindBatchSize;
+    }
+
+    public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+        this.writeBehindBatchSize = writeBehindBatchSize;
+    }
+
+    public OverflowPolicy getWriteBehindOverflowPolicy() {
+        return writeBehindOverflowPolicy;
+    }
+
+    public void setWriteBehindOverflowPolicy(OverflowPolicy writeBehindOverflowPolicy) {
+        this.writeBehindOverflowPolicy = writeBehindOverflowPolicy;
+    }
+
+    /**
+     * Whether metrics should be exposed through JMX once the
+     * PersistenceManagerFactory is fully bootstrapped
+     */
+    public boolean isMetricsJmxReporting() {
+        return metricsJmxReporting;
+    }
+
+    public void setMetricsJmxReporting(boolean metricsJmxReporting) {
+        this.metricsJmxReporting = metricsJmxReporting;
+    }
+
+    public StatementThrottler getStatementThrottler() {
+        return statementThrottler;
+    }
+
+    public void setStatementThrottler(StatementThrottler statementThrottler) {
+        this.statementThrottler = statementThrottler;
+    }
+
+    /**
+     * Whether at least one event interceptor is registered, allowing to skip
+     * entity meta lookups on every write when there is none
+     */
+    public boolean hasEventInterceptors() {
+        return eventInterceptorsRegistered;
+    }
+
+    public void setEventInterceptorsRegistered(boolean eventInterceptorsRegistered) {
+        this.eventInterceptorsRegistered = eventInterceptorsRegistered;
+    }
+
+    /**
+     * Executor running POST_PERSIST, POST_UPDATE and POST_REMOVE interceptors,
+     * or null to run them on the calling thread
+     */
+    public Executor getEventInterceptorExecutor() {
+        return eventInterceptorExecutor;
+    }
+
+    public void setEventInterceptorExecutor(Executor eventInterceptorExecutor) {
+        this.eventInterceptorExecutor = eventInterceptorExecutor;
+    }
+
+    public HedgedReadExecutor getHedgedReadExecutor() {
+        return hedgedReadExecutor;
+    }
+
+    public void setHedgedReadExecutor(HedgedReadExecutor hedgedReadExecutor) {
+        this.hedgedReadExecutor = hedgedReadExecutor;
+    }
+
+    public WriteRetryPolicy getWriteRetryPolicy() {
+        return writeRetryPolicy;
+    }
+
+    public void setWriteRetryPolicy(WriteRetryPolicy writeRetryPolicy) {
+        this.writeRetryPolicy = writeRetryPolicy;
+    }
+
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    public void setEntityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    public SnapshotInterner getSnapshotInterner() {
+        return snapshotInterner;
+    }
+
+    public void setSnapshotInterner(SnapshotInterner snapshotInterner) {
+        this.snapshotInterner = snapshotInterner;
+    }
+
+    public ProjectionMapper getProjectionMapper() {
+        return projectionMapper;
+    }
+
+    public void setProjectionMapper(ProjectionMapper projectionMapper) {
+        this.projectionMapper = projectionMapper;
+    }
 }
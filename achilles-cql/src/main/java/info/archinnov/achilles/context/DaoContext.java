@@ -19,18 +19,31 @@ package info.archinnov.achilles.context;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.*;
 import static info.archinnov.achilles.consistency.ConsistencyConverter.getCQLLevel;
 import static info.archinnov.achilles.counter.AchillesCounter.CQLQueryType.*;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.COUNTER;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.FIND;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.MERGE;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.PERSIST;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.TYPED;
 import info.archinnov.achilles.counter.AchillesCounter.CQLQueryType;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.metrics.AchillesMetrics.Operation;
 import info.archinnov.achilles.statement.StatementGenerator;
 import info.archinnov.achilles.statement.cache.CacheManager;
 import info.archinnov.achilles.statement.cache.StatementCacheKey;
 import info.archinnov.achilles.statement.prepared.PreparedStatementBinder;
+import info.archinnov.achilles.statement.hedging.HedgedReadExecutor;
+import info.archinnov.achilles.statement.retry.WriteRetryPolicy;
+import info.archinnov.achilles.statement.slowlog.SlowStatementTracker;
+import info.archinnov.achilles.statement.throttling.StatementThrottler;
+import info.archinnov.achilles.statement.throttling.StatementThrottler.Permit;
 import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
 import info.archinnov.achilles.statement.wrapper.BoundStatementWrapper;
 import info.archinnov.achilles.statement.wrapper.RegularStatementWrapper;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.InsertStrategy;
 import info.archinnov.achilles.type.Pair;
 
 import java.util.List;
@@ -40,17 +53,26 @@ import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Timer;
 import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.RegularStatement;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.exceptions.DriverException;
 import com.datastax.driver.core.querybuilder.Insert;
 import com.datastax.driver.core.querybuilder.Update;
 import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
 import com.google.common.cache.Cache;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 
 public class DaoContext {
 	private static final Logger log = LoggerFactory.getLogger(DaoContext.class);
@@ -62,6 +84,7 @@ public class DaoContext {
 	private Map<CQLQueryType, PreparedStatement> counterQueryMap;
 	private Map<Class<?>, Map<CQLQueryType, PreparedStatement>> clusteredCounterQueryMap;
 	private Session session;
+	private ConfigurationContext configContext;
 
 	private PreparedStatementBinder binder = new PreparedStatementBinder();
 	private CacheManager cacheManager = new CacheManager();
@@ -71,7 +94,8 @@ public class DaoContext {
 			Cache<StatementCacheKey, PreparedStatement> dynamicPSCache,
 			Map<Class<?>, PreparedStatement> selectEagerPSs, Map<Class<?>, Map<String, PreparedStatement>> removePSs,
 			Map<CQLQueryType, PreparedStatement> counterQueryMap,
-			Map<Class<?>, Map<CQLQueryType, PreparedStatement>> clusteredCounterQueryMap, Session session) {
+			Map<Class<?>, Map<CQLQueryType, PreparedStatement>> clusteredCounterQueryMap, Session session,
+			ConfigurationContext configContext) {
 		this.insertPSs = insertPSs;
 		this.dynamicPSCache = dynamicPSCache;
 		this.selectEagerPSs = selectEagerPSs;
@@ -79,6 +103,7 @@ public class DaoContext {
 		this.counterQueryMap = counterQueryMap;
 		this.clusteredCounterQueryMap = clusteredCounterQueryMap;
 		this.session = session;
+		this.configContext = configContext;
 	}
 
 	public void pushInsertStatement(PersistenceContext context) {
@@ -100,10 +125,20 @@ public class DaoContext {
                 insertOptions = insertOptions.and(ttl(ttlO.get()));
                 boundValues = ArrayUtils.add(boundValues, ttlO.get());
             }
-			context.pushStatement(new RegularStatementWrapper(insertOptions, boundValues, getCQLLevel(writeLevel)));
+			getMetrics().markBoundBytes(entityClass, PERSIST, boundValues);
+			context.pushStatement(new RegularStatementWrapper(context.getEntityClass(), insertOptions, boundValues,
+					getCQLLevel(writeLevel)));
+		} else if (entityMeta.getInsertStrategy() == InsertStrategy.NOT_NULL_FIELDS) {
+			List<PropertyMeta> pms = entityMeta.getColumnsMetaToInsert(context.getEntity());
+			PreparedStatement ps = cacheManager.getCacheForFieldsInsert(session, dynamicPSCache, context, pms);
+			BoundStatementWrapper bsWrapper = binder.bindForInsert(ps, entityMeta, pms, context.getEntity(),
+					writeLevel, ttlO);
+			getMetrics().markBoundBytes(entityClass, PERSIST, bsWrapper.getValues());
+			context.pushStatement(bsWrapper);
 		} else {
 			PreparedStatement ps = insertPSs.get(entityClass);
 			BoundStatementWrapper bsWrapper = binder.bindForInsert(ps, entityMeta, context.getEntity(), writeLevel,ttlO);
+			getMetrics().markBoundBytes(entityClass, PERSIST, bsWrapper.getValues());
 			context.pushStatement(bsWrapper);
 		}
 	}
@@ -127,11 +162,14 @@ public class DaoContext {
                 updateOptions = updateOptions.and(ttl(ttlO.get()));
                 boundValues = ArrayUtils.add(boundValues, ttlO.get());
             }
-			context.pushStatement(new RegularStatementWrapper(updateOptions, boundValues, getCQLLevel(writeLevel)));
+			getMetrics().markBoundBytes(context.getEntityClass(), MERGE, boundValues);
+			context.pushStatement(new RegularStatementWrapper(context.getEntityClass(), updateOptions, boundValues,
+					getCQLLevel(writeLevel)));
 		} else {
 			PreparedStatement ps = cacheManager.getCacheForFieldsUpdate(session, dynamicPSCache, context, pms);
 			BoundStatementWrapper bsWrapper = binder
 					.bindForUpdate(ps, entityMeta, pms, context.getEntity(), writeLevel,ttlO);
+			getMetrics().markBoundBytes(context.getEntityClass(), MERGE, bsWrapper.getValues());
 			context.pushStatement(bsWrapper);
 		}
 	}
@@ -178,7 +216,7 @@ public class DaoContext {
 		PreparedStatement ps = counterQueryMap.get(INCR);
 		BoundStatementWrapper bsWrapper = binder.bindForSimpleCounterIncrementDecrement(ps, meta, counterMeta,
 				context.getPrimaryKey(), increment, consistencyLevel);
-		context.executeImmediate(bsWrapper);
+		executeCounterStatement(context, bsWrapper);
 	}
 
 	public void decrementSimpleCounter(PersistenceContext context, EntityMeta meta, PropertyMeta counterMeta,
@@ -187,7 +225,7 @@ public class DaoContext {
 		PreparedStatement ps = counterQueryMap.get(DECR);
 		BoundStatementWrapper bsWrapper = binder.bindForSimpleCounterIncrementDecrement(ps, meta, counterMeta,
 				context.getPrimaryKey(), decrement, consistencyLevel);
-		context.executeImmediate(bsWrapper);
+		executeCounterStatement(context, bsWrapper);
 	}
 
 	public Row getSimpleCounter(PersistenceContext context, PropertyMeta counterMeta, ConsistencyLevel consistencyLevel) {
@@ -196,7 +234,7 @@ public class DaoContext {
 		PreparedStatement ps = counterQueryMap.get(SELECT);
 		BoundStatementWrapper bsWrapper = binder.bindForSimpleCounterSelect(ps, context.getEntityMeta(), counterMeta,
 				context.getPrimaryKey(), consistencyLevel);
-		ResultSet resultSet = context.executeImmediate(bsWrapper);
+		ResultSet resultSet = executeCounterStatement(context, bsWrapper);
 		return returnFirstRowOrNull(resultSet.all());
 	}
 
@@ -231,7 +269,7 @@ public class DaoContext {
 		PreparedStatement ps = clusteredCounterQueryMap.get(meta.getEntityClass()).get(INCR);
 		BoundStatementWrapper bsWrapper = binder.bindForClusteredCounterIncrementDecrement(ps, meta,
 				context.getPrimaryKey(), increment, consistencyLevel);
-		context.executeImmediate(bsWrapper);
+		executeCounterStatement(context, bsWrapper);
 	}
 
 	public void decrementClusteredCounter(PersistenceContext context, EntityMeta meta, Long decrement,
@@ -241,7 +279,7 @@ public class DaoContext {
 		PreparedStatement ps = clusteredCounterQueryMap.get(meta.getEntityClass()).get(DECR);
 		BoundStatementWrapper bsWrapper = binder.bindForClusteredCounterIncrementDecrement(ps, meta,
 				context.getPrimaryKey(), decrement, consistencyLevel);
-		context.executeImmediate(bsWrapper);
+		executeCounterStatement(context, bsWrapper);
 	}
 
 	public Row getClusteredCounter(PersistenceContext context, ConsistencyLevel consistencyLevel) {
@@ -251,7 +289,7 @@ public class DaoContext {
 		PreparedStatement ps = clusteredCounterQueryMap.get(entityMeta.getEntityClass()).get(SELECT);
 		BoundStatementWrapper bsWrapper = binder.bindForClusteredCounterSelect(ps, entityMeta, context.getPrimaryKey(),
 				consistencyLevel);
-		ResultSet resultSet = context.executeImmediate(bsWrapper);
+		ResultSet resultSet = executeCounterStatement(context, bsWrapper);
 
 		return returnFirstRowOrNull(resultSet.all());
 	}
@@ -281,7 +319,16 @@ public class DaoContext {
 		EntityMeta entityMeta = context.getEntityMeta();
 		BoundStatementWrapper bsWrapper = binder.bindStatementWithOnlyPKInWhereClause(ps, entityMeta,
 				context.getPrimaryKey(), readLevel);
-		return context.executeImmediate(bsWrapper).all();
+		return executeRead(bsWrapper, FIND).all();
+	}
+
+	private ResultSet executeCounterStatement(PersistenceContext context, BoundStatementWrapper bsWrapper) {
+		Timer.Context timer = getMetrics().start(context.getEntityClass(), COUNTER);
+		try {
+			return context.executeImmediate(bsWrapper);
+		} finally {
+			getMetrics().stop(timer);
+		}
 	}
 
 	private Row returnFirstRowOrNull(List<Row> rows) {
@@ -292,8 +339,165 @@ public class DaoContext {
 		}
 	}
 
-	public ResultSet execute(AbstractStatementWrapper statementWrapper) {
-		return statementWrapper.execute(session);
+	/**
+	 * Execute a statement, retried according to the write retry policy if it
+	 * is idempotent
+	 */
+	public ResultSet execute(final AbstractStatementWrapper statementWrapper) {
+		return executeWithRetry(statementWrapper.isIdempotent(), statementWrapper.getQueryString(),
+				new Supplier<ResultSet>() {
+					@Override
+					public ResultSet get() {
+						return throttledExecute(statementWrapper);
+					}
+				});
+	}
+
+	private <T> T executeWithRetry(boolean idempotent, String description, Supplier<T> execution) {
+		WriteRetryPolicy retryPolicy = configContext.getWriteRetryPolicy();
+		if (!retryPolicy.isEnabled() || !idempotent) {
+			return execution.get();
+		}
+		int retries = 0;
+		while (true) {
+			try {
+				return execution.get();
+			} catch (DriverException e) {
+				if (!retryPolicy.shouldRetry(idempotent, e, retries)) {
+					throw e;
+				}
+				retryPolicy.backoff(description, e, retries++);
+			}
+		}
+	}
+
+	private ListenableFuture<ResultSet> executeAsyncWithRetry(final boolean idempotent, final String description,
+			final Supplier<ResultSetFuture> attempt) {
+		final WriteRetryPolicy retryPolicy = configContext.getWriteRetryPolicy();
+		if (!retryPolicy.isEnabled() || !idempotent) {
+			return attempt.get();
+		}
+		final SettableFuture<ResultSet> result = SettableFuture.create();
+		new Runnable() {
+			private int retries = 0;
+
+			@Override
+			public void run() {
+				final Runnable retry = this;
+				ResultSetFuture future;
+				try {
+					future = attempt.get();
+				} catch (RuntimeException e) {
+					result.setException(e);
+					return;
+				}
+				Futures.addCallback(future, new FutureCallback<ResultSet>() {
+					@Override
+					public void onSuccess(ResultSet resultSet) {
+						result.set(resultSet);
+					}
+
+					@Override
+					public void onFailure(Throwable throwable) {
+						if (throwable instanceof DriverException
+								&& retryPolicy.shouldRetry(idempotent, (DriverException) throwable, retries)) {
+							retryPolicy.scheduleRetry(description, (DriverException) throwable, retries++, retry);
+						} else {
+							result.setException(throwable);
+						}
+					}
+				});
+			}
+		}.run();
+		return result;
+	}
+
+	private ResultSet throttledExecute(AbstractStatementWrapper statementWrapper) {
+		StatementThrottler throttler = configContext.getStatementThrottler();
+		Permit permit = throttler.acquire(statementWrapper.getEntityClass(), statementWrapper.getConsistencyLevel());
+		try {
+			return trackedExecute(statementWrapper);
+		} finally {
+			throttler.release(permit);
+		}
+	}
+
+	/**
+	 * Execute an idempotent read, hedged when hedged reads are enabled. The
+	 * hedging delay is tracked per entity class and operation
+	 */
+	public ResultSet executeRead(final AbstractStatementWrapper statementWrapper, Operation operation) {
+		HedgedReadExecutor hedgedReadExecutor = configContext.getHedgedReadExecutor();
+		if (!hedgedReadExecutor.isEnabled()) {
+			return execute(statementWrapper);
+		}
+		return hedgedReadExecutor.execute(statementWrapper.getEntityClass(), operation,
+				new Supplier<ResultSetFuture>() {
+					@Override
+					public ResultSetFuture get() {
+						return executeAsync(statementWrapper);
+					}
+				});
+	}
+
+	private ResultSet trackedExecute(AbstractStatementWrapper statementWrapper) {
+		SlowStatementTracker tracker = configContext.getSlowStatementTracker();
+		if (!tracker.isEnabled()) {
+			return statementWrapper.execute(session);
+		}
+		long start = System.nanoTime();
+		ResultSet resultSet = statementWrapper.execute(session);
+		tracker.track(statementWrapper, System.nanoTime() - start, resultSet);
+		return resultSet;
+	}
+
+	/**
+	 * Execute a statement asynchronously, without retry. Used for reads
+	 */
+	public ResultSetFuture executeAsync(final AbstractStatementWrapper statementWrapper) {
+		StatementThrottler throttler = configContext.getStatementThrottler();
+		Permit permit = throttler.acquire(statementWrapper.getEntityClass(), statementWrapper.getConsistencyLevel());
+		ResultSetFuture future;
+		try {
+			future = trackedExecuteAsync(statementWrapper);
+		} catch (RuntimeException e) {
+			throttler.release(permit);
+			throw e;
+		}
+		releaseOnCompletion(throttler, permit, future);
+		return future;
+	}
+
+	private ResultSetFuture trackedExecuteAsync(final AbstractStatementWrapper statementWrapper) {
+		final SlowStatementTracker tracker = configContext.getSlowStatementTracker();
+		if (!tracker.isEnabled()) {
+			return statementWrapper.executeAsync(session);
+		}
+		final long start = System.nanoTime();
+		ResultSetFuture future = statementWrapper.executeAsync(session);
+		Futures.addCallback(future, new FutureCallback<ResultSet>() {
+			@Override
+			public void onSuccess(ResultSet resultSet) {
+				tracker.track(statementWrapper, System.nanoTime() - start, resultSet);
+			}
+
+			@Override
+			public void onFailure(Throwable throwable) {
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Execute a projection query through a prepared statement cached by query
+	 * string, with the read consistency level of the entity
+	 */
+	public ResultSet executeProjection(EntityMeta meta, String queryString, Object... boundValues) {
+		log.trace("Execute projection query {} on entity class {}", queryString, meta.getClassName());
+		PreparedStatement ps = cacheManager.getCacheForProjection(session, dynamicPSCache, meta, queryString);
+		BoundStatementWrapper bsWrapper = new BoundStatementWrapper(meta.getEntityClass(), ps.bind(boundValues),
+				boundValues, getCQLLevel(meta.getReadConsistencyLevel()));
+		return executeRead(bsWrapper, TYPED);
 	}
 
 	public PreparedStatement prepare(RegularStatement statement) {
@@ -302,17 +506,133 @@ public class DaoContext {
 
 	public ResultSet bindAndExecute(PreparedStatement ps, Object... params) {
 		BoundStatement bs = ps.bind(params);
-		return new BoundStatementWrapper(bs, params, ps.getConsistencyLevel()).execute(session);
+		return execute(new BoundStatementWrapper(bs, params, ps.getConsistencyLevel()));
+	}
+
+	/**
+	 * Execute an asynchronous write, retried according to the write retry
+	 * policy if the statement is idempotent
+	 */
+	public ListenableFuture<ResultSet> executeWriteAsync(final AbstractStatementWrapper statementWrapper) {
+		return executeAsyncWithRetry(statementWrapper.isIdempotent(), statementWrapper.getQueryString(),
+				new Supplier<ResultSetFuture>() {
+					@Override
+					public ResultSetFuture get() {
+						return executeAsync(statementWrapper);
+					}
+				});
 	}
 
-	public void executeBatch(BatchStatement batch) {
+	/**
+	 * Execute a batch, retried according to the write retry policy if all its
+	 * statements are idempotent
+	 */
+	public void executeBatch(final BatchStatement batch, boolean idempotent) {
+		executeWithRetry(idempotent, "batch", new Supplier<Void>() {
+			@Override
+			public Void get() {
+				throttledExecuteBatch(batch);
+				return null;
+			}
+		});
+	}
+
+	private void throttledExecuteBatch(BatchStatement batch) {
+		StatementThrottler throttler = configContext.getStatementThrottler();
+		Permit permit = throttler.acquire(null, consistencyLevelOf(batch));
+		try {
+			trackedExecuteBatch(batch);
+		} finally {
+			throttler.release(permit);
+		}
+	}
+
+	private void trackedExecuteBatch(BatchStatement batch) {
+		SlowStatementTracker tracker = configContext.getSlowStatementTracker();
+		if (!tracker.isEnabled()) {
+			session.execute(batch);
+			return;
+		}
+		long start = System.nanoTime();
 		session.execute(batch);
+		tracker.trackBatch(batch, System.nanoTime() - start);
+	}
+
+	/**
+	 * Execute a batch asynchronously, retried according to the write retry
+	 * policy if all its statements are idempotent
+	 */
+	public ListenableFuture<ResultSet> executeBatchAsync(final BatchStatement batch, boolean idempotent) {
+		return executeAsyncWithRetry(idempotent, "batch", new Supplier<ResultSetFuture>() {
+			@Override
+			public ResultSetFuture get() {
+				return throttledExecuteBatchAsync(batch);
+			}
+		});
+	}
+
+	private ResultSetFuture throttledExecuteBatchAsync(final BatchStatement batch) {
+		StatementThrottler throttler = configContext.getStatementThrottler();
+		Permit permit = throttler.acquire(null, consistencyLevelOf(batch));
+		ResultSetFuture future;
+		try {
+			future = trackedExecuteBatchAsync(batch);
+		} catch (RuntimeException e) {
+			throttler.release(permit);
+			throw e;
+		}
+		releaseOnCompletion(throttler, permit, future);
+		return future;
+	}
+
+	private ResultSetFuture trackedExecuteBatchAsync(final BatchStatement batch) {
+		final SlowStatementTracker tracker = configContext.getSlowStatementTracker();
+		if (!tracker.isEnabled()) {
+			return session.executeAsync(batch);
+		}
+		final long start = System.nanoTime();
+		ResultSetFuture future = session.executeAsync(batch);
+		Futures.addCallback(future, new FutureCallback<ResultSet>() {
+			@Override
+			public void onSuccess(ResultSet resultSet) {
+				tracker.trackBatch(batch, System.nanoTime() - start);
+			}
+
+			@Override
+			public void onFailure(Throwable throwable) {
+			}
+		});
+		return future;
+	}
+
+	private void releaseOnCompletion(final StatementThrottler throttler, final Permit permit,
+			ResultSetFuture future) {
+		if (permit != null) {
+			future.addListener(new Runnable() {
+				@Override
+				public void run() {
+					throttler.release(permit);
+				}
+			}, MoreExecutors.sameThreadExecutor());
+		}
+	}
+
+	private String consistencyLevelOf(BatchStatement batch) {
+		return batch.getConsistencyLevel() == null ? "DEFAULT" : batch.getConsistencyLevel().name();
 	}
 
 	public Session getSession() {
 		return session;
 	}
 
+	public AchillesMetrics getMetrics() {
+		return configContext.getMetrics();
+	}
+
+	public ConfigurationContext getConfigContext() {
+		return configContext;
+	}
+
 	private ConsistencyLevel getReadConsistencyLevel(PersistenceContext context, EntityMeta entityMeta) {
 		ConsistencyLevel readLevel = context.getConsistencyLevel().isPresent() ? context.getConsistencyLevel().get()
 				: entityMeta.getReadConsistencyLevel();
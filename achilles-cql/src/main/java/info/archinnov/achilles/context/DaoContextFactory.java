@@ -41,7 +41,8 @@ public class DaoContextFactory {
     private static final Integer PREPARED_STATEMENT_LRU_CACHE_SIZE = 5000;
 	private PreparedStatementGenerator queryGenerator = new PreparedStatementGenerator();
 
-	public DaoContext build(Session session, Map<Class<?>, EntityMeta> entityMetaMap, boolean hasSimpleCounter) {
+	public DaoContext build(Session session, Map<Class<?>, EntityMeta> entityMetaMap,
+			ConfigurationContext configContext, boolean hasSimpleCounter) {
         log.debug("Build DaoContext");
 
 		Map<Class<?>, PreparedStatement> insertPSMap = new HashMap<Class<?>, PreparedStatement>(Maps.transformValues(
@@ -68,7 +69,7 @@ public class DaoContextFactory {
 						getClusteredCounterTransformer(session)));
 
 		return new DaoContext(insertPSMap, dynamicPSCache, selectEagerPSMap, removePSMap, counterQueryMap,
-				clusteredCounterQueriesMap, session);
+				clusteredCounterQueriesMap, session, configContext);
 	}
 
 	Function<EntityMeta, PreparedStatement> getInsertPSTransformer(final Session session) {
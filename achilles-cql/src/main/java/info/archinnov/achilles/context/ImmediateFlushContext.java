@@ -16,6 +16,7 @@
  */
 package info.archinnov.achilles.context;
 
+import info.archinnov.achilles.entity.cache.CacheInvalidation;
 import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
 import info.archinnov.achilles.type.ConsistencyLevel;
 
@@ -32,8 +33,8 @@ public class ImmediateFlushContext extends AbstractFlushContext {
 	}
 
 	private ImmediateFlushContext(DaoContext daoContext, List<AbstractStatementWrapper> statementWrappers,
-			ConsistencyLevel consistencyLevel) {
-		super(daoContext, statementWrappers, consistencyLevel);
+			List<CacheInvalidation> cacheInvalidations, ConsistencyLevel consistencyLevel) {
+		super(daoContext, statementWrappers, cacheInvalidations, consistencyLevel);
 	}
 
 	@Override
@@ -51,8 +52,13 @@ public class ImmediateFlushContext extends AbstractFlushContext {
 	@Override
 	public void flush() {
 		log.debug("Flush immediately all pending statements");
-		for (AbstractStatementWrapper statementWrapper : statementWrappers) {
-			daoContext.execute(statementWrapper);
+		try {
+			for (AbstractStatementWrapper statementWrapper : statementWrappers) {
+				daoContext.execute(statementWrapper);
+			}
+		} finally {
+			// A failed write, a timeout especially, may still have been applied
+			invalidateCaches();
 		}
 		cleanUp();
 	}
@@ -65,6 +71,6 @@ public class ImmediateFlushContext extends AbstractFlushContext {
 	@Override
 	public ImmediateFlushContext duplicate() {
 		log.trace("Duplicate immediate flushing context");
-		return new ImmediateFlushContext(daoContext, statementWrappers, consistencyLevel);
+		return new ImmediateFlushContext(daoContext, statementWrappers, cacheInvalidations, consistencyLevel);
 	}
 }
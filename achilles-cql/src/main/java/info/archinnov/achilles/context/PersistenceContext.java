@@ -17,6 +17,8 @@
 package info.archinnov.achilles.context;
 
 import static info.archinnov.achilles.counter.AchillesCounter.CQL_COUNTER_VALUE;
+import info.archinnov.achilles.entity.cache.CacheInvalidation;
+import info.archinnov.achilles.entity.cache.EntityCache;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.entity.operations.EntityInitializer;
@@ -199,17 +201,20 @@ public class PersistenceContext {
 
 	public void persist() {
 		persister.persist(this);
+		invalidateCachedEntityAfterWrite();
 		flush();
 	}
 
 	public <T> T merge(T entity) {
 		T merged = merger.merge(this, entity);
+		invalidateCachedEntityAfterWrite();
 		flush();
 		return merged;
 	}
 
 	public void remove() {
 		persister.remove(this);
+		invalidateCachedEntityAfterWrite();
 		flush();
 	}
 
@@ -222,12 +227,17 @@ public class PersistenceContext {
 		return entity;
 	}
 
+	public <T> T findSnapshot(Class<T> entityClass) {
+		return loader.loadSnapshot(this, entityClass);
+	}
+
 	public <T> T getReference(Class<T> entityClass) {
 		setLoadEagerFields(false);
 		return find(entityClass);
 	}
 
 	public void refresh() throws AchillesStaleObjectStateException {
+		invalidateCachedEntity();
 		refresher.refresh(this);
 	}
 
@@ -251,6 +261,17 @@ public class PersistenceContext {
 		return entities;
 	}
 
+	private void invalidateCachedEntity() {
+		configContext.getEntityCache().invalidate(entityMeta, primaryKey);
+	}
+
+	private void invalidateCachedEntityAfterWrite() {
+		EntityCache entityCache = configContext.getEntityCache();
+		if (entityCache.isCached(entityMeta)) {
+			flushContext.pushCacheInvalidation(new CacheInvalidation(entityCache, entityMeta, primaryKey));
+		}
+	}
+
 	public PropertyMeta getIdMeta() {
 		return entityMeta.getIdMeta();
 	}
@@ -0,0 +1,89 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.context;
+
+import info.archinnov.achilles.entity.cache.CacheInvalidation;
+import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
+import info.archinnov.achilles.type.ConsistencyLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Flush context handing the pending statements over to the write-behind
+ * queue instead of executing them. Reads are still executed immediately
+ */
+public class WriteBehindFlushContext extends AbstractFlushContext {
+	private static final Logger log = LoggerFactory.getLogger(WriteBehindFlushContext.class);
+
+	private WriteBehindQueue writeBehindQueue;
+	private Object partitionKey;
+
+	public WriteBehindFlushContext(DaoContext daoContext, ConsistencyLevel consistencyLevel,
+			WriteBehindQueue writeBehindQueue, Object partitionKey) {
+		super(daoContext, consistencyLevel);
+		this.writeBehindQueue = writeBehindQueue;
+		this.partitionKey = partitionKey;
+	}
+
+	private WriteBehindFlushContext(DaoContext daoContext, List<AbstractStatementWrapper> statementWrappers,
+			List<CacheInvalidation> cacheInvalidations, ConsistencyLevel consistencyLevel,
+			WriteBehindQueue writeBehindQueue, Object partitionKey) {
+		super(daoContext, statementWrappers, cacheInvalidations, consistencyLevel);
+		this.writeBehindQueue = writeBehindQueue;
+		this.partitionKey = partitionKey;
+	}
+
+	@Override
+	public void startBatch(ConsistencyLevel defaultConsistencyLevel) {
+		throw new UnsupportedOperationException(
+				"Cannot start a batch with a write-behind PersistenceManager. Please create a BatchingPersistenceManager instead");
+	}
+
+	@Override
+	public void endBatch(ConsistencyLevel defaultConsistencyLevel) {
+		throw new UnsupportedOperationException(
+				"Cannot end a batch with a write-behind PersistenceManager. Please create a BatchingPersistenceManager instead");
+	}
+
+	@Override
+	public void flush() {
+		log.debug("Queue all pending statements for write-behind");
+		try {
+			// Cached entities are invalidated by the queue once the last statement is written
+			writeBehindQueue.offerAll(partitionKey, new ArrayList<AbstractStatementWrapper>(statementWrappers),
+					new ArrayList<CacheInvalidation>(cacheInvalidations));
+		} finally {
+			cleanUp();
+		}
+	}
+
+	@Override
+	public FlushType type() {
+		return FlushType.WRITE_BEHIND;
+	}
+
+	@Override
+	public WriteBehindFlushContext duplicate() {
+		log.trace("Duplicate write-behind flushing context");
+		return new WriteBehindFlushContext(daoContext, statementWrappers, cacheInvalidations, consistencyLevel,
+				writeBehindQueue, partitionKey);
+	}
+}
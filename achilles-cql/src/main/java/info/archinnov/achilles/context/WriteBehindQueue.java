@@ -0,0 +1,371 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.context;
+
+import info.archinnov.achilles.entity.cache.CacheInvalidation;
+import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
+import info.archinnov.achilles.type.OverflowPolicy;
+import info.archinnov.achilles.type.Pair;
+import info.archinnov.achilles.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.policies.FallthroughRetryPolicy;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Bounded queue of the statements written behind the caller's back.
+ * Statements are queued on a lock-free queue, the bound being enforced by a
+ * pool of free slots. Background workers drain the queue and send the
+ * statements of a same partition and consistency level as one asynchronous
+ * unlogged batch. A slot is given back when the write completes, so the
+ * capacity bounds the statements both waiting and in flight<br/>
+ * <br/>
+ * Failed writes are logged and counted, they are not retried
+ */
+public class WriteBehindQueue {
+	private static final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+	private static final long DRAIN_INTERVAL_IN_MS = 5;
+
+	private final DaoContext daoContext;
+	private final int capacity;
+	private final int batchSize;
+	private final OverflowPolicy overflowPolicy;
+
+	private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<PendingWrite>();
+	private final AtomicLong lastSequence = new AtomicLong();
+	private final ConcurrentSkipListSet<Long> unwrittenSequences = new ConcurrentSkipListSet<Long>();
+	private final Object writeMonitor = new Object();
+	private final Semaphore freeSlots;
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final ScheduledExecutorService workers;
+	private volatile boolean shutdown;
+
+	public WriteBehindQueue(DaoContext daoContext, int capacity, int workerCount, int batchSize,
+			OverflowPolicy overflowPolicy) {
+		this(daoContext, capacity, workerCount, batchSize, overflowPolicy, DRAIN_INTERVAL_IN_MS);
+	}
+
+	WriteBehindQueue(DaoContext daoContext, int capacity, int workerCount, int batchSize,
+			OverflowPolicy overflowPolicy, long drainIntervalInMs) {
+		this.daoContext = daoContext;
+		this.capacity = capacity;
+		this.batchSize = batchSize;
+		this.overflowPolicy = overflowPolicy;
+		this.freeSlots = new Semaphore(capacity);
+
+		log.debug("Start write-behind queue of capacity {} with {} workers and overflow policy {}", capacity,
+				workerCount, overflowPolicy);
+		workers = Executors.newScheduledThreadPool(workerCount, new ThreadFactoryBuilder()
+				.setNameFormat("achilles-write-behind-%d").setDaemon(true).build());
+		for (int i = 0; i < workerCount; i++) {
+			workers.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					drain();
+				}
+			}, drainIntervalInMs, drainIntervalInMs, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Queue a statement, applying the overflow policy when the queue is full
+	 * 
+	 * @param partitionKey
+	 *            key identifying the partition written by the statement
+	 * @return false if the statement was dropped
+	 */
+	public boolean offer(Object partitionKey, AbstractStatementWrapper statementWrapper) {
+		return offer(partitionKey, statementWrapper, Collections.<CacheInvalidation> emptyList());
+	}
+
+	/**
+	 * Queue a statement, applying the overflow policy when the queue is full
+	 * 
+	 * @param partitionKey
+	 *            key identifying the partition written by the statement
+	 * @param afterWrite
+	 *            cached entities to invalidate once the statement is written
+	 * @return false if the statement was dropped
+	 */
+	public boolean offer(Object partitionKey, AbstractStatementWrapper statementWrapper,
+			List<CacheInvalidation> afterWrite) {
+		return offerAll(partitionKey, Collections.singletonList(statementWrapper), afterWrite);
+	}
+
+	/**
+	 * Queue the statements of an entity all together: the slots for all of
+	 * them are reserved before queuing any, so the overflow policy either
+	 * queues or rejects them as a whole
+	 * 
+	 * @param partitionKey
+	 *            key identifying the partition written by the statements
+	 * @param afterWrite
+	 *            cached entities to invalidate once the last statement is
+	 *            written
+	 * @return false if the statements were dropped
+	 */
+	public boolean offerAll(Object partitionKey, List<AbstractStatementWrapper> statementWrappers,
+			List<CacheInvalidation> afterWrite) {
+		Validator.validateFalse(shutdown, "The write-behind queue has been shut down");
+		int count = statementWrappers.size();
+		Validator.validateTrue(count <= capacity,
+				"Cannot queue %s statements at once in a write-behind queue of capacity %s", count, capacity);
+		if (count == 0) {
+			invalidateCaches(afterWrite);
+			return true;
+		}
+		if (!freeSlots.tryAcquire(count)) {
+			switch (overflowPolicy) {
+			case BLOCK:
+				log.trace("Write-behind queue full, waiting for {} free slots", count);
+				freeSlots.acquireUninterruptibly(count);
+				break;
+			case FAIL_FAST:
+				throw new AchillesException("The write-behind queue is full (capacity " + capacity + ")");
+			case DROP:
+				droppedCount.addAndGet(count);
+				log.trace("Write-behind queue full, dropping {} statements", count);
+				invalidateCaches(afterWrite);
+				return false;
+			}
+		}
+		Iterator<AbstractStatementWrapper> iterator = statementWrappers.iterator();
+		while (iterator.hasNext()) {
+			AbstractStatementWrapper statementWrapper = iterator.next();
+			List<CacheInvalidation> invalidations = iterator.hasNext() ? Collections.<CacheInvalidation> emptyList()
+					: afterWrite;
+			long sequence = lastSequence.incrementAndGet();
+			unwrittenSequences.add(sequence);
+			pendingWrites.add(new PendingWrite(sequence, partitionKey, statementWrapper, invalidations));
+		}
+		return true;
+	}
+
+	/**
+	 * Block until all the statements queued before the call are written.
+	 * Statements queued by other threads in the meantime are not waited for
+	 */
+	public void flush() {
+		flush(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Block until all the statements queued before the call are written, or
+	 * until the timeout expires
+	 * 
+	 * @return false if the timeout expired before the statements were written
+	 */
+	public boolean flush(long timeout, TimeUnit unit) {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		long flushedSequence = lastSequence.get();
+		drain(flushedSequence);
+		synchronized (writeMonitor) {
+			while (!isWritten(flushedSequence)) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					log.debug("Timeout while flushing the write-behind queue, {} statements pending",
+							getPendingCount());
+					return false;
+				}
+				try {
+					TimeUnit.NANOSECONDS.timedWait(writeMonitor, remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new AchillesException("Interrupted while flushing the write-behind queue", e);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stop accepting statements, write the pending ones and stop the workers
+	 */
+	public void shutdown() {
+		if (!shutdown) {
+			log.debug("Shutting down write-behind queue with {} pending statements", getPendingCount());
+			shutdown = true;
+			workers.shutdown();
+			try {
+				workers.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (!flush(1, TimeUnit.MINUTES)) {
+				log.warn("Write-behind queue shut down with {} statements still pending", getPendingCount());
+			}
+		}
+	}
+
+	/**
+	 * Number of statements queued or being written
+	 */
+	public int getPendingCount() {
+		return capacity - freeSlots.availablePermits();
+	}
+
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+	void drain() {
+		drain(Long.MAX_VALUE);
+	}
+
+	private void drain(long upToSequence) {
+		List<PendingWrite> writes = poll(upToSequence);
+		while (!writes.isEmpty()) {
+			for (List<PendingWrite> partitionWrites : groupByPartition(writes).values()) {
+				write(partitionWrites);
+			}
+			writes = poll(upToSequence);
+		}
+	}
+
+	private List<PendingWrite> poll(long upToSequence) {
+		List<PendingWrite> writes = new ArrayList<PendingWrite>();
+		PendingWrite write;
+		while (writes.size() < batchSize && (write = pendingWrites.peek()) != null
+				&& write.sequence <= upToSequence && (write = pendingWrites.poll()) != null) {
+			writes.add(write);
+		}
+		return writes;
+	}
+
+	private boolean isWritten(long sequence) {
+		return unwrittenSequences.isEmpty() || unwrittenSequences.first() > sequence;
+	}
+
+	private void onWritten(List<PendingWrite> writes) {
+		for (PendingWrite write : writes) {
+			invalidateCaches(write.afterWrite);
+			unwrittenSequences.remove(write.sequence);
+		}
+		freeSlots.release(writes.size());
+		synchronized (writeMonitor) {
+			writeMonitor.notifyAll();
+		}
+	}
+
+	private Map<Pair<Object, ConsistencyLevel>, List<PendingWrite>> groupByPartition(List<PendingWrite> writes) {
+		Map<Pair<Object, ConsistencyLevel>, List<PendingWrite>> groups = new LinkedHashMap<Pair<Object, ConsistencyLevel>, List<PendingWrite>>();
+		for (PendingWrite write : writes) {
+			Pair<Object, ConsistencyLevel> key = Pair.create(write.partitionKey, write.statementWrapper.getStatement()
+					.getConsistencyLevel());
+			List<PendingWrite> group = groups.get(key);
+			if (group == null) {
+				group = new ArrayList<PendingWrite>();
+				groups.put(key, group);
+			}
+			group.add(write);
+		}
+		return groups;
+	}
+
+	private void write(final List<PendingWrite> writes) {
+		ListenableFuture<ResultSet> future;
+		try {
+			if (writes.size() == 1) {
+				future = daoContext.executeWriteAsync(writes.get(0).statementWrapper);
+			} else {
+				BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+				boolean idempotent = true;
+				for (PendingWrite write : writes) {
+					batch.add(write.statementWrapper.getStatement());
+					write.statementWrapper.logDMLStatement(true, "\t");
+					if (!write.statementWrapper.isIdempotent()) {
+						idempotent = false;
+						batch.setRetryPolicy(FallthroughRetryPolicy.INSTANCE);
+					}
+				}
+				batch.setConsistencyLevel(writes.get(0).statementWrapper.getStatement().getConsistencyLevel());
+				future = daoContext.executeBatchAsync(batch, idempotent);
+			}
+		} catch (RuntimeException e) {
+			onFailure(writes, e);
+			return;
+		}
+		Futures.addCallback(future, new FutureCallback<ResultSet>() {
+			@Override
+			public void onSuccess(ResultSet resultSet) {
+				onWritten(writes);
+			}
+
+			@Override
+			public void onFailure(Throwable throwable) {
+				WriteBehindQueue.this.onFailure(writes, throwable);
+			}
+		});
+	}
+
+	private void invalidateCaches(List<CacheInvalidation> cacheInvalidations) {
+		for (CacheInvalidation cacheInvalidation : cacheInvalidations) {
+			cacheInvalidation.invalidate();
+		}
+	}
+
+	private void onFailure(List<PendingWrite> writes, Throwable throwable) {
+		log.error("Fail to write behind {} statements", writes.size(), throwable);
+		failedCount.addAndGet(writes.size());
+		onWritten(writes);
+	}
+
+	private static class PendingWrite {
+		private final long sequence;
+		private final Object partitionKey;
+		private final AbstractStatementWrapper statementWrapper;
+		private final List<CacheInvalidation> afterWrite;
+
+		private PendingWrite(long sequence, Object partitionKey, AbstractStatementWrapper statementWrapper,
+				List<CacheInvalidation> afterWrite) {
+			this.sequence = sequence;
+			this.partitionKey = partitionKey;
+			this.statementWrapper = statementWrapper;
+			this.afterWrite = afterWrite;
+		}
+	}
+}
@@ -20,13 +20,18 @@ import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.proxy.RowMethodInvoker;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.ColumnDefinitions.Definition;
 import com.datastax.driver.core.Row;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 public class EntityMapper  {
 
@@ -57,6 +62,40 @@ public class EntityMapper  {
 		}
 	}
 
+	/**
+	 * Build a detached instance of the entity with its eager properties, the
+	 * collections being immutable. The instance must be wrapped in a read-only
+	 * proxy before being shared between readers
+	 */
+	public <T> T mapRowToSnapshot(Row row, EntityMeta entityMeta) {
+		log.debug("Map CQL row to snapshot of entity class {}", entityMeta.getClassName());
+		T snapshot = entityMeta.instanciate();
+		for (PropertyMeta pm : entityMeta.getEagerMetas()) {
+			setPropertyToEntity(row, pm, snapshot);
+			switch (pm.type()) {
+			case LIST:
+			case SET:
+			case MAP:
+				freezeCollection(pm, snapshot);
+				break;
+			default:
+				break;
+			}
+		}
+		return snapshot;
+	}
+
+	private void freezeCollection(PropertyMeta pm, Object snapshot) {
+		Object value = pm.getValueFromField(snapshot);
+		if (value instanceof List) {
+			pm.setValueToField(snapshot, ImmutableList.copyOf((List<?>) value));
+		} else if (value instanceof Set) {
+			pm.setValueToField(snapshot, ImmutableSet.copyOf((Set<?>) value));
+		} else if (value instanceof Map) {
+			pm.setValueToField(snapshot, ImmutableMap.copyOf((Map<?, ?>) value));
+		}
+	}
+
 	public <T> T mapRowToEntityWithPrimaryKey(EntityMeta meta, Row row,
                                               Map<String, PropertyMeta> propertiesMap, boolean isEntityManaged) {
         log.debug("Map CQL row to entity of class {}", meta.getClassName());
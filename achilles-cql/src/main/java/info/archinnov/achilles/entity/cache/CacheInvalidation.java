@@ -0,0 +1,39 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.cache;
+
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+
+/**
+ * Invalidation of a cached entity, deferred until the statements writing the
+ * entity have actually been executed
+ */
+public class CacheInvalidation {
+	private final EntityCache entityCache;
+	private final EntityMeta meta;
+	private final Object primaryKey;
+
+	public CacheInvalidation(EntityCache entityCache, EntityMeta meta, Object primaryKey) {
+		this.entityCache = entityCache;
+		this.meta = meta;
+		this.primaryKey = primaryKey;
+	}
+
+	public void invalidate() {
+		entityCache.invalidate(meta, primaryKey);
+	}
+}
@@ -0,0 +1,219 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.cache;
+
+import static info.archinnov.achilles.entity.metadata.PropertyType.excludeIdType;
+import info.archinnov.achilles.entity.metadata.CacheProperties;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.Maps;
+
+/**
+ * Second level cache of the entities found by primary key, for the entity
+ * classes annotated with @Cached. The eager values of an entity are kept in
+ * their Cassandra form and decoded again on each hit, so entities handed out
+ * never share mutable state with the cache. Entities known not to exist are
+ * cached as an absent value when the entity class asks for it.
+ * 
+ * Each invalidation bumps a generation counter of the primary key, shared by
+ * the keys of the same stripe. A load only caches its result if no
+ * invalidation happened since the read was started, so a load racing with a
+ * write never caches the value read before the write
+ */
+public class EntityCache {
+	private static final Logger log = LoggerFactory.getLogger(EntityCache.class);
+
+	private static final int GENERATION_STRIPES = 1024;
+
+	private final Map<Class<?>, Cache<Object, Optional<Object[]>>> caches = Maps.newHashMap();
+	private final Map<Class<?>, List<PropertyMeta>> cachedMetas = Maps.newHashMap();
+	private final Map<Class<?>, AtomicLongArray> generations = Maps.newHashMap();
+
+	public EntityCache() {
+	}
+
+	public EntityCache(Map<Class<?>, EntityMeta> entityMetaMap) {
+		for (EntityMeta meta : entityMetaMap.values()) {
+			if (meta.isCached() && !meta.isClusteredCounter()) {
+				CacheProperties cacheProperties = meta.getCacheProperties();
+				log.debug("Cache entities of class {} with {}", meta.getClassName(), cacheProperties);
+				Cache<Object, Optional<Object[]>> cache = CacheBuilder.newBuilder()
+						.expireAfterWrite(cacheProperties.getTtl(), TimeUnit.SECONDS)
+						.maximumSize(cacheProperties.getMaxSize()).recordStats().build();
+				caches.put(meta.getEntityClass(), cache);
+				generations.put(meta.getEntityClass(), new AtomicLongArray(GENERATION_STRIPES));
+				cachedMetas.put(meta.getEntityClass(),
+						FluentIterable.from(meta.getEagerMetas()).filter(excludeIdType).toImmutableList());
+			}
+		}
+	}
+
+	public boolean isCached(EntityMeta meta) {
+		return caches.containsKey(meta.getEntityClass());
+	}
+
+	/**
+	 * Look up an entity in the cache
+	 * 
+	 * @return null on cache miss, an absent Optional when the entity is
+	 *         known not to exist, otherwise a new instance of the entity with
+	 *         its eager properties set but not its primary key
+	 */
+	public <T> Optional<T> get(EntityMeta meta, Object primaryKey) {
+		Cache<Object, Optional<Object[]>> cache = caches.get(meta.getEntityClass());
+		if (cache == null) {
+			return null;
+		}
+		Optional<Object[]> cachedValues = cache.getIfPresent(primaryKey);
+		if (cachedValues == null) {
+			log.trace("Cache miss for entity {} with primary key {}", meta.getClassName(), primaryKey);
+			return null;
+		}
+		if (!cachedValues.isPresent()) {
+			return Optional.absent();
+		}
+
+		log.trace("Cache hit for entity {} with primary key {}", meta.getClassName(), primaryKey);
+		T entity = meta.instanciate();
+		Object[] values = cachedValues.get();
+		List<PropertyMeta> pms = cachedMetas.get(meta.getEntityClass());
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != null) {
+				PropertyMeta pm = pms.get(i);
+				pm.setValueToField(entity, decode(pm, values[i]));
+			}
+		}
+		return Optional.of(entity);
+	}
+
+	/**
+	 * Generation of the primary key, to be read before loading the entity
+	 * from Cassandra and given back to
+	 * {@link #put(EntityMeta, Object, Object, long)}
+	 */
+	public long generation(EntityMeta meta, Object primaryKey) {
+		AtomicLongArray stripes = generations.get(meta.getEntityClass());
+		return stripes == null ? 0 : stripes.get(stripe(primaryKey));
+	}
+
+	/**
+	 * Cache the eager values of an entity freshly loaded from Cassandra. A
+	 * null entity is cached only if the entity class caches absent keys.
+	 * Nothing is cached if the entity was invalidated since the given
+	 * generation was read
+	 */
+	public void put(EntityMeta meta, Object primaryKey, Object entity, long generation) {
+		Cache<Object, Optional<Object[]>> cache = caches.get(meta.getEntityClass());
+		if (cache == null || generation(meta, primaryKey) != generation) {
+			return;
+		}
+		if (entity == null) {
+			if (meta.getCacheProperties().isCacheAbsent()) {
+				cache.put(primaryKey, Optional.<Object[]> absent());
+			}
+		} else {
+			List<PropertyMeta> pms = cachedMetas.get(meta.getEntityClass());
+			Object[] values = new Object[pms.size()];
+			for (int i = 0; i < values.length; i++) {
+				PropertyMeta pm = pms.get(i);
+				values[i] = encode(pm, pm.getValueFromField(entity));
+			}
+			cache.put(primaryKey, Optional.of(values));
+		}
+
+		// An invalidation may have run between the check and the put
+		if (generation(meta, primaryKey) != generation) {
+			cache.invalidate(primaryKey);
+		}
+	}
+
+	public void invalidate(EntityMeta meta, Object primaryKey) {
+		Cache<Object, Optional<Object[]>> cache = caches.get(meta.getEntityClass());
+		if (cache != null) {
+			log.trace("Invalidate cached entity {} with primary key {}", meta.getClassName(), primaryKey);
+			generations.get(meta.getEntityClass()).incrementAndGet(stripe(primaryKey));
+			cache.invalidate(primaryKey);
+		}
+	}
+
+	public void invalidateAll(EntityMeta meta) {
+		Cache<Object, Optional<Object[]>> cache = caches.get(meta.getEntityClass());
+		if (cache != null) {
+			log.trace("Invalidate all cached entities {}", meta.getClassName());
+			AtomicLongArray stripes = generations.get(meta.getEntityClass());
+			for (int i = 0; i < stripes.length(); i++) {
+				stripes.incrementAndGet(i);
+			}
+			cache.invalidateAll();
+		}
+	}
+
+	/**
+	 * Hit, miss and eviction statistics of the cache of an entity class
+	 * 
+	 * @return null if the entity class is not cached
+	 */
+	public CacheStats getStats(Class<?> entityClass) {
+		Cache<Object, Optional<Object[]>> cache = caches.get(entityClass);
+		return cache == null ? null : cache.stats();
+	}
+
+	private static int stripe(Object primaryKey) {
+		return (primaryKey.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+	}
+
+	private Object encode(PropertyMeta pm, Object value) {
+		switch (pm.type()) {
+		case LIST:
+			return pm.encode((List<?>) value);
+		case SET:
+			return pm.encode((Set<?>) value);
+		case MAP:
+			return pm.encode((Map<?, ?>) value);
+		default:
+			return pm.encode(value);
+		}
+	}
+
+	private Object decode(PropertyMeta pm, Object value) {
+		switch (pm.type()) {
+		case LIST:
+			return pm.decode((List<?>) value);
+		case SET:
+			return pm.decode((Set<?>) value);
+		case MAP:
+			return pm.decode((Map<?, ?>) value);
+		default:
+			return pm.decode(value);
+		}
+	}
+}
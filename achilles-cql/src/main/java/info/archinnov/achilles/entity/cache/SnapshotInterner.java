@@ -0,0 +1,135 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.cache;
+
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.driver.core.Row;
+import com.google.common.base.Objects;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Interns the immutable entity snapshots so that readers loading the same
+ * version of an entity share one instance. A version is identified by the
+ * digest of the raw column values of the row it was read from. Snapshots are
+ * weakly referenced and disappear once no reader holds them anymore
+ */
+public class SnapshotInterner {
+	private static final Logger log = LoggerFactory.getLogger(SnapshotInterner.class);
+
+	private final ConcurrentMap<SnapshotKey, Object> snapshots = CacheBuilder.newBuilder().weakValues()
+			.<SnapshotKey, Object> build().asMap();
+
+	public SnapshotKey keyFor(EntityMeta meta, Object primaryKey, Row row) {
+		return new SnapshotKey(meta.getEntityClass(), primaryKey, digest(row));
+	}
+
+	/**
+	 * @return the interned snapshot for this key, null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(SnapshotKey key) {
+		return (T) snapshots.get(key);
+	}
+
+	/**
+	 * Intern a freshly built snapshot
+	 * 
+	 * @return the snapshot interned for this key, which is not the given one
+	 *         if another reader interned the same version first
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T intern(SnapshotKey key, T snapshot) {
+		Object existing = snapshots.putIfAbsent(key, snapshot);
+		if (existing != null) {
+			log.trace("Snapshot {} already interned by another reader", key);
+			return (T) existing;
+		}
+		return snapshot;
+	}
+
+	public int size() {
+		return snapshots.size();
+	}
+
+	static HashCode digest(Row row) {
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+		int columnCount = row.getColumnDefinitions().size();
+		for (int i = 0; i < columnCount; i++) {
+			ByteBuffer bytes = row.getBytesUnsafe(i);
+			if (bytes == null) {
+				hasher.putInt(-1);
+			} else {
+				hasher.putInt(bytes.remaining());
+				if (bytes.hasArray()) {
+					hasher.putBytes(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+				} else {
+					ByteBuffer duplicate = bytes.duplicate();
+					while (duplicate.hasRemaining()) {
+						hasher.putByte(duplicate.get());
+					}
+				}
+			}
+		}
+		return hasher.hash();
+	}
+
+	public static class SnapshotKey {
+		private final Class<?> entityClass;
+		private final Object primaryKey;
+		private final HashCode digest;
+
+		SnapshotKey(Class<?> entityClass, Object primaryKey, HashCode digest) {
+			this.entityClass = entityClass;
+			this.primaryKey = primaryKey;
+			this.digest = digest;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			SnapshotKey other = (SnapshotKey) obj;
+			return entityClass.equals(other.entityClass) && primaryKey.equals(other.primaryKey)
+					&& digest.equals(other.digest);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(entityClass, primaryKey, digest);
+		}
+
+		@Override
+		public String toString() {
+			return Objects.toStringHelper(this).add("entityClass", entityClass.getCanonicalName())
+					.add("primaryKey", primaryKey).add("digest", digest).toString();
+		}
+	}
+}
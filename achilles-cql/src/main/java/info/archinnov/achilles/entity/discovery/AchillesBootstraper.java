@@ -98,8 +98,8 @@ public class AchillesBootstraper {
 	}
 
 	public DaoContext buildDaoContext(Session session, Map<Class<?>, EntityMeta> entityMetaMap,
-			boolean hasSimpleCounter) {
+			ConfigurationContext configContext, boolean hasSimpleCounter) {
         log.debug("Build DaoContext");
-		return daoContextFactory.build(session, entityMetaMap, hasSimpleCounter);
+		return daoContextFactory.build(session, entityMetaMap, configContext, hasSimpleCounter);
 	}
 }
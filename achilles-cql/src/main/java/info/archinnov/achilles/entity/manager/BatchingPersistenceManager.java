@@ -131,6 +131,17 @@ public class BatchingPersistenceManager extends PersistenceManager {
 		}
 	}
 
+	@Override
+	public <T> T findSnapshot(final Class<T> entityClass, final Object primaryKey, ConsistencyLevel readLevel) {
+		if (readLevel != null) {
+			flushContext.cleanUp(defaultConsistencyLevel);
+			throw new AchillesException(
+					"Runtime custom Consistency Level cannot be set for batch mode. Please set the Consistency Levels at batch start with 'startBatch(consistencyLevel)'");
+		} else {
+			return super.findSnapshot(entityClass, primaryKey, null);
+		}
+	}
+
 	@Override
 	public <T> T getReference(final Class<T> entityClass, final Object primaryKey, ConsistencyLevel readLevel) {
 		if (readLevel != null) {
@@ -17,6 +17,10 @@
 package info.archinnov.achilles.entity.manager;
 
 import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.FIND;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.MERGE;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.PERSIST;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.REMOVE;
 import info.archinnov.achilles.context.ConfigurationContext;
 import info.archinnov.achilles.context.DaoContext;
 import info.archinnov.achilles.context.PersistenceContext;
@@ -27,7 +31,10 @@ import info.archinnov.achilles.entity.operations.EntityProxifier;
 import info.archinnov.achilles.entity.operations.EntityValidator;
 import info.archinnov.achilles.entity.operations.SliceQueryExecutor;
 import info.archinnov.achilles.exception.AchillesStaleObjectStateException;
+import info.archinnov.achilles.metrics.AchillesMetrics;
 import info.archinnov.achilles.query.cql.NativeQueryBuilder;
+import info.archinnov.achilles.query.projection.ProjectionQueryBuilder;
+import info.archinnov.achilles.query.scan.ScanQueryBuilder;
 import info.archinnov.achilles.interceptor.Event;
 import info.archinnov.achilles.query.slice.SliceQueryBuilder;
 import info.archinnov.achilles.query.typed.TypedQueryBuilder;
@@ -40,8 +47,10 @@ import info.archinnov.achilles.validation.Validator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.codahale.metrics.Timer;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.core.querybuilder.Select;
@@ -89,11 +98,24 @@ public class PersistenceManager {
         intercept(entity, Event.POST_PERSIST);
     }
 
+    /**
+	 * Run the interceptors of the entity for the event. POST_PERSIST,
+	 * POST_UPDATE and POST_REMOVE interceptors run on the configured
+	 * asynchronous executor, if any, with a detached copy of the entity
+	 */
     public void intercept(Object entity, Event event) {
-        if (entity != null) {
+        if (entity != null && configContext.hasEventInterceptors()) {
             Class<?> baseClass = proxifier.deriveBaseClass(entity);
             EntityMeta entityMeta = entityMetaMap.get(baseClass);
-            entityMeta.intercept(entity, event);
+            if (entityMeta == null || !entityMeta.hasInterceptors(event)) {
+                return;
+            }
+            Executor executor = configContext.getEventInterceptorExecutor();
+            if (executor != null && event.isPostWrite()) {
+                entityMeta.interceptAsync(proxifier.unwrap(entity), event, executor);
+            } else {
+                entityMeta.intercept(entity, event);
+            }
         }
     }
 
@@ -117,7 +139,12 @@ public class PersistenceManager {
             throw new IllegalStateException("Then entity is already in \'managed\' state. Please use the merge() method instead of persist()");
         }
         PersistenceContext context = initPersistenceContext(entity, options);
-        context.persist();
+        Timer.Context timer = metrics().start(context.getEntityClass(), PERSIST);
+        try {
+            context.persist();
+        } finally {
+            metrics().stop(timer);
+        }
     }
 
     /**
@@ -184,7 +211,12 @@ public class PersistenceManager {
             entityValidator.validateNotClusteredCounter(entity, entityMetaMap);
         }
         PersistenceContext context = initPersistenceContext(entity, options);
-        return context.<T>merge(entity);
+        Timer.Context timer = metrics().start(context.getEntityClass(), MERGE);
+        try {
+            return context.<T>merge(entity);
+        } finally {
+            metrics().stop(timer);
+        }
     }
 
     /**
@@ -219,7 +251,7 @@ public class PersistenceManager {
         }
         PersistenceContext context = initPersistenceContext(entityClass, primaryKey, OptionsBuilder.noOptions());
         entityValidator.validatePrimaryKey(context.getIdMeta(), primaryKey);
-        context.remove();
+        removeWithMetrics(context);
     }
 
     /**
@@ -236,7 +268,16 @@ public class PersistenceManager {
         Object realObject = proxifier.getRealObject(entity);
         entityValidator.validateEntity(realObject, entityMetaMap);
         PersistenceContext context = initPersistenceContext(realObject, options);
-        context.remove();
+        removeWithMetrics(context);
+    }
+
+    private void removeWithMetrics(PersistenceContext context) {
+        Timer.Context timer = metrics().start(context.getEntityClass(), REMOVE);
+        try {
+            context.remove();
+        } finally {
+            metrics().stop(timer);
+        }
     }
 
     /**
@@ -264,7 +305,7 @@ public class PersistenceManager {
         }
         PersistenceContext context = initPersistenceContext(entityClass, primaryKey, OptionsBuilder.withConsistency(writeLevel));
         entityValidator.validatePrimaryKey(context.getIdMeta(), primaryKey);
-        context.remove();
+        removeWithMetrics(context);
     }
 
     /**
@@ -300,7 +341,59 @@ public class PersistenceManager {
         Validator.validateTrue(entityMetaMap.containsKey(entityClass), "The entity class \'%s\' is not managed by Achilles", entityClass.getCanonicalName());
         PersistenceContext context = initPersistenceContext(entityClass, primaryKey, OptionsBuilder.withConsistency(readLevel));
         entityValidator.validatePrimaryKey(context.getIdMeta(), primaryKey);
-        return context.<T>find(entityClass);
+        Timer.Context timer = metrics().start(entityClass, FIND);
+        try {
+            T entity = context.<T>find(entityClass);
+            metrics().markRows(entityClass, FIND, entity == null ? 0 : 1);
+            return entity;
+        } finally {
+            metrics().stop(timer);
+        }
+    }
+
+    /**
+	 * Find a read-only snapshot of an entity. The snapshot is not managed, its
+	 * setters throw an UnsupportedOperationException and its collections are
+	 * immutable. Readers loading the same version of an entity share the same
+	 * snapshot instance. Interceptors are not applied to snapshots
+	 * 
+	 * @param entityClass
+	 *            Entity type
+	 * @param primaryKey
+	 *            Primary key (Cassandra row key) of the entity to load
+	 */
+    public <T extends java.lang.Object> T findSnapshot(Class<T> entityClass, Object primaryKey) {
+        log.debug("Find snapshot of entity class \'{}\' with primary key {}", entityClass, primaryKey);
+        return findSnapshot(entityClass, primaryKey, null);
+    }
+
+    /**
+	 * Find a read-only snapshot of an entity with the given Consistency Level
+	 * for read. Works exactly as findSnapshot(Class<T> entityClass, Object
+	 * primaryKey)
+	 * 
+	 * @param entityClass
+	 *            Entity type
+	 * @param primaryKey
+	 *            Primary key (Cassandra row key) of the entity to load
+	 * @param readLevel
+	 *            Consistency Level for read
+	 */
+    public <T extends java.lang.Object> T findSnapshot(final Class<T> entityClass, final Object primaryKey, ConsistencyLevel readLevel) {
+        log.debug("Find snapshot of entity class \'{}\' with primary key {} and read consistency level {}", entityClass, primaryKey, readLevel);
+        Validator.validateNotNull(entityClass, "Entity class should not be null for find snapshot by id");
+        Validator.validateNotNull(primaryKey, "Entity primaryKey should not be null for find snapshot by id");
+        Validator.validateTrue(entityMetaMap.containsKey(entityClass), "The entity class \'%s\' is not managed by Achilles", entityClass.getCanonicalName());
+        PersistenceContext context = initPersistenceContext(entityClass, primaryKey, OptionsBuilder.withConsistency(readLevel));
+        entityValidator.validatePrimaryKey(context.getIdMeta(), primaryKey);
+        Timer.Context timer = metrics().start(entityClass, FIND);
+        try {
+            T snapshot = context.<T>findSnapshot(entityClass);
+            metrics().markRows(entityClass, FIND, snapshot == null ? 0 : 1);
+            return snapshot;
+        } finally {
+            metrics().stop(timer);
+        }
     }
 
     /**
@@ -604,6 +697,58 @@ public class PersistenceManager {
         return new TypedQueryBuilder<T>(entityClass, daoContext, queryString, meta, contextFactory, false, true, boundValues);
     }
 
+    /**
+	 * Return a CQL projection query builder
+	 * 
+	 * Only the selected columns are fetched, through a prepared statement, and
+	 * mapped to lightweight projections which are not 'managed' by Achilles.
+	 * The projection class is either an interface exposing one getter per
+	 * selected column, named after the column or after the entity getter, or
+	 * a class with a public constructor taking the selected columns in order
+	 * 
+	 * @param entityClass
+	 *            type of entity owning the queried table
+	 * 
+	 * @param projectionClass
+	 *            type of projection to be returned
+	 * 
+	 * @param queryString
+	 *            native CQL query string, with bind markers for bound values
+	 * 
+	 * @param boundValues
+	 *            values to be bind to the parameterized query, if any
+	 * 
+	 * @return ProjectionQueryBuilder<T>
+	 */
+    public <T extends java.lang.Object> ProjectionQueryBuilder<T> projectionQuery(Class<?> entityClass, Class<T> projectionClass, String queryString, Object... boundValues) {
+        log.debug("Execute projection query to {} for entity class {}", projectionClass, entityClass);
+        Validator.validateNotNull(entityClass, "The entityClass for projection query should not be null");
+        Validator.validateNotNull(projectionClass, "The projectionClass for projection query should not be null");
+        Validator.validateNotBlank(queryString, "The query string for projection query should not be blank");
+        Validator.validateTrue(entityMetaMap.containsKey(entityClass), "Cannot perform projection query because the entityClass \'%s\' is not managed by Achilles", entityClass.getCanonicalName());
+        EntityMeta meta = entityMetaMap.get(entityClass);
+        typedQueryValidator.validateRawTypedQuery(entityClass, queryString, meta);
+        return new ProjectionQueryBuilder<T>(projectionClass, daoContext, configContext.getProjectionMapper(), queryString, meta, boundValues);
+    }
+
+    /**
+	 * Return a builder to scan all the entities of a table
+	 * 
+	 * The ring is split in token ranges which are read in parallel. All found
+	 * entities will be in 'managed' state
+	 * 
+	 * @param entityClass
+	 *            type of entity to be scanned
+	 * 
+	 * @return ScanQueryBuilder<T>
+	 */
+    public <T extends java.lang.Object> ScanQueryBuilder<T> scan(Class<T> entityClass) {
+        log.debug("Scan all entities of class {}", entityClass);
+        Validator.validateNotNull(entityClass, "The entityClass for scan should not be null");
+        Validator.validateTrue(entityMetaMap.containsKey(entityClass), "Cannot scan entityClass \'%s\' because it is not managed by Achilles", entityClass.getCanonicalName());
+        return new ScanQueryBuilder<T>(entityMetaMap.get(entityClass), daoContext, contextFactory, configContext);
+    }
+
     protected PersistenceContext initPersistenceContext(Class<?> entityClass, Object primaryKey, Options options) {
         return contextFactory.newContext(entityClass, primaryKey, options);
     }
@@ -612,6 +757,10 @@ public class PersistenceManager {
         return contextFactory.newContext(entity, options);
     }
 
+    private AchillesMetrics metrics() {
+        return configContext.getMetrics();
+    }
+
     public Session getNativeSession() {
         return daoContext.getSession();
     }
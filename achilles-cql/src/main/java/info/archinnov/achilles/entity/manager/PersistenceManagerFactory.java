@@ -27,28 +27,56 @@ import static info.archinnov.achilles.configuration.ConfigurationParameters.CONS
 import static info.archinnov.achilles.configuration.ConfigurationParameters.DISABLE_JMX;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.DISABLE_METRICS;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.ENTITY_PACKAGES_PARAM;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.EVENT_INTERCEPTORS_ASYNC_EXECUTOR_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.EVENT_INTERCEPTORS_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.FORCE_TABLE_CREATION_PARAM;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.HEDGED_READS_MIN_DELAY_IN_MS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.HEDGED_READS_PERCENTILE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.INSERT_STRATEGY_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.KEYSPACE_NAME_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.LOAD_BALANCING_POLICY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.METRICS_ENABLED;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.METRICS_JMX_ENABLED;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.METRICS_REGISTRY;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.NATIVE_SESSION_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.OBJECT_MAPPER_FACTORY_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.OBJECT_MAPPER_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.PASSWORD;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.RECONNECTION_POLICY;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.RETRY_POLICY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SCAN_CONCURRENCY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SCAN_PAGE_SIZE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SLICE_PREFETCH_THRESHOLD;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SLOW_STATEMENT_LISTENERS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SLOW_STATEMENT_SAMPLING_RATE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SLOW_STATEMENT_THRESHOLD_IN_MS;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.SSL_ENABLED;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.SSL_OPTIONS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.THROTTLING_MAX_IN_FLIGHT;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.THROTTLING_PERMITS_PER_SECOND;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.THROTTLING_SCOPE;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.USERNAME;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_BEHIND_BATCH_SIZE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_BEHIND_OVERFLOW_POLICY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_BEHIND_QUEUE_CAPACITY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_BEHIND_WORKERS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_RETRY_BACKOFF_IN_MS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_RETRY_MAX_RETRIES;
 import info.archinnov.achilles.configuration.ArgumentExtractor;
 import info.archinnov.achilles.context.ConfigurationContext;
 import info.archinnov.achilles.context.DaoContext;
 import info.archinnov.achilles.context.PersistenceContextFactory;
 import info.archinnov.achilles.context.SchemaContext;
+import info.archinnov.achilles.context.WriteBehindQueue;
+import info.archinnov.achilles.entity.cache.EntityCache;
 import info.archinnov.achilles.entity.discovery.AchillesBootstraper;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.interceptor.EventInterceptor;
 import info.archinnov.achilles.json.ObjectMapperFactory;
+import info.archinnov.achilles.statement.slowlog.SlowStatementListener;
+import info.archinnov.achilles.type.InsertStrategy;
+import info.archinnov.achilles.type.OverflowPolicy;
+import info.archinnov.achilles.type.ThrottlingScope;
 import info.archinnov.achilles.type.Pair;
 import info.archinnov.achilles.validation.Validator;
 
@@ -57,6 +85,7 @@ import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.lang.StringUtils;
 import org.codehaus.jackson.map.ObjectMapper;
@@ -64,6 +93,7 @@ import org.reflections.ReflectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ProtocolOptions;
 import com.datastax.driver.core.SSLOptions;
@@ -71,6 +101,7 @@ import com.datastax.driver.core.Session;
 import com.datastax.driver.core.policies.LoadBalancingPolicy;
 import com.datastax.driver.core.policies.ReconnectionPolicy;
 import com.datastax.driver.core.policies.RetryPolicy;
+import com.google.common.cache.CacheStats;
 
 public class PersistenceManagerFactory {
 	private static final Logger log = LoggerFactory.getLogger(PersistenceManagerFactory.class);
@@ -80,6 +111,7 @@ public class PersistenceManagerFactory {
 	DaoContext daoContext;
 	PersistenceContextFactory contextFactory;
 	Map<String, Object> configurationMap;
+	WriteBehindQueue writeBehindQueue;
 
 	private ArgumentExtractor argumentExtractor = new ArgumentExtractor();
 	private AchillesBootstraper boostraper = new AchillesBootstraper();
@@ -122,11 +154,16 @@ public class PersistenceManagerFactory {
 				keyspaceName, cluster, entityMetaMap, hasSimpleCounter);
 		boostraper.validateOrCreateTables(schemaContext);
 
-		daoContext = boostraper.buildDaoContext(session, entityMetaMap, hasSimpleCounter);
+		configContext.setEntityCache(new EntityCache(entityMetaMap));
+		daoContext = boostraper.buildDaoContext(session, entityMetaMap, configContext, hasSimpleCounter);
 		contextFactory = new PersistenceContextFactory(daoContext, configContext, entityMetaMap);
 		addEventInterceptorsToEntityMetas();
 		registerShutdownHook(cluster);
 
+		// Started last so that a failed bootstrap never leaves MBeans registered
+		if (configContext.isMetricsJmxReporting()) {
+			configContext.getMetrics().startJmxReporting();
+		}
 		return this;
 	}
 
@@ -150,7 +187,7 @@ public class PersistenceManagerFactory {
 			entityMeta.addInterceptor(eventInterceptor);
 
 		}
-
+		configContext.setEventInterceptorsRegistered(!eventInterceptors.isEmpty());
 	}
 
 	private boolean isEventInterceptorInterface(Type type) {
@@ -189,10 +226,107 @@ public class PersistenceManagerFactory {
 		return new BatchingPersistenceManager(entityMetaMap, contextFactory, daoContext, configContext);
 	}
 
+	/**
+	 * Create a new state-full PersistenceManager for a unit of work, keeping
+	 * an identity map of the loaded entities and deferring their merges until
+	 * flush <br/>
+	 * <br/>
+	 * 
+	 * <strong>WARNING : This PersistenceManager is state-full and not
+	 * thread-safe. It is meant to live for one request only</strong><br/>
+	 * <br/>
+	 * 
+	 * <strong>Calling flush() or close() is mandatory: the deferred merges are
+	 * not written otherwise and are lost when the PersistenceManager is
+	 * dropped</strong>
+	 * 
+	 * <pre>
+	 * UnitOfWorkPersistenceManager manager = pmf.createUnitOfWorkPersistenceManager();
+	 * try {
+	 * 	...
+	 * } finally {
+	 * 	manager.close();
+	 * }
+	 * </pre>
+	 * 
+	 * @return a new state-full PersistenceManager
+	 */
+	public UnitOfWorkPersistenceManager createUnitOfWorkPersistenceManager() {
+		log.debug("Spawn new UnitOfWorkPersistenceManager");
+		return new UnitOfWorkPersistenceManager(entityMetaMap, contextFactory, daoContext, configContext);
+	}
+
+	/**
+	 * Create a new PersistenceManager recording the primary keys of the
+	 * entities it writes, so that they can be removed later in one batch
+	 * instead of truncating the tables. Mainly meant for test clean-up
+	 *
+	 * @return a new write tracking PersistenceManager
+	 */
+	public WriteTrackingPersistenceManager createWriteTrackingPersistenceManager() {
+		log.debug("Spawn new WriteTrackingPersistenceManager");
+		return new WriteTrackingPersistenceManager(entityMetaMap, contextFactory, daoContext, configContext);
+	}
+
+	/**
+	 * Create a new PersistenceManager whose writes are queued and executed in
+	 * the background. This instance of PersistenceManager is
+	 * <strong>thread-safe</strong>. All write-behind PersistenceManagers share
+	 * the same bounded queue, flushed at JVM shutdown
+	 * 
+	 * @return a new write-behind PersistenceManager
+	 */
+	public synchronized WriteBehindPersistenceManager createWriteBehindPersistenceManager() {
+		log.debug("Spawn new WriteBehindPersistenceManager");
+		if (writeBehindQueue == null) {
+			writeBehindQueue = new WriteBehindQueue(daoContext, configContext.getWriteBehindQueueCapacity(),
+					configContext.getWriteBehindWorkers(), configContext.getWriteBehindBatchSize(),
+					configContext.getWriteBehindOverflowPolicy());
+		}
+		return new WriteBehindPersistenceManager(entityMetaMap, contextFactory, daoContext, configContext,
+				writeBehindQueue);
+	}
+
+	/**
+	 * Write all the statements pending in the write-behind queue and stop its
+	 * workers. Write-behind PersistenceManagers can no longer be used
+	 * afterwards
+	 */
+	public synchronized void shutdownWriteBehindQueue() {
+		if (writeBehindQueue != null) {
+			writeBehindQueue.shutdown();
+		}
+	}
+
+	/**
+	 * Return the Codahale MetricRegistry holding Achilles metrics, or null if
+	 * metrics are disabled
+	 * 
+	 * @return MetricRegistry
+	 */
+	public MetricRegistry getMetricRegistry() {
+		return configContext.getMetrics().getRegistry();
+	}
+
+	/**
+	 * Return the hit, miss and eviction statistics of the cache of an entity
+	 * class annotated with @Cached, or null if the entity class is not cached
+	 * 
+	 * @param entityClass
+	 *            entity class
+	 * 
+	 * @return CacheStats
+	 */
+	public CacheStats getEntityCacheStats(Class<?> entityClass) {
+		return configContext.getEntityCache().getStats(entityClass);
+	}
+
 	private void registerShutdownHook(final Cluster cluster) {
 		Runtime.getRuntime().addShutdownHook(new Thread() {
 			@Override
 			public void run() {
+				configContext.getMetrics().stopJmxReporting();
+				shutdownWriteBehindQueue();
 				cluster.shutdown();
 			}
 		});
@@ -304,6 +438,17 @@ public class PersistenceManagerFactory {
 			return this;
 		}
 
+		/**
+		 * Define the default columns written when an entity is persisted,
+		 * unless the entity overrides it with @Strategy. Default = ALL_FIELDS
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withInsertStrategy(InsertStrategy insertStrategy) {
+			configMap.put(INSERT_STRATEGY_PARAM, insertStrategy);
+			return this;
+		}
+
 		/**
 		 * Whether Achilles should force table creation if they do not already
 		 * exist in the keyspace This flag is useful for dev only. <strong>It
@@ -474,6 +619,230 @@ public class PersistenceManagerFactory {
 			return this;
 		}
 
+		/**
+		 * Whether Achilles should record latency, returned rows and bound
+		 * bytes per entity and per operation. Disabled by default
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder enableAchillesMetrics(Boolean enableMetrics) {
+			configMap.put(METRICS_ENABLED, enableMetrics);
+			return this;
+		}
+
+		/**
+		 * Define the com.codahale.metrics.MetricRegistry to record Achilles
+		 * metrics into. Any reporter can be attached to this registry. Setting
+		 * a registry enables Achilles metrics
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withMetricRegistry(MetricRegistry metricRegistry) {
+			configMap.put(METRICS_REGISTRY, metricRegistry);
+			return this;
+		}
+
+		/**
+		 * Whether Achilles metrics should be exposed through JMX
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder enableAchillesMetricsJMX(Boolean enableJmx) {
+			configMap.put(METRICS_JMX_ENABLED, enableJmx);
+			return this;
+		}
+
+		/**
+		 * Enable the slow statement log. Statements taking longer than the
+		 * threshold to execute are reported, without their bound values
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withSlowStatementThresholdInMillis(Long thresholdInMillis) {
+			configMap.put(SLOW_STATEMENT_THRESHOLD_IN_MS, thresholdInMillis);
+			return this;
+		}
+
+		/**
+		 * Fraction of slow statements to report, between 0 exclusive and 1
+		 * inclusive. Default = 1
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withSlowStatementSamplingRate(Double samplingRate) {
+			configMap.put(SLOW_STATEMENT_SAMPLING_RATE, samplingRate);
+			return this;
+		}
+
+		/**
+		 * Listeners receiving slow statement records. Default = a logger named
+		 * ACHILLES_SLOW_STATEMENT
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withSlowStatementListeners(List<SlowStatementListener> listeners) {
+			configMap.put(SLOW_STATEMENT_LISTENERS, listeners);
+			return this;
+		}
+
+		/**
+		 * Fraction of a page, between 0 and 1, a slice query iterator should
+		 * consume before fetching the next page in the background. 0 fetches
+		 * the next page as soon as the iteration starts, 1 only when the
+		 * current page is exhausted. Default = 0.5
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withSlicePrefetchThreshold(Double prefetchThreshold) {
+			configMap.put(SLICE_PREFETCH_THRESHOLD, prefetchThreshold);
+			return this;
+		}
+
+		/**
+		 * Default number of token ranges a full table scan reads in
+		 * parallel. Default = 4
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withScanConcurrency(Integer concurrency) {
+			configMap.put(SCAN_CONCURRENCY, concurrency);
+			return this;
+		}
+
+		/**
+		 * Default number of rows fetched per page by a full table scan.
+		 * Default = 100
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withScanPageSize(Integer pageSize) {
+			configMap.put(SCAN_PAGE_SIZE, pageSize);
+			return this;
+		}
+
+		/**
+		 * Maximum number of statements waiting in the write-behind queue.
+		 * Default = 10000
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withWriteBehindQueueCapacity(Integer capacity) {
+			configMap.put(WRITE_BEHIND_QUEUE_CAPACITY, capacity);
+			return this;
+		}
+
+		/**
+		 * Number of background threads draining the write-behind queue.
+		 * Default = 2
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withWriteBehindWorkers(Integer workers) {
+			configMap.put(WRITE_BEHIND_WORKERS, workers);
+			return this;
+		}
+
+		/**
+		 * Maximum number of statements taken from the write-behind queue at
+		 * once and grouped into unlogged batches. Default = 100
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withWriteBehindBatchSize(Integer batchSize) {
+			configMap.put(WRITE_BEHIND_BATCH_SIZE, batchSize);
+			return this;
+		}
+
+		/**
+		 * What to do with a write when the write-behind queue is full.
+		 * Default = BLOCK
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withWriteBehindOverflowPolicy(OverflowPolicy overflowPolicy) {
+			configMap.put(WRITE_BEHIND_OVERFLOW_POLICY, overflowPolicy);
+			return this;
+		}
+
+		/**
+		 * Maximum number of statements sent to Cassandra per second. Callers
+		 * block once the rate is reached. Default = unlimited
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withThrottlingPermitsPerSecond(Double permitsPerSecond) {
+			configMap.put(THROTTLING_PERMITS_PER_SECOND, permitsPerSecond);
+			return this;
+		}
+
+		/**
+		 * Maximum number of statements awaiting a response from Cassandra.
+		 * Callers block once the limit is reached. Default = unlimited
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withThrottlingMaxInFlight(Integer maxInFlight) {
+			configMap.put(THROTTLING_MAX_IN_FLIGHT, maxInFlight);
+			return this;
+		}
+
+		/**
+		 * Whether the throttling limits apply globally, per entity class or per
+		 * consistency level. Default = GLOBAL
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withThrottlingScope(ThrottlingScope scope) {
+			configMap.put(THROTTLING_SCOPE, scope);
+			return this;
+		}
+
+		/**
+		 * Enable hedged reads. When an entity load or a slice read has not
+		 * answered within this percentile of the recent read latencies, a
+		 * second identical read is sent and the first response wins. Between 0
+		 * and 1 exclusive, for example 0.95
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withHedgedReadsPercentile(Double percentile) {
+			configMap.put(HEDGED_READS_PERCENTILE, percentile);
+			return this;
+		}
+
+		/**
+		 * Lower bound of the delay before sending a hedged read. Default = 5
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withHedgedReadsMinDelayInMillis(Long minDelayInMillis) {
+			configMap.put(HEDGED_READS_MIN_DELAY_IN_MS, minDelayInMillis);
+			return this;
+		}
+
+		/**
+		 * Number of times an idempotent write failing on a timeout or on
+		 * unavailable replicas is retried. Counter increments are never
+		 * retried. Default = 0
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withWriteRetryMaxRetries(Integer maxRetries) {
+			configMap.put(WRITE_RETRY_MAX_RETRIES, maxRetries);
+			return this;
+		}
+
+		/**
+		 * Delay before the first write retry, doubled at each retry. Default =
+		 * 50
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withWriteRetryBackoffInMillis(Long backoffInMillis) {
+			configMap.put(WRITE_RETRY_BACKOFF_IN_MS, backoffInMillis);
+			return this;
+		}
+
 		/**
 		 * Build a new PersistenceManagerFactory with provided parameters
 		 * 
@@ -487,5 +856,17 @@ public class PersistenceManagerFactory {
 			configMap.put(EVENT_INTERCEPTORS_PARAM, eventInterceptors);
 			return this;
 		}
+
+		/**
+		 * Executor running the POST_PERSIST, POST_UPDATE and POST_REMOVE
+		 * interceptors off the calling thread. Interceptors run on the calling
+		 * thread when not set. The executor is not shut down by Achilles
+		 * 
+		 * @return PersistenceManagerFactoryBuilder
+		 */
+		public PersistenceManagerFactoryBuilder withAsyncEventInterceptorExecutor(Executor executor) {
+			configMap.put(EVENT_INTERCEPTORS_ASYNC_EXECUTOR_PARAM, executor);
+			return this;
+		}
 	}
 }
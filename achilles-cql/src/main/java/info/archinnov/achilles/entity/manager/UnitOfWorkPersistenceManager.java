@@ -0,0 +1,276 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.manager;
+
+import info.archinnov.achilles.context.ConfigurationContext;
+import info.archinnov.achilles.context.DaoContext;
+import info.archinnov.achilles.context.PersistenceContextFactory;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.interceptor.Event;
+import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.Options;
+import info.archinnov.achilles.type.OptionsBuilder;
+import info.archinnov.achilles.type.Pair;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PersistenceManager keeping an identity map of the entities it has loaded,
+ * keyed by entity class and primary key.
+ * 
+ * Repeated finds of the same entity return the already loaded proxy without
+ * hitting Cassandra, including when the entity was found not to exist.
+ * Merges of a managed entity without options are deferred until
+ * {@link #flush()}, so that several merges of the same entity are coalesced
+ * into one UPDATE of all its dirty properties. The PRE_UPDATE and
+ * POST_UPDATE interceptors of a deferred merge run when the UPDATE is
+ * actually sent.
+ * 
+ * Deferred merges are only written by {@link #flush()} or {@link #close()}.
+ * A unit of work dropped without one of them loses its pending merges
+ */
+public class UnitOfWorkPersistenceManager extends PersistenceManager implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(UnitOfWorkPersistenceManager.class);
+
+	private Map<Pair<Class<?>, Object>, Object> identityMap = new HashMap<Pair<Class<?>, Object>, Object>();
+	private Map<Pair<Class<?>, Object>, Object> pendingMerges = new LinkedHashMap<Pair<Class<?>, Object>, Object>();
+	private Set<Pair<Class<?>, Object>> interceptedMerges = new HashSet<Pair<Class<?>, Object>>();
+
+	UnitOfWorkPersistenceManager(Map<Class<?>, EntityMeta> entityMetaMap, PersistenceContextFactory contextFactory,
+			DaoContext daoContext, ConfigurationContext configContext) {
+		super(entityMetaMap, contextFactory, daoContext, configContext);
+	}
+
+	/**
+	 * Merge all the entities whose merge has been deferred, one UPDATE per
+	 * entity. The identity map is kept
+	 */
+	public void flush() {
+		log.debug("Flushing {} pending merges", pendingMerges.size());
+		List<Pair<Class<?>, Object>> keys = new ArrayList<Pair<Class<?>, Object>>(pendingMerges.keySet());
+		for (Pair<Class<?>, Object> key : keys) {
+			flushPendingMerge(key);
+		}
+	}
+
+	/**
+	 * Flush the pending merges then discard the identity map, to end the unit
+	 * of work in a finally block
+	 */
+	@Override
+	public void close() {
+		flush();
+		clear();
+	}
+
+	/**
+	 * Discard the identity map and all the pending merges without flushing
+	 * them
+	 */
+	public void clear() {
+		if (!pendingMerges.isEmpty()) {
+			log.warn("Discarding {} pending merges never flushed : {}", pendingMerges.size(), pendingMerges.keySet());
+		}
+		log.debug("Clearing identity map and {} pending merges", pendingMerges.size());
+		identityMap.clear();
+		pendingMerges.clear();
+		interceptedMerges.clear();
+	}
+
+	public boolean hasPendingMerges() {
+		return !pendingMerges.isEmpty();
+	}
+
+	@Override
+	public <T> T find(Class<T> entityClass, Object primaryKey) {
+		Pair<Class<?>, Object> key = identityKey(entityClass, primaryKey);
+		if (identityMap.containsKey(key)) {
+			return entityClass.cast(identityMap.get(key));
+		}
+		return super.find(entityClass, primaryKey);
+	}
+
+	/**
+	 * Find an entity. The identity map is bypassed when a Consistency Level
+	 * is given
+	 */
+	@Override
+	public <T> T find(final Class<T> entityClass, final Object primaryKey, ConsistencyLevel readLevel) {
+		if (readLevel != null) {
+			return super.find(entityClass, primaryKey, readLevel);
+		}
+		Pair<Class<?>, Object> key = identityKey(entityClass, primaryKey);
+		if (identityMap.containsKey(key)) {
+			log.trace("Entity {} found in identity map", key);
+			return entityClass.cast(identityMap.get(key));
+		}
+		T entity = super.find(entityClass, primaryKey, null);
+		identityMap.put(key, entity);
+		return entity;
+	}
+
+	@Override
+	public <T> T getReference(final Class<T> entityClass, final Object primaryKey, ConsistencyLevel readLevel) {
+		Object entity = readLevel == null ? identityMap.get(identityKey(entityClass, primaryKey)) : null;
+		if (entity != null) {
+			return entityClass.cast(entity);
+		}
+		return super.getReference(entityClass, primaryKey, readLevel);
+	}
+
+	/**
+	 * Persist an entity, discarding any pending merge of the same entity
+	 */
+	@Override
+	public void persist(final Object entity, Options options) {
+		super.persist(entity, options);
+		evict(identityKey(entity));
+	}
+
+	/**
+	 * Merge an entity. The merge of a managed entity is deferred until
+	 * {@link #flush()}, as are its interceptors
+	 */
+	@Override
+	public <T> T merge(final T entity) {
+		Pair<Class<?>, Object> key = identityKey(entity);
+		if (key == null || !proxifier.isProxy(entity)) {
+			return super.merge(entity);
+		}
+		deferMerge(key, entity);
+		interceptedMerges.add(key);
+		return entity;
+	}
+
+	/**
+	 * Merge an entity. The merge of a managed entity without options is
+	 * deferred until {@link #flush()}, any other merge is executed
+	 * immediately
+	 */
+	@Override
+	public <T> T merge(final T entity, Options options) {
+		Pair<Class<?>, Object> key = identityKey(entity);
+		if (key == null) {
+			return super.merge(entity, options);
+		}
+
+		if (proxifier.isProxy(entity) && isNoOption(options)) {
+			deferMerge(key, entity);
+			return entity;
+		}
+
+		// A pending merge of this very entity is sent now with the options
+		boolean intercepted = false;
+		if (pendingMerges.get(key) == entity) {
+			pendingMerges.remove(key);
+			intercepted = interceptedMerges.remove(key);
+		} else {
+			flushPendingMerge(key);
+		}
+		if (intercepted) {
+			intercept(entity, Event.PRE_UPDATE);
+		}
+		T merged = super.merge(entity, options);
+		if (intercepted) {
+			intercept(merged, Event.POST_UPDATE);
+		}
+		identityMap.put(key, merged);
+		return merged;
+	}
+
+	@Override
+	public void remove(final Object entity, Options options) {
+		evict(identityKey(entity));
+		super.remove(entity, options);
+	}
+
+	@Override
+	public void removeById(Class<?> entityClass, Object primaryKey) {
+		evict(identityKey(entityClass, primaryKey));
+		super.removeById(entityClass, primaryKey);
+	}
+
+	@Override
+	public void removeById(Class<?> entityClass, Object primaryKey, ConsistencyLevel writeLevel) {
+		evict(identityKey(entityClass, primaryKey));
+		super.removeById(entityClass, primaryKey, writeLevel);
+	}
+
+	private void deferMerge(Pair<Class<?>, Object> key, Object entity) {
+		if (pendingMerges.containsKey(key) && pendingMerges.get(key) != entity) {
+			flushPendingMerge(key);
+		}
+		log.trace("Deferring merge of entity {}", key);
+		pendingMerges.put(key, entity);
+		identityMap.put(key, entity);
+	}
+
+	private void flushPendingMerge(Pair<Class<?>, Object> key) {
+		Object entity = pendingMerges.remove(key);
+		if (entity != null) {
+			boolean intercepted = interceptedMerges.remove(key);
+			if (intercepted) {
+				intercept(entity, Event.PRE_UPDATE);
+			}
+			super.merge(entity, OptionsBuilder.noOptions());
+			if (intercepted) {
+				intercept(entity, Event.POST_UPDATE);
+			}
+		}
+	}
+
+	private void evict(Pair<Class<?>, Object> key) {
+		if (key != null) {
+			identityMap.remove(key);
+			pendingMerges.remove(key);
+			interceptedMerges.remove(key);
+		}
+	}
+
+	private boolean isNoOption(Options options) {
+		return !options.getConsistencyLevel().isPresent() && !options.getTtl().isPresent()
+				&& !options.getTimestamp().isPresent();
+	}
+
+	private Pair<Class<?>, Object> identityKey(Class<?> entityClass, Object primaryKey) {
+		return Pair.<Class<?>, Object> create(entityClass, primaryKey);
+	}
+
+	private Pair<Class<?>, Object> identityKey(Object entity) {
+		if (entity == null) {
+			return null;
+		}
+		Class<?> entityClass = proxifier.deriveBaseClass(entity);
+		EntityMeta meta = entityMetaMap.get(entityClass);
+		if (meta == null) {
+			return null;
+		}
+		Object primaryKey = meta.getPrimaryKey(proxifier.getRealObject(entity));
+		return primaryKey == null ? null : identityKey(entityClass, primaryKey);
+	}
+}
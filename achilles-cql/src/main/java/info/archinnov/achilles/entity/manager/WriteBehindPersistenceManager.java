@@ -0,0 +1,155 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.manager;
+
+import info.archinnov.achilles.context.ConfigurationContext;
+import info.archinnov.achilles.context.DaoContext;
+import info.archinnov.achilles.context.PersistenceContext;
+import info.archinnov.achilles.context.PersistenceContextFactory;
+import info.archinnov.achilles.context.WriteBehindFlushContext;
+import info.archinnov.achilles.context.WriteBehindQueue;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.type.Options;
+import info.archinnov.achilles.type.Pair;
+import info.archinnov.achilles.utils.UUIDGen;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PersistenceManager whose persist, merge and remove return as soon as their
+ * statements are queued. The statements are written in the background by the
+ * write-behind queue shared by all the write-behind PersistenceManagers of a
+ * PersistenceManagerFactory<br/>
+ * <br/>
+ * Each write is given a client-side timestamp so that writes of the same
+ * entity keep their order once grouped into a batch. Entities with counters
+ * cannot be written in an unlogged batch and are written immediately
+ */
+public class WriteBehindPersistenceManager extends PersistenceManager {
+
+	private static final Logger log = LoggerFactory.getLogger(WriteBehindPersistenceManager.class);
+
+	private WriteBehindQueue writeBehindQueue;
+	private Set<Class<?>> immediateEntityClasses = new HashSet<Class<?>>();
+
+	WriteBehindPersistenceManager(Map<Class<?>, EntityMeta> entityMetaMap, PersistenceContextFactory contextFactory,
+			DaoContext daoContext, ConfigurationContext configContext, WriteBehindQueue writeBehindQueue) {
+		super(entityMetaMap, contextFactory, daoContext, configContext);
+		this.writeBehindQueue = writeBehindQueue;
+		for (EntityMeta meta : entityMetaMap.values()) {
+			if (hasCounter(meta)) {
+				immediateEntityClasses.add(meta.getEntityClass());
+			}
+		}
+	}
+
+	/**
+	 * Block until all the statements queued so far are written
+	 */
+	public void flush() {
+		writeBehindQueue.flush();
+	}
+
+	/**
+	 * Block until all the statements queued so far are written, or until the
+	 * timeout expires
+	 * 
+	 * @return false if the timeout expired before the statements were written
+	 */
+	public boolean flush(long timeout, TimeUnit unit) {
+		return writeBehindQueue.flush(timeout, unit);
+	}
+
+	/**
+	 * Number of statements queued or being written
+	 */
+	public int getPendingCount() {
+		return writeBehindQueue.getPendingCount();
+	}
+
+	/**
+	 * Number of statements discarded because the queue was full
+	 */
+	public long getDroppedCount() {
+		return writeBehindQueue.getDroppedCount();
+	}
+
+	/**
+	 * Number of statements whose write failed
+	 */
+	public long getFailedCount() {
+		return writeBehindQueue.getFailedCount();
+	}
+
+	@Override
+	protected PersistenceContext initPersistenceContext(Class<?> entityClass, Object primaryKey, Options options) {
+		EntityMeta meta = entityMetaMap.get(entityClass);
+		if (meta == null || primaryKey == null || immediateEntityClasses.contains(entityClass)) {
+			return super.initPersistenceContext(entityClass, primaryKey, options);
+		}
+		log.trace("Initializing new write-behind persistence context for entity class {} and primary key {}",
+				entityClass.getCanonicalName(), primaryKey);
+		Options writeOptions = withTimestamp(options);
+		return contextFactory.newContextWithFlushContext(entityClass, primaryKey, writeOptions,
+				buildFlushContext(meta, primaryKey, writeOptions));
+	}
+
+	@Override
+	protected PersistenceContext initPersistenceContext(Object entity, Options options) {
+		EntityMeta meta = entityMetaMap.get(proxifier.deriveBaseClass(entity));
+		Object primaryKey = meta == null ? null : meta.getPrimaryKey(entity);
+		if (primaryKey == null || immediateEntityClasses.contains(meta.getEntityClass())) {
+			return super.initPersistenceContext(entity, options);
+		}
+		log.trace("Initializing new write-behind persistence context for entity {}", entity);
+		Options writeOptions = withTimestamp(options);
+		return contextFactory.newContextWithFlushContext(entity, writeOptions,
+				buildFlushContext(meta, primaryKey, writeOptions));
+	}
+
+	private WriteBehindFlushContext buildFlushContext(EntityMeta meta, Object primaryKey, Options options) {
+		Object partitionKey = meta.hasEmbeddedId() ? meta.getPartitionKey(primaryKey) : primaryKey;
+		return new WriteBehindFlushContext(daoContext, options.getConsistencyLevel().orNull(), writeBehindQueue,
+				Pair.create(meta.getEntityClass(), partitionKey));
+	}
+
+	private Options withTimestamp(Options options) {
+		if (options.getTimestamp().isPresent()) {
+			return options;
+		}
+		return options.duplicateWithNewTimestamp(UUIDGen.increasingMicroTimestamp());
+	}
+
+	private boolean hasCounter(EntityMeta meta) {
+		if (meta.isClusteredCounter()) {
+			return true;
+		}
+		for (PropertyMeta pm : meta.getAllMetas()) {
+			if (pm.isCounter()) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,183 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.manager;
+
+import static info.archinnov.achilles.counter.AchillesCounter.CQL_COUNTER_TABLE;
+import static info.archinnov.achilles.entity.metadata.PropertyType.counterType;
+import info.archinnov.achilles.context.ConfigurationContext;
+import info.archinnov.achilles.context.DaoContext;
+import info.archinnov.achilles.context.PersistenceContextFactory;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.query.cql.NativeQueryBuilder;
+import info.archinnov.achilles.type.Options;
+import info.archinnov.achilles.type.Pair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.driver.core.Session;
+import com.google.common.collect.Iterables;
+
+/**
+ * PersistenceManager recording the primary keys of the entities it persists
+ * or merges, so that only those can be removed afterwards instead of
+ * truncating whole tables.
+ * 
+ * Writes whose primary keys cannot be removed by id are reported instead:
+ * entities with counters, whose counter values cannot be deleted in the same
+ * batch as regular columns, and any native query or native session usage
+ */
+public class WriteTrackingPersistenceManager extends PersistenceManager {
+
+	private static final Logger log = LoggerFactory.getLogger(WriteTrackingPersistenceManager.class);
+
+	private Set<Pair<Class<?>, Object>> trackedPrimaryKeys = new LinkedHashSet<Pair<Class<?>, Object>>();
+	private Set<String> untrackedTables = new HashSet<String>();
+	private boolean nativeWrites = false;
+
+	WriteTrackingPersistenceManager(Map<Class<?>, EntityMeta> entityMetaMap,
+			PersistenceContextFactory contextFactory, DaoContext daoContext, ConfigurationContext configContext) {
+		super(entityMetaMap, contextFactory, daoContext, configContext);
+	}
+
+	@Override
+	public void persist(final Object entity, Options options) {
+		super.persist(entity, options);
+		track(entity);
+	}
+
+	@Override
+	public <T> T merge(final T entity, Options options) {
+		T merged = super.merge(entity, options);
+		track(entity);
+		return merged;
+	}
+
+	/**
+	 * Native queries other than SELECT are considered as writes which cannot
+	 * be tracked
+	 */
+	@Override
+	public NativeQueryBuilder nativeQuery(String queryString, Object... boundValues) {
+		NativeQueryBuilder builder = super.nativeQuery(queryString, boundValues);
+		if (!queryString.trim().toUpperCase().startsWith("SELECT")) {
+			synchronized (this) {
+				nativeWrites = true;
+			}
+		}
+		return builder;
+	}
+
+	/**
+	 * The native session can write anywhere, so getting it is considered as
+	 * an untracked write
+	 */
+	@Override
+	public synchronized Session getNativeSession() {
+		nativeWrites = true;
+		return super.getNativeSession();
+	}
+
+	/**
+	 * Whether some writes since the last {@link #clearTrackedWrites()} may
+	 * have touched any table, through native queries or the native session
+	 */
+	public synchronized boolean hasUntrackedWrites() {
+		return nativeWrites;
+	}
+
+	/**
+	 * Tables written since the last {@link #clearTrackedWrites()} whose rows
+	 * cannot be removed by primary key, lower-cased
+	 */
+	public synchronized Set<String> getUntrackedTables() {
+		return new HashSet<String>(untrackedTables);
+	}
+
+	public synchronized int getTrackedWritesCount() {
+		return trackedPrimaryKeys.size();
+	}
+
+	/**
+	 * Remove in one batch all the tracked entities belonging to the given
+	 * tables, then forget all the tracked writes
+	 * 
+	 * @param tableNames
+	 *            tables to clean, case insensitive
+	 */
+	public void removeTrackedEntities(Collection<String> tableNames) {
+		Set<String> tables = new HashSet<String>();
+		for (String tableName : tableNames) {
+			tables.add(tableName.toLowerCase());
+		}
+
+		List<Pair<Class<?>, Object>> toRemove = new ArrayList<Pair<Class<?>, Object>>();
+		synchronized (this) {
+			for (Pair<Class<?>, Object> key : trackedPrimaryKeys) {
+				if (tables.contains(entityMetaMap.get(key.left).getTableName().toLowerCase())) {
+					toRemove.add(key);
+				}
+			}
+			clearTrackedWrites();
+		}
+
+		if (!toRemove.isEmpty()) {
+			log.debug("Removing {} tracked entities in one batch", toRemove.size());
+			BatchingPersistenceManager batchingManager = new BatchingPersistenceManager(entityMetaMap,
+					contextFactory, daoContext, configContext);
+			batchingManager.startBatch();
+			for (Pair<Class<?>, Object> key : toRemove) {
+				batchingManager.removeById(key.left, key.right);
+			}
+			batchingManager.endBatch();
+		}
+	}
+
+	/**
+	 * Forget all the tracked writes
+	 */
+	public synchronized void clearTrackedWrites() {
+		trackedPrimaryKeys.clear();
+		untrackedTables.clear();
+		nativeWrites = false;
+	}
+
+	private void track(Object entity) {
+		Class<?> baseClass = proxifier.deriveBaseClass(entity);
+		EntityMeta meta = entityMetaMap.get(baseClass);
+		synchronized (this) {
+			if (meta.isClusteredCounter()) {
+				untrackedTables.add(meta.getTableName().toLowerCase());
+			} else if (Iterables.any(meta.getAllMetasExceptIdMeta(), counterType)) {
+				untrackedTables.add(meta.getTableName().toLowerCase());
+				untrackedTables.add(CQL_COUNTER_TABLE);
+			} else {
+				Object primaryKey = meta.getPrimaryKey(proxifier.getRealObject(entity));
+				log.trace("Tracking write of entity {} with primary key {}", baseClass, primaryKey);
+				trackedPrimaryKeys.add(Pair.<Class<?>, Object> create(baseClass, primaryKey));
+			}
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.metadata;
+
+import com.google.common.base.Objects;
+
+public class CacheProperties {
+	private int ttl;
+	private long maxSize;
+	private boolean cacheAbsent;
+
+	public CacheProperties(int ttl, long maxSize, boolean cacheAbsent) {
+		this.ttl = ttl;
+		this.maxSize = maxSize;
+		this.cacheAbsent = cacheAbsent;
+	}
+
+	public int getTtl() {
+		return ttl;
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	public boolean isCacheAbsent() {
+		return cacheAbsent;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this.getClass()).add("ttl", ttl).add("maxSize", maxSize)
+				.add("cacheAbsent", cacheAbsent).toString();
+	}
+}
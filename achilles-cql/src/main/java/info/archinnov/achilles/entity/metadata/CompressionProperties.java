@@ -0,0 +1,45 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.metadata;
+
+import info.archinnov.achilles.type.CompressionAlgorithm;
+
+import com.google.common.base.Objects;
+
+public class CompressionProperties {
+	private CompressionAlgorithm algorithm;
+	private int threshold;
+
+	public CompressionProperties(CompressionAlgorithm algorithm, int threshold) {
+		this.algorithm = algorithm;
+		this.threshold = threshold;
+	}
+
+	public CompressionAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	public int getThreshold() {
+		return threshold;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this.getClass()).add("algorithm", algorithm).add("threshold", threshold)
+				.toString();
+	}
+}
@@ -20,15 +20,25 @@ import info.archinnov.achilles.interceptor.Event;
 import info.archinnov.achilles.interceptor.EventInterceptor;
 import info.archinnov.achilles.proxy.ReflectionInvoker;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.InsertStrategy;
 import info.archinnov.achilles.validation.Validator;
 import info.archinnov.achilles.type.Pair;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Predicate;
@@ -36,6 +46,8 @@ import com.google.common.collect.FluentIterable;
 
 public class EntityMeta {
 
+	private static final Logger log = LoggerFactory.getLogger(EntityMeta.class);
+
 	public static final Predicate<EntityMeta> CLUSTERED_COUNTER_FILTER = new Predicate<EntityMeta>() {
 		@Override
 		public boolean apply(EntityMeta meta) {
@@ -66,24 +78,46 @@ public class EntityMeta {
 	private Pair<ConsistencyLevel, ConsistencyLevel> consistencyLevels;
 	private PropertyMeta firstMeta;
 	private List<PropertyMeta> allMetasExceptIdMeta;
+	private List<PropertyMeta> columnsMetaToInsert;
 	private boolean clusteredCounter = false;
+	private CacheProperties cacheProperties;
+	private TableProperties tableProperties;
+	private InsertStrategy insertStrategy = InsertStrategy.ALL_FIELDS;
 	private List<EventInterceptor<?>> eventsInterceptor = new ArrayList<EventInterceptor<?>>();
+	private EventInterceptor<?>[][] interceptorChains = emptyInterceptorChains();
 
 	public Object getPrimaryKey(Object entity) {
 		return idMeta.getPrimaryKey(entity);
 	}
 
+	/**
+	 * Register an interceptor. The interceptor chain of each event is resolved
+	 * here once, at bootstrap, instead of on every call to
+	 * {@link #intercept(Object, Event)}
+	 */
 	public void addInterceptor(EventInterceptor<?> interceptor) {
 		eventsInterceptor.add(interceptor);
+		for (Event event : Event.values()) {
+			List<EventInterceptor<?>> chain = FluentIterable.from(eventsInterceptor)
+					.filter(getFilterForEvent(event)).toImmutableList();
+			interceptorChains[event.ordinal()] = chain.toArray(new EventInterceptor<?>[chain.size()]);
+		}
 	}
 
+	/**
+	 * @return read-only view of the registered interceptors. Use
+	 *         {@link #addInterceptor(EventInterceptor)} to register new ones
+	 */
 	public List<EventInterceptor<?>> getEventsInterceptor() {
-		return eventsInterceptor;
+		return Collections.unmodifiableList(eventsInterceptor);
 	}
 
 	protected List<EventInterceptor<?>> getEventsInterceptor(final Event event) {
-		return FluentIterable.from(eventsInterceptor).filter(getFilterForEvent(event)).toImmutableList();
+		return Arrays.<EventInterceptor<?>> asList(interceptorChains[event.ordinal()]);
+	}
 
+	public boolean hasInterceptors(Event event) {
+		return interceptorChains[event.ordinal()].length > 0;
 	}
 
 	private Predicate<? super EventInterceptor<?>> getFilterForEvent(final Event event) {
@@ -237,6 +271,44 @@ public class EntityMeta {
 
 	public void setAllMetasExceptIdMeta(List<PropertyMeta> allMetasExceptIdMeta) {
 		this.allMetasExceptIdMeta = allMetasExceptIdMeta;
+		this.columnsMetaToInsert = FluentIterable.from(allMetasExceptIdMeta).filter(PropertyType.excludeCounterType)
+				.toImmutableList();
+	}
+
+	/**
+	 * @return metas of all the columns written by an INSERT, counters
+	 *         excluded. Computed once when the metas are set
+	 */
+	public List<PropertyMeta> getColumnsMetaToInsert() {
+		return columnsMetaToInsert;
+	}
+
+	/**
+	 * @return metas of the columns written by the INSERT of this entity,
+	 *         depending on the insert strategy
+	 */
+	public List<PropertyMeta> getColumnsMetaToInsert(Object entity) {
+		List<PropertyMeta> columnsMeta = getColumnsMetaToInsert();
+		if (insertStrategy == InsertStrategy.ALL_FIELDS) {
+			return columnsMeta;
+		}
+		List<PropertyMeta> notNullColumnsMeta = new ArrayList<PropertyMeta>(columnsMeta.size());
+		for (PropertyMeta pm : columnsMeta) {
+			if (!isNullOrEmpty(pm.getValueFromField(entity))) {
+				notNullColumnsMeta.add(pm);
+			}
+		}
+		return notNullColumnsMeta;
+	}
+
+	private boolean isNullOrEmpty(Object value) {
+		// An empty collection is written as a tombstone, just like null
+		if (value instanceof Collection) {
+			return ((Collection<?>) value).isEmpty();
+		} else if (value instanceof Map) {
+			return ((Map<?, ?>) value).isEmpty();
+		}
+		return value == null;
 	}
 
 	public boolean isClusteredCounter() {
@@ -247,6 +319,34 @@ public class EntityMeta {
 		this.clusteredCounter = clusteredCounter;
 	}
 
+	public CacheProperties getCacheProperties() {
+		return cacheProperties;
+	}
+
+	public void setCacheProperties(CacheProperties cacheProperties) {
+		this.cacheProperties = cacheProperties;
+	}
+
+	public boolean isCached() {
+		return cacheProperties != null;
+	}
+
+	public TableProperties getTableProperties() {
+		return tableProperties;
+	}
+
+	public void setTableProperties(TableProperties tableProperties) {
+		this.tableProperties = tableProperties;
+	}
+
+	public InsertStrategy getInsertStrategy() {
+		return insertStrategy;
+	}
+
+	public void setInsertStrategy(InsertStrategy insertStrategy) {
+		this.insertStrategy = insertStrategy;
+	}
+
 	public boolean isValueless() {
 		return propertyMetas.size() == 1;
 	}
@@ -260,8 +360,8 @@ public class EntityMeta {
 	}
 
 	public void intercept(Object entity, Event event) {
-		List<EventInterceptor<?>> eventInterceptors = getEventsInterceptor(event);
-		if (eventInterceptors.size() > 0) {
+		EventInterceptor<?>[] eventInterceptors = interceptorChains[event.ordinal()];
+		if (eventInterceptors.length > 0) {
 			for (EventInterceptor eventInterceptor : eventInterceptors) {
 				eventInterceptor.onEvent(entity);
 			}
@@ -271,4 +371,65 @@ public class EntityMeta {
 		}
 
 	}
+
+	/**
+	 * Run the interceptors of the event on the given executor. The caller keeps
+	 * using its entity, so the interceptors receive a detached copy of it,
+	 * taken before returning. Changes made by the interceptors are therefore
+	 * not seen by the caller. The copy is not validated afterwards since the
+	 * caller does not wait for the interceptors. Exceptions are logged and
+	 * swallowed
+	 * 
+	 * @param entity
+	 *            unwrapped entity, not a proxy
+	 */
+	public void interceptAsync(Object entity, final Event event, Executor executor) {
+		final EventInterceptor<?>[] eventInterceptors = interceptorChains[event.ordinal()];
+		if (eventInterceptors.length > 0) {
+			final Object copy = detachedCopy(entity);
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					for (EventInterceptor eventInterceptor : eventInterceptors) {
+						try {
+							eventInterceptor.onEvent(copy);
+						} catch (RuntimeException e) {
+							log.error("Asynchronous interceptor {} failed on event {} for entity {}",
+									eventInterceptor, event, copy, e);
+						}
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Copy the property values of the entity into a new instance. Lists, sets
+	 * and maps are copied too. Counters are skipped since they are bound to
+	 * the persistence context of the entity
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object detachedCopy(Object entity) {
+		Object copy = instanciate();
+		for (PropertyMeta pm : propertyMetas.values()) {
+			if (!pm.isCounter()) {
+				Object value = pm.getValueFromField(entity);
+				if (value instanceof List) {
+					value = new ArrayList((List) value);
+				} else if (value instanceof Set) {
+					value = new LinkedHashSet((Set) value);
+				} else if (value instanceof Map) {
+					value = new LinkedHashMap((Map) value);
+				}
+				pm.setValueToField(copy, value);
+			}
+		}
+		return copy;
+	}
+
+	private static EventInterceptor<?>[][] emptyInterceptorChains() {
+		EventInterceptor<?>[][] chains = new EventInterceptor<?>[Event.values().length][];
+		Arrays.fill(chains, new EventInterceptor<?>[0]);
+		return chains;
+	}
 }
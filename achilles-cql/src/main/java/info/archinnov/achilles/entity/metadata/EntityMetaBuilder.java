@@ -19,6 +19,7 @@ package info.archinnov.achilles.entity.metadata;
 import static info.archinnov.achilles.entity.metadata.PropertyType.*;
 import static info.archinnov.achilles.table.TableCreator.TABLE_PATTERN;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.InsertStrategy;
 import info.archinnov.achilles.type.Pair;
 import info.archinnov.achilles.validation.Validator;
 
@@ -43,6 +44,9 @@ public class EntityMetaBuilder {
 	private String columnFamilyName;
 	private Map<String, PropertyMeta> propertyMetas;
 	private Pair<ConsistencyLevel, ConsistencyLevel> consistencyLevels;
+	private CacheProperties cacheProperties;
+	private TableProperties tableProperties;
+	private InsertStrategy insertStrategy = InsertStrategy.ALL_FIELDS;
 
 	public static EntityMetaBuilder entityMetaBuilder(PropertyMeta idMeta) {
 		return new EntityMetaBuilder(idMeta);
@@ -70,6 +74,9 @@ public class EntityMetaBuilder {
 		meta.setGetterMetas(Collections.unmodifiableMap(extractGetterMetas(propertyMetas)));
 		meta.setSetterMetas(Collections.unmodifiableMap(extractSetterMetas(propertyMetas)));
 		meta.setConsistencyLevels(consistencyLevels);
+		meta.setCacheProperties(cacheProperties);
+		meta.setTableProperties(tableProperties);
+		meta.setInsertStrategy(insertStrategy);
 
 		List<PropertyMeta> eagerMetas = FluentIterable.from(propertyMetas.values()).filter(eagerType).toImmutableList();
 
@@ -140,4 +147,19 @@ public class EntityMetaBuilder {
 		this.consistencyLevels = consistencyLevels;
 		return this;
 	}
+
+	public EntityMetaBuilder cacheProperties(CacheProperties cacheProperties) {
+		this.cacheProperties = cacheProperties;
+		return this;
+	}
+
+	public EntityMetaBuilder tableProperties(TableProperties tableProperties) {
+		this.tableProperties = tableProperties;
+		return this;
+	}
+
+	public EntityMetaBuilder insertStrategy(InsertStrategy insertStrategy) {
+		this.insertStrategy = insertStrategy;
+		return this;
+	}
 }
@@ -22,6 +22,7 @@ import info.archinnov.achilles.type.ConsistencyLevel;
 import info.archinnov.achilles.type.Pair;
 
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -64,6 +65,7 @@ public class PropertyMeta {
 	private IndexProperties indexProperties;
 	private Pair<ConsistencyLevel, ConsistencyLevel> consistencyLevels;
 	private boolean timeUUID = false;
+	private CompressionProperties compressionProperties;
 	private DataTranscoder transcoder;
 	private ReflectionInvoker invoker = new ReflectionInvoker();
 
@@ -365,6 +367,8 @@ public class PropertyMeta {
 	public Class<?> getValueClassForTableCreation() {
 		if (timeUUID) {
 			return InternalTimeUUID.class;
+		} else if (compressionProperties != null) {
+			return ByteBuffer.class;
 		} else {
 			return valueClass;
 		}
@@ -485,6 +489,18 @@ public class PropertyMeta {
 		this.timeUUID = timeUUID;
 	}
 
+	public boolean isCompressed() {
+		return compressionProperties != null;
+	}
+
+	public CompressionProperties getCompressionProperties() {
+		return compressionProperties;
+	}
+
+	public void setCompressionProperties(CompressionProperties compressionProperties) {
+		this.compressionProperties = compressionProperties;
+	}
+
 	@Override
 	public String toString() {
 		return Objects.toStringHelper(this.getClass()).add("type", type).add("entityClassName", entityClassName)
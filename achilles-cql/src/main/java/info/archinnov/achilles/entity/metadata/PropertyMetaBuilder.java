@@ -22,11 +22,13 @@ import org.codehaus.jackson.map.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import info.archinnov.achilles.entity.metadata.transcoding.CompoundTranscoder;
+import info.archinnov.achilles.entity.metadata.transcoding.CompressedTranscoder;
 import info.archinnov.achilles.entity.metadata.transcoding.DataTranscoder;
 import info.archinnov.achilles.entity.metadata.transcoding.ListTranscoder;
 import info.archinnov.achilles.entity.metadata.transcoding.MapTranscoder;
 import info.archinnov.achilles.entity.metadata.transcoding.SetTranscoder;
 import info.archinnov.achilles.entity.metadata.transcoding.SimpleTranscoder;
+import info.archinnov.achilles.metrics.AchillesMetrics;
 import info.archinnov.achilles.type.ConsistencyLevel;
 
 public class PropertyMetaBuilder {
@@ -42,6 +44,8 @@ public class PropertyMetaBuilder {
 	private EmbeddedIdProperties embeddedIdProperties;
 	private Pair<ConsistencyLevel, ConsistencyLevel> consistencyLevels;
 	private boolean timeUUID = false;
+	private CompressionProperties compressionProperties;
+	private AchillesMetrics metrics = AchillesMetrics.disabled();
 
 	public static PropertyMetaBuilder factory() {
 		return new PropertyMetaBuilder();
@@ -79,6 +83,7 @@ public class PropertyMetaBuilder {
 		meta.setConsistencyLevels(consistencyLevels);
 		meta.setTranscoder(determineTranscoder());
 		meta.setTimeUUID(timeUUID);
+		meta.setCompressionProperties(compressionProperties);
 
 		return meta;
 	}
@@ -113,14 +118,28 @@ public class PropertyMetaBuilder {
 		return this;
 	}
 
+	public PropertyMetaBuilder compression(CompressionProperties compressionProperties) {
+		this.compressionProperties = compressionProperties;
+		return this;
+	}
+
+	public PropertyMetaBuilder metrics(AchillesMetrics metrics) {
+		this.metrics = metrics;
+		return this;
+	}
+
 	private DataTranscoder determineTranscoder() {
 		switch (type) {
 		case EMBEDDED_ID:
 			return new CompoundTranscoder(objectMapper);
-		case ID:
-		case COUNTER:
 		case SIMPLE:
 		case LAZY_SIMPLE:
+			if (compressionProperties != null) {
+				return new CompressedTranscoder(objectMapper, compressionProperties, metrics);
+			}
+			return new SimpleTranscoder(objectMapper);
+		case ID:
+		case COUNTER:
 			return new SimpleTranscoder(objectMapper);
 		case LIST:
 		case LAZY_LIST:
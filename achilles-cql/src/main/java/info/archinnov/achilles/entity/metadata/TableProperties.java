@@ -0,0 +1,90 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.metadata;
+
+import java.util.Map;
+
+import com.google.common.base.Objects;
+
+/**
+ * Storage options of an entity table. A null value means the option is not
+ * set and the Cassandra default applies
+ */
+public class TableProperties {
+	private String compaction;
+	private Map<String, String> compactionOptions;
+	private String compression;
+	private Integer compressionChunkLengthKb;
+	private String caching;
+	private Double bloomFilterFpChance;
+	private Integer gcGraceSeconds;
+	private Integer defaultTimeToLive;
+
+	public TableProperties(String compaction, Map<String, String> compactionOptions, String compression,
+			Integer compressionChunkLengthKb, String caching, Double bloomFilterFpChance, Integer gcGraceSeconds,
+			Integer defaultTimeToLive) {
+		this.compaction = compaction;
+		this.compactionOptions = compactionOptions;
+		this.compression = compression;
+		this.compressionChunkLengthKb = compressionChunkLengthKb;
+		this.caching = caching;
+		this.bloomFilterFpChance = bloomFilterFpChance;
+		this.gcGraceSeconds = gcGraceSeconds;
+		this.defaultTimeToLive = defaultTimeToLive;
+	}
+
+	public String getCompaction() {
+		return compaction;
+	}
+
+	public Map<String, String> getCompactionOptions() {
+		return compactionOptions;
+	}
+
+	public String getCompression() {
+		return compression;
+	}
+
+	public Integer getCompressionChunkLengthKb() {
+		return compressionChunkLengthKb;
+	}
+
+	public String getCaching() {
+		return caching;
+	}
+
+	public Double getBloomFilterFpChance() {
+		return bloomFilterFpChance;
+	}
+
+	public Integer getGcGraceSeconds() {
+		return gcGraceSeconds;
+	}
+
+	public Integer getDefaultTimeToLive() {
+		return defaultTimeToLive;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this.getClass()).add("compaction", compaction)
+				.add("compactionOptions", compactionOptions).add("compression", compression)
+				.add("compressionChunkLengthKb", compressionChunkLengthKb).add("caching", caching)
+				.add("bloomFilterFpChance", bloomFilterFpChance).add("gcGraceSeconds", gcGraceSeconds)
+				.add("defaultTimeToLive", defaultTimeToLive).toString();
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.metadata.transcoding;
+
+import info.archinnov.achilles.entity.metadata.CompressionProperties;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+
+import java.nio.ByteBuffer;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Charsets;
+
+public class CompressedTranscoder extends SimpleTranscoder {
+
+	private static final Logger log = LoggerFactory.getLogger(CompressedTranscoder.class);
+
+	private final CompressionCodec codec;
+	private final int threshold;
+	private final AchillesMetrics metrics;
+
+	public CompressedTranscoder(ObjectMapper objectMapper, CompressionProperties compressionProperties,
+			AchillesMetrics metrics) {
+		super(objectMapper);
+		this.codec = CompressionCodec.forAlgorithm(compressionProperties.getAlgorithm());
+		this.threshold = compressionProperties.getThreshold();
+		this.metrics = metrics;
+	}
+
+	@Override
+	public Object encode(PropertyMeta pm, Object entityValue) {
+		byte[] raw = toBytes(super.encode(pm, entityValue));
+		ByteBuffer stored = codec.encode(raw, threshold);
+		log.trace("Encode property {} of {} bytes to {} bytes", pm.getPropertyName(), raw.length, stored.remaining());
+		if (raw.length >= threshold) {
+			metrics.markCompression(pm.getEntityClassName(), pm.getPropertyName(), raw.length, stored.remaining());
+		}
+		return stored;
+	}
+
+	@Override
+	public Object decode(PropertyMeta pm, Object cassandraValue) {
+		if (!(cassandraValue instanceof ByteBuffer)) {
+			throw new AchillesException("Error while decoding compressed value '" + cassandraValue
+					+ "', a blob is expected");
+		}
+		byte[] raw = CompressionCodec.decode((ByteBuffer) cassandraValue);
+		Class<?> valueClass = pm.getValueClass();
+		if (valueClass == byte[].class) {
+			return raw;
+		} else if (valueClass == ByteBuffer.class) {
+			return ByteBuffer.wrap(raw);
+		} else {
+			return super.decode(pm, new String(raw, Charsets.UTF_8));
+		}
+	}
+
+	private byte[] toBytes(Object encoded) {
+		if (encoded instanceof byte[]) {
+			return (byte[]) encoded;
+		} else if (encoded instanceof ByteBuffer) {
+			ByteBuffer buffer = ((ByteBuffer) encoded).duplicate();
+			byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			return bytes;
+		} else {
+			return ((String) encoded).getBytes(Charsets.UTF_8);
+		}
+	}
+}
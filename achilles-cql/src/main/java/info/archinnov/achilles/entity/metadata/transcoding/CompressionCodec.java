@@ -0,0 +1,268 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.metadata.transcoding;
+
+import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.type.CompressionAlgorithm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import org.xerial.snappy.Snappy;
+
+/**
+ * Compress serialized values into a blob prefixed by a small header:
+ * 
+ * <ul>
+ * <li>1 byte: codec of the payload, 0 when stored uncompressed</li>
+ * <li>4 bytes: length of the uncompressed value, only when compressed</li>
+ * <li>the payload</li>
+ * </ul>
+ * 
+ * Decoding relies on the header only, so values written with another
+ * algorithm or before the threshold was changed remain readable
+ */
+public abstract class CompressionCodec {
+
+	static final byte UNCOMPRESSED = 0;
+	static final int COMPRESSED_HEADER_SIZE = 5;
+
+	private static final String LZ4_CLASS = "net.jpountz.lz4.LZ4Factory";
+	private static final String SNAPPY_CLASS = "org.xerial.snappy.Snappy";
+
+	public static CompressionCodec forAlgorithm(CompressionAlgorithm algorithm) {
+		switch (algorithm) {
+		case LZ4:
+			return LZ4Codec.INSTANCE;
+		case SNAPPY:
+			return SnappyCodec.INSTANCE;
+		default:
+			return DeflateCodec.INSTANCE;
+		}
+	}
+
+	/**
+	 * LZ4 and SNAPPY rely on optional dependencies, check that they can be
+	 * loaded before accepting them at bootstrap
+	 */
+	public static boolean isAvailable(CompressionAlgorithm algorithm) {
+		switch (algorithm) {
+		case LZ4:
+			return canLoad(LZ4_CLASS);
+		case SNAPPY:
+			return canLoad(SNAPPY_CLASS);
+		default:
+			return true;
+		}
+	}
+
+	/**
+	 * Compress the serialized value if it is at least threshold bytes long
+	 * and compression actually saves space, otherwise store it as is
+	 */
+	public ByteBuffer encode(byte[] raw, int threshold) {
+		if (raw.length >= threshold) {
+			byte[] compressed = compress(raw);
+			if (compressed.length + COMPRESSED_HEADER_SIZE < raw.length + 1) {
+				ByteBuffer buffer = ByteBuffer.allocate(compressed.length + COMPRESSED_HEADER_SIZE);
+				buffer.put(code()).putInt(raw.length).put(compressed);
+				buffer.flip();
+				return buffer;
+			}
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(raw.length + 1);
+		buffer.put(UNCOMPRESSED).put(raw);
+		buffer.flip();
+		return buffer;
+	}
+
+	public static byte[] decode(ByteBuffer stored) {
+		ByteBuffer buffer = stored.duplicate();
+		byte code = buffer.get();
+		if (code == UNCOMPRESSED) {
+			return remainingBytes(buffer);
+		}
+		int originalLength = buffer.getInt();
+		return forCode(code).decompress(remainingBytes(buffer), originalLength);
+	}
+
+	abstract byte code();
+
+	abstract byte[] compress(byte[] raw);
+
+	abstract byte[] decompress(byte[] compressed, int originalLength);
+
+	private static CompressionCodec forCode(byte code) {
+		switch (code) {
+		case DeflateCodec.CODE:
+			return DeflateCodec.INSTANCE;
+		case LZ4Codec.CODE:
+			return LZ4Codec.INSTANCE;
+		case SnappyCodec.CODE:
+			return SnappyCodec.INSTANCE;
+		default:
+			throw new AchillesException("Unknown compression codec '" + code + "' in stored value header");
+		}
+	}
+
+	private static byte[] remainingBytes(ByteBuffer buffer) {
+		if (buffer.hasArray()) {
+			int start = buffer.arrayOffset() + buffer.position();
+			return Arrays.copyOfRange(buffer.array(), start, start + buffer.remaining());
+		}
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	private static boolean canLoad(String className) {
+		try {
+			Class.forName(className, true, CompressionCodec.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException e) {
+			return false;
+		} catch (LinkageError e) {
+			return false;
+		}
+	}
+
+	private static class DeflateCodec extends CompressionCodec {
+		static final byte CODE = 1;
+		static final DeflateCodec INSTANCE = new DeflateCodec();
+
+		@Override
+		byte code() {
+			return CODE;
+		}
+
+		@Override
+		byte[] compress(byte[] raw) {
+			Deflater deflater = new Deflater();
+			try {
+				deflater.setInput(raw);
+				deflater.finish();
+				ByteArrayOutputStream output = new ByteArrayOutputStream(raw.length / 2 + 16);
+				byte[] chunk = new byte[4096];
+				while (!deflater.finished()) {
+					output.write(chunk, 0, deflater.deflate(chunk));
+				}
+				return output.toByteArray();
+			} finally {
+				deflater.end();
+			}
+		}
+
+		@Override
+		byte[] decompress(byte[] compressed, int originalLength) {
+			Inflater inflater = new Inflater();
+			try {
+				inflater.setInput(compressed);
+				byte[] raw = new byte[originalLength];
+				int length = 0;
+				while (length < originalLength && !inflater.finished()) {
+					int inflated = inflater.inflate(raw, length, originalLength - length);
+					if (inflated == 0 && inflater.needsInput()) {
+						break;
+					}
+					length += inflated;
+				}
+				checkLength(length, originalLength);
+				return raw;
+			} catch (DataFormatException e) {
+				throw new AchillesException("Cannot inflate stored value", e);
+			} finally {
+				inflater.end();
+			}
+		}
+	}
+
+	private static class LZ4Codec extends CompressionCodec {
+		static final byte CODE = 2;
+		static final LZ4Codec INSTANCE = new LZ4Codec();
+
+		@Override
+		byte code() {
+			return CODE;
+		}
+
+		@Override
+		byte[] compress(byte[] raw) {
+			return LZ4Holder.COMPRESSOR.compress(raw);
+		}
+
+		@Override
+		byte[] decompress(byte[] compressed, int originalLength) {
+			return LZ4Holder.DECOMPRESSOR.decompress(compressed, originalLength);
+		}
+	}
+
+	/**
+	 * Separate holder so that the optional LZ4 library is only loaded when
+	 * used
+	 */
+	private static class LZ4Holder {
+		static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+		static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+	}
+
+	private static class SnappyCodec extends CompressionCodec {
+		static final byte CODE = 3;
+		static final SnappyCodec INSTANCE = new SnappyCodec();
+
+		@Override
+		byte code() {
+			return CODE;
+		}
+
+		@Override
+		byte[] compress(byte[] raw) {
+			try {
+				return Snappy.compress(raw);
+			} catch (IOException e) {
+				throw new AchillesException("Cannot compress value with Snappy", e);
+			}
+		}
+
+		@Override
+		byte[] decompress(byte[] compressed, int originalLength) {
+			byte[] raw;
+			try {
+				raw = Snappy.uncompress(compressed);
+			} catch (IOException e) {
+				throw new AchillesException("Cannot uncompress value with Snappy", e);
+			}
+			checkLength(raw.length, originalLength);
+			return raw;
+		}
+	}
+
+	private static void checkLength(int actual, int expected) {
+		if (actual != expected) {
+			throw new AchillesException("Corrupted compressed value, expected " + expected + " bytes but got "
+					+ actual);
+		}
+	}
+}
@@ -53,6 +53,21 @@ public class EntityLoader {
 		return entity;
 	}
 
+	public <T> T loadSnapshot(PersistenceContext context, Class<T> entityClass) {
+		log.debug("Loading snapshot of entity class {} using PersistenceContext {}", entityClass, context);
+		EntityMeta entityMeta = context.getEntityMeta();
+
+		Validator.validateNotNull(entityClass, "Entity class should not be null");
+		Validator.validateNotNull(context.getPrimaryKey(), "Entity '%s' key should not be null",
+				entityClass.getCanonicalName());
+		Validator
+				.validateNotNull(entityMeta, "Entity meta for '%s' should not be null", entityClass.getCanonicalName());
+		Validator.validateFalse(entityMeta.isClusteredCounter(),
+				"Snapshot of clustered counter entity '%s' is not supported", entityClass.getCanonicalName());
+
+		return loaderImpl.loadSnapshot(context);
+	}
+
 	public void loadPropertyIntoObject(PersistenceContext context, Object realObject, PropertyMeta pm) {
         log.trace("Loading property {} into object {}",pm.getPropertyName(),realObject);
 		PropertyType type = pm.type();
@@ -17,8 +17,11 @@
 package info.archinnov.achilles.entity.operations;
 
 import info.archinnov.achilles.context.PersistenceContext;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.proxy.EntityInterceptor;
 import info.archinnov.achilles.proxy.EntityInterceptorBuilder;
+import info.archinnov.achilles.proxy.ReadOnlyInterceptor;
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
@@ -47,6 +50,9 @@ public class EntityProxifier {
 		if (isProxy(entity)) {
 			EntityInterceptor<?> interceptor = getInterceptor(entity);
 			baseClass = (Class<T>) interceptor.getTarget().getClass();
+		} else if (isReadOnlyProxy(entity)) {
+			ReadOnlyInterceptor<?> interceptor = (ReadOnlyInterceptor<?>) ((Factory) entity).getCallback(0);
+			baseClass = (Class<T>) interceptor.getTarget().getClass();
 		}
 
 		return baseClass;
@@ -73,6 +79,27 @@ public class EntityProxifier {
 		return (T) enhancer.create();
 	}
 
+	/**
+	 * Wrap a detached entity in a proxy whose setters throw, so that it can be
+	 * shared between readers
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T buildReadOnlyProxy(T entity, EntityMeta meta) {
+		log.debug("Build read-only Cglib proxy for entity {} ", entity);
+
+		Set<Method> setters = new HashSet<Method>(meta.getSetterMetas().keySet());
+		PropertyMeta idMeta = meta.getIdMeta();
+		if (idMeta != null && idMeta.getSetter() != null) {
+			setters.add(idMeta.getSetter());
+		}
+
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(entity.getClass());
+		enhancer.setCallback(new ReadOnlyInterceptor<T>(entity, setters));
+
+		return (T) enhancer.create();
+	}
+
 	@SuppressWarnings("unchecked")
 	public <T> T getRealObject(T proxy) {
 		log.debug("Get real entity from proxy {} ", proxy);
@@ -88,7 +115,13 @@ public class EntityProxifier {
 	}
 
 	public boolean isProxy(Object entity) {
-		return Factory.class.isAssignableFrom(entity.getClass());
+		return Factory.class.isAssignableFrom(entity.getClass())
+				&& !(((Factory) entity).getCallback(0) instanceof ReadOnlyInterceptor);
+	}
+
+	public boolean isReadOnlyProxy(Object entity) {
+		return Factory.class.isAssignableFrom(entity.getClass())
+				&& ((Factory) entity).getCallback(0) instanceof ReadOnlyInterceptor;
 	}
 
 	public <T> EntityInterceptor<T> getInterceptor(T proxy) {
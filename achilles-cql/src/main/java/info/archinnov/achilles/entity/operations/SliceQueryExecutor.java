@@ -16,18 +16,25 @@
  */
 package info.archinnov.achilles.entity.operations;
 
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.SLICE;
+
 import info.archinnov.achilles.context.DaoContext;
 import info.archinnov.achilles.context.PersistenceContext;
 import info.archinnov.achilles.context.PersistenceContextFactory;
 import info.archinnov.achilles.context.ConfigurationContext;
 import info.archinnov.achilles.entity.EntityMapper;
+import info.archinnov.achilles.entity.cache.EntityCache;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.iterator.MergedSliceQueryIterator;
 import info.archinnov.achilles.iterator.SliceQueryIterator;
 import info.archinnov.achilles.query.SliceQuery;
 import info.archinnov.achilles.query.slice.CQLSliceQuery;
 import info.archinnov.achilles.statement.StatementGenerator;
 import info.archinnov.achilles.statement.wrapper.RegularStatementWrapper;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.OrderingMode;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -36,7 +43,10 @@ import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.codahale.metrics.Timer;
 import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
@@ -52,12 +62,16 @@ public class SliceQueryExecutor {
 	private PersistenceContextFactory contextFactory;
 	private DaoContext daoContext;
 	private ConsistencyLevel defaultReadLevel;
+	private AchillesMetrics metrics;
+	private EntityCache entityCache;
 
 	public SliceQueryExecutor(PersistenceContextFactory contextFactory, ConfigurationContext configContext,
                               DaoContext daoContext) {
 		this.contextFactory = contextFactory;
 		this.daoContext = daoContext;
 		this.defaultReadLevel = configContext.getDefaultReadConsistencyLevel();
+		this.metrics = configContext.getMetrics();
+		this.entityCache = configContext.getEntityCache();
 	}
 
 	public <T> List<T> get(SliceQuery<T> sliceQuery) {
@@ -68,7 +82,14 @@ public class SliceQueryExecutor {
 
 		CQLSliceQuery<T> cqlSliceQuery = new CQLSliceQuery(sliceQuery, defaultReadLevel);
         RegularStatementWrapper statementWrapper = generator.generateSelectSliceQuery(cqlSliceQuery, cqlSliceQuery.getLimit(),cqlSliceQuery.getBatchSize());
-		List<Row> rows = daoContext.execute(statementWrapper).all();
+		List<Row> rows;
+		Timer.Context timer = metrics.start(sliceQuery.getEntityClass(), SLICE);
+		try {
+			rows = daoContext.executeRead(statementWrapper, SLICE).all();
+		} finally {
+			metrics.stop(timer);
+		}
+		metrics.markRows(sliceQuery.getEntityClass(), SLICE, rows.size());
 
 		for (Row row : rows) {
 			T clusteredEntity = meta.instanciate();
@@ -83,9 +104,62 @@ public class SliceQueryExecutor {
         log.debug("Get iterator for slice query");
 		CQLSliceQuery<T> cqlSliceQuery = new CQLSliceQuery(sliceQuery, defaultReadLevel);
         RegularStatementWrapper statementWrapper = generator.generateSelectSliceQuery(cqlSliceQuery, cqlSliceQuery.getLimit(),cqlSliceQuery.getBatchSize());
-		Iterator<Row> iterator = daoContext.execute(statementWrapper).iterator();
+		ResultSet resultSet = daoContext.executeRead(statementWrapper, SLICE);
 		PersistenceContext context = buildContextForQuery(sliceQuery);
-		return new SliceQueryIterator(cqlSliceQuery, context, iterator);
+		return new SliceQueryIterator(cqlSliceQuery, context, resultSet);
+	}
+
+	/**
+	 * Get the entities of the same slice over several partitions, merged by
+	 * clustering order. The overall limit applies to the merged result
+	 */
+	public <T> List<T> get(List<SliceQuery<T>> sliceQueries) {
+		log.debug("Get slice query over {} partitions", sliceQueries.size());
+		Class<T> entityClass = sliceQueries.get(0).getEntityClass();
+		List<T> clusteredEntities = new ArrayList<T>();
+		Timer.Context timer = metrics.start(entityClass, SLICE);
+		try {
+			Iterator<T> iterator = iterator(sliceQueries);
+			while (iterator.hasNext()) {
+				clusteredEntities.add(iterator.next());
+			}
+		} finally {
+			metrics.stop(timer);
+		}
+		metrics.markRows(entityClass, SLICE, clusteredEntities.size());
+		return clusteredEntities;
+	}
+
+	/**
+	 * Iterate over the entities of the same slice over several partitions,
+	 * merged by clustering order. All partitions are queried concurrently,
+	 * then each of them is paged on its own with the batch size of the query
+	 */
+	public <T> Iterator<T> iterator(List<SliceQuery<T>> sliceQueries) {
+		log.debug("Get merged iterator for slice query over {} partitions", sliceQueries.size());
+		List<CQLSliceQuery<T>> cqlSliceQueries = new ArrayList<CQLSliceQuery<T>>();
+		List<ResultSetFuture> futures = new ArrayList<ResultSetFuture>();
+		for (SliceQuery<T> sliceQuery : sliceQueries) {
+			CQLSliceQuery<T> cqlSliceQuery = new CQLSliceQuery(sliceQuery, defaultReadLevel);
+			RegularStatementWrapper statementWrapper = generator.generateSelectSliceQuery(cqlSliceQuery,
+					cqlSliceQuery.getLimit(), cqlSliceQuery.getBatchSize());
+			cqlSliceQueries.add(cqlSliceQuery);
+			futures.add(daoContext.executeAsync(statementWrapper));
+		}
+
+		List<Iterator<T>> iterators = new ArrayList<Iterator<T>>();
+		for (int i = 0; i < sliceQueries.size(); i++) {
+			ResultSet resultSet = futures.get(i).getUninterruptibly();
+			PersistenceContext context = buildContextForQuery(sliceQueries.get(i));
+			iterators.add(new SliceQueryIterator(cqlSliceQueries.get(i), context, resultSet));
+		}
+
+		SliceQuery<T> sliceQuery = sliceQueries.get(0);
+		PropertyMeta idMeta = sliceQuery.getIdMeta();
+		// SliceQuery exposes the ordering of the CQL query, inverted when a clustering component is reversed
+		OrderingMode ordering = idMeta.hasReversedComponent() ? sliceQuery.getOrdering().reverse() : sliceQuery
+				.getOrdering();
+		return new MergedSliceQueryIterator<T>(idMeta, ordering, iterators, sliceQuery.getLimit());
 	}
 
 	public <T> void remove(SliceQuery<T> sliceQuery) {
@@ -94,6 +168,7 @@ public class SliceQueryExecutor {
 		cqlSliceQuery.validateSliceQueryForRemove();
         final RegularStatementWrapper statementWrapper = generator.generateRemoveSliceQuery(cqlSliceQuery);
         daoContext.execute(statementWrapper);
+		entityCache.invalidateAll(sliceQuery.getMeta());
 	}
 
 	protected <T> PersistenceContext buildContextForQuery(SliceQuery<T> sliceQuery) {
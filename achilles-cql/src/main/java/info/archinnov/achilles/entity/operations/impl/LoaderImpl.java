@@ -20,17 +20,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import info.archinnov.achilles.context.PersistenceContext;
 import info.archinnov.achilles.entity.EntityMapper;
+import info.archinnov.achilles.entity.cache.EntityCache;
+import info.archinnov.achilles.entity.cache.SnapshotInterner;
+import info.archinnov.achilles.entity.cache.SnapshotInterner.SnapshotKey;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.entity.operations.EntityProxifier;
 import info.archinnov.achilles.type.ConsistencyLevel;
 
 import com.datastax.driver.core.Row;
+import com.google.common.base.Optional;
 
 public class LoaderImpl {
     private static final Logger log  = LoggerFactory.getLogger(LoaderImpl.class);
 
     private EntityMapper mapper = new EntityMapper();
 
+	private EntityProxifier proxifier = new EntityProxifier();
+
 	public <T> T eagerLoadEntity(PersistenceContext context) {
         log.trace("Loading entity using PersistenceContext {}",context);
 		EntityMeta entityMeta = context.getEntityMeta();
@@ -46,15 +53,49 @@ public class LoaderImpl {
 				entity = entityMeta.instanciate();
 			}
 		} else {
-			Row row = context.eagerLoadEntity();
-			if (row != null) {
-				entity = entityMeta.instanciate();
-				mapper.setEagerPropertiesToEntity(row, entityMeta, entity);
+			EntityCache entityCache = context.getConfigContext().getEntityCache();
+			Object primaryKey = context.getPrimaryKey();
+
+			// An explicit consistency level always reads from Cassandra
+			Optional<T> cachedEntity = context.getConsistencyLevel().isPresent() ? null : entityCache.<T> get(
+					entityMeta, primaryKey);
+			if (cachedEntity != null) {
+				entity = cachedEntity.orNull();
+			} else {
+				// Read before the load so that a concurrent write invalidating
+				// the entity prevents caching the value read before it
+				long generation = entityCache.generation(entityMeta, primaryKey);
+				Row row = context.eagerLoadEntity();
+				if (row != null) {
+					entity = entityMeta.instanciate();
+					mapper.setEagerPropertiesToEntity(row, entityMeta, entity);
+				}
+				entityCache.put(entityMeta, primaryKey, entity, generation);
 			}
 		}
 		return entity;
 	}
 
+	public <T> T loadSnapshot(PersistenceContext context) {
+		log.trace("Loading entity snapshot using PersistenceContext {}", context);
+		EntityMeta entityMeta = context.getEntityMeta();
+		Row row = context.eagerLoadEntity();
+		if (row == null) {
+			return null;
+		}
+
+		SnapshotInterner interner = context.getConfigContext().getSnapshotInterner();
+		Object primaryKey = context.getPrimaryKey();
+		SnapshotKey key = interner.keyFor(entityMeta, primaryKey, row);
+		T snapshot = interner.get(key);
+		if (snapshot == null) {
+			snapshot = mapper.mapRowToSnapshot(row, entityMeta);
+			entityMeta.getIdMeta().setValueToField(snapshot, primaryKey);
+			snapshot = interner.intern(key, proxifier.buildReadOnlyProxy(snapshot, entityMeta));
+		}
+		return snapshot;
+	}
+
 	public void loadPropertyIntoEntity(PersistenceContext context, PropertyMeta pm, Object entity) {
 		Row row = context.loadProperty(pm);
 		mapper.setPropertyToEntity(row, pm, entity);
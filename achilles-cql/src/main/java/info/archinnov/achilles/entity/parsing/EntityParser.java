@@ -84,7 +84,9 @@ public class EntityParser {
 		EntityMeta entityMeta = entityMetaBuilder(idMeta).entityClass(entityClass)
 				.className(entityClass.getCanonicalName()).columnFamilyName(columnFamilyName)
 				.propertyMetas(context.getPropertyMetas()).consistencyLevels(context.getCurrentConsistencyLevels())
-				.build();
+				.cacheProperties(introspector.findCacheProperties(entityClass))
+				.tableProperties(introspector.findTableProperties(entityClass))
+				.insertStrategy(introspector.findInsertStrategy(entityClass, context.getDefaultInsertStrategy())).build();
 
 		log.trace("Entity meta built for entity class {} : {}", context.getCurrentEntityClass().getCanonicalName(),
 				entityMeta);
@@ -76,6 +76,7 @@ public class PropertyParser {
 
 		validator.validateNoDuplicate(context);
 		validator.validateIndexIfSet(context);
+		validator.validateCompressionIfSet(context);
 
 		Class<?> fieldType = field.getType();
 		PropertyMeta propertyMeta;
@@ -155,6 +156,7 @@ public class PropertyParser {
 				.propertyName(context.getCurrentPropertyName())
 				.entityClassName(context.getCurrentEntityClass().getCanonicalName()).accessors(accessors)
 				.consistencyLevels(context.getCurrentConsistencyLevels()).timeuuid(timeUUID)
+				.compression(propertyHelper.getCompressionProperties(field)).metrics(context.getMetrics())
 				.build(Void.class, field.getType());
 
 		log.trace("Built simple property meta for property {} of entity class {} : {}", propertyMeta.getPropertyName(),
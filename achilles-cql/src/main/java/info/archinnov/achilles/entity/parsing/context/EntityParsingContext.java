@@ -26,7 +26,9 @@ import org.codehaus.jackson.map.ObjectMapper;
 import info.archinnov.achilles.context.ConfigurationContext;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.json.ObjectMapperFactory;
+import info.archinnov.achilles.metrics.AchillesMetrics;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.InsertStrategy;
 
 public class EntityParsingContext {
 	private ConfigurationContext configContext;
@@ -95,6 +97,10 @@ public class EntityParsingContext {
 	}
 
 
+	public AchillesMetrics getMetrics() {
+		return configContext.getMetrics();
+	}
+
 	public ObjectMapperFactory getObjectMapperFactory() {
 		return configContext.getObjectMapperFactory();
 	}
@@ -102,4 +108,8 @@ public class EntityParsingContext {
     public Pair<ConsistencyLevel,ConsistencyLevel> getDefaultConsistencyLevels() {
         return Pair.create(configContext.getDefaultReadConsistencyLevel(),configContext.getDefaultWriteConsistencyLevel());
     }
+
+    public InsertStrategy getDefaultInsertStrategy() {
+        return configContext.getInsertStrategy();
+    }
 }
@@ -17,6 +17,7 @@
 package info.archinnov.achilles.entity.parsing.context;
 
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.metrics.AchillesMetrics;
 import info.archinnov.achilles.type.ConsistencyLevel;
 import info.archinnov.achilles.type.Pair;
 
@@ -44,6 +45,10 @@ public class PropertyParsingContext {
 		return context.getCurrentObjectMapper();
 	}
 
+	public AchillesMetrics getMetrics() {
+		return context.getMetrics();
+	}
+
 	public Map<String, PropertyMeta> getPropertyMetas() {
 		return context.getPropertyMetas();
 	}
@@ -21,14 +21,21 @@ import static info.archinnov.achilles.type.ConsistencyLevel.ANY;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import info.archinnov.achilles.type.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import info.archinnov.achilles.annotations.Compressed;
+import info.archinnov.achilles.annotations.Index;
+import info.archinnov.achilles.entity.metadata.transcoding.CompressionCodec;
 import info.archinnov.achilles.entity.parsing.context.PropertyParsingContext;
 import info.archinnov.achilles.exception.AchillesBeanMappingException;
 import info.archinnov.achilles.helper.PropertyHelper;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.Counter;
 import info.archinnov.achilles.validation.Validator;
 
 public class PropertyParsingValidator {
@@ -100,6 +107,41 @@ public class PropertyParsingValidator {
 		}
 	}
 
+	public void validateCompressionIfSet(PropertyParsingContext context) {
+		String fieldName = context.getCurrentPropertyName();
+		String className = context.getCurrentEntityClass().getCanonicalName();
+		Field field = context.getCurrentField();
+		Compressed compressed = field.getAnnotation(Compressed.class);
+		if (compressed != null) {
+			log.debug("Validate that the compressed property {} of entity class {} is properly set", fieldName,
+					className);
+			Class<?> type = field.getType();
+			boolean serializedAsText = type == String.class || !PropertyHelper.isSupportedType(type)
+					&& !type.isEnum();
+			boolean bytes = type == byte[].class || type == ByteBuffer.class;
+
+			Validator.validateBeanMappingFalse(context.isPrimaryKey() || context.isEmbeddedId(),
+					"Property '%s' of entity '%s' is a primary key and therefore cannot be compressed", fieldName,
+					className);
+			Validator.validateBeanMappingTrue(
+					!Collection.class.isAssignableFrom(type) && !Map.class.isAssignableFrom(type)
+							&& !Counter.class.isAssignableFrom(type),
+					"Property '%s' of entity '%s' cannot be compressed, only simple properties are supported",
+					fieldName, className);
+			Validator.validateBeanMappingTrue(serializedAsText || bytes,
+					"Property '%s' of entity '%s' cannot be compressed because the type '%s' is neither text, "
+							+ "bytes nor serialized to JSON", fieldName, className, type.getCanonicalName());
+			Validator.validateBeanMappingTrue(field.getAnnotation(Index.class) == null,
+					"Property '%s' of entity '%s' cannot be both indexed and compressed", fieldName, className);
+			Validator.validateBeanMappingTrue(compressed.threshold() >= 0,
+					"The compression threshold of property '%s' of entity '%s' should be positive", fieldName,
+					className);
+			Validator.validateBeanMappingTrue(CompressionCodec.isAvailable(compressed.algorithm()),
+					"Property '%s' of entity '%s' is compressed with %s but the library is not in the classpath",
+					fieldName, className, compressed.algorithm());
+		}
+	}
+
 	public static void validateAllowedTypes(Class<?> type, Set<Class<?>> allowedTypes, String message) {
         log.debug("Validate that type {} is supported",type);
 		if (!allowedTypes.contains(type) && !type.isEnum()) {
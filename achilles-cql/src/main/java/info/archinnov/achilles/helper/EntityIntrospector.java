@@ -21,18 +21,27 @@ import static info.archinnov.achilles.helper.LoggerHelper.fieldToStringFn;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import info.archinnov.achilles.type.Pair;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.common.collect.Lists;
+import info.archinnov.achilles.annotations.Cached;
 import info.archinnov.achilles.annotations.Consistency;
 import info.archinnov.achilles.annotations.Entity;
+import info.archinnov.achilles.annotations.Strategy;
+import info.archinnov.achilles.annotations.TableOptions;
+import info.archinnov.achilles.entity.metadata.CacheProperties;
+import info.archinnov.achilles.entity.metadata.TableProperties;
 import info.archinnov.achilles.entity.parsing.PropertyFilter;
 import info.archinnov.achilles.exception.AchillesBeanMappingException;
 import info.archinnov.achilles.table.TableNameNormalizer;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.InsertStrategy;
+import info.archinnov.achilles.validation.Validator;
 
 public class EntityIntrospector {
 	private static final Logger log = LoggerFactory.getLogger(EntityIntrospector.class);
@@ -168,6 +177,83 @@ public class EntityIntrospector {
 		return Pair.create(defaultGlobalRead, defaultGlobalWrite);
 	}
 
+	public InsertStrategy findInsertStrategy(Class<?> entity, InsertStrategy defaultInsertStrategy) {
+		log.debug("Find insert strategy for entity class {}", entity.getCanonicalName());
+
+		InsertStrategy insertStrategy = defaultInsertStrategy;
+		Strategy strategy = entity.getAnnotation(Strategy.class);
+		if (strategy != null) {
+			insertStrategy = strategy.insert();
+		}
+
+		log.trace("Found insert strategy : {}", insertStrategy);
+		return insertStrategy;
+	}
+
+	public CacheProperties findCacheProperties(Class<?> entity) {
+		log.debug("Find cache properties for entity class {}", entity.getCanonicalName());
+
+		Cached cached = entity.getAnnotation(Cached.class);
+		if (cached == null) {
+			return null;
+		}
+		Validator.validateBeanMappingTrue(cached.ttl() > 0, "The cache ttl of entity '%s' should be strictly positive",
+				entity.getCanonicalName());
+		Validator.validateBeanMappingTrue(cached.maxSize() > 0,
+				"The cache max size of entity '%s' should be strictly positive", entity.getCanonicalName());
+
+		CacheProperties cacheProperties = new CacheProperties(cached.ttl(), cached.maxSize(), cached.cacheAbsent());
+		log.trace("Found cache properties : {}", cacheProperties);
+		return cacheProperties;
+	}
+
+	public TableProperties findTableProperties(Class<?> entity) {
+		log.debug("Find table properties for entity class {}", entity.getCanonicalName());
+
+		TableOptions options = entity.getAnnotation(TableOptions.class);
+		if (options == null) {
+			return null;
+		}
+		String entityName = entity.getCanonicalName();
+		Validator.validateBeanMappingTrue(options.bloomFilterFpChance() == -1
+				|| (options.bloomFilterFpChance() > 0 && options.bloomFilterFpChance() <= 1),
+				"The bloom filter false positive chance of entity '%s' should be in ]0,1]", entityName);
+		Validator.validateBeanMappingTrue(options.compressionChunkLengthKb() == -1
+				|| options.compressionChunkLengthKb() > 0,
+				"The compression chunk length of entity '%s' should be strictly positive", entityName);
+		Validator.validateBeanMappingTrue(options.gcGraceSeconds() >= -1,
+				"The gc grace seconds of entity '%s' should be positive", entityName);
+		Validator.validateBeanMappingTrue(options.defaultTimeToLive() >= -1,
+				"The default time to live of entity '%s' should be positive", entityName);
+		Validator.validateBeanMappingTrue(options.compactionOptions().length == 0
+				|| StringUtils.isNotBlank(options.compaction()),
+				"Compaction options of entity '%s' require a compaction strategy", entityName);
+		Validator.validateBeanMappingTrue(options.compressionChunkLengthKb() == -1
+				|| StringUtils.isNotBlank(options.compression()),
+				"The compression chunk length of entity '%s' requires a compressor", entityName);
+
+		Map<String, String> compactionOptions = new LinkedHashMap<String, String>();
+		for (String compactionOption : options.compactionOptions()) {
+			String[] keyValue = StringUtils.split(compactionOption, "=", 2);
+			Validator.validateBeanMappingTrue(keyValue.length == 2,
+					"The compaction option '%s' of entity '%s' should be of the form key=value", compactionOption,
+					entityName);
+			compactionOptions.put(keyValue[0].trim(), keyValue[1].trim());
+		}
+
+		TableProperties tableProperties = new TableProperties(StringUtils.trimToNull(options.compaction()),
+				compactionOptions, StringUtils.trimToNull(options.compression()),
+				valueOrNull(options.compressionChunkLengthKb()), StringUtils.trimToNull(options.caching()),
+				options.bloomFilterFpChance() == -1 ? null : options.bloomFilterFpChance(),
+				valueOrNull(options.gcGraceSeconds()), valueOrNull(options.defaultTimeToLive()));
+		log.trace("Found table properties : {}", tableProperties);
+		return tableProperties;
+	}
+
+	private Integer valueOrNull(int option) {
+		return option == -1 ? null : option;
+	}
+
 	public List<Field> getInheritedPrivateFields(Class<?> type) {
 		log.debug("Find inherited private fields from hierarchy for entity class {}", type.getCanonicalName());
 
@@ -29,9 +29,11 @@ import info.archinnov.achilles.type.ConsistencyLevel;
 import info.archinnov.achilles.type.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import info.archinnov.achilles.annotations.Compressed;
 import info.archinnov.achilles.annotations.Consistency;
 import info.archinnov.achilles.annotations.Index;
 import info.archinnov.achilles.annotations.Lazy;
+import info.archinnov.achilles.entity.metadata.CompressionProperties;
 import info.archinnov.achilles.exception.AchillesBeanMappingException;
 
 public class PropertyHelper {
@@ -133,6 +135,17 @@ public class PropertyHelper {
 		return indexName;
 	}
 
+	public CompressionProperties getCompressionProperties(Field field) {
+		log.debug("Check @Compressed annotation on field {} of class {}", field.getName(), field
+				.getDeclaringClass().getCanonicalName());
+		CompressionProperties compressionProperties = null;
+		Compressed compressed = field.getAnnotation(Compressed.class);
+		if (compressed != null) {
+			compressionProperties = new CompressionProperties(compressed.algorithm(), compressed.threshold());
+		}
+		return compressionProperties;
+	}
+
 	public boolean hasConsistencyAnnotation(Field field) {
 		log.debug("Check @Consistency annotation on field {} of class {}", field.getName(), field.getDeclaringClass()
 				.getCanonicalName());
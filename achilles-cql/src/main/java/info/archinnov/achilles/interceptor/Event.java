@@ -18,4 +18,13 @@ package info.archinnov.achilles.interceptor;
 
 public enum Event {
 	PRE_PERSIST, POST_PERSIST, PRE_UPDATE, POST_UPDATE, PRE_REMOVE, POST_REMOVE, POST_LOAD;
+
+	/**
+	 * Whether the event is raised after a write, when the entity is no longer
+	 * needed by the caller. POST_LOAD is excluded because its interceptors
+	 * may modify the entity before it is returned
+	 */
+	public boolean isPostWrite() {
+		return this == POST_PERSIST || this == POST_UPDATE || this == POST_REMOVE;
+	}
 }
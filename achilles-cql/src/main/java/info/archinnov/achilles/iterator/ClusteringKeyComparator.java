@@ -0,0 +1,95 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.iterator;
+
+import info.archinnov.achilles.type.OrderingMode;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compare clustering keys the way Cassandra orders them on disk. The reversed
+ * clustering component, if any, is compared in descending order. The whole
+ * comparison is inverted for a DESCENDING slice
+ */
+public class ClusteringKeyComparator implements Comparator<List<Object>> {
+
+	private int reversedIndex;
+	private boolean descending;
+
+	public ClusteringKeyComparator(int reversedIndex, OrderingMode ordering) {
+		this.reversedIndex = reversedIndex;
+		this.descending = ordering.isReverse();
+	}
+
+	@Override
+	public int compare(List<Object> left, List<Object> right) {
+		int size = Math.min(left.size(), right.size());
+		int result = 0;
+		for (int i = 0; i < size && result == 0; i++) {
+			result = compareComponent(left.get(i), right.get(i));
+			if (i == reversedIndex) {
+				result = -result;
+			}
+		}
+		if (result == 0) {
+			result = left.size() - right.size();
+		}
+		return descending ? -result : result;
+	}
+
+	@SuppressWarnings("unchecked")
+	static int compareComponent(Object left, Object right) {
+		if (left == right) {
+			return 0;
+		} else if (left == null) {
+			return -1;
+		} else if (right == null) {
+			return 1;
+		} else if (left instanceof UUID) {
+			return compareUUID((UUID) left, (UUID) right);
+		} else if (left instanceof Enum) {
+			// Enums are stored by name
+			return ((Enum<?>) left).name().compareTo(((Enum<?>) right).name());
+		} else {
+			return ((Comparable<Object>) left).compareTo(right);
+		}
+	}
+
+	/**
+	 * Time based UUIDs are ordered by timestamp first, other UUIDs by their
+	 * unsigned bytes. {@link UUID#compareTo(UUID)} cannot be used since it
+	 * compares signed longs
+	 */
+	static int compareUUID(UUID left, UUID right) {
+		if (left.version() == 1 && right.version() == 1) {
+			int result = compareUnsigned(left.timestamp(), right.timestamp());
+			if (result != 0) {
+				return result;
+			}
+		}
+		int result = compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+		return result != 0 ? result : compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+	}
+
+	private static int compareUnsigned(long left, long right) {
+		long flippedLeft = left ^ Long.MIN_VALUE;
+		long flippedRight = right ^ Long.MIN_VALUE;
+		return flippedLeft < flippedRight ? -1 : (flippedLeft == flippedRight ? 0 : 1);
+	}
+}
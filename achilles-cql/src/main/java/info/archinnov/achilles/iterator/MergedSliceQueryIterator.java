@@ -0,0 +1,135 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.iterator;
+
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.proxy.ReflectionInvoker;
+import info.archinnov.achilles.type.OrderingMode;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merge the sorted iterators of several partitions into a single iterator
+ * sorted by clustering key. Only the current head entity of each partition is
+ * held, each underlying iterator pages on its own so memory stays bounded by
+ * the batch size of each partition
+ */
+public class MergedSliceQueryIterator<T> implements Iterator<T> {
+
+	private static final Logger log = LoggerFactory.getLogger(MergedSliceQueryIterator.class);
+
+	private PropertyMeta idMeta;
+	private PriorityQueue<Head<T>> heads;
+	private int remaining;
+
+	private ReflectionInvoker invoker = new ReflectionInvoker();
+
+	public MergedSliceQueryIterator(PropertyMeta idMeta, OrderingMode ordering, List<Iterator<T>> iterators,
+			int limit) {
+		this.idMeta = idMeta;
+		this.remaining = limit;
+		this.heads = new PriorityQueue<Head<T>>(Math.max(1, iterators.size()), new HeadComparator<T>(
+				new ClusteringKeyComparator(findReversedIndex(idMeta), ordering)));
+		for (int i = 0; i < iterators.size(); i++) {
+			advance(iterators.get(i), i);
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		return remaining > 0 && !heads.isEmpty();
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException("No more clustered entity in merged slice query");
+		}
+		Head<T> head = heads.poll();
+		remaining--;
+		if (remaining > 0) {
+			advance(head.source, head.sourceIndex);
+		}
+		return head.entity;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("Cannot remove clustered entity with iterator");
+	}
+
+	private void advance(Iterator<T> source, int sourceIndex) {
+		if (source.hasNext()) {
+			T entity = source.next();
+			heads.add(new Head<T>(entity, extractClusterings(entity), source, sourceIndex));
+		} else {
+			log.trace("Partition {} of merged slice query is exhausted", sourceIndex);
+		}
+	}
+
+	private List<Object> extractClusterings(T entity) {
+		Object embeddedId = idMeta.getPrimaryKey(entity);
+		List<Object> components = new ArrayList<Object>();
+		for (Method getter : idMeta.getComponentGetters()) {
+			components.add(invoker.getValueFromField(embeddedId, getter));
+		}
+		return idMeta.extractClusteringComponents(components);
+	}
+
+	static int findReversedIndex(PropertyMeta idMeta) {
+		return idMeta.hasReversedComponent() ? idMeta.getClusteringComponentNames().indexOf(
+				idMeta.getReversedComponent()) : -1;
+	}
+
+	private static class Head<T> {
+		private final T entity;
+		private final List<Object> clusterings;
+		private final Iterator<T> source;
+		private final int sourceIndex;
+
+		private Head(T entity, List<Object> clusterings, Iterator<T> source, int sourceIndex) {
+			this.entity = entity;
+			this.clusterings = clusterings;
+			this.source = source;
+			this.sourceIndex = sourceIndex;
+		}
+	}
+
+	private static class HeadComparator<T> implements Comparator<Head<T>> {
+		private final ClusteringKeyComparator keyComparator;
+
+		private HeadComparator(ClusteringKeyComparator keyComparator) {
+			this.keyComparator = keyComparator;
+		}
+
+		@Override
+		public int compare(Head<T> left, Head<T> right) {
+			int result = keyComparator.compare(left.clusterings, right.clusterings);
+			// Same clustering key in several partitions: keep the order of the partitions
+			return result != 0 ? result : left.sourceIndex - right.sourceIndex;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.iterator;
+
+import static info.archinnov.achilles.iterator.SliceQueryIterator.computePrefetchWatermark;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.NATIVE;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.query.cql.NativeRow;
+
+import java.util.Iterator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+
+/**
+ * Iterate over the rows of a native query, page by page, without
+ * materializing the result set. The next page is prefetched the same way as
+ * for slice queries. Every call to {@link #next()} returns the same
+ * {@link NativeRow} view pointing to the current row
+ */
+public class NativeQueryIterator implements Iterator<NativeRow> {
+
+	private static final Logger log = LoggerFactory.getLogger(NativeQueryIterator.class);
+
+	private ResultSet resultSet;
+	private Iterator<Row> iterator;
+	private NativeRow rowView;
+	private AchillesMetrics metrics;
+	private int prefetchWatermark;
+	private int rowCount = 0;
+	private boolean exhausted = false;
+
+	public NativeQueryIterator(ResultSet resultSet, AchillesMetrics metrics, double prefetchThreshold) {
+		this.resultSet = resultSet;
+		this.iterator = resultSet.iterator();
+		this.rowView = new NativeRow(resultSet.getColumnDefinitions());
+		this.metrics = metrics;
+		this.prefetchWatermark = computePrefetchWatermark(resultSet.getAvailableWithoutFetching(), prefetchThreshold);
+	}
+
+	@Override
+	public boolean hasNext() {
+		boolean hasNext;
+		if (resultSet.getAvailableWithoutFetching() == 0 && !resultSet.isFullyFetched()) {
+			long start = System.nanoTime();
+			hasNext = iterator.hasNext();
+			metrics.markPageWait(null, NATIVE, System.nanoTime() - start);
+		} else {
+			hasNext = iterator.hasNext();
+		}
+		if (!hasNext && !exhausted) {
+			exhausted = true;
+			metrics.markRows(null, NATIVE, rowCount);
+		}
+		log.trace("Does iterator has more element ? {}", hasNext);
+		return hasNext;
+	}
+
+	@Override
+	public NativeRow next() {
+		log.trace("Fetch iterator next element");
+		// Go through hasNext() so that a blocking fetch is accounted as page wait
+		hasNext();
+		Row row = iterator.next();
+		rowCount++;
+		prefetchIfNeeded();
+		return rowView.wrap(row);
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("Cannot remove row of a native query with iterator");
+	}
+
+	private void prefetchIfNeeded() {
+		if (!resultSet.isFullyFetched() && resultSet.getAvailableWithoutFetching() <= prefetchWatermark) {
+			log.trace("Prefetch next page of native query");
+			// No-op when a fetch is already in progress
+			resultSet.fetchMoreResults();
+		}
+	}
+}
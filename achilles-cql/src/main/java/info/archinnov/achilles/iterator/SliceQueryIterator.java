@@ -16,40 +16,66 @@
  */
 package info.archinnov.achilles.iterator;
 
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.SLICE;
+import info.archinnov.achilles.context.ConfigurationContext;
 import info.archinnov.achilles.context.PersistenceContext;
 import info.archinnov.achilles.entity.EntityMapper;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.operations.EntityProxifier;
-import info.archinnov.achilles.proxy.RowMethodInvoker;
+import info.archinnov.achilles.metrics.AchillesMetrics;
 import info.archinnov.achilles.query.slice.CQLSliceQuery;
 
 import java.util.Iterator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 
+/**
+ * Iterate over the clustered entities of a slice query, page by page. Once a
+ * configurable fraction of the current page has been consumed, the next page
+ * is fetched in the background so that the consumer does not stall at page
+ * boundaries. Time spent blocked waiting for a page is recorded as the
+ * "page-wait" metric of the entity
+ */
 public class SliceQueryIterator<T> implements Iterator<T> {
 
     private static final Logger log  = LoggerFactory.getLogger(SliceQueryIterator.class);
 
     private PersistenceContext context;
+	private ResultSet resultSet;
 	private Iterator<Row> iterator;
 	private EntityMeta meta;
+	private Class<T> entityClass;
+	private int prefetchWatermark;
+	private AchillesMetrics metrics;
 
 	private EntityMapper mapper = new EntityMapper();
 	private EntityProxifier proxifier = new EntityProxifier();
 
-	public SliceQueryIterator(CQLSliceQuery<T> sliceQuery, PersistenceContext context, Iterator<Row> iterator) {
+	public SliceQueryIterator(CQLSliceQuery<T> sliceQuery, PersistenceContext context, ResultSet resultSet) {
+		ConfigurationContext configContext = context.getConfigContext();
 		this.context = context;
-		this.iterator = iterator;
+		this.resultSet = resultSet;
+		this.iterator = resultSet.iterator();
 		this.meta = sliceQuery.getMeta();
+		this.entityClass = sliceQuery.getEntityClass();
+		this.prefetchWatermark = computePrefetchWatermark(sliceQuery.getBatchSize(),
+				configContext.getSlicePrefetchThreshold());
+		this.metrics = configContext.getMetrics();
 	}
 
 	@Override
 	public boolean hasNext() {
-        final boolean hasNext = iterator.hasNext();
+        final boolean hasNext;
+        if (resultSet.getAvailableWithoutFetching() == 0 && !resultSet.isFullyFetched()) {
+            long start = System.nanoTime();
+            hasNext = iterator.hasNext();
+            metrics.markPageWait(entityClass, SLICE, System.nanoTime() - start);
+        } else {
+            hasNext = iterator.hasNext();
+        }
         log.trace("Does iterator has more element ? {}",hasNext);
         return hasNext;
 	}
@@ -58,7 +84,10 @@ public class SliceQueryIterator<T> implements Iterator<T> {
 	public T next() {
         log.trace("Fetch iterator next element");
         T clusteredEntity = null;
+        // Go through hasNext() so that a blocking fetch is accounted as page wait
+        hasNext();
         Row row = iterator.next();
+        prefetchIfNeeded();
         if(row != null) {
             clusteredEntity = meta.instanciate();
             mapper.setEagerPropertiesToEntity(row, meta, clusteredEntity);
@@ -72,9 +101,20 @@ public class SliceQueryIterator<T> implements Iterator<T> {
 		throw new UnsupportedOperationException("Cannot remove clustered entity with iterator");
 	}
 
+	private void prefetchIfNeeded() {
+		if (!resultSet.isFullyFetched() && resultSet.getAvailableWithoutFetching() <= prefetchWatermark) {
+			log.trace("Prefetch next page of slice query for entity {}", entityClass);
+			// No-op when a fetch is already in progress
+			resultSet.fetchMoreResults();
+		}
+	}
+
 	private T proxify(T clusteredEntity) {
 		PersistenceContext duplicate = context.duplicate(clusteredEntity);
 		return proxifier.buildProxy(clusteredEntity, duplicate);
 	}
 
+	static int computePrefetchWatermark(int batchSize, double prefetchThreshold) {
+		return (int) Math.floor(batchSize * (1.0 - prefetchThreshold));
+	}
 }
@@ -0,0 +1,243 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.metrics;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.JmxReporter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+public class AchillesMetrics {
+	private static final Logger log = LoggerFactory.getLogger(AchillesMetrics.class);
+
+	public static final String METRICS_DOMAIN = "info.archinnov.achilles";
+	public static final String NATIVE_QUERY_PREFIX = "native";
+
+	private static final AchillesMetrics DISABLED = new AchillesMetrics(null, false);
+
+	public static enum Operation {
+		PERSIST, MERGE, REMOVE, FIND, SLICE, TYPED, NATIVE, COUNTER, SCAN, THROTTLE, HEDGE, COMPRESSION;
+	}
+
+	private final MetricRegistry registry;
+	private final boolean enabled;
+	private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<String, Timer>();
+	private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
+	private final ConcurrentMap<String, Meter> meters = new ConcurrentHashMap<String, Meter>();
+	private JmxReporter jmxReporter;
+
+	public AchillesMetrics(MetricRegistry registry) {
+		this(registry, true);
+	}
+
+	private AchillesMetrics(MetricRegistry registry, boolean enabled) {
+		this.registry = registry;
+		this.enabled = enabled;
+	}
+
+	public static AchillesMetrics disabled() {
+		return DISABLED;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Start timing an operation for the given entity class. Returns null when
+	 * metrics are disabled, which is accepted by {@link #stop(Timer.Context)}
+	 */
+	public Timer.Context start(Class<?> entityClass, Operation operation) {
+		if (!enabled) {
+			return null;
+		}
+		return getTimer(entityClass, operation, "latency").time();
+	}
+
+	public void stop(Timer.Context timerContext) {
+		if (timerContext != null) {
+			timerContext.stop();
+		}
+	}
+
+	public void markRows(Class<?> entityClass, Operation operation, int rowCount) {
+		if (enabled) {
+			getHistogram(entityClass, operation, "rows").update(rowCount);
+		}
+	}
+
+	public void markBoundBytes(Class<?> entityClass, Operation operation, Object[] boundValues) {
+		if (enabled && boundValues != null) {
+			getHistogram(entityClass, operation, "bound-bytes").update(estimateSize(boundValues));
+		}
+	}
+
+	/**
+	 * Record the time a consumer spent blocked waiting for the next page of
+	 * results to be fetched
+	 */
+	public void markPageWait(Class<?> entityClass, Operation operation, long waitInNanos) {
+		if (enabled) {
+			getTimer(entityClass, operation, "page-wait").update(waitInNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Record the time a statement spent waiting for a throttling permit
+	 * before being sent
+	 */
+	public void markThrottleWait(Class<?> entityClass, long waitInNanos) {
+		if (enabled) {
+			getTimer(entityClass, Operation.THROTTLE, "wait").update(waitInNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Record a hedged read attempt and whether it answered before the
+	 * original one
+	 */
+	public void markHedgedRead(Class<?> entityClass, boolean hedgeWon) {
+		if (enabled) {
+			getMeter(entityClass, Operation.HEDGE, "sent").mark();
+			if (hedgeWon) {
+				getMeter(entityClass, Operation.HEDGE, "won").mark();
+			}
+		}
+	}
+
+	/**
+	 * Record the size of a @Compressed property value before and after
+	 * compression. The ratio is the stored size in percent of the serialized
+	 * size
+	 */
+	public void markCompression(String entityClassName, String propertyName, int rawSize, int storedSize) {
+		if (enabled && rawSize > 0) {
+			String prefix = MetricRegistry.name(entityClassName, Operation.COMPRESSION.name().toLowerCase(),
+					propertyName);
+			histogram(MetricRegistry.name(prefix, "ratio")).update(storedSize * 100L / rawSize);
+			meter(MetricRegistry.name(prefix, "saved-bytes")).mark(Math.max(0, rawSize - storedSize));
+		}
+	}
+
+	public MetricRegistry getRegistry() {
+		return registry;
+	}
+
+	public void startJmxReporting() {
+		if (enabled && jmxReporter == null) {
+			log.info("Exposing Achilles metrics through JMX under domain {}", METRICS_DOMAIN);
+			jmxReporter = JmxReporter.forRegistry(registry).inDomain(METRICS_DOMAIN).build();
+			jmxReporter.start();
+		}
+	}
+
+	public void stopJmxReporting() {
+		if (jmxReporter != null) {
+			jmxReporter.stop();
+			jmxReporter = null;
+		}
+	}
+
+	Timer getTimer(Class<?> entityClass, Operation operation, String suffix) {
+		String name = metricName(entityClass, operation, suffix);
+		Timer timer = timers.get(name);
+		if (timer == null) {
+			timer = registry.timer(name);
+			timers.putIfAbsent(name, timer);
+		}
+		return timer;
+	}
+
+	Histogram getHistogram(Class<?> entityClass, Operation operation, String suffix) {
+		return histogram(metricName(entityClass, operation, suffix));
+	}
+
+	Meter getMeter(Class<?> entityClass, Operation operation, String suffix) {
+		return meter(metricName(entityClass, operation, suffix));
+	}
+
+	private Histogram histogram(String name) {
+		Histogram histogram = histograms.get(name);
+		if (histogram == null) {
+			histogram = registry.histogram(name);
+			histograms.putIfAbsent(name, histogram);
+		}
+		return histogram;
+	}
+
+	private Meter meter(String name) {
+		Meter meter = meters.get(name);
+		if (meter == null) {
+			meter = registry.meter(name);
+			meters.putIfAbsent(name, meter);
+		}
+		return meter;
+	}
+
+	static String metricName(Class<?> entityClass, Operation operation, String suffix) {
+		String prefix = entityClass == null ? NATIVE_QUERY_PREFIX : entityClass.getCanonicalName();
+		return MetricRegistry.name(prefix, operation.name().toLowerCase(), suffix);
+	}
+
+	static long estimateSize(Object[] values) {
+		long size = 0;
+		for (Object value : values) {
+			size += estimateSize(value);
+		}
+		return size;
+	}
+
+	private static long estimateSize(Object value) {
+		if (value == null) {
+			return 0;
+		} else if (value instanceof String) {
+			return ((String) value).length();
+		} else if (value instanceof ByteBuffer) {
+			return ((ByteBuffer) value).remaining();
+		} else if (value instanceof byte[]) {
+			return ((byte[]) value).length;
+		} else if (value instanceof Long || value instanceof Double || value instanceof Date) {
+			return 8;
+		} else if (value instanceof Integer || value instanceof Float) {
+			return 4;
+		} else if (value instanceof Boolean) {
+			return 1;
+		} else if (value instanceof UUID) {
+			return 16;
+		} else if (value instanceof Collection) {
+			return estimateSize(((Collection<?>) value).toArray());
+		} else if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			return estimateSize(map.keySet().toArray()) + estimateSize(map.values().toArray());
+		} else {
+			return value.toString().length();
+		}
+	}
+}
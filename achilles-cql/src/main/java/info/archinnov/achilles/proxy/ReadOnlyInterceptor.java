@@ -0,0 +1,52 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.proxy;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+
+/**
+ * Interceptor of the entity snapshots shared between readers. Getters are
+ * delegated to the detached target, calling a setter raises an
+ * UnsupportedOperationException
+ */
+public class ReadOnlyInterceptor<T> implements MethodInterceptor {
+
+	private final T target;
+	private final Set<Method> setters;
+
+	public ReadOnlyInterceptor(T target, Set<Method> setters) {
+		this.target = target;
+		this.setters = setters;
+	}
+
+	public T getTarget() {
+		return target;
+	}
+
+	@Override
+	public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) throws Throwable {
+		if (setters.contains(method)) {
+			throw new UnsupportedOperationException("Cannot call setter '" + method.getName()
+					+ "' on a read-only snapshot of entity '" + target.getClass().getCanonicalName() + "'");
+		}
+		return proxy.invoke(target, args);
+	}
+}
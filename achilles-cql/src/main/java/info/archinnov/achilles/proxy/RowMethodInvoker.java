@@ -21,6 +21,7 @@ import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.exception.AchillesException;
 import info.archinnov.achilles.validation.Validator;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -57,7 +58,8 @@ public class RowMethodInvoker {
 			case ID:
 			case SIMPLE:
 			case LAZY_SIMPLE:
-				value = invokeOnRowForProperty(row, pm, propertyName, pm.getValueClass());
+				Class<?> columnClass = pm.isCompressed() ? ByteBuffer.class : pm.getValueClass();
+				value = invokeOnRowForProperty(row, pm, propertyName, columnClass);
 				break;
 			default:
 				break;
@@ -0,0 +1,82 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query;
+
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.proxy.ReflectionInvoker;
+import info.archinnov.achilles.type.Cursor;
+import info.archinnov.achilles.validation.Validator;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Convert primary keys to and from {@link Cursor}. Key components are stored
+ * as JSON so that a cursor only holds strings and can be rebuilt from an
+ * untrusted token
+ */
+public class CursorCodec {
+	private static final Logger log = LoggerFactory.getLogger(CursorCodec.class);
+
+	private ReflectionInvoker invoker = new ReflectionInvoker();
+
+	public Cursor encodeClusterings(PropertyMeta idMeta, Object entity) {
+		log.trace("Build cursor from clustering components of entity {}", entity);
+		Object embeddedId = idMeta.getPrimaryKey(entity);
+		List<Object> components = new ArrayList<Object>();
+		for (Method getter : idMeta.getComponentGetters()) {
+			components.add(invoker.getValueFromField(embeddedId, getter));
+		}
+		List<String> encoded = new ArrayList<String>();
+		for (Object clusteringComponent : idMeta.extractClusteringComponents(components)) {
+			encoded.add(idMeta.forceEncodeToJSON(clusteringComponent));
+		}
+		return new Cursor(encoded);
+	}
+
+	public List<Object> decodeClusterings(PropertyMeta idMeta, Cursor cursor) {
+		log.trace("Extract clustering components from cursor {}", cursor);
+		List<Class<?>> componentClasses = idMeta.getClusteringComponentClasses();
+		List<String> encoded = cursor.getComponents();
+		Validator.validateTrue(encoded.size() == componentClasses.size(),
+				"Cursor '%s' does not match the clustering components of entity '%s'", cursor,
+				idMeta.getEntityClassName());
+		List<Object> components = new ArrayList<Object>();
+		for (int i = 0; i < encoded.size(); i++) {
+			components.add(idMeta.forceDecodeFromJSON(encoded.get(i), componentClasses.get(i)));
+		}
+		return components;
+	}
+
+	public Cursor encodePrimaryKey(PropertyMeta idMeta, Object entity) {
+		log.trace("Build cursor from primary key of entity {}", entity);
+		return new Cursor(Arrays.asList(idMeta.forceEncodeToJSON(idMeta.getPrimaryKey(entity))));
+	}
+
+	public Object decodePrimaryKey(PropertyMeta idMeta, Cursor cursor) {
+		log.trace("Extract primary key from cursor {}", cursor);
+		List<String> encoded = cursor.getComponents();
+		Validator.validateTrue(encoded.size() == 1, "Cursor '%s' does not match the primary key of entity '%s'",
+				cursor, idMeta.getEntityClassName());
+		return idMeta.forceDecodeFromJSON(encoded.get(0), idMeta.getValueClass());
+	}
+}
@@ -16,16 +16,24 @@
  */
 package info.archinnov.achilles.query.cql;
 
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.NATIVE;
+
 import info.archinnov.achilles.context.DaoContext;
 import info.archinnov.achilles.entity.operations.NativeQueryMapper;
+import info.archinnov.achilles.iterator.NativeQueryIterator;
+import info.archinnov.achilles.metrics.AchillesMetrics;
 import info.archinnov.achilles.statement.wrapper.SimpleStatementWrapper;
+import info.archinnov.achilles.validation.Validator;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Timer;
+import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 
 public class NativeQueryBuilder {
@@ -54,7 +62,8 @@ public class NativeQueryBuilder {
 	 */
 	public List<Map<String, Object>> get() {
 		log.debug("Get results for native query {}", queryString);
-		List<Row> rows = daoContext.execute(new SimpleStatementWrapper(queryString, boundValues)).all();
+		List<Row> rows = executeQuery().all();
+		daoContext.getMetrics().markRows(null, NATIVE, rows.size());
 		return mapper.mapRows(rows);
 	}
 
@@ -67,7 +76,7 @@ public class NativeQueryBuilder {
 	 */
 	public Map<String, Object> first() {
 		log.debug("Get first result for native query {}", queryString);
-		List<Row> rows = daoContext.execute(new SimpleStatementWrapper(queryString, boundValues)).all();
+		List<Row> rows = executeQuery().all();
 		List<Map<String, Object>> result = mapper.mapRows(rows);
 		if (result.isEmpty())
 			return null;
@@ -75,12 +84,97 @@ public class NativeQueryBuilder {
 			return result.get(0);
 	}
 
+	/**
+	 * Iterate over the found rows, fetching them from Cassandra page by page
+	 * instead of loading the whole result in memory. The returned
+	 * {@link NativeRow} is a view re-used for every row
+	 * 
+	 * @return Iterator<NativeRow>
+	 */
+	public Iterator<NativeRow> iterator() {
+		log.debug("Iterate over results of native query {}", queryString);
+		return iterate(newStatementWrapper());
+	}
+
+	/**
+	 * Iterate over the found rows, fetching them from Cassandra by pages of
+	 * <em>fetchSize</em> rows instead of the driver default page size
+	 * 
+	 * @param fetchSize
+	 *            number of rows fetched per page
+	 * @return Iterator<NativeRow>
+	 */
+	public Iterator<NativeRow> iterator(int fetchSize) {
+		log.debug("Iterate over results of native query {} by pages of {} rows", queryString, fetchSize);
+		Validator.validateTrue(fetchSize > 0, "Fetch size for native query should be strictly positive");
+		SimpleStatementWrapper statementWrapper = newStatementWrapper();
+		statementWrapper.getStatement().setFetchSize(fetchSize);
+		return iterate(statementWrapper);
+	}
+
+	/**
+	 * Stream the found rows to the callback, page by page. The
+	 * {@link NativeRow} given to the callback is only valid during the call
+	 * 
+	 * @param callback
+	 *            called once per found row
+	 */
+	public void forEachRow(NativeRowCallback callback) {
+		log.debug("Stream results of native query {} to callback {}", queryString, callback);
+		consume(iterator(), callback);
+	}
+
+	/**
+	 * Stream the found rows to the callback, by pages of <em>fetchSize</em>
+	 * rows. The {@link NativeRow} given to the callback is only valid during
+	 * the call
+	 * 
+	 * @param fetchSize
+	 *            number of rows fetched per page
+	 * @param callback
+	 *            called once per found row
+	 */
+	public void forEachRow(int fetchSize, NativeRowCallback callback) {
+		log.debug("Stream results of native query {} to callback {} by pages of {} rows", queryString, callback,
+				fetchSize);
+		consume(iterator(fetchSize), callback);
+	}
+
 	/**
 	 * Execute statement without returning result. Useful for
 	 * INSERT/UPDATE/DELETE and DDL statements
 	 */
 	public void execute() {
 		log.debug("Execute native query {}", queryString);
-		daoContext.execute(new SimpleStatementWrapper(queryString, boundValues));
+		executeQuery();
+	}
+
+	private Iterator<NativeRow> iterate(SimpleStatementWrapper statementWrapper) {
+		return new NativeQueryIterator(executeQuery(statementWrapper), daoContext.getMetrics(), daoContext
+				.getConfigContext().getSlicePrefetchThreshold());
+	}
+
+	private void consume(Iterator<NativeRow> iterator, NativeRowCallback callback) {
+		while (iterator.hasNext()) {
+			callback.onRow(iterator.next());
+		}
+	}
+
+	private SimpleStatementWrapper newStatementWrapper() {
+		return new SimpleStatementWrapper(queryString, boundValues);
+	}
+
+	private ResultSet executeQuery() {
+		return executeQuery(newStatementWrapper());
+	}
+
+	private ResultSet executeQuery(SimpleStatementWrapper statementWrapper) {
+		AchillesMetrics metrics = daoContext.getMetrics();
+		Timer.Context timer = metrics.start(null, NATIVE);
+		try {
+			return daoContext.execute(statementWrapper);
+		} finally {
+			metrics.stop(timer);
+		}
 	}
 }
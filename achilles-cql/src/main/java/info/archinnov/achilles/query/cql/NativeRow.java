@@ -0,0 +1,124 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.cql;
+
+import info.archinnov.achilles.validation.Validator;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Row;
+
+/**
+ * Index-based view over the current row of a native query. The column names
+ * and types are resolved once per result set, each value is decoded on access
+ * straight from the row bytes.
+ * 
+ * The same instance is re-used for every row of an iteration: copy the values
+ * (or call {@link #toMap()}) to keep them after moving to the next row
+ */
+public class NativeRow {
+
+	private final String[] names;
+	private final DataType[] types;
+	private final Map<String, Integer> indexes;
+	private Row row;
+
+	public NativeRow(ColumnDefinitions columnDefinitions) {
+		int size = columnDefinitions.size();
+		names = new String[size];
+		types = new DataType[size];
+		indexes = new HashMap<String, Integer>(size * 2);
+		for (int i = 0; i < size; i++) {
+			names[i] = columnDefinitions.getName(i);
+			types[i] = columnDefinitions.getType(i);
+			indexes.put(names[i], i);
+		}
+	}
+
+	/**
+	 * Point the view to the given row of the same result set
+	 */
+	public NativeRow wrap(Row row) {
+		this.row = row;
+		return this;
+	}
+
+	public int size() {
+		return names.length;
+	}
+
+	public String getName(int index) {
+		return names[index];
+	}
+
+	public boolean isNull(int index) {
+		return row.isNull(index);
+	}
+
+	/**
+	 * Decode the value of a column. Null collections are returned as empty
+	 * collections, like the driver getters do
+	 */
+	public Object get(int index) {
+		DataType type = types[index];
+		ByteBuffer bytes = row.getBytesUnsafe(index);
+		if (bytes == null) {
+			return type.isCollection() ? emptyCollection(type) : null;
+		}
+		return type.deserialize(bytes);
+	}
+
+	public Object get(String name) {
+		Integer index = indexes.get(name);
+		Validator.validateNotNull(index, "Column '%s' is not part of the native query result", name);
+		return get(index);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T get(int index, Class<T> type) {
+		return (T) get(index);
+	}
+
+	/**
+	 * @return a copy of the current row as a (column name, column value) map
+	 *         preserving the columns order
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Object> line = new LinkedHashMap<String, Object>(names.length * 2);
+		for (int i = 0; i < names.length; i++) {
+			line.put(names[i], get(i));
+		}
+		return line;
+	}
+
+	private Object emptyCollection(DataType type) {
+		switch (type.getName()) {
+		case LIST:
+			return Collections.emptyList();
+		case SET:
+			return Collections.emptySet();
+		default:
+			return Collections.emptyMap();
+		}
+	}
+}
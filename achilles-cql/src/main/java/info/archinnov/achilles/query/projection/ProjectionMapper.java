@@ -0,0 +1,110 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.projection;
+
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ColumnDefinitions.Definition;
+import com.datastax.driver.core.Row;
+import com.google.common.base.Objects;
+
+/**
+ * Maps rows of projection queries to DTOs. The mapping plan of a given
+ * entity, DTO class and list of selected columns is resolved once and cached
+ */
+public class ProjectionMapper {
+	private static final Logger log = LoggerFactory.getLogger(ProjectionMapper.class);
+
+	private final ConcurrentMap<PlanKey, ProjectionPlan<?>> plans = new ConcurrentHashMap<PlanKey, ProjectionPlan<?>>();
+
+	public <T> List<T> mapRows(EntityMeta meta, Class<T> projectionClass, List<Row> rows) {
+		List<T> projections = new ArrayList<T>(rows.size());
+		if (!rows.isEmpty()) {
+			ProjectionPlan<T> plan = planFor(meta, projectionClass, rows.get(0).getColumnDefinitions());
+			for (Row row : rows) {
+				projections.add(plan.map(row));
+			}
+		}
+		return projections;
+	}
+
+	public <T> T mapRow(EntityMeta meta, Class<T> projectionClass, Row row) {
+		if (row == null) {
+			return null;
+		}
+		return planFor(meta, projectionClass, row.getColumnDefinitions()).map(row);
+	}
+
+	@SuppressWarnings("unchecked")
+	<T> ProjectionPlan<T> planFor(EntityMeta meta, Class<T> projectionClass, ColumnDefinitions columnDefinitions) {
+		PlanKey key = new PlanKey(meta.getEntityClass(), projectionClass, columnDefinitions);
+		ProjectionPlan<T> plan = (ProjectionPlan<T>) plans.get(key);
+		if (plan == null) {
+			log.debug("Compile projection plan of {} for columns {}", projectionClass.getCanonicalName(),
+					key.columnNames);
+			plan = ProjectionPlan.compile(meta, projectionClass, columnDefinitions);
+			ProjectionPlan<T> existing = (ProjectionPlan<T>) plans.putIfAbsent(key, plan);
+			if (existing != null) {
+				plan = existing;
+			}
+		}
+		return plan;
+	}
+
+	public int size() {
+		return plans.size();
+	}
+
+	private static class PlanKey {
+		private final Class<?> entityClass;
+		private final Class<?> projectionClass;
+		private final List<String> columnNames;
+
+		PlanKey(Class<?> entityClass, Class<?> projectionClass, ColumnDefinitions columnDefinitions) {
+			this.entityClass = entityClass;
+			this.projectionClass = projectionClass;
+			this.columnNames = new ArrayList<String>(columnDefinitions.size());
+			for (Definition column : columnDefinitions) {
+				columnNames.add(column.getName());
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(entityClass, projectionClass, columnNames);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof PlanKey)) {
+				return false;
+			}
+			PlanKey other = (PlanKey) obj;
+			return entityClass.equals(other.entityClass) && projectionClass.equals(other.projectionClass)
+					&& columnNames.equals(other.columnNames);
+		}
+	}
+}
@@ -0,0 +1,315 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.projection;
+
+import info.archinnov.achilles.cql.TypeMapper;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.proxy.RowMethodInvoker;
+import info.archinnov.achilles.validation.Validator;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ColumnDefinitions.Definition;
+import com.datastax.driver.core.Row;
+import com.google.common.base.Defaults;
+import com.google.common.primitives.Primitives;
+
+/**
+ * Mapping of the columns of a projection query to a DTO, resolved once for a
+ * given entity, DTO class and list of selected columns
+ * 
+ * The DTO is either an interface whose getters are named after the selected
+ * columns, or a class with a public constructor taking the selected columns
+ * in order
+ */
+public class ProjectionPlan<T> {
+
+	private static final RowMethodInvoker cqlRowInvoker = new RowMethodInvoker();
+
+	private final Class<T> projectionClass;
+	private final List<String> columnNames;
+	private final ColumnReader[] readers;
+	private final Constructor<T> constructor;
+	private final Class<?>[] parameterTypes;
+	private final Map<Method, Integer> getterIndexes;
+
+	private ProjectionPlan(Class<T> projectionClass, List<String> columnNames, ColumnReader[] readers,
+			Constructor<T> constructor, Map<Method, Integer> getterIndexes) {
+		this.projectionClass = projectionClass;
+		this.columnNames = columnNames;
+		this.readers = readers;
+		this.constructor = constructor;
+		this.parameterTypes = constructor == null ? null : constructor.getParameterTypes();
+		this.getterIndexes = getterIndexes;
+	}
+
+	public static <T> ProjectionPlan<T> compile(EntityMeta meta, Class<T> projectionClass,
+			ColumnDefinitions columnDefinitions) {
+		List<String> columnNames = new ArrayList<String>();
+		List<ColumnReader> readers = new ArrayList<ColumnReader>();
+		for (Definition column : columnDefinitions) {
+			columnNames.add(column.getName());
+			readers.add(readerFor(meta, column));
+		}
+		ColumnReader[] readerArray = readers.toArray(new ColumnReader[readers.size()]);
+		if (projectionClass.isInterface()) {
+			return new ProjectionPlan<T>(projectionClass, columnNames, readerArray, null, mapGetters(meta,
+					projectionClass, columnNames, readerArray));
+		} else {
+			return new ProjectionPlan<T>(projectionClass, columnNames, readerArray, findConstructor(projectionClass,
+					readerArray), null);
+		}
+	}
+
+	public T map(Row row) {
+		Object[] values = new Object[readers.length];
+		for (int i = 0; i < readers.length; i++) {
+			values[i] = readers[i].read(row);
+		}
+		if (constructor != null) {
+			return instantiate(values);
+		} else {
+			return projectionClass.cast(Proxy.newProxyInstance(projectionClass.getClassLoader(),
+					new Class<?>[] { projectionClass }, new ProjectionHandler(values)));
+		}
+	}
+
+	public List<String> getColumnNames() {
+		return columnNames;
+	}
+
+	private T instantiate(Object[] values) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == null && parameterTypes[i].isPrimitive()) {
+				values[i] = Defaults.defaultValue(parameterTypes[i]);
+			}
+		}
+		try {
+			return constructor.newInstance(values);
+		} catch (Exception e) {
+			throw new AchillesException("Cannot instantiate projection class '" + projectionClass.getCanonicalName()
+					+ "'", e);
+		}
+	}
+
+	private static ColumnReader readerFor(EntityMeta meta, Definition column) {
+		final String name = column.getName();
+		PropertyMeta idMeta = meta.getIdMeta();
+		if (idMeta.isEmbeddedId()) {
+			int index = idMeta.getCQLComponentNames().indexOf(name);
+			if (index >= 0) {
+				return new RawColumnReader(name, idMeta.getComponentClasses().get(index));
+			}
+		}
+		for (PropertyMeta pm : meta.getAllMetas()) {
+			if (!pm.isEmbeddedId() && pm.getPropertyName().toLowerCase().equals(name)) {
+				return pm.isCounter() ? new RawColumnReader(name, Long.class) : new PropertyColumnReader(pm);
+			}
+		}
+		Class<?> javaType = TypeMapper.toJavaType(column.getType().getName());
+		Validator.validateFalse(javaType == null || column.getType().isCollection(),
+				"Column '%s' of projection query is not mapped by entity '%s'", name, meta.getClassName());
+		return new RawColumnReader(name, javaType);
+	}
+
+	private static <T> Constructor<T> findConstructor(Class<T> projectionClass, ColumnReader[] readers) {
+		Constructor<T> found = null;
+		for (Constructor<?> candidate : projectionClass.getConstructors()) {
+			if (candidate.getParameterTypes().length == readers.length) {
+				Validator.validateTrue(found == null,
+						"Projection class '%s' should have only one public constructor with %s parameters",
+						projectionClass.getCanonicalName(), readers.length);
+				@SuppressWarnings("unchecked")
+				Constructor<T> constructor = (Constructor<T>) candidate;
+				found = constructor;
+			}
+		}
+		Validator.validateNotNull(found, "Projection class '%s' should have a public constructor with %s parameters",
+				projectionClass.getCanonicalName(), readers.length);
+		Validator.validateFalse(Modifier.isAbstract(projectionClass.getModifiers()),
+				"Projection class '%s' should not be abstract", projectionClass.getCanonicalName());
+		Class<?>[] parameterTypes = found.getParameterTypes();
+		for (int i = 0; i < readers.length; i++) {
+			validateAssignable(projectionClass, parameterTypes[i], readers[i]);
+		}
+		return found;
+	}
+
+	private static Map<Method, Integer> mapGetters(EntityMeta meta, Class<?> projectionClass,
+			List<String> columnNames, ColumnReader[] readers) {
+		Map<Method, Integer> getterIndexes = new HashMap<Method, Integer>();
+		for (Method method : projectionClass.getMethods()) {
+			int index = columnNames.indexOf(columnNameOf(meta, method));
+			Validator.validateTrue(index >= 0 && method.getParameterTypes().length == 0,
+					"Method '%s' of projection interface '%s' does not match any selected column", method.getName(),
+					projectionClass.getCanonicalName());
+			validateAssignable(projectionClass, method.getReturnType(), readers[index]);
+			getterIndexes.put(method, index);
+		}
+		return getterIndexes;
+	}
+
+	private static String columnNameOf(EntityMeta meta, Method getter) {
+		String name = getter.getName();
+		// Getters named after the entity ones map to the column of the property
+		for (PropertyMeta pm : meta.getAllMetas()) {
+			if (!pm.isEmbeddedId() && pm.getGetter() != null && pm.getGetter().getName().equals(name)) {
+				return pm.getPropertyName().toLowerCase();
+			}
+		}
+		if (name.startsWith("get") && name.length() > 3) {
+			return name.substring(3).toLowerCase();
+		} else if (name.startsWith("is") && name.length() > 2) {
+			return name.substring(2).toLowerCase();
+		}
+		return name.toLowerCase();
+	}
+
+	private static void validateAssignable(Class<?> projectionClass, Class<?> targetType, ColumnReader reader) {
+		Validator.validateTrue(Primitives.wrap(targetType).isAssignableFrom(Primitives.wrap(reader.type())),
+				"Column '%s' of type '%s' cannot be mapped to '%s' in projection class '%s'", reader.name(), reader
+						.type().getCanonicalName(), targetType.getCanonicalName(), projectionClass.getCanonicalName());
+	}
+
+	private class ProjectionHandler implements InvocationHandler {
+		private final Object[] values;
+
+		ProjectionHandler(Object[] values) {
+			this.values = values;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			Integer index = getterIndexes.get(method);
+			if (index != null) {
+				Object value = values[index];
+				Class<?> returnType = method.getReturnType();
+				return value == null && returnType.isPrimitive() ? Defaults.defaultValue(returnType) : value;
+			}
+			String name = method.getName();
+			if ("equals".equals(name)) {
+				return proxy == args[0];
+			} else if ("hashCode".equals(name)) {
+				return System.identityHashCode(proxy);
+			} else if ("toString".equals(name)) {
+				Map<String, Object> columns = new LinkedHashMap<String, Object>();
+				for (int i = 0; i < values.length; i++) {
+					columns.put(columnNames.get(i), values[i]);
+				}
+				return projectionClass.getSimpleName() + columns;
+			}
+			throw new UnsupportedOperationException("Method '" + name + "' is not supported on projection '"
+					+ projectionClass.getCanonicalName() + "'");
+		}
+	}
+
+	private static interface ColumnReader {
+		Object read(Row row);
+
+		String name();
+
+		Class<?> type();
+	}
+
+	private static class PropertyColumnReader implements ColumnReader {
+		private final PropertyMeta pm;
+		private final Class<?> type;
+
+		PropertyColumnReader(PropertyMeta pm) {
+			this.pm = pm;
+			switch (pm.type()) {
+			case LIST:
+			case LAZY_LIST:
+				type = List.class;
+				break;
+			case SET:
+			case LAZY_SET:
+				type = Set.class;
+				break;
+			case MAP:
+			case LAZY_MAP:
+				type = Map.class;
+				break;
+			default:
+				type = pm.getValueClass();
+			}
+		}
+
+		@Override
+		public Object read(Row row) {
+			return cqlRowInvoker.invokeOnRowForFields(row, pm);
+		}
+
+		@Override
+		public String name() {
+			return pm.getPropertyName();
+		}
+
+		@Override
+		public Class<?> type() {
+			return type;
+		}
+	}
+
+	private static class RawColumnReader implements ColumnReader {
+		private final String name;
+		private final Class<?> type;
+
+		RawColumnReader(String name, Class<?> type) {
+			this.name = name;
+			this.type = type;
+		}
+
+		@Override
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public Object read(Row row) {
+			if (row.isNull(name)) {
+				return null;
+			}
+			if (type.isEnum()) {
+				String raw = (String) cqlRowInvoker.invokeOnRowForType(row, String.class, name);
+				return StringUtils.isBlank(raw) ? null : Enum.valueOf((Class<Enum>) type, raw);
+			}
+			return cqlRowInvoker.invokeOnRowForType(row, type, name);
+		}
+
+		@Override
+		public String name() {
+			return name;
+		}
+
+		@Override
+		public Class<?> type() {
+			return type;
+		}
+	}
+}
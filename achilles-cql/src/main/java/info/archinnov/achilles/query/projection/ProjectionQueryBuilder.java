@@ -0,0 +1,91 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.projection;
+
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.TYPED;
+import info.archinnov.achilles.context.DaoContext;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Timer;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+
+public class ProjectionQueryBuilder<T> {
+	private static final Logger log = LoggerFactory.getLogger(ProjectionQueryBuilder.class);
+
+	private DaoContext daoContext;
+	private ProjectionMapper projectionMapper;
+	private EntityMeta meta;
+	private Class<T> projectionClass;
+	private String queryString;
+	private Object[] boundValues;
+
+	public ProjectionQueryBuilder(Class<T> projectionClass, DaoContext daoContext,
+			ProjectionMapper projectionMapper, String queryString, EntityMeta meta, Object[] boundValues) {
+		this.projectionClass = projectionClass;
+		this.daoContext = daoContext;
+		this.projectionMapper = projectionMapper;
+		this.queryString = queryString;
+		this.meta = meta;
+		this.boundValues = boundValues;
+	}
+
+	/**
+	 * Executes the query and returns projections
+	 * 
+	 * Each selected column is mapped either to the getter of the same name
+	 * when the projection class is an interface, or to the constructor
+	 * parameter of the same position otherwise. Projections are not managed
+	 * 
+	 * @return List<T> list of projections or empty list
+	 * 
+	 */
+	public List<T> get() {
+		log.debug("Get results for projection query {}", queryString);
+		List<Row> rows = executeQuery().all();
+		daoContext.getMetrics().markRows(meta.getEntityClass(), TYPED, rows.size());
+		return projectionMapper.mapRows(meta, projectionClass, rows);
+	}
+
+	/**
+	 * Executes the query and returns first projection
+	 * 
+	 * @return T first projection or null
+	 * 
+	 */
+	public T getFirst() {
+		log.debug("Get first result for projection query {}", queryString);
+		Row row = executeQuery().one();
+		return projectionMapper.mapRow(meta, projectionClass, row);
+	}
+
+	private ResultSet executeQuery() {
+		AchillesMetrics metrics = daoContext.getMetrics();
+		Timer.Context timer = metrics.start(meta.getEntityClass(), TYPED);
+		try {
+			return daoContext.executeProjection(meta, queryString, boundValues);
+		} finally {
+			metrics.stop(timer);
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.scan;
+
+import info.archinnov.achilles.exception.AchillesException;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Iterate over the entities of a full table scan. Token ranges are read in
+ * parallel by worker threads which push entities into a bounded queue, so a
+ * slow consumer slows down the scan instead of filling the memory. Entities
+ * come in token order within a range, ranges come in no particular order<br/>
+ * <br/>
+ * The iterator should be closed when it is not consumed until the end
+ */
+public class ScanIterator<T> implements Iterator<T>, Closeable {
+	private static final Logger log = LoggerFactory.getLogger(ScanIterator.class);
+
+	private static final Object END_OF_SCAN = new Object();
+
+	private final BlockingQueue<Object> entities;
+	private final ExecutorService executor;
+	private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+	private T next;
+	private boolean finished;
+
+	public ScanIterator(TokenRangeReader<T> reader, List<TokenRange> ranges, int concurrency, int queueCapacity) {
+		this.entities = new ArrayBlockingQueue<Object>(queueCapacity);
+		Queue<TokenRange> pendingRanges = new ConcurrentLinkedQueue<TokenRange>(ranges);
+		int workerCount = Math.max(1, Math.min(concurrency, ranges.size()));
+		AtomicInteger runningWorkers = new AtomicInteger(workerCount);
+
+		log.debug("Scan {} token ranges with {} workers", ranges.size(), workerCount);
+		executor = Executors.newFixedThreadPool(workerCount, new ThreadFactoryBuilder()
+				.setNameFormat("achilles-scan-%d").setDaemon(true).build());
+		for (int i = 0; i < workerCount; i++) {
+			executor.execute(new Worker(reader, pendingRanges, runningWorkers));
+		}
+		executor.shutdown();
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next != null) {
+			return true;
+		}
+		if (finished) {
+			return false;
+		}
+		Object element;
+		try {
+			element = entities.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			close();
+			throw new AchillesException("Interrupted while waiting for scanned entities", e);
+		}
+		if (element == END_OF_SCAN) {
+			finished = true;
+			Throwable throwable = failure.get();
+			if (throwable != null) {
+				close();
+				throw new AchillesException("Error while scanning token ranges : " + throwable.getMessage(),
+						throwable);
+			}
+			return false;
+		}
+		next = (T) element;
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException("No more scanned entity");
+		}
+		T entity = next;
+		next = null;
+		return entity;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("Cannot remove entity with scan iterator");
+	}
+
+	/**
+	 * Stop the workers. Ranges not read yet are skipped
+	 */
+	@Override
+	public void close() {
+		finished = true;
+		executor.shutdownNow();
+	}
+
+	private class Worker implements Runnable {
+		private final TokenRangeReader<T> reader;
+		private final Queue<TokenRange> pendingRanges;
+		private final AtomicInteger runningWorkers;
+
+		private Worker(TokenRangeReader<T> reader, Queue<TokenRange> pendingRanges, AtomicInteger runningWorkers) {
+			this.reader = reader;
+			this.pendingRanges = pendingRanges;
+			this.runningWorkers = runningWorkers;
+		}
+
+		@Override
+		public void run() {
+			boolean failed = false;
+			try {
+				TokenRange range;
+				while (failure.get() == null && (range = pendingRanges.poll()) != null) {
+					Iterator<T> rangeEntities = reader.read(range);
+					while (rangeEntities.hasNext()) {
+						entities.put(rangeEntities.next());
+					}
+				}
+			} catch (InterruptedException e) {
+				log.trace("Scan worker interrupted");
+				return;
+			} catch (Throwable throwable) {
+				failed = failure.compareAndSet(null, throwable);
+			}
+			// The first failure or the last worker ends the scan
+			if (runningWorkers.decrementAndGet() == 0 || failed) {
+				try {
+					entities.put(END_OF_SCAN);
+				} catch (InterruptedException e) {
+					log.trace("Scan worker interrupted");
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.scan;
+
+import static info.archinnov.achilles.consistency.ConsistencyConverter.getCQLLevel;
+import info.archinnov.achilles.context.ConfigurationContext;
+import info.archinnov.achilles.context.DaoContext;
+import info.archinnov.achilles.context.PersistenceContextFactory;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.statement.StatementGenerator;
+import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.validation.Validator;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.driver.core.PreparedStatement;
+
+public class ScanQueryBuilder<T> {
+	private static final Logger log = LoggerFactory.getLogger(ScanQueryBuilder.class);
+
+	// Several ranges per worker so that a slow range does not leave the other workers idle
+	static final int RANGES_PER_WORKER = 4;
+
+	private EntityMeta meta;
+	private DaoContext daoContext;
+	private PersistenceContextFactory contextFactory;
+	private int concurrency;
+	private int pageSize;
+	private ConsistencyLevel consistencyLevel;
+
+	private StatementGenerator generator = new StatementGenerator();
+
+	public ScanQueryBuilder(EntityMeta meta, DaoContext daoContext, PersistenceContextFactory contextFactory,
+			ConfigurationContext configContext) {
+		this.meta = meta;
+		this.daoContext = daoContext;
+		this.contextFactory = contextFactory;
+		this.concurrency = configContext.getScanConcurrency();
+		this.pageSize = configContext.getScanPageSize();
+		this.consistencyLevel = meta.getReadConsistencyLevel();
+	}
+
+	/**
+	 * Set the number of token ranges read in parallel<br/>
+	 * <br/>
+	 * 
+	 * @param concurrency
+	 *            number of worker threads
+	 * 
+	 * @return ScanQueryBuilder<T>
+	 */
+	public ScanQueryBuilder<T> concurrency(int concurrency) {
+		Validator.validateTrue(concurrency > 0, "Concurrency for scan of entity '%s' should be strictly positive",
+				meta.getClassName());
+		this.concurrency = concurrency;
+		return this;
+	}
+
+	/**
+	 * Set the number of rows fetched per page for each token range<br/>
+	 * <br/>
+	 * 
+	 * @param pageSize
+	 *            page size
+	 * 
+	 * @return ScanQueryBuilder<T>
+	 */
+	public ScanQueryBuilder<T> pageSize(int pageSize) {
+		Validator.validateTrue(pageSize > 0, "Page size for scan of entity '%s' should be strictly positive",
+				meta.getClassName());
+		this.pageSize = pageSize;
+		return this;
+	}
+
+	/**
+	 * Set consistency level<br/>
+	 * <br/>
+	 * 
+	 * @param consistencyLevel
+	 *            consistency level
+	 * 
+	 * @return ScanQueryBuilder<T>
+	 */
+	public ScanQueryBuilder<T> consistencyLevel(ConsistencyLevel consistencyLevel) {
+		Validator.validateNotNull(consistencyLevel, "ConsistencyLevel for scan of entity '%s' should not be null",
+				meta.getClassName());
+		this.consistencyLevel = consistencyLevel;
+		return this;
+	}
+
+	/**
+	 * Start the scan and iterate over all the entities of the table. The
+	 * iterator should be closed if it is not consumed until the end<br/>
+	 * <br/>
+	 * 
+	 * @return ScanIterator<T>
+	 */
+	public ScanIterator<T> iterator() {
+		log.debug("Scan all entities of class {} with concurrency {} and page size {}", meta.getClassName(),
+				concurrency, pageSize);
+		TokenRing ring = TokenRing.load(daoContext.getSession());
+		List<TokenRange> ranges = ring.split(concurrency * RANGES_PER_WORKER);
+		PreparedStatement rangePs = daoContext.prepare(generator.generateSelectTokenRange(meta, pageSize));
+		PreparedStatement afterPartitionPs = daoContext.prepare(generator.generateSelectTokenRangeAfterPartition(meta,
+				pageSize));
+		PreparedStatement partitionPs = meta.isClusteredEntity() ? daoContext.prepare(generator
+				.generateSelectPartition(meta)) : null;
+		TokenRangeReader<T> reader = new TokenRangeReader<T>(meta, rangePs, afterPartitionPs, partitionPs, ring,
+				getCQLLevel(consistencyLevel), pageSize, daoContext, contextFactory);
+		return new ScanIterator<T>(reader, ranges, concurrency, concurrency * pageSize);
+	}
+
+	/**
+	 * Scan all the entities of the table and pass them to the callback, on
+	 * the calling thread. Returns when the whole table has been read<br/>
+	 * <br/>
+	 * 
+	 * @param callback
+	 *            callback receiving each entity
+	 */
+	public void forEach(ScanCallback<T> callback) {
+		Validator.validateNotNull(callback, "Callback for scan of entity '%s' should not be null",
+				meta.getClassName());
+		ScanIterator<T> iterator = iterator();
+		try {
+			while (iterator.hasNext()) {
+				callback.onEntity(iterator.next());
+			}
+		} finally {
+			iterator.close();
+		}
+	}
+}
@@ -0,0 +1,211 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.scan;
+
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.SCAN;
+import info.archinnov.achilles.context.DaoContext;
+import info.archinnov.achilles.context.PersistenceContext;
+import info.archinnov.achilles.context.PersistenceContextFactory;
+import info.archinnov.achilles.entity.EntityMapper;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.entity.operations.EntityProxifier;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.statement.wrapper.BoundStatementWrapper;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Timer;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.google.common.base.Function;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+
+/**
+ * Read the entities of one token range, page by page. Each page is a query
+ * limited to the page size which resumes after the last partition read
+ * completely by the previous page. A partition filling a whole page is read
+ * on its own with driver paging<br/>
+ * <br/>
+ * Paging is done client side because server side paging of token range
+ * queries is not reliable on Cassandra 2.0
+ */
+public class TokenRangeReader<T> {
+	private static final Logger log = LoggerFactory.getLogger(TokenRangeReader.class);
+
+	private EntityMeta meta;
+	private PropertyMeta idMeta;
+	private PreparedStatement rangePs;
+	private PreparedStatement afterPartitionPs;
+	private PreparedStatement partitionPs;
+	private TokenRing ring;
+	private ConsistencyLevel consistencyLevel;
+	private int pageSize;
+	private DaoContext daoContext;
+	private PersistenceContextFactory contextFactory;
+	private Set<Method> alreadyLoaded;
+
+	private EntityMapper mapper = new EntityMapper();
+	private EntityProxifier proxifier = new EntityProxifier();
+
+	public TokenRangeReader(EntityMeta meta, PreparedStatement rangePs, PreparedStatement afterPartitionPs,
+			PreparedStatement partitionPs, TokenRing ring, ConsistencyLevel consistencyLevel, int pageSize,
+			DaoContext daoContext, PersistenceContextFactory contextFactory) {
+		this.meta = meta;
+		this.idMeta = meta.getIdMeta();
+		this.rangePs = rangePs;
+		this.afterPartitionPs = afterPartitionPs;
+		this.partitionPs = partitionPs;
+		this.ring = ring;
+		this.consistencyLevel = consistencyLevel;
+		this.pageSize = pageSize;
+		this.daoContext = daoContext;
+		this.contextFactory = contextFactory;
+		this.alreadyLoaded = new HashSet<Method>(meta.getEagerGetters());
+	}
+
+	public Iterator<T> read(TokenRange range) {
+		log.trace("Scan token range {} of entity {}", range, meta.getClassName());
+		return new TokenRangeIterator(range);
+	}
+
+	private class TokenRangeIterator extends AbstractIterator<T> {
+		private final Object start;
+		private final Object end;
+		private List<Object> lastPartition;
+		private boolean lastPage;
+		private Iterator<T> page;
+
+		private TokenRangeIterator(TokenRange range) {
+			this.start = ring.toBoundValue(range.getStart());
+			this.end = ring.toBoundValue(range.getEnd());
+		}
+
+		@Override
+		protected T computeNext() {
+			while (page == null || !page.hasNext()) {
+				if (lastPage) {
+					return endOfData();
+				}
+				page = fetchPage();
+			}
+			return page.next();
+		}
+
+		private Iterator<T> fetchPage() {
+			List<T> entities = new ArrayList<T>();
+			for (Row row : execute(lastPartition == null ? rangePs : afterPartitionPs, pageValues())) {
+				entities.add(mapRow(row));
+			}
+			lastPage = entities.size() < pageSize;
+			if (lastPage) {
+				return proxify(entities);
+			}
+
+			int lastIndex = entities.size() - 1;
+			List<Object> trailingPartition = extractPartition(entities.get(lastIndex));
+			if (!meta.isClusteredEntity()) {
+				lastPartition = trailingPartition;
+				return proxify(entities);
+			}
+
+			// The trailing partition may be incomplete, it is read again by the next page
+			int partitionStart = lastIndex;
+			while (partitionStart > 0 && extractPartition(entities.get(partitionStart - 1)).equals(trailingPartition)) {
+				partitionStart--;
+			}
+			if (partitionStart > 0) {
+				lastPartition = extractPartition(entities.get(partitionStart - 1));
+				return proxify(entities.subList(0, partitionStart));
+			}
+
+			log.trace("Partition {} of entity {} fills a whole page, read it on its own", trailingPartition,
+					meta.getClassName());
+			lastPartition = trailingPartition;
+			return Iterators.transform(execute(partitionPs, trailingPartition.toArray()).iterator(),
+					new Function<Row, T>() {
+						@Override
+						public T apply(Row row) {
+							return proxify(mapRow(row));
+						}
+					});
+		}
+
+		private Object[] pageValues() {
+			if (lastPartition == null) {
+				return new Object[] { start, end };
+			}
+			Object[] values = lastPartition.toArray(new Object[lastPartition.size() + 1]);
+			values[lastPartition.size()] = end;
+			return values;
+		}
+	}
+
+	private ResultSet execute(PreparedStatement ps, Object[] values) {
+		BoundStatement bs = ps.bind(values);
+		bs.setFetchSize(pageSize);
+
+		AchillesMetrics metrics = daoContext.getMetrics();
+		Timer.Context timer = metrics.start(meta.getEntityClass(), SCAN);
+		try {
+			return daoContext.execute(new BoundStatementWrapper(meta.getEntityClass(), bs, values, consistencyLevel));
+		} finally {
+			metrics.stop(timer);
+		}
+	}
+
+	private List<Object> extractPartition(T entity) {
+		Object primaryKey = idMeta.getPrimaryKey(entity);
+		if (idMeta.isEmbeddedId()) {
+			return idMeta.extractPartitionComponents(idMeta.encodeToComponents(primaryKey));
+		}
+		return Arrays.asList(idMeta.encode(primaryKey));
+	}
+
+	private T mapRow(Row row) {
+		T entity = meta.instanciate();
+		mapper.setEagerPropertiesToEntity(row, meta, entity);
+		return entity;
+	}
+
+	private Iterator<T> proxify(List<T> entities) {
+		return Iterators.transform(entities.iterator(), new Function<T, T>() {
+			@Override
+			public T apply(T entity) {
+				return proxify(entity);
+			}
+		});
+	}
+
+	private T proxify(T entity) {
+		PersistenceContext context = contextFactory.newContext(entity);
+		return proxifier.buildProxy(entity, context, alreadyLoaded);
+	}
+}
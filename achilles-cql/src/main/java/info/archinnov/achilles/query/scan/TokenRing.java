@@ -0,0 +1,124 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.scan;
+
+import info.archinnov.achilles.exception.AchillesException;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+
+/**
+ * Tokens owned by the nodes of the cluster, read from the system tables. The
+ * ring is cut at each token then each range is split evenly so that a scan
+ * can read enough ranges in parallel, even on a small cluster without vnodes
+ */
+public class TokenRing {
+	private static final Logger log = LoggerFactory.getLogger(TokenRing.class);
+
+	public static final String MURMUR3_PARTITIONER = "org.apache.cassandra.dht.Murmur3Partitioner";
+	public static final String RANDOM_PARTITIONER = "org.apache.cassandra.dht.RandomPartitioner";
+
+	private static final String SELECT_LOCAL_TOKENS = "SELECT partitioner,tokens FROM system.local";
+	private static final String SELECT_PEERS_TOKENS = "SELECT tokens FROM system.peers";
+
+	// Murmur3Partitioner never assigns Long.MIN_VALUE to a key
+	private static final BigInteger MURMUR3_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+	private static final BigInteger MURMUR3_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+	private static final BigInteger RANDOM_MIN = BigInteger.valueOf(-1);
+	private static final BigInteger RANDOM_MAX = BigInteger.valueOf(2).pow(127);
+
+	private final boolean murmur3;
+	private final List<BigInteger> tokens;
+
+	public TokenRing(String partitioner, Collection<String> tokens) {
+		if (MURMUR3_PARTITIONER.equals(partitioner)) {
+			murmur3 = true;
+		} else if (RANDOM_PARTITIONER.equals(partitioner)) {
+			murmur3 = false;
+		} else {
+			throw new AchillesException("Full table scan is not supported for partitioner '" + partitioner + "'");
+		}
+		TreeSet<BigInteger> sortedTokens = new TreeSet<BigInteger>();
+		for (String token : tokens) {
+			sortedTokens.add(new BigInteger(token));
+		}
+		this.tokens = new ArrayList<BigInteger>(sortedTokens);
+	}
+
+	public static TokenRing load(Session session) {
+		log.debug("Load token ring from system tables");
+		Row local = session.execute(SELECT_LOCAL_TOKENS).one();
+		List<String> tokens = new ArrayList<String>(local.getSet("tokens", String.class));
+		for (Row peer : session.execute(SELECT_PEERS_TOKENS)) {
+			tokens.addAll(peer.getSet("tokens", String.class));
+		}
+		return new TokenRing(local.getString("partitioner"), tokens);
+	}
+
+	/**
+	 * Split the whole ring in contiguous ranges, at least one per node token
+	 * and at least minRangeCount in total when the ring is large enough
+	 */
+	public List<TokenRange> split(int minRangeCount) {
+		BigInteger min = murmur3 ? MURMUR3_MIN : RANDOM_MIN;
+		BigInteger max = murmur3 ? MURMUR3_MAX : RANDOM_MAX;
+
+		List<BigInteger> boundaries = new ArrayList<BigInteger>();
+		boundaries.add(min);
+		for (BigInteger token : tokens) {
+			if (token.compareTo(min) > 0 && token.compareTo(max) < 0) {
+				boundaries.add(token);
+			}
+		}
+		boundaries.add(max);
+
+		int ringRangeCount = boundaries.size() - 1;
+		int splitCount = Math.max(1, (minRangeCount + ringRangeCount - 1) / ringRangeCount);
+		List<TokenRange> ranges = new ArrayList<TokenRange>();
+		for (int i = 0; i < ringRangeCount; i++) {
+			BigInteger start = boundaries.get(i);
+			BigInteger width = boundaries.get(i + 1).subtract(start);
+			BigInteger current = start;
+			for (int j = 1; j <= splitCount; j++) {
+				BigInteger next = start.add(width.multiply(BigInteger.valueOf(j)).divide(BigInteger.valueOf(splitCount)));
+				if (next.compareTo(current) > 0) {
+					ranges.add(new TokenRange(current, next));
+					current = next;
+				}
+			}
+		}
+		log.trace("Token ring split in {} ranges", ranges.size());
+		return ranges;
+	}
+
+	/**
+	 * Token value to bind in a token restriction: bigint for
+	 * Murmur3Partitioner, varint for RandomPartitioner
+	 */
+	public Object toBoundValue(BigInteger token) {
+		return murmur3 ? (Object) token.longValue() : token;
+	}
+}
@@ -28,10 +28,13 @@ import org.slf4j.LoggerFactory;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.entity.operations.SliceQueryExecutor;
+import info.archinnov.achilles.query.CursorCodec;
 import info.archinnov.achilles.query.SliceQuery;
 import info.archinnov.achilles.type.BoundingMode;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.Cursor;
 import info.archinnov.achilles.type.OrderingMode;
+import info.archinnov.achilles.type.Page;
 import info.archinnov.achilles.validation.Validator;
 
 public abstract class RootSliceQueryBuilder<T> {
@@ -42,6 +45,7 @@ public abstract class RootSliceQueryBuilder<T> {
 	protected EntityMeta meta;
 
 	protected List<Object> partitionComponents = new ArrayList<Object>();
+	protected List<List<Object>> partitionsIn = new ArrayList<List<Object>>();
 	private PropertyMeta idMeta;
 	private List<Object> fromClusterings = new ArrayList<Object>();
 	private List<Object> toClusterings = new ArrayList<Object>();
@@ -53,6 +57,8 @@ public abstract class RootSliceQueryBuilder<T> {
 	private boolean limitHasBeenSet = false;
 	private boolean orderingHasBeenSet = false;
 
+	private CursorCodec cursorCodec = new CursorCodec();
+
 	RootSliceQueryBuilder(SliceQueryExecutor sliceQueryExecutor,Class<T> entityClass, EntityMeta meta) {
         this.sliceQueryExecutor = sliceQueryExecutor;
         this.entityClass = entityClass;
@@ -82,6 +88,18 @@ public abstract class RootSliceQueryBuilder<T> {
 		return this;
 	}
 
+	protected RootSliceQueryBuilder<T> partitionsInInternal(List<List<Object>> partitions) {
+		log.trace("Add partition keys {}", partitions);
+		Validator.validateNotEmpty(partitions,
+				"There should be at least one partition key provided for querying on entity '%s'",
+				meta.getClassName());
+		for (List<Object> partition : partitions) {
+			idMeta.validatePartitionComponents(partition);
+		}
+		this.partitionsIn = partitions;
+		return this;
+	}
+
 	protected RootSliceQueryBuilder<T> fromClusteringsInternal(List<Object> clusteringComponents) {
         log.trace("Add clustering components {}",clusteringComponents);
 		idMeta.validateClusteringComponents(clusteringComponents);
@@ -240,6 +258,94 @@ public abstract class RootSliceQueryBuilder<T> {
 		return sliceQueryExecutor.iterator(clusteredQuery);
 	}
 
+	protected Page<T> page(int size, Cursor from) {
+		log.trace("Get page of {} entities from cursor {}", size, from);
+		Validator.validateTrue(size > 0, "Page size for slice query for entity '%s' should be strictly positive",
+				meta.getClassName());
+		Validator.validateFalse(limitHasBeenSet, "You should not set 'limit' parameter when calling page()");
+
+		// Fetch one more entity than requested to know whether there is a next page
+		List<T> entities;
+		if (from == null) {
+			entities = new ArrayList<T>(sliceQueryExecutor.get(buildClusterQuery(size + 1)));
+		} else {
+			entities = getAfter(cursorCodec.decodeClusterings(idMeta, from), size + 1);
+		}
+
+		if (entities.size() > size) {
+			List<T> pageEntities = new ArrayList<T>(entities.subList(0, size));
+			return new Page<T>(pageEntities, cursorCodec.encodeClusterings(idMeta, pageEntities.get(size - 1)));
+		} else {
+			return new Page<T>(entities, null);
+		}
+	}
+
+	/**
+	 * CQL only allows a range on one clustering component, after the fixed
+	 * ones. Resuming after a full clustering key (c1,c2,...,cn) is done level
+	 * by level, from the deepest component up to the varying component of the
+	 * original query: (c1,...,cn-1 fixed, cn > last cn), then (c1,...,cn-2
+	 * fixed, cn-1 > last cn-1) and so on. Each level is a bounded query so the
+	 * cost of a page does not depend on its position in the partition
+	 */
+	private List<T> getAfter(List<Object> lastClusterings, int count) {
+		CQLSliceQuery<T> originalQuery = new CQLSliceQuery<T>(buildClusterQuery(), null);
+		int varyingIndex = originalQuery.getFixedComponents().size() - partitionComponents.size();
+		boolean hasEndBound = originalQuery.getLastEndComponent() != null;
+		boolean inclusiveEnd = bounding == BoundingMode.INCLUSIVE_BOUNDS
+				|| bounding == BoundingMode.INCLUSIVE_END_BOUND_ONLY;
+
+		List<T> entities = new ArrayList<T>();
+		for (int depth = lastClusterings.size() - 1; depth >= varyingIndex && entities.size() < count; depth--) {
+			List<Object> levelFrom = lastClusterings.subList(0, depth + 1);
+			List<Object> levelTo;
+			BoundingMode levelBounding;
+			if (depth == varyingIndex && hasEndBound) {
+				levelTo = toClusterings.subList(0, Math.min(depth + 1, toClusterings.size()));
+				levelBounding = inclusiveEnd ? BoundingMode.INCLUSIVE_END_BOUND_ONLY : BoundingMode.EXCLUSIVE_BOUNDS;
+			} else {
+				levelTo = lastClusterings.subList(0, depth);
+				levelBounding = BoundingMode.EXCLUSIVE_BOUNDS;
+			}
+
+			SliceQuery<T> levelQuery = new SliceQuery(entityClass, meta, partitionComponents, levelFrom, levelTo,
+					ordering, levelBounding, consistencyLevel, count - entities.size(), batchSize, true);
+			if (isEndReached(levelQuery)) {
+				break;
+			}
+			entities.addAll(sliceQueryExecutor.get(levelQuery));
+		}
+		return entities;
+	}
+
+	private boolean isEndReached(SliceQuery<T> levelQuery) {
+		List<Object> from = levelQuery.getClusteringsFrom();
+		List<Object> to = levelQuery.getClusteringsTo();
+		return from.size() == to.size() && from.equals(to);
+	}
+
+	protected List<T> getInPartitions() {
+		return sliceQueryExecutor.get(buildClusterQueries());
+	}
+
+	protected List<T> getInPartitions(int n) {
+		limit = n;
+		limitHasBeenSet = true;
+		return sliceQueryExecutor.get(buildClusterQueries());
+	}
+
+	protected Iterator<T> iteratorInPartitions() {
+		log.trace("Build merged iterator for slice query over partitions {}", partitionsIn);
+		return sliceQueryExecutor.iterator(buildClusterQueries());
+	}
+
+	protected Iterator<T> iteratorInPartitions(int batchSize) {
+		log.trace("Build merged iterator for slice query over partitions {} with batch size {}", partitionsIn,
+				batchSize);
+		this.batchSize = batchSize;
+		return sliceQueryExecutor.iterator(buildClusterQueries());
+	}
+
 	protected void remove() {
         log.trace("Slice remove");
 		SliceQuery<T> clusteredQuery = buildClusterQuery();
@@ -314,4 +420,22 @@ public abstract class RootSliceQueryBuilder<T> {
 		return new SliceQuery(entityClass, meta, partitionComponents, fromClusterings, toClusterings, ordering,
 				bounding, consistencyLevel, limit, batchSize, limitHasBeenSet);
 	}
+
+	/**
+	 * Build a query with the given limit without changing the builder state,
+	 * so that the builder can be reused
+	 */
+	private SliceQuery<T> buildClusterQuery(int queryLimit) {
+		return new SliceQuery(entityClass, meta, partitionComponents, fromClusterings, toClusterings, ordering,
+				bounding, consistencyLevel, queryLimit, batchSize, true);
+	}
+
+	protected List<SliceQuery<T>> buildClusterQueries() {
+		List<SliceQuery<T>> sliceQueries = new ArrayList<SliceQuery<T>>();
+		for (List<Object> partition : partitionsIn) {
+			sliceQueries.add(new SliceQuery(entityClass, meta, partition, fromClusterings, toClusterings, ordering,
+					bounding, consistencyLevel, limit, batchSize, limitHasBeenSet));
+		}
+		return sliceQueries;
+	}
 }
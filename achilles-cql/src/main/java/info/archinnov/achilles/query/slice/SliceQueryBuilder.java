@@ -16,6 +16,8 @@
  */
 package info.archinnov.achilles.query.slice;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
@@ -23,7 +25,9 @@ import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.entity.operations.SliceQueryExecutor;
 import info.archinnov.achilles.type.BoundingMode;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.Cursor;
 import info.archinnov.achilles.type.OrderingMode;
+import info.archinnov.achilles.type.Page;
 import info.archinnov.achilles.validation.Validator;
 
 public class SliceQueryBuilder<T> extends RootSliceQueryBuilder<T> {
@@ -45,6 +49,29 @@ public class SliceQueryBuilder<T> extends RootSliceQueryBuilder<T> {
 		return new SliceShortcutQueryBuilder();
 	}
 
+	/**
+	 * Query the same slice over several partitions. Partitions are queried
+	 * concurrently and the results are merged by clustering order<br/>
+	 * <br/>
+	 * 
+	 * @param partitionKeys
+	 *            Partition keys. For a composite partition key, each partition
+	 *            is given as the list of its components
+	 * @return SliceMultiPartitionQueryBuilder
+	 */
+	public SliceMultiPartitionQueryBuilder partitionComponentsIn(Object... partitionKeys) {
+		List<List<Object>> partitions = new ArrayList<List<Object>>();
+		for (Object partitionKey : partitionKeys) {
+			if (partitionKey instanceof List) {
+				partitions.add(new ArrayList<Object>((List<?>) partitionKey));
+			} else {
+				partitions.add(Arrays.asList(partitionKey));
+			}
+		}
+		super.partitionsInInternal(partitions);
+		return new SliceMultiPartitionQueryBuilder();
+	}
+
 	/**
 	 * Query by 'from' & 'to' embeddedIds<br/>
 	 * <br/>
@@ -510,6 +537,22 @@ public class SliceQueryBuilder<T> extends RootSliceQueryBuilder<T> {
 			return SliceQueryBuilder.super.iterator(batchSize);
 		}
 
+		/**
+		 * Get a page of entities<br/>
+		 * <br/>
+		 * 
+		 * @param size
+		 *            maximum number of entities in the page
+		 * @param from
+		 *            cursor returned with the previous page, null for the
+		 *            first page
+		 * 
+		 * @return Page<T>
+		 */
+		public Page<T> page(int size, Cursor from) {
+			return SliceQueryBuilder.super.page(size, from);
+		}
+
 		/**
 		 * Remove matched entities<br/>
 		 * <br/>
@@ -533,4 +576,144 @@ public class SliceQueryBuilder<T> extends RootSliceQueryBuilder<T> {
 			SliceQueryBuilder.super.remove(n);
 		}
 	}
+
+	public class SliceMultiPartitionQueryBuilder {
+
+		protected SliceMultiPartitionQueryBuilder() {
+		}
+
+		/**
+		 * Set 'from' clustering component(s)<br/>
+		 * <br/>
+		 * 
+		 * @param clusteringComponents
+		 *            'from' clustering component(s)
+		 * 
+		 * @return SliceMultiPartitionQueryBuilder
+		 */
+		public SliceMultiPartitionQueryBuilder fromClusterings(Object... clusteringComponents) {
+			SliceQueryBuilder.super.fromClusteringsInternal(clusteringComponents);
+			return this;
+		}
+
+		/**
+		 * Set 'to' clustering component(s)<br/>
+		 * <br/>
+		 * 
+		 * @param clusteringComponents
+		 *            'to' clustering component(s)
+		 * 
+		 * @return SliceMultiPartitionQueryBuilder
+		 */
+		public SliceMultiPartitionQueryBuilder toClusterings(Object... clusteringComponents) {
+			SliceQueryBuilder.super.toClusteringsInternal(clusteringComponents);
+			return this;
+		}
+
+		/**
+		 * Set ordering<br/>
+		 * <br/>
+		 * 
+		 * @param ordering
+		 *            ordering mode: ASCENDING or DESCENDING
+		 * 
+		 * @return SliceMultiPartitionQueryBuilder
+		 */
+		public SliceMultiPartitionQueryBuilder ordering(OrderingMode ordering) {
+			SliceQueryBuilder.super.ordering(ordering);
+			return this;
+		}
+
+		/**
+		 * Set bounding mode<br/>
+		 * <br/>
+		 * 
+		 * @param boundingMode
+		 *            bounding mode: INCLUSIVE_BOUNDS, EXCLUSIVE_BOUNDS,
+		 *            INCLUSIVE_START_BOUND_ONLY or INCLUSIVE_END_BOUND_ONLY
+		 * 
+		 * @return SliceMultiPartitionQueryBuilder
+		 */
+		public SliceMultiPartitionQueryBuilder bounding(BoundingMode boundingMode) {
+			SliceQueryBuilder.super.bounding(boundingMode);
+			return this;
+		}
+
+		/**
+		 * Set consistency level<br/>
+		 * <br/>
+		 * 
+		 * @param consistencyLevel
+		 *            consistency level:
+		 *            ONE,TWO,THREE,QUORUM,LOCAL_QUORUM,EACH_QUORUM or ALL
+		 * 
+		 * @return SliceMultiPartitionQueryBuilder
+		 */
+		public SliceMultiPartitionQueryBuilder consistencyLevel(ConsistencyLevel consistencyLevel) {
+			SliceQueryBuilder.super.consistencyLevelInternal(consistencyLevel);
+			return this;
+		}
+
+		/**
+		 * Set limit, applied to the merged result of all partitions<br/>
+		 * <br/>
+		 * 
+		 * @param limit
+		 *            limit to the number of returned rows
+		 * 
+		 * @return SliceMultiPartitionQueryBuilder
+		 */
+		public SliceMultiPartitionQueryBuilder limit(int limit) {
+			SliceQueryBuilder.super.limit(limit);
+			return this;
+		}
+
+		/**
+		 * Get entities of all partitions, merged by clustering order<br/>
+		 * <br/>
+		 * 
+		 * 
+		 * @return List<T>
+		 */
+		public List<T> get() {
+			return SliceQueryBuilder.super.getInPartitions();
+		}
+
+		/**
+		 * Get first n entities of all partitions, merged by clustering order<br/>
+		 * <br/>
+		 * 
+		 * 
+		 * @return List<T>
+		 */
+		public List<T> get(int n) {
+			return SliceQueryBuilder.super.getInPartitions(n);
+		}
+
+		/**
+		 * Iterator on entities of all partitions, merged by clustering order<br/>
+		 * <br/>
+		 * 
+		 * 
+		 * @return Iterator<T>
+		 */
+		public Iterator<T> iterator() {
+			return SliceQueryBuilder.super.iteratorInPartitions();
+		}
+
+		/**
+		 * Iterator on entities of all partitions, merged by clustering order,
+		 * with batchSize<br/>
+		 * <br/>
+		 * 
+		 * @param batchSize
+		 *            maximum number of rows to fetch on each batch, for each
+		 *            partition
+		 * 
+		 * @return Iterator<T>
+		 */
+		public Iterator<T> iterator(int batchSize) {
+			return SliceQueryBuilder.super.iteratorInPartitions(batchSize);
+		}
+	}
 }
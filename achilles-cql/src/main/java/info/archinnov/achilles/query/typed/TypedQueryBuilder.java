@@ -16,6 +16,8 @@
  */
 package info.archinnov.achilles.query.typed;
 
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.TYPED;
+
 import info.archinnov.achilles.context.DaoContext;
 import info.archinnov.achilles.context.PersistenceContext;
 import info.archinnov.achilles.context.PersistenceContextFactory;
@@ -23,7 +25,12 @@ import info.archinnov.achilles.entity.EntityMapper;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.entity.operations.EntityProxifier;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.query.CursorCodec;
 import info.archinnov.achilles.statement.wrapper.SimpleStatementWrapper;
+import info.archinnov.achilles.type.Cursor;
+import info.archinnov.achilles.type.Page;
+import info.archinnov.achilles.validation.Validator;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -37,9 +44,12 @@ import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Timer;
+import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 
 public class TypedQueryBuilder<T> {
@@ -48,6 +58,11 @@ public class TypedQueryBuilder<T> {
 	private static final Pattern SELECT_COLUMNS_EXTRACTION_PATTERN = Pattern.compile("^\\s*select\\s+(.+)\\s+from.+$");
 	private static final String SELECT_STAR = "select * ";
 	private static final String WHITE_SPACES = "\\s+";
+	private static final Pattern WHERE_PATTERN = Pattern.compile("\\swhere\\s", Pattern.CASE_INSENSITIVE);
+	private static final Pattern LIMIT_PATTERN = Pattern.compile("\\slimit\\s", Pattern.CASE_INSENSITIVE);
+	private static final Pattern ALLOW_FILTERING_PATTERN = Pattern.compile("\\sallow\\s+filtering\\s*;?\\s*$",
+			Pattern.CASE_INSENSITIVE);
+	private static final Pattern TRAILING_SEMICOLON_PATTERN = Pattern.compile("\\s*;?\\s*$");
 
 	private DaoContext daoContext;
 	private String normalizedQuery;
@@ -61,6 +76,7 @@ public class TypedQueryBuilder<T> {
 
 	private EntityMapper mapper = new EntityMapper();
 	private EntityProxifier proxifier = new EntityProxifier();
+	private CursorCodec cursorCodec = new CursorCodec();
 
 	public TypedQueryBuilder(Class<T> entityClass, DaoContext daoContext, String queryString, EntityMeta meta,
 			PersistenceContextFactory contextFactory, boolean managed, boolean shouldNormalizeQuery,
@@ -90,7 +106,8 @@ public class TypedQueryBuilder<T> {
 	public List<T> get() {
 		log.debug("Get results for typed query {}", normalizedQuery);
 		List<T> result = new ArrayList<T>();
-		List<Row> rows = daoContext.execute(new SimpleStatementWrapper(normalizedQuery, boundValues)).all();
+		List<Row> rows = executeQuery().all();
+		daoContext.getMetrics().markRows(meta.getEntityClass(), TYPED, rows.size());
 		for (Row row : rows) {
 			T entity = mapper.mapRowToEntityWithPrimaryKey(meta, row, propertiesMap, managed);
 			if (entity != null) {
@@ -115,7 +132,7 @@ public class TypedQueryBuilder<T> {
 	public T getFirst() {
 		log.debug("Get first result for typed query {}", normalizedQuery);
 		T entity = null;
-		Row row = daoContext.execute(new SimpleStatementWrapper(normalizedQuery, boundValues)).one();
+		Row row = executeQuery().one();
 		if (row != null) {
 			entity = mapper.mapRowToEntityWithPrimaryKey(meta, row, propertiesMap, managed);
 			if (entity != null && managed) {
@@ -125,6 +142,92 @@ public class TypedQueryBuilder<T> {
 		return entity;
 	}
 
+	/**
+	 * Executes the query and returns one page of entities, resuming after the
+	 * entity the cursor points to
+	 * 
+	 * Entities are returned in token order of their primary key, each page
+	 * being a new bounded query. Paging is not available for clustered
+	 * entities, use a slice query instead
+	 * 
+	 * @param size
+	 *            maximum number of entities in the page
+	 * @param from
+	 *            cursor returned with the previous page, null for the first
+	 *            page
+	 * 
+	 * @return Page<T> page of found entities, possibly empty
+	 */
+	public Page<T> page(int size, Cursor from) {
+		log.debug("Get page of {} results for typed query {} from cursor {}", size, normalizedQuery, from);
+		Validator.validateTrue(size > 0, "Page size for typed query should be strictly positive");
+		Validator.validateFalse(meta.isClusteredEntity(),
+				"Paging typed query is not supported for clustered entity '%s'. Please use slice query",
+				meta.getClassName());
+		Validator.validateFalse(LIMIT_PATTERN.matcher(normalizedQuery).find(),
+				"Typed query '%s' should not define a LIMIT to be paged", normalizedQuery);
+
+		PropertyMeta idMeta = meta.getIdMeta();
+		Object[] values = boundValues;
+		if (from != null) {
+			values = ArrayUtils.add(boundValues, idMeta.encode(cursorCodec.decodePrimaryKey(idMeta, from)));
+		}
+
+		// Fetch one more row than requested to know whether there is a next page
+		List<Row> rows = executeQuery(buildPagedQuery(size + 1, from != null), values).all();
+		daoContext.getMetrics().markRows(meta.getEntityClass(), TYPED, rows.size());
+
+		List<T> result = new ArrayList<T>();
+		Object lastEntity = null;
+		for (Row row : rows.subList(0, Math.min(size, rows.size()))) {
+			T entity = mapper.mapRowToEntityWithPrimaryKey(meta, row, propertiesMap, managed);
+			if (entity != null) {
+				lastEntity = entity;
+				if (managed) {
+					entity = buildProxy(entity);
+				}
+				result.add(entity);
+			}
+		}
+		Cursor nextCursor = null;
+		if (rows.size() > size && lastEntity != null) {
+			nextCursor = cursorCodec.encodePrimaryKey(idMeta, lastEntity);
+		}
+		return new Page<T>(result, nextCursor);
+	}
+
+	String buildPagedQuery(int limit, boolean resume) {
+		String query = normalizedQuery;
+		String allowFiltering = "";
+		Matcher matcher = ALLOW_FILTERING_PATTERN.matcher(query);
+		if (matcher.find()) {
+			allowFiltering = " ALLOW FILTERING";
+			query = query.substring(0, matcher.start());
+		}
+		StringBuilder pagedQuery = new StringBuilder(TRAILING_SEMICOLON_PATTERN.matcher(query).replaceFirst(""));
+		if (resume) {
+			String idColumn = meta.getIdMeta().getPropertyName();
+			pagedQuery.append(WHERE_PATTERN.matcher(query).find() ? " AND " : " WHERE ");
+			pagedQuery.append("token(").append(idColumn).append(")>token(?)");
+		}
+		pagedQuery.append(" LIMIT ").append(limit).append(allowFiltering);
+		return pagedQuery.toString();
+	}
+
+	private ResultSet executeQuery() {
+		return executeQuery(normalizedQuery, boundValues);
+	}
+
+	private ResultSet executeQuery(String query, Object[] values) {
+		AchillesMetrics metrics = daoContext.getMetrics();
+		Timer.Context timer = metrics.start(meta.getEntityClass(), TYPED);
+		try {
+			return daoContext.execute(new SimpleStatementWrapper(meta.getEntityClass(), query, values));
+		} finally {
+			metrics.stop(timer);
+		}
+	}
+
 	private Map<String, PropertyMeta> transformPropertiesMap(EntityMeta meta) {
 		Map<String, PropertyMeta> propertiesMap = new HashMap<String, PropertyMeta>();
 		for (Entry<String, PropertyMeta> entry : meta.getPropertyMetas().entrySet()) {
@@ -116,7 +116,8 @@ public class SliceQueryStatementGenerator {
 		}
         where.setFetchSize(sliceQuery.getBatchSize());
         log.trace("Generated WHERE clause for slice query : {}", where.getQueryString());
-		return new RegularStatementWrapper(where, boundValues, sliceQuery.getConsistencyLevel());
+		return new RegularStatementWrapper(sliceQuery.getEntityClass(), where, boundValues,
+				sliceQuery.getConsistencyLevel());
 	}
 
 	public RegularStatementWrapper generateWhereClauseForDeleteSliceQuery(CQLSliceQuery<?> sliceQuery, Delete delete) {
@@ -131,7 +132,8 @@ public class SliceQueryStatementGenerator {
 			boundValues[i] = fixedComponents.get(i);
 		}
 		log.trace("Generated WHERE clause for slice delete query : {}", where.getQueryString());
-		return new RegularStatementWrapper(where, boundValues, sliceQuery.getConsistencyLevel());
+		return new RegularStatementWrapper(sliceQuery.getEntityClass(), where, boundValues,
+				sliceQuery.getConsistencyLevel());
 	}
 
 }
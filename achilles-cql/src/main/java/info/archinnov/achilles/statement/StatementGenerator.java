@@ -23,9 +23,11 @@ import info.archinnov.achilles.entity.metadata.PropertyType;
 import info.archinnov.achilles.exception.AchillesException;
 import info.archinnov.achilles.query.slice.CQLSliceQuery;
 import info.archinnov.achilles.statement.wrapper.RegularStatementWrapper;
+import info.archinnov.achilles.type.InsertStrategy;
 import info.archinnov.achilles.type.Pair;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -79,6 +81,51 @@ public class StatementGenerator {
 		return select;
 	}
 
+	/**
+	 * SELECT of the first entities whose partition key token is in (?,?]
+	 */
+	public RegularStatement generateSelectTokenRange(EntityMeta entityMeta, int limit) {
+		log.trace("Generate SELECT statement on token range for entity class {}", entityMeta.getClassName());
+		String token = token(partitionKeyNames(entityMeta));
+		return generateSelectEntityInternal(entityMeta).where(gt(token, bindMarker())).and(lte(token, bindMarker()))
+				.limit(limit);
+	}
+
+	/**
+	 * SELECT of the first entities whose partition key token is greater than
+	 * the token of the bound partition key and lower or equal to the bound
+	 * token
+	 */
+	public RegularStatement generateSelectTokenRangeAfterPartition(EntityMeta entityMeta, int limit) {
+		log.trace("Generate SELECT statement on token range after partition for entity class {}",
+				entityMeta.getClassName());
+		String[] partitionKeys = partitionKeyNames(entityMeta);
+		Object[] markers = new Object[partitionKeys.length];
+		Arrays.fill(markers, bindMarker());
+		String token = token(partitionKeys);
+		return generateSelectEntityInternal(entityMeta).where(gt(token, fcall("token", markers)))
+				.and(lte(token, bindMarker())).limit(limit);
+	}
+
+	/**
+	 * SELECT of all the entities of one partition
+	 */
+	public RegularStatement generateSelectPartition(EntityMeta entityMeta) {
+		log.trace("Generate SELECT statement on partition for entity class {}", entityMeta.getClassName());
+		Select.Where where = generateSelectEntityInternal(entityMeta).where();
+		for (String partitionKey : partitionKeyNames(entityMeta)) {
+			where.and(eq(partitionKey, bindMarker()));
+		}
+		return where;
+	}
+
+	private String[] partitionKeyNames(EntityMeta entityMeta) {
+		PropertyMeta idMeta = entityMeta.getIdMeta();
+		List<String> partitionKeys = idMeta.isEmbeddedId() ? idMeta.getPartitionComponentNames() : Arrays
+				.asList(idMeta.getPropertyName());
+		return partitionKeys.toArray(new String[partitionKeys.size()]);
+	}
+
 	protected Select generateSelectEntityInternal(EntityMeta entityMeta) {
 
 		log.trace("Generate SELECT statement for entity class {}", entityMeta.getClassName());
@@ -107,7 +154,9 @@ public class StatementGenerator {
 				.filter(PropertyType.excludeCounterType).toImmutableList();
 
 		List<PropertyMeta> fieldMetas = new ArrayList<PropertyMeta>(nonProxyMetas);
-		//fieldMetas.remove(idMeta);
+		if (entityMeta.getInsertStrategy() == InsertStrategy.NOT_NULL_FIELDS) {
+			fieldMetas = entityMeta.getColumnsMetaToInsert(entity);
+		}
 
 		final Object[] boundValuesForColumns = new Object[fieldMetas.size()];
 		for (int i = 0; i < fieldMetas.size(); i++) {
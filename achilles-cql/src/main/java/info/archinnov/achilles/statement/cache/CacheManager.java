@@ -83,6 +83,40 @@ public class CacheManager {
 		return ps;
 	}
 
+	public PreparedStatement getCacheForFieldsInsert(Session session,
+			Cache<StatementCacheKey, PreparedStatement> dynamicPSCache, PersistenceContext context,
+			List<PropertyMeta> pms) {
+
+        log.trace("Get cache for INSERT properties {} from entity class {}",pms,context.getEntityClass());
+
+		Class<?> entityClass = context.getEntityClass();
+		EntityMeta entityMeta = context.getEntityMeta();
+		Set<String> fields = new HashSet<String>(Collections2.transform(pms, propertyExtractor));
+		StatementCacheKey cacheKey = new StatementCacheKey(CacheType.INSERT_FIELDS, entityMeta.getTableName(), fields,
+				entityClass);
+		PreparedStatement ps = dynamicPSCache.getIfPresent(cacheKey);
+		if (ps == null) {
+			ps = generator.prepareInsertPS(session, entityMeta, pms);
+			dynamicPSCache.put(cacheKey, ps);
+		}
+		return ps;
+	}
+
+	public PreparedStatement getCacheForProjection(Session session,
+			Cache<StatementCacheKey, PreparedStatement> dynamicPSCache, EntityMeta entityMeta, String queryString) {
+
+        log.trace("Get cache for projection query {} on entity class {}",queryString,entityMeta.getClassName());
+
+		StatementCacheKey cacheKey = new StatementCacheKey(CacheType.PROJECTION, entityMeta.getTableName(),
+				Sets.newHashSet(queryString), entityMeta.getEntityClass());
+		PreparedStatement ps = dynamicPSCache.getIfPresent(cacheKey);
+		if (ps == null) {
+			ps = session.prepare(queryString);
+			dynamicPSCache.put(cacheKey, ps);
+		}
+		return ps;
+	}
+
 	private Set<String> extractClusteredFieldsIfNecessary(PropertyMeta pm) {
 		if (pm.isEmbeddedId()) {
 			return new HashSet<String>(pm.getComponentNames());
@@ -17,5 +17,5 @@
 package info.archinnov.achilles.statement.cache;
 
 public enum CacheType {
-	SELECT_FIELD, UPDATE_FIELDS
+	SELECT_FIELD, UPDATE_FIELDS, INSERT_FIELDS, PROJECTION
 }
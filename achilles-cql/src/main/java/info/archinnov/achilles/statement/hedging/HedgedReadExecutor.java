@@ -0,0 +1,246 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.statement.hedging;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.metrics.AchillesMetrics.Operation;
+import info.archinnov.achilles.type.Pair;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Speculative execution of reads. When the first attempt has not answered
+ * within a delay derived from a percentile of the recent read latencies, an
+ * identical attempt is sent, which the load balancing policy routes to the
+ * next coordinator of its query plan. The first successful response wins and
+ * the other attempt is cancelled<br/>
+ * <br/>
+ * Latencies, and therefore hedging delays, are tracked separately for each
+ * entity class and operation, so that fast primary key reads and slower
+ * slices do not share one percentile<br/>
+ * <br/>
+ * With a token aware load balancing policy the next coordinator of the query
+ * plan is often another replica of the same partition, but nothing prevents
+ * the hedged attempt from reaching the replica which is already slow
+ */
+public class HedgedReadExecutor {
+	private static final Logger log = LoggerFactory.getLogger(HedgedReadExecutor.class);
+
+	private static final HedgedReadExecutor DISABLED = new HedgedReadExecutor(false, 0, 0,
+			AchillesMetrics.disabled());
+
+	static final int MIN_SAMPLES = 100;
+	static final int DELAY_REFRESH_INTERVAL = 100;
+	static final long NO_HEDGING = Long.MAX_VALUE;
+
+	private final boolean enabled;
+	private final double percentile;
+	private final long minDelayInNanos;
+	private final AchillesMetrics metrics;
+	private final ConcurrentMap<Pair<Class<?>, Operation>, LatencyTracker> latencyTrackers = new ConcurrentHashMap<Pair<Class<?>, Operation>, LatencyTracker>();
+	private final AtomicLong hedgeCount = new AtomicLong();
+	private final AtomicLong hedgeWinCount = new AtomicLong();
+
+	public HedgedReadExecutor(double percentile, long minDelayInMillis, AchillesMetrics metrics) {
+		this(true, percentile, minDelayInMillis, metrics);
+	}
+
+	private HedgedReadExecutor(boolean enabled, double percentile, long minDelayInMillis, AchillesMetrics metrics) {
+		this.enabled = enabled;
+		this.percentile = percentile;
+		this.minDelayInNanos = MILLISECONDS.toNanos(minDelayInMillis);
+		this.metrics = metrics;
+	}
+
+	public static HedgedReadExecutor disabled() {
+		return DISABLED;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Execute a read, sending a second attempt if the first one is slower
+	 * than the current hedging delay
+	 * 
+	 * @param entityClass
+	 *            entity class of the read
+	 * @param operation
+	 *            kind of read. Latencies are tracked per entity class and
+	 *            operation
+	 * @param attempt
+	 *            sends one attempt of the read. Called once or twice
+	 * @return the result set of the first successful attempt
+	 */
+	public ResultSet execute(Class<?> entityClass, Operation operation, Supplier<ResultSetFuture> attempt) {
+		if (!enabled) {
+			return attempt.get().getUninterruptibly();
+		}
+		LatencyTracker tracker = latencyTracker(entityClass, operation);
+		long start = System.nanoTime();
+		ResultSetFuture first = attempt.get();
+		long delay = tracker.delayInNanos;
+		if (delay == NO_HEDGING) {
+			ResultSet resultSet = first.getUninterruptibly();
+			tracker.record(System.nanoTime() - start);
+			return resultSet;
+		}
+		try {
+			ResultSet resultSet = first.getUninterruptibly(delay, NANOSECONDS);
+			tracker.record(System.nanoTime() - start);
+			return resultSet;
+		} catch (TimeoutException e) {
+			log.trace("{} read for {} still running after {} ns, sending hedged attempt", operation, entityClass,
+					delay);
+		}
+
+		ResultSetFuture second = attempt.get();
+		hedgeCount.incrementAndGet();
+		Pair<ResultSet, Boolean> winner = firstSuccessOf(first, second);
+		boolean hedgeWon = winner.right;
+		if (hedgeWon) {
+			hedgeWinCount.incrementAndGet();
+		}
+		metrics.markHedgedRead(entityClass, hedgeWon);
+		tracker.record(System.nanoTime() - start);
+		return winner.left;
+	}
+
+	LatencyTracker latencyTracker(Class<?> entityClass, Operation operation) {
+		Pair<Class<?>, Operation> key = Pair.<Class<?>, Operation> create(entityClass, operation);
+		LatencyTracker tracker = latencyTrackers.get(key);
+		if (tracker == null) {
+			LatencyTracker newTracker = new LatencyTracker(percentile, minDelayInNanos);
+			tracker = latencyTrackers.putIfAbsent(key, newTracker);
+			if (tracker == null) {
+				tracker = newTracker;
+			}
+		}
+		return tracker;
+	}
+
+	private Pair<ResultSet, Boolean> firstSuccessOf(ResultSetFuture first, ResultSetFuture second) {
+		SettableFuture<Pair<ResultSet, Boolean>> winner = SettableFuture.create();
+		AtomicInteger failures = new AtomicInteger();
+		Futures.addCallback(first, new AttemptCallback(winner, failures, false));
+		Futures.addCallback(second, new AttemptCallback(winner, failures, true));
+		try {
+			return Uninterruptibles.getUninterruptibly(winner);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new AchillesException(cause);
+		} finally {
+			first.cancel(true);
+			second.cancel(true);
+		}
+	}
+
+	public double getPercentile() {
+		return percentile;
+	}
+
+	/**
+	 * Current hedging delay of the reads of an entity class for an operation
+	 * 
+	 * @return Long.MAX_VALUE while too few latencies are known to hedge
+	 */
+	public long getDelayInNanos(Class<?> entityClass, Operation operation) {
+		LatencyTracker tracker = latencyTrackers.get(Pair.<Class<?>, Operation> create(entityClass, operation));
+		return tracker == null ? NO_HEDGING : tracker.delayInNanos;
+	}
+
+	public long getHedgeCount() {
+		return hedgeCount.get();
+	}
+
+	public long getHedgeWinCount() {
+		return hedgeWinCount.get();
+	}
+
+	static class LatencyTracker {
+		private final double percentile;
+		private final long minDelayInNanos;
+		private final Histogram latencies = new Histogram(new ExponentiallyDecayingReservoir());
+		private final AtomicLong readCount = new AtomicLong();
+		volatile long delayInNanos = NO_HEDGING;
+
+		LatencyTracker(double percentile, long minDelayInNanos) {
+			this.percentile = percentile;
+			this.minDelayInNanos = minDelayInNanos;
+		}
+
+		void record(long latencyInNanos) {
+			latencies.update(latencyInNanos);
+			long count = readCount.incrementAndGet();
+			if (count >= MIN_SAMPLES && count % DELAY_REFRESH_INTERVAL == 0) {
+				long percentileValue = (long) latencies.getSnapshot().getValue(percentile);
+				delayInNanos = Math.max(minDelayInNanos, percentileValue);
+			}
+		}
+	}
+
+	private static class AttemptCallback implements FutureCallback<ResultSet> {
+		private final SettableFuture<Pair<ResultSet, Boolean>> winner;
+		private final AtomicInteger failures;
+		private final boolean hedge;
+
+		AttemptCallback(SettableFuture<Pair<ResultSet, Boolean>> winner, AtomicInteger failures, boolean hedge) {
+			this.winner = winner;
+			this.failures = failures;
+			this.hedge = hedge;
+		}
+
+		@Override
+		public void onSuccess(ResultSet resultSet) {
+			winner.set(Pair.create(resultSet, hedge));
+		}
+
+		@Override
+		public void onFailure(Throwable throwable) {
+			if (failures.incrementAndGet() == 2) {
+				winner.setException(throwable);
+			}
+		}
+	}
+}
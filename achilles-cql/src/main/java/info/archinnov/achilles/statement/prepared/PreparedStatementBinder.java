@@ -19,24 +19,20 @@ package info.archinnov.achilles.statement.prepared;
 import static info.archinnov.achilles.consistency.ConsistencyConverter.*;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
-import info.archinnov.achilles.entity.metadata.PropertyType;
 import info.archinnov.achilles.exception.AchillesException;
 import info.archinnov.achilles.statement.wrapper.BoundStatementWrapper;
 import info.archinnov.achilles.type.ConsistencyLevel;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.google.common.base.Optional;
-import com.google.common.collect.FluentIterable;
 
 public class PreparedStatementBinder {
 
@@ -44,65 +40,67 @@ public class PreparedStatementBinder {
 
 	public BoundStatementWrapper bindForInsert(PreparedStatement ps, EntityMeta entityMeta, Object entity,
 			ConsistencyLevel consistencyLevel,Optional<Integer> ttlO) {
+		return bindForInsert(ps, entityMeta, entityMeta.getColumnsMetaToInsert(), entity, consistencyLevel, ttlO);
+	}
+
+	public BoundStatementWrapper bindForInsert(PreparedStatement ps, EntityMeta entityMeta, List<PropertyMeta> pms,
+			Object entity, ConsistencyLevel consistencyLevel, Optional<Integer> ttlO) {
 		log.trace("Bind prepared statement {} for insert of entity {}", ps.getQueryString(), entity);
-		List<Object> values = new ArrayList<Object>();
+		PropertyMeta idMeta = entityMeta.getIdMeta();
 		Object primaryKey = entityMeta.getPrimaryKey(entity);
-		values.addAll(bindPrimaryKey(primaryKey, entityMeta.getIdMeta()));
-
-		List<PropertyMeta> nonProxyMetas = FluentIterable.from(entityMeta.getAllMetasExceptIdMeta())
-				.filter(PropertyType.excludeCounterType).toImmutableList();
+		List<Object> primaryKeyComponents = encodePrimaryKeyComponents(primaryKey, idMeta);
 
-		List<PropertyMeta> fieldMetas = new ArrayList<PropertyMeta>(nonProxyMetas);
+		// Layout: primary key components, columns, TTL
+		Object[] values = new Object[primaryKeySize(idMeta, primaryKeyComponents) + pms.size() + 1];
+		int index = bindPrimaryKey(values, 0, primaryKey, primaryKeyComponents, idMeta);
+		index = bindColumns(values, index, pms, entity);
 
-		for (PropertyMeta pm : fieldMetas) {
-			Object value = pm.getValueFromField(entity);
-			value = encodeValueForCassandra(pm, value);
-			values.add(value);
-		}
-
-        // TTL or default value 0
-        values.add(ttlO.or(0));
-        BoundStatement bs = ps.bind(values.toArray());
-		return new BoundStatementWrapper(bs, values.toArray(), getCQLLevel(consistencyLevel));
+		// TTL or default value 0
+		values[index] = ttlO.or(0);
+		BoundStatement bs = ps.bind(values);
+		return new BoundStatementWrapper(entityMeta.getEntityClass(), bs, values, getCQLLevel(consistencyLevel));
 	}
 
 	public BoundStatementWrapper bindForUpdate(PreparedStatement ps, EntityMeta entityMeta, List<PropertyMeta> pms,
 			Object entity, ConsistencyLevel consistencyLevel,Optional<Integer> ttlO) {
 		log.trace("Bind prepared statement {} for properties {} update of entity {}", ps.getQueryString(), pms, entity);
-		List<Object> values = new ArrayList<Object>();
-        // TTL or default value 0
-        values.add(ttlO.or(0));
-		for (PropertyMeta pm : pms) {
-			Object value = pm.getValueFromField(entity);
-			value = encodeValueForCassandra(pm, value);
-			values.add(value);
-		}
+		PropertyMeta idMeta = entityMeta.getIdMeta();
 		Object primaryKey = entityMeta.getPrimaryKey(entity);
-		values.addAll(bindPrimaryKey(primaryKey, entityMeta.getIdMeta()));
-		BoundStatement bs = ps.bind(values.toArray());
+		List<Object> primaryKeyComponents = encodePrimaryKeyComponents(primaryKey, idMeta);
+
+		// Layout: TTL, columns, primary key components
+		Object[] values = new Object[1 + pms.size() + primaryKeySize(idMeta, primaryKeyComponents)];
 
-		return new BoundStatementWrapper(bs, values.toArray(), getCQLLevel(consistencyLevel));
+		// TTL or default value 0
+		values[0] = ttlO.or(0);
+		int index = bindColumns(values, 1, pms, entity);
+		bindPrimaryKey(values, index, primaryKey, primaryKeyComponents, idMeta);
+
+		BoundStatement bs = ps.bind(values);
+		return new BoundStatementWrapper(entityMeta.getEntityClass(), bs, values, getCQLLevel(consistencyLevel));
 	}
 
 	public BoundStatementWrapper bindStatementWithOnlyPKInWhereClause(PreparedStatement ps, EntityMeta entityMeta,
 			Object primaryKey, ConsistencyLevel consistencyLevel) {
 		log.trace("Bind prepared statement {} with primary key {}", ps.getQueryString(), primaryKey);
-		PropertyMeta idMeta = entityMeta.getIdMeta();
-		List<Object> values = bindPrimaryKey(primaryKey, idMeta);
+		Object[] values = bindPrimaryKey(primaryKey, entityMeta.getIdMeta(), 0);
 
-		BoundStatement bs = ps.bind(values.toArray());
-		return new BoundStatementWrapper(bs, values.toArray(), getCQLLevel(consistencyLevel));
+		BoundStatement bs = ps.bind(values);
+		return new BoundStatementWrapper(entityMeta.getEntityClass(), bs, values, getCQLLevel(consistencyLevel));
 	}
 
 	public BoundStatementWrapper bindForSimpleCounterIncrementDecrement(PreparedStatement ps, EntityMeta entityMeta,
 			PropertyMeta pm, Object primaryKey, Long increment, ConsistencyLevel consistencyLevel) {
 		log.trace("Bind prepared statement {} for simple counter increment of {} using primary key {} and value {}",
 				ps.getQueryString(), pm, primaryKey, increment);
-		Object[] boundValues = ArrayUtils.add(extractValuesForSimpleCounterBinding(entityMeta, pm, primaryKey), 0,
-				increment);
+		Object[] boundValues = extractValuesForSimpleCounterBinding(entityMeta, pm, primaryKey, 1);
+		boundValues[0] = increment;
 
 		BoundStatement bs = ps.bind(boundValues);
-		return new BoundStatementWrapper(bs, boundValues, getCQLLevel(consistencyLevel));
+		BoundStatementWrapper bsWrapper = new BoundStatementWrapper(entityMeta.getEntityClass(), bs, boundValues,
+				getCQLLevel(consistencyLevel));
+		bsWrapper.markNonIdempotent();
+		return bsWrapper;
 
 	}
 
@@ -110,18 +108,18 @@ public class PreparedStatementBinder {
 			PropertyMeta pm, Object primaryKey, ConsistencyLevel consistencyLevel) {
 		log.trace("Bind prepared statement {} for simple counter read of {} using primary key {}", ps.getQueryString(),
 				pm, primaryKey);
-		Object[] boundValues = extractValuesForSimpleCounterBinding(entityMeta, pm, primaryKey);
+		Object[] boundValues = extractValuesForSimpleCounterBinding(entityMeta, pm, primaryKey, 0);
 		BoundStatement bs = ps.bind(boundValues);
-		return new BoundStatementWrapper(bs, boundValues, getCQLLevel(consistencyLevel));
+		return new BoundStatementWrapper(entityMeta.getEntityClass(), bs, boundValues, getCQLLevel(consistencyLevel));
 	}
 
 	public BoundStatementWrapper bindForSimpleCounterDelete(PreparedStatement ps, EntityMeta entityMeta,
 			PropertyMeta pm, Object primaryKey, ConsistencyLevel consistencyLevel) {
 		log.trace("Bind prepared statement {} for simple counter delete for {} using primary key {}",
 				ps.getQueryString(), pm, primaryKey);
-		Object[] boundValues = extractValuesForSimpleCounterBinding(entityMeta, pm, primaryKey);
+		Object[] boundValues = extractValuesForSimpleCounterBinding(entityMeta, pm, primaryKey, 0);
 		BoundStatement bs = ps.bind(boundValues);
-		return new BoundStatementWrapper(bs, boundValues, getCQLLevel(consistencyLevel));
+		return new BoundStatementWrapper(entityMeta.getEntityClass(), bs, boundValues, getCQLLevel(consistencyLevel));
 	}
 
 	public BoundStatementWrapper bindForClusteredCounterIncrementDecrement(PreparedStatement ps, EntityMeta entityMeta,
@@ -130,43 +128,72 @@ public class PreparedStatementBinder {
 				"Bind prepared statement {} for clustered counter increment/decrement for {} using primary key {} and value {}",
 				ps.getQueryString(), entityMeta, primaryKey, increment);
 
-		List<Object> primaryKeys = bindPrimaryKey(primaryKey, entityMeta.getIdMeta());
-		Object[] keys = ArrayUtils.add(primaryKeys.toArray(new Object[primaryKeys.size()]), 0, increment);
+		Object[] keys = bindPrimaryKey(primaryKey, entityMeta.getIdMeta(), 1);
+		keys[0] = increment;
 
 		BoundStatement bs = ps.bind(keys);
 
-		return new BoundStatementWrapper(bs, keys, getCQLLevel(consistencyLevel));
+		BoundStatementWrapper bsWrapper = new BoundStatementWrapper(entityMeta.getEntityClass(), bs, keys,
+				getCQLLevel(consistencyLevel));
+		bsWrapper.markNonIdempotent();
+		return bsWrapper;
 	}
 
 	public BoundStatementWrapper bindForClusteredCounterSelect(PreparedStatement ps, EntityMeta entityMeta,
 			Object primaryKey, ConsistencyLevel consistencyLevel) {
 		log.trace("Bind prepared statement {} for clustered counter read for {} using primary key {}",
 				ps.getQueryString(), entityMeta, primaryKey);
-		List<Object> primaryKeys = bindPrimaryKey(primaryKey, entityMeta.getIdMeta());
-		Object[] boundValues = primaryKeys.toArray(new Object[primaryKeys.size()]);
+		Object[] boundValues = bindPrimaryKey(primaryKey, entityMeta.getIdMeta(), 0);
 
 		BoundStatement bs = ps.bind(boundValues);
-		return new BoundStatementWrapper(bs, boundValues, getCQLLevel(consistencyLevel));
+		return new BoundStatementWrapper(entityMeta.getEntityClass(), bs, boundValues, getCQLLevel(consistencyLevel));
 	}
 
 	public BoundStatementWrapper bindForClusteredCounterDelete(PreparedStatement ps, EntityMeta entityMeta,
 			Object primaryKey, ConsistencyLevel consistencyLevel) {
 		log.trace("Bind prepared statement {} for simple counter delete for {} using primary key {}",
 				ps.getQueryString(), entityMeta, primaryKey);
-		List<Object> primaryKeys = bindPrimaryKey(primaryKey, entityMeta.getIdMeta());
-		Object[] boundValues = primaryKeys.toArray(new Object[primaryKeys.size()]);
+		Object[] boundValues = bindPrimaryKey(primaryKey, entityMeta.getIdMeta(), 0);
 		BoundStatement bs = ps.bind(boundValues);
-		return new BoundStatementWrapper(bs, boundValues, getCQLLevel(consistencyLevel));
+		return new BoundStatementWrapper(entityMeta.getEntityClass(), bs, boundValues, getCQLLevel(consistencyLevel));
+	}
+
+	/**
+	 * Encode the primary key into a new array, leaving the given number of
+	 * leading slots free for the caller
+	 */
+	private Object[] bindPrimaryKey(Object primaryKey, PropertyMeta idMeta, int leadingSlots) {
+		List<Object> primaryKeyComponents = encodePrimaryKeyComponents(primaryKey, idMeta);
+		Object[] values = new Object[leadingSlots + primaryKeySize(idMeta, primaryKeyComponents)];
+		bindPrimaryKey(values, leadingSlots, primaryKey, primaryKeyComponents, idMeta);
+		return values;
 	}
 
-	private List<Object> bindPrimaryKey(Object primaryKey, PropertyMeta idMeta) {
-		List<Object> values = new ArrayList<Object>();
+	private int bindPrimaryKey(Object[] values, int index, Object primaryKey, List<Object> primaryKeyComponents,
+			PropertyMeta idMeta) {
 		if (idMeta.isEmbeddedId()) {
-			values.addAll(idMeta.encodeToComponents(primaryKey));
+			for (Object component : primaryKeyComponents) {
+				values[index++] = component;
+			}
 		} else {
-			values.add(idMeta.encode(primaryKey));
+			values[index++] = idMeta.encode(primaryKey);
 		}
-		return values;
+		return index;
+	}
+
+	private int bindColumns(Object[] values, int index, List<PropertyMeta> pms, Object entity) {
+		for (PropertyMeta pm : pms) {
+			values[index++] = encodeValueForCassandra(pm, pm.getValueFromField(entity));
+		}
+		return index;
+	}
+
+	private List<Object> encodePrimaryKeyComponents(Object primaryKey, PropertyMeta idMeta) {
+		return idMeta.isEmbeddedId() ? idMeta.encodeToComponents(primaryKey) : null;
+	}
+
+	private int primaryKeySize(PropertyMeta idMeta, List<Object> primaryKeyComponents) {
+		return idMeta.isEmbeddedId() ? primaryKeyComponents.size() : 1;
 	}
 
 	private Object encodeValueForCassandra(PropertyMeta pm, Object value) {
@@ -192,12 +219,17 @@ public class PreparedStatementBinder {
 		return value;
 	}
 
-	private Object[] extractValuesForSimpleCounterBinding(EntityMeta entityMeta, PropertyMeta pm, Object primaryKey) {
+	private Object[] extractValuesForSimpleCounterBinding(EntityMeta entityMeta, PropertyMeta pm, Object primaryKey,
+			int leadingSlots) {
 		PropertyMeta idMeta = entityMeta.getIdMeta();
 		String fqcn = entityMeta.getClassName();
 		String primaryKeyAsString = idMeta.forceEncodeToJSON(primaryKey);
 		String propertyName = pm.getPropertyName();
 
-		return new Object[] { fqcn, primaryKeyAsString, propertyName };
+		Object[] values = new Object[leadingSlots + 3];
+		values[leadingSlots] = fqcn;
+		values[leadingSlots + 1] = primaryKeyAsString;
+		values[leadingSlots + 2] = propertyName;
+		return values;
 	}
 }
@@ -23,9 +23,7 @@ import info.archinnov.achilles.counter.AchillesCounter;
 import info.archinnov.achilles.counter.AchillesCounter.CQLQueryType;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
-import info.archinnov.achilles.entity.metadata.PropertyType;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,24 +41,21 @@ import com.datastax.driver.core.querybuilder.Select;
 import com.datastax.driver.core.querybuilder.Select.Selection;
 import com.datastax.driver.core.querybuilder.Update;
 import com.datastax.driver.core.querybuilder.Update.Assignments;
-import com.google.common.collect.FluentIterable;
 
 public class PreparedStatementGenerator {
 	private static final Logger log = LoggerFactory.getLogger(PreparedStatementGenerator.class);
 
 	public PreparedStatement prepareInsertPS(Session session, EntityMeta entityMeta) {
-		log.trace("Generate prepared statement for INSERT on {}", entityMeta);
+		return prepareInsertPS(session, entityMeta, entityMeta.getColumnsMetaToInsert());
+	}
+
+	public PreparedStatement prepareInsertPS(Session session, EntityMeta entityMeta, List<PropertyMeta> pms) {
+		log.trace("Generate prepared statement for INSERT on {} with properties {}", entityMeta, pms);
 		PropertyMeta idMeta = entityMeta.getIdMeta();
 		Insert insert = insertInto(entityMeta.getTableName());
 		prepareInsertPrimaryKey(idMeta, insert);
 
-		List<PropertyMeta> nonProxyMetas = FluentIterable.from(entityMeta.getAllMetasExceptIdMeta())
-				.filter(PropertyType.excludeCounterType).toImmutableList();
-
-		List<PropertyMeta> fieldMetas = new ArrayList<PropertyMeta>(nonProxyMetas);
-		fieldMetas.remove(idMeta);
-
-		for (PropertyMeta pm : fieldMetas) {
+		for (PropertyMeta pm : pms) {
 			insert.value(pm.getPropertyName(), bindMarker());
 		}
 
@@ -0,0 +1,125 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.statement.retry;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.driver.core.WriteType;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.exceptions.UnavailableException;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Retry with exponential backoff of the writes that failed on a timeout or
+ * unavailable replicas, restricted to idempotent statements and batches.
+ * Counter increments and native queries are never retried. Synchronous writes
+ * sleep during the backoff, asynchronous ones are re-sent from a scheduler
+ */
+public class WriteRetryPolicy {
+	private static final Logger log = LoggerFactory.getLogger(WriteRetryPolicy.class);
+
+	private static final WriteRetryPolicy DISABLED = new WriteRetryPolicy(0, 0);
+
+	static final long MAX_BACKOFF_IN_MILLIS = 10000;
+
+	private final int maxRetries;
+	private final long baseBackoffInMillis;
+
+	public WriteRetryPolicy(int maxRetries, long baseBackoffInMillis) {
+		this.maxRetries = maxRetries;
+		this.baseBackoffInMillis = baseBackoffInMillis;
+	}
+
+	public static WriteRetryPolicy disabled() {
+		return DISABLED;
+	}
+
+	public boolean isEnabled() {
+		return maxRetries > 0;
+	}
+
+	/**
+	 * @param retries
+	 *            number of retries already done for this statement
+	 */
+	public boolean shouldRetry(AbstractStatementWrapper statementWrapper, DriverException exception, int retries) {
+		return shouldRetry(statementWrapper.isIdempotent(), exception, retries);
+	}
+
+	/**
+	 * @param idempotent
+	 *            whether the statement or batch can be replayed safely
+	 * @param retries
+	 *            number of retries already done for this write
+	 */
+	public boolean shouldRetry(boolean idempotent, DriverException exception, int retries) {
+		if (retries >= maxRetries || !idempotent) {
+			return false;
+		}
+		if (exception instanceof WriteTimeoutException) {
+			WriteType writeType = ((WriteTimeoutException) exception).getWriteType();
+			return writeType != WriteType.COUNTER && writeType != WriteType.CAS;
+		}
+		return exception instanceof UnavailableException;
+	}
+
+	/**
+	 * Sleep before the next retry, doubling the delay at each retry
+	 */
+	public void backoff(String description, DriverException exception, int retries) {
+		long delayInMillis = backoffInMillis(retries);
+		log.debug("Retrying {} in {} ms after '{}'", description, delayInMillis, exception.getMessage());
+		Uninterruptibles.sleepUninterruptibly(delayInMillis, MILLISECONDS);
+	}
+
+	/**
+	 * Schedule the next retry of an asynchronous write, with the same delay
+	 * as {@link #backoff(String, DriverException, int)} but without blocking
+	 */
+	public void scheduleRetry(String description, DriverException exception, int retries, Runnable retry) {
+		long delayInMillis = backoffInMillis(retries);
+		log.debug("Retrying {} asynchronously in {} ms after '{}'", description, delayInMillis,
+				exception.getMessage());
+		RetryScheduler.INSTANCE.schedule(retry, delayInMillis, MILLISECONDS);
+	}
+
+	long backoffInMillis(int retries) {
+		return Math.min(MAX_BACKOFF_IN_MILLIS, baseBackoffInMillis << Math.min(retries, 20));
+	}
+
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	public long getBaseBackoffInMillis() {
+		return baseBackoffInMillis;
+	}
+
+	private static class RetryScheduler {
+		private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+				new ThreadFactoryBuilder().setNameFormat("achilles-write-retry").setDaemon(true).build());
+	}
+}
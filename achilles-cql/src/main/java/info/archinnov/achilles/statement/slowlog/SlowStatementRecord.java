@@ -0,0 +1,96 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.statement.slowlog;
+
+import java.util.List;
+
+public class SlowStatementRecord {
+
+	private final Class<?> entityClass;
+	private final String queryType;
+	private final String queryShape;
+	private final String consistencyLevel;
+	private final long latencyInMillis;
+	private final int rowCount;
+	private final List<String> redactedValues;
+
+	public SlowStatementRecord(Class<?> entityClass, String queryType, String queryShape, String consistencyLevel,
+			long latencyInMillis, int rowCount, List<String> redactedValues) {
+		this.entityClass = entityClass;
+		this.queryType = queryType;
+		this.queryShape = queryShape;
+		this.consistencyLevel = consistencyLevel;
+		this.latencyInMillis = latencyInMillis;
+		this.rowCount = rowCount;
+		this.redactedValues = redactedValues;
+	}
+
+	/**
+	 * Entity class targeted by the statement, null for native queries and
+	 * batches
+	 */
+	public Class<?> getEntityClass() {
+		return entityClass;
+	}
+
+	public String getQueryType() {
+		return queryType;
+	}
+
+	/**
+	 * Query string with literal values replaced by '?'
+	 */
+	public String getQueryShape() {
+		return queryShape;
+	}
+
+	public String getConsistencyLevel() {
+		return consistencyLevel;
+	}
+
+	public long getLatencyInMillis() {
+		return latencyInMillis;
+	}
+
+	/**
+	 * Number of rows available in the first page of the result set, without
+	 * triggering any additional fetch
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Type of each bound value, the values themselves are never exposed
+	 */
+	public List<String> getRedactedValues() {
+		return redactedValues;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("entity=").append(entityClass == null ? "-" : entityClass.getCanonicalName());
+		builder.append(" type=").append(queryType);
+		builder.append(" consistency=").append(consistencyLevel);
+		builder.append(" latencyMs=").append(latencyInMillis);
+		builder.append(" rows=").append(rowCount);
+		builder.append(" boundValues=").append(redactedValues);
+		builder.append(" query=[").append(queryShape).append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,140 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.statement.slowlog;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ResultSet;
+
+public class SlowStatementTracker {
+	private static final Logger log = LoggerFactory.getLogger(SlowStatementTracker.class);
+
+	private static final SlowStatementTracker DISABLED = new SlowStatementTracker(false, 0, 0,
+			Collections.<SlowStatementListener> emptyList());
+
+	private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+	private static final Pattern UUID_LITERAL = Pattern
+			.compile("\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+	private static final Pattern BLOB_LITERAL = Pattern.compile("\\b0[xX][0-9a-fA-F]*\\b");
+	private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?\\b");
+
+	private final boolean enabled;
+	private final long thresholdInMillis;
+	private final double samplingRate;
+	private final List<SlowStatementListener> listeners;
+
+	public SlowStatementTracker(long thresholdInMillis, double samplingRate, List<SlowStatementListener> listeners) {
+		this(true, thresholdInMillis, samplingRate, listeners);
+	}
+
+	private SlowStatementTracker(boolean enabled, long thresholdInMillis, double samplingRate,
+			List<SlowStatementListener> listeners) {
+		this.enabled = enabled;
+		this.thresholdInMillis = thresholdInMillis;
+		this.samplingRate = samplingRate;
+		this.listeners = listeners;
+	}
+
+	public static SlowStatementTracker disabled() {
+		return DISABLED;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void track(AbstractStatementWrapper statementWrapper, long elapsedNanos, ResultSet resultSet) {
+		long latencyInMillis = NANOSECONDS.toMillis(elapsedNanos);
+		if (isSlowAndSampled(latencyInMillis)) {
+			int rowCount = resultSet == null ? 0 : resultSet.getAvailableWithoutFetching();
+			SlowStatementRecord record = new SlowStatementRecord(statementWrapper.getEntityClass(),
+					statementWrapper.getQueryType(), redactQuery(statementWrapper.getQueryString()),
+					statementWrapper.getConsistencyLevel(), latencyInMillis, rowCount,
+					redactValues(statementWrapper.getValues()));
+			notifyListeners(record);
+		}
+	}
+
+	public void trackBatch(BatchStatement batch, long elapsedNanos) {
+		long latencyInMillis = NANOSECONDS.toMillis(elapsedNanos);
+		if (isSlowAndSampled(latencyInMillis)) {
+			String consistencyLevel = batch.getConsistencyLevel() == null ? "DEFAULT" : batch.getConsistencyLevel()
+					.name();
+			SlowStatementRecord record = new SlowStatementRecord(null, "Batch statement", "BATCH",
+					consistencyLevel, latencyInMillis, 0, Collections.<String> emptyList());
+			notifyListeners(record);
+		}
+	}
+
+	private boolean isSlowAndSampled(long latencyInMillis) {
+		if (!enabled || latencyInMillis < thresholdInMillis) {
+			return false;
+		}
+		return samplingRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < samplingRate;
+	}
+
+	private void notifyListeners(SlowStatementRecord record) {
+		for (SlowStatementListener listener : listeners) {
+			try {
+				listener.onSlowStatement(record);
+			} catch (RuntimeException e) {
+				log.warn("Slow statement listener {} failed", listener, e);
+			}
+		}
+	}
+
+	static String redactQuery(String queryString) {
+		if (queryString == null) {
+			return null;
+		}
+		String shape = STRING_LITERAL.matcher(queryString).replaceAll("?");
+		shape = UUID_LITERAL.matcher(shape).replaceAll("?");
+		shape = BLOB_LITERAL.matcher(shape).replaceAll("?");
+		return NUMBER_LITERAL.matcher(shape).replaceAll("?");
+	}
+
+	static List<String> redactValues(Object[] values) {
+		List<String> redacted = new ArrayList<String>(values.length);
+		for (Object value : values) {
+			redacted.add(value == null ? "null" : "<" + value.getClass().getSimpleName() + ">");
+		}
+		return redacted;
+	}
+
+	public long getThresholdInMillis() {
+		return thresholdInMillis;
+	}
+
+	public double getSamplingRate() {
+		return samplingRate;
+	}
+
+	public List<SlowStatementListener> getListeners() {
+		return listeners;
+	}
+}
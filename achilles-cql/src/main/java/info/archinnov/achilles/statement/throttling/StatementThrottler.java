@@ -0,0 +1,170 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.statement.throttling;
+
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.type.ThrottlingScope;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Client-side throttling of the statements sent to Cassandra. A permit must
+ * be acquired before a statement is executed and released once its result is
+ * available. Acquiring blocks the caller while the rate or the number of
+ * in-flight statements exceeds the configured limits
+ */
+public class StatementThrottler {
+	private static final Logger log = LoggerFactory.getLogger(StatementThrottler.class);
+
+	private static final StatementThrottler DISABLED = new StatementThrottler(false, 0, 0, ThrottlingScope.GLOBAL,
+			AchillesMetrics.disabled());
+
+	private static final String NO_ENTITY = "<native>";
+
+	private final boolean enabled;
+	private final double permitsPerSecond;
+	private final int maxInFlight;
+	private final ThrottlingScope scope;
+	private final AchillesMetrics metrics;
+	private final ConcurrentMap<Object, Permit> permits = new ConcurrentHashMap<Object, Permit>();
+
+	public StatementThrottler(double permitsPerSecond, int maxInFlight, ThrottlingScope scope,
+			AchillesMetrics metrics) {
+		this(true, permitsPerSecond, maxInFlight, scope, metrics);
+	}
+
+	private StatementThrottler(boolean enabled, double permitsPerSecond, int maxInFlight, ThrottlingScope scope,
+			AchillesMetrics metrics) {
+		this.enabled = enabled;
+		this.permitsPerSecond = permitsPerSecond;
+		this.maxInFlight = maxInFlight;
+		this.scope = scope;
+		this.metrics = metrics;
+	}
+
+	public static StatementThrottler disabled() {
+		return DISABLED;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Block until the statement is allowed to be sent
+	 * 
+	 * @param entityClass
+	 *            entity class of the statement, null for native queries and
+	 *            batches
+	 * @param consistencyLevel
+	 *            name of the driver consistency level of the statement
+	 * @return the permit to hand back to {@link #release(Permit)}, null when
+	 *         throttling is disabled
+	 */
+	public Permit acquire(Class<?> entityClass, String consistencyLevel) {
+		if (!enabled) {
+			return null;
+		}
+		Permit permit = getPermit(entityClass, consistencyLevel);
+		long start = System.nanoTime();
+		permit.acquire();
+		long waitInNanos = System.nanoTime() - start;
+		metrics.markThrottleWait(entityClass, waitInNanos);
+		if (log.isTraceEnabled()) {
+			log.trace("Statement for {} throttled during {} ns", entityClass, waitInNanos);
+		}
+		return permit;
+	}
+
+	public void release(Permit permit) {
+		if (permit != null) {
+			permit.release();
+		}
+	}
+
+	Permit getPermit(Class<?> entityClass, String consistencyLevel) {
+		Object key = keyFor(entityClass, consistencyLevel);
+		Permit permit = permits.get(key);
+		if (permit == null) {
+			permit = new Permit(permitsPerSecond, maxInFlight);
+			Permit existing = permits.putIfAbsent(key, permit);
+			if (existing != null) {
+				permit = existing;
+			}
+		}
+		return permit;
+	}
+
+	private Object keyFor(Class<?> entityClass, String consistencyLevel) {
+		switch (scope) {
+		case ENTITY:
+			return entityClass == null ? NO_ENTITY : entityClass;
+		case CONSISTENCY_LEVEL:
+			return consistencyLevel;
+		default:
+			return scope;
+		}
+	}
+
+	public double getPermitsPerSecond() {
+		return permitsPerSecond;
+	}
+
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	public ThrottlingScope getScope() {
+		return scope;
+	}
+
+	public static class Permit {
+		private final RateLimiter rateLimiter;
+		private final Semaphore inFlight;
+
+		Permit(double permitsPerSecond, int maxInFlight) {
+			this.rateLimiter = permitsPerSecond > 0 ? RateLimiter.create(permitsPerSecond) : null;
+			this.inFlight = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+		}
+
+		void acquire() {
+			if (inFlight != null) {
+				inFlight.acquireUninterruptibly();
+			}
+			if (rateLimiter != null) {
+				rateLimiter.acquire();
+			}
+		}
+
+		void release() {
+			if (inFlight != null) {
+				inFlight.release();
+			}
+		}
+
+		int availableInFlight() {
+			return inFlight == null ? Integer.MAX_VALUE : inFlight.availablePermits();
+		}
+	}
+}
@@ -9,16 +9,27 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.policies.FallthroughRetryPolicy;
 
 public abstract class AbstractStatementWrapper {
 	public static final String ACHILLES_DML_STATEMENT = "ACHILLES_DML_STATEMENT";
 	protected static final Logger dmlLogger = LoggerFactory.getLogger(ACHILLES_DML_STATEMENT);
 
+	protected Class<?> entityClass;
+
 	protected Object[] values = new Object[] {};
 
+	protected boolean idempotent = true;
+
 	protected AbstractStatementWrapper(Object[] values) {
+		this(null, values);
+	}
+
+	protected AbstractStatementWrapper(Class<?> entityClass, Object[] values) {
+		this.entityClass = entityClass;
 		if (ArrayUtils.isNotEmpty(values))
 			this.values = values;
 	}
@@ -27,11 +38,49 @@ public abstract class AbstractStatementWrapper {
 		return values;
 	}
 
+	public Class<?> getEntityClass() {
+		return entityClass;
+	}
+
+	/**
+	 * Whether the statement can be replayed safely after a timeout
+	 */
+	public boolean isIdempotent() {
+		return idempotent;
+	}
+
+	/**
+	 * Mark the statement as unsafe to replay, like a counter increment. Neither
+	 * Achilles nor the driver retry policy will retry it
+	 */
+	public void markNonIdempotent() {
+		idempotent = false;
+		getStatement().setRetryPolicy(FallthroughRetryPolicy.INSTANCE);
+	}
+
 	public abstract ResultSet execute(Session session);
 
+	public ResultSetFuture executeAsync(Session session) {
+		logDMLStatement(false, "");
+		return session.executeAsync(getStatement());
+	}
+
 	public abstract Statement getStatement();
 
-	public abstract void logDMLStatement(boolean isBatch, String indentation);
+	public abstract String getQueryType();
+
+	public abstract String getQueryString();
+
+	public String getConsistencyLevel() {
+		Statement statement = getStatement();
+		return statement.getConsistencyLevel() == null ? "DEFAULT" : statement.getConsistencyLevel().name();
+	}
+
+	public void logDMLStatement(boolean isBatch, String indentation) {
+		if (dmlLogger.isDebugEnabled()) {
+			writeDMLStatementLog(isBatch, getQueryType(), getQueryString(), getConsistencyLevel(), values);
+		}
+	}
 
 	public static void writeDMLStartBatch() {
 		if (dmlLogger.isDebugEnabled()) {
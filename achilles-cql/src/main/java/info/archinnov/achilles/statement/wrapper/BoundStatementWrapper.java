@@ -18,7 +18,6 @@ package info.archinnov.achilles.statement.wrapper;
 
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.ConsistencyLevel;
-import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Session;
 
@@ -27,7 +26,12 @@ public class BoundStatementWrapper extends AbstractStatementWrapper {
 	private BoundStatement boundStatement;
 
 	public BoundStatementWrapper(BoundStatement bs, Object[] values, ConsistencyLevel consistencyLevel) {
-		super(values);
+		this(null, bs, values, consistencyLevel);
+	}
+
+	public BoundStatementWrapper(Class<?> entityClass, BoundStatement bs, Object[] values,
+			ConsistencyLevel consistencyLevel) {
+		super(entityClass, values);
 		boundStatement = bs;
 		boundStatement.setConsistencyLevel(consistencyLevel);
 	}
@@ -44,14 +48,12 @@ public class BoundStatementWrapper extends AbstractStatementWrapper {
 	}
 
 	@Override
-	public void logDMLStatement(boolean isBatch, String indentation) {
-		if (dmlLogger.isDebugEnabled()) {
-			PreparedStatement ps = boundStatement.preparedStatement();
-			String queryType = "Prepared statement";
-			String queryString = ps.getQueryString();
-			String consistencyLevel = boundStatement.getConsistencyLevel() == null ? "DEFAULT" : boundStatement
-					.getConsistencyLevel().name();
-			writeDMLStatementLog(isBatch, queryType, queryString, consistencyLevel, values);
-		}
+	public String getQueryType() {
+		return "Prepared statement";
+	}
+
+	@Override
+	public String getQueryString() {
+		return boundStatement.preparedStatement().getQueryString();
 	}
 }
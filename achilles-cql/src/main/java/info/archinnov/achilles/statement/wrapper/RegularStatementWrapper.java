@@ -11,7 +11,12 @@ public class RegularStatementWrapper extends AbstractStatementWrapper {
 
 	public RegularStatementWrapper(RegularStatement regularStatement, Object[] boundValues,
 			ConsistencyLevel consistencyLevel) {
-		super(boundValues);
+		this(null, regularStatement, boundValues, consistencyLevel);
+	}
+
+	public RegularStatementWrapper(Class<?> entityClass, RegularStatement regularStatement, Object[] boundValues,
+			ConsistencyLevel consistencyLevel) {
+		super(entityClass, boundValues);
 		this.regularStatement = regularStatement;
 		regularStatement.setConsistencyLevel(consistencyLevel);
 	}
@@ -28,13 +33,12 @@ public class RegularStatementWrapper extends AbstractStatementWrapper {
 	}
 
 	@Override
-	public void logDMLStatement(boolean isBatch, String indentation) {
-		if (dmlLogger.isDebugEnabled()) {
-			String queryType = "Parameterized statement";
-			String queryString = regularStatement.getQueryString();
-			String consistencyLevel = regularStatement.getConsistencyLevel() == null ? "DEFAULT" : regularStatement
-					.getConsistencyLevel().name();
-			writeDMLStatementLog(isBatch, queryType, queryString, consistencyLevel, values);
-		}
+	public String getQueryType() {
+		return "Parameterized statement";
+	}
+
+	@Override
+	public String getQueryString() {
+		return regularStatement.getQueryString();
 	}
 }
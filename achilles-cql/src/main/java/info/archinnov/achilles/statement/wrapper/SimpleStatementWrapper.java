@@ -1,5 +1,7 @@
 package info.archinnov.achilles.statement.wrapper;
 
+import org.apache.commons.lang.ArrayUtils;
+
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.SimpleStatement;
@@ -9,14 +11,21 @@ public class SimpleStatementWrapper extends AbstractStatementWrapper {
 	private SimpleStatement simpleStatement;
 
 	public SimpleStatementWrapper(String query, Object[] values) {
-		super(values);
-		this.simpleStatement = new SimpleStatement(query);
+		this(null, query, values);
+	}
+
+	public SimpleStatementWrapper(Class<?> entityClass, String query, Object[] values) {
+		super(entityClass, values);
+		this.simpleStatement = ArrayUtils.isNotEmpty(values) ? new SimpleStatement(query, values)
+				: new SimpleStatement(query);
+		// Idempotence of user supplied queries is unknown
+		this.idempotent = false;
 	}
 
 	@Override
 	public ResultSet execute(Session session) {
 		logDMLStatement(false, "");
-		return session.execute(simpleStatement.getQueryString(), values);
+		return session.execute(simpleStatement);
 	}
 
 	@Override
@@ -25,13 +34,12 @@ public class SimpleStatementWrapper extends AbstractStatementWrapper {
 	}
 
 	@Override
-	public void logDMLStatement(boolean isBatch, String indentation) {
-		if (dmlLogger.isDebugEnabled()) {
-			String queryType = "Simple statement";
-			String queryString = simpleStatement.getQueryString();
-			String consistencyLevel = simpleStatement.getConsistencyLevel() == null ? "DEFAULT" : simpleStatement
-					.getConsistencyLevel().name();
-			writeDMLStatementLog(isBatch, queryType, queryString, consistencyLevel, values);
-		}
+	public String getQueryType() {
+		return "Simple statement";
+	}
+
+	@Override
+	public String getQueryString() {
+		return simpleStatement.getQueryString();
 	}
 }
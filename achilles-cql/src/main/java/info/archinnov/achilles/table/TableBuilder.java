@@ -21,6 +21,7 @@ import static info.archinnov.achilles.cql.TypeMapper.toCQLType;
 import static info.archinnov.achilles.table.TableCreator.ACHILLES_DDL_SCRIPT;
 import static info.archinnov.achilles.table.TableNameNormalizer.normalizerAndValidateColumnFamilyName;
 import info.archinnov.achilles.entity.metadata.IndexProperties;
+import info.archinnov.achilles.entity.metadata.TableProperties;
 import info.archinnov.achilles.type.Pair;
 import info.archinnov.achilles.validation.Validator;
 
@@ -52,6 +53,7 @@ public class TableBuilder {
 	private Map<String, String> sets = new LinkedHashMap<String, String>();
 	private Map<String, Pair<String, String>> maps = new LinkedHashMap<String, Pair<String, String>>();
 	private String reversedComponent = null;
+	private TableProperties tableProperties = null;
 	private boolean counter;
 
 	public static TableBuilder createTable(String tableName) {
@@ -156,6 +158,11 @@ public class TableBuilder {
 		return this;
 	}
 
+	public TableBuilder addTableProperties(TableProperties tableProperties) {
+		this.tableProperties = tableProperties;
+		return this;
+	}
+
 	public String generateDDLScript() {
 
 		String ddlScript;
@@ -233,6 +240,7 @@ public class TableBuilder {
 		if (reversedComponent != null) {
 			ddl.append(" AND CLUSTERING ORDER BY (").append(reversedComponent).append(" DESC)");
 		}
+		appendTableProperties(ddl);
 		return ddl.toString();
 	}
 
@@ -306,6 +314,47 @@ public class TableBuilder {
 
 		// Add comments
 		ddl.append(" WITH COMMENT = '").append(comment).append("'");
+		appendTableProperties(ddl);
 		return ddl.toString();
 	}
+
+	private void appendTableProperties(StringBuilder ddl) {
+		if (tableProperties == null) {
+			return;
+		}
+		if (tableProperties.getCompaction() != null) {
+			Map<String, Object> compaction = new LinkedHashMap<String, Object>();
+			compaction.put("class", tableProperties.getCompaction());
+			compaction.putAll(tableProperties.getCompactionOptions());
+			ddl.append(" AND compaction = ").append(toCQLMap(compaction));
+		}
+		if (tableProperties.getCompression() != null) {
+			Map<String, Object> compression = new LinkedHashMap<String, Object>();
+			compression.put("sstable_compression", tableProperties.getCompression());
+			if (tableProperties.getCompressionChunkLengthKb() != null) {
+				compression.put("chunk_length_kb", tableProperties.getCompressionChunkLengthKb());
+			}
+			ddl.append(" AND compression = ").append(toCQLMap(compression));
+		}
+		if (tableProperties.getCaching() != null) {
+			ddl.append(" AND caching = '").append(tableProperties.getCaching()).append("'");
+		}
+		if (tableProperties.getBloomFilterFpChance() != null) {
+			ddl.append(" AND bloom_filter_fp_chance = ").append(tableProperties.getBloomFilterFpChance());
+		}
+		if (tableProperties.getGcGraceSeconds() != null) {
+			ddl.append(" AND gc_grace_seconds = ").append(tableProperties.getGcGraceSeconds());
+		}
+		if (tableProperties.getDefaultTimeToLive() != null) {
+			ddl.append(" AND default_time_to_live = ").append(tableProperties.getDefaultTimeToLive());
+		}
+	}
+
+	private String toCQLMap(Map<String, Object> options) {
+		List<String> entries = new ArrayList<String>();
+		for (Entry<String, Object> option : options.entrySet()) {
+			entries.add("'" + option.getKey() + "': '" + option.getValue() + "'");
+		}
+		return "{" + StringUtils.join(entries, ", ") + "}";
+	}
 }
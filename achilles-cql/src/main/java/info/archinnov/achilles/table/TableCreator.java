@@ -137,6 +137,7 @@ public class TableCreator {
 		}
 		buildPrimaryKey(entityMeta.getIdMeta(), builder);
 		builder.addComment("Create table for entity '" + entityMeta.getClassName() + "'");
+		builder.addTableProperties(entityMeta.getTableProperties());
 		session.execute(builder.generateDDLScript());
 		if (builder.hasIndices()) {
 			for (String indexScript : builder.generateIndices()) {
@@ -160,6 +161,7 @@ public class TableCreator {
 		builder.addColumn(pm.getPropertyName(), pm.getValueClass());
 
 		builder.addComment("Create table for clustered counter entity '" + meta.getClassName() + "'");
+		builder.addTableProperties(meta.getTableProperties());
 
 		session.execute(builder.generateDDLScript());
 
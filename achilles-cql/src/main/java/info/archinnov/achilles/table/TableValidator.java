@@ -23,10 +23,14 @@ import static info.archinnov.achilles.cql.TypeMapper.toCQLType;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.InternalTimeUUID;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.entity.metadata.TableProperties;
 import info.archinnov.achilles.validation.Validator;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +40,8 @@ import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.DataType.Name;
 import com.datastax.driver.core.KeyspaceMetadata;
 import com.datastax.driver.core.TableMetadata;
+import com.datastax.driver.core.TableMetadata.Options;
+import com.google.common.base.Objects;
 
 public class TableValidator {
 
@@ -51,6 +57,81 @@ public class TableValidator {
 		}
 		validateTable(entityMeta, tableMetadata, idMeta);
 
+		if (entityMeta.getTableProperties() != null) {
+			for (String drift : findTablePropertiesDrift(entityMeta.getTableProperties(), tableMetadata)) {
+				log.warn(drift);
+			}
+		}
+	}
+
+	/**
+	 * Compare the table options declared on the entity with the ones of the
+	 * existing table. Options changed outside of Achilles are reported but do
+	 * not prevent the bootstrap
+	 * 
+	 * @return one message per option which drifted
+	 */
+	List<String> findTablePropertiesDrift(TableProperties expected, TableMetadata tableMetadata) {
+		log.debug("Compare table options of {} against {}", tableMetadata.getName(), expected);
+
+		List<String> drifts = new ArrayList<String>();
+		String tableName = tableMetadata.getName();
+		Options actual = tableMetadata.getOptions();
+
+		if (expected.getCompaction() != null) {
+			Map<String, String> compaction = actual.getCompaction();
+			if (!isSameClass(expected.getCompaction(), compaction.get("class"))) {
+				drifts.add(driftMessage(tableName, "compaction", expected.getCompaction(), compaction.get("class")));
+			}
+			for (Entry<String, String> option : expected.getCompactionOptions().entrySet()) {
+				addDriftIfDifferent(drifts, tableName, "compaction option " + option.getKey(), option.getValue(),
+						compaction.get(option.getKey()));
+			}
+		}
+		if (expected.getCompression() != null) {
+			Map<String, String> compression = actual.getCompression();
+			if (!isSameClass(expected.getCompression(), compression.get("sstable_compression"))) {
+				drifts.add(driftMessage(tableName, "compression", expected.getCompression(),
+						compression.get("sstable_compression")));
+			}
+			if (expected.getCompressionChunkLengthKb() != null) {
+				addDriftIfDifferent(drifts, tableName, "compression chunk_length_kb",
+						expected.getCompressionChunkLengthKb().toString(), compression.get("chunk_length_kb"));
+			}
+		}
+		if (expected.getCaching() != null && !expected.getCaching().equalsIgnoreCase(actual.getCaching())) {
+			drifts.add(driftMessage(tableName, "caching", expected.getCaching(), actual.getCaching()));
+		}
+		if (expected.getBloomFilterFpChance() != null) {
+			addDriftIfDifferent(drifts, tableName, "bloom_filter_fp_chance", expected.getBloomFilterFpChance(),
+					actual.getBloomFilterFalsePositiveChance());
+		}
+		if (expected.getGcGraceSeconds() != null) {
+			addDriftIfDifferent(drifts, tableName, "gc_grace_seconds", expected.getGcGraceSeconds(),
+					actual.getGcGraceInSeconds());
+		}
+		if (expected.getDefaultTimeToLive() != null) {
+			addDriftIfDifferent(drifts, tableName, "default_time_to_live", expected.getDefaultTimeToLive(),
+					actual.getDefaultTimeToLive());
+		}
+		return drifts;
+	}
+
+	private void addDriftIfDifferent(List<String> drifts, String tableName, String option, Object expected,
+			Object actual) {
+		if (!Objects.equal(expected, actual)) {
+			drifts.add(driftMessage(tableName, option, expected, actual));
+		}
+	}
+
+	private String driftMessage(String tableName, String option, Object expected, Object actual) {
+		return String.format("Table '%s' has %s '%s' whereas entity metadata declares '%s'", tableName, option,
+				actual, expected);
+	}
+
+	private boolean isSameClass(String expectedClass, String actualClass) {
+		// Cassandra reports fully qualified names, entities may declare simple ones
+		return actualClass != null && (actualClass.equals(expectedClass) || actualClass.endsWith("." + expectedClass));
 	}
 
 	private void validateTable(EntityMeta entityMeta, TableMetadata tableMetadata, PropertyMeta idMeta) {
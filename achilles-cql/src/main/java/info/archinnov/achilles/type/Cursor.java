@@ -0,0 +1,104 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.type;
+
+import info.archinnov.achilles.exception.AchillesException;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.type.TypeReference;
+
+import com.google.common.base.Objects;
+
+/**
+ * Opaque position in the results of a paged query, pointing right after the
+ * last entity of a page.<br/>
+ * <br/>
+ * A cursor is Serializable. It can also be converted to a string token with
+ * {@link #toToken()} and rebuilt with {@link #fromToken(String)}, for example
+ * to be handed to HTTP clients
+ */
+public class Cursor implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final ObjectMapper TOKEN_MAPPER = new ObjectMapper();
+
+	private final List<String> components;
+
+	public Cursor(List<String> components) {
+		this.components = Collections.unmodifiableList(new ArrayList<String>(components));
+	}
+
+	public List<String> getComponents() {
+		return components;
+	}
+
+	/**
+	 * Convert this cursor into a Base64 string token
+	 * 
+	 * @return token
+	 */
+	public String toToken() {
+		try {
+			return DatatypeConverter.printBase64Binary(TOKEN_MAPPER.writeValueAsBytes(components));
+		} catch (Exception e) {
+			throw new AchillesException("Error while converting cursor " + this + " to token", e);
+		}
+	}
+
+	/**
+	 * Rebuild a cursor from a token obtained by {@link #toToken()}
+	 * 
+	 * @param token
+	 *            string token
+	 * @return Cursor
+	 */
+	public static Cursor fromToken(String token) {
+		try {
+			List<String> components = TOKEN_MAPPER.readValue(DatatypeConverter.parseBase64Binary(token),
+					new TypeReference<List<String>>() {
+					});
+			return new Cursor(components);
+		} catch (Exception e) {
+			throw new AchillesException("Cannot read cursor from token '" + token + "'", e);
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return components.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof Cursor))
+			return false;
+		return components.equals(((Cursor) o).components);
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(Cursor.class).add("components", components).toString();
+	}
+}
@@ -0,0 +1,35 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.type;
+
+/**
+ * What to do with a write when the write-behind queue is full
+ */
+public enum OverflowPolicy {
+	/**
+	 * Block the caller until the queue has room
+	 */
+	BLOCK,
+	/**
+	 * Throw an AchillesException to the caller
+	 */
+	FAIL_FAST,
+	/**
+	 * Discard the write and count it as dropped
+	 */
+	DROP;
+}
@@ -0,0 +1,70 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.type;
+
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.base.Objects;
+
+/**
+ * One page of entities returned by a paged query, along with the cursor to
+ * fetch the next page
+ */
+public class Page<T> implements Iterable<T> {
+
+	private final List<T> entities;
+
+	private final Cursor nextCursor;
+
+	public Page(List<T> entities, Cursor nextCursor) {
+		this.entities = entities;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<T> getEntities() {
+		return entities;
+	}
+
+	/**
+	 * Cursor to pass to the next page() call
+	 * 
+	 * @return Cursor or null if this page is the last one
+	 */
+	public Cursor getNextCursor() {
+		return nextCursor;
+	}
+
+	public boolean hasNextPage() {
+		return nextCursor != null;
+	}
+
+	public int size() {
+		return entities.size();
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return entities.iterator();
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(Page.class).add("size", entities.size()).add("nextCursor", nextCursor)
+				.toString();
+	}
+}
@@ -0,0 +1,36 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.type;
+
+/**
+ * Granularity of the client-side statement throttling limits
+ */
+public enum ThrottlingScope {
+	/**
+	 * One rate and in-flight limit shared by all statements
+	 */
+	GLOBAL,
+	/**
+	 * One rate and in-flight limit per entity class. Native queries and
+	 * batches share a separate limit
+	 */
+	ENTITY,
+	/**
+	 * One rate and in-flight limit per consistency level
+	 */
+	CONSISTENCY_LEVEL;
+}
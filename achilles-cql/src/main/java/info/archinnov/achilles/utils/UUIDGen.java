@@ -30,6 +30,7 @@ import java.util.HashSet;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -44,7 +45,9 @@ public class UUIDGen
     // placement of this singleton is important.  It needs to be instantiated *AFTER* the other statics.
     private static final UUIDGen instance = new UUIDGen();
 
-    private long lastNanos;
+    private final AtomicLong lastNanos = new AtomicLong();
+
+    private final AtomicLong lastMicros = new AtomicLong();
 
     private UUIDGen()
     {
@@ -74,9 +77,12 @@ public class UUIDGen
         return (timestamp / 10) + START_EPOCH * 1000 + remainder;
     }
 
+    /**
+     * @return microseconds since Unix epoch, strictly greater than any value
+     *         previously returned by this method
+     */
     public static long increasingMicroTimestamp() {
-        final UUID timeUUID = getTimeUUID();
-        return microsTimestamp(timeUUID);
+        return instance.createMicrosSafe();
     }
 
 
@@ -93,15 +99,28 @@ public class UUIDGen
 
     // needs to return two different values for the same when.
     // we can generate at most 10k UUIDs per ms.
-    private synchronized long createTimeSafe()
+    // lock-free: concurrent callers race on a CAS instead of a monitor, a
+    // loser simply retries with the value the winner published
+    private long createTimeSafe()
     {
         long nanosSince = (System.currentTimeMillis() - START_EPOCH) * 10000;
-        if (nanosSince > lastNanos)
-            lastNanos = nanosSince;
-        else
-            nanosSince = ++lastNanos;
+        return createTime(nextAfter(lastNanos, nanosSince));
+    }
+
+    private long createMicrosSafe()
+    {
+        return nextAfter(lastMicros, System.currentTimeMillis() * 1000);
+    }
 
-        return createTime(nanosSince);
+    private static long nextAfter(AtomicLong last, long candidate)
+    {
+        while (true)
+        {
+            long previous = last.get();
+            long next = candidate > previous ? candidate : previous + 1;
+            if (last.compareAndSet(previous, next))
+                return next;
+        }
     }
 
 
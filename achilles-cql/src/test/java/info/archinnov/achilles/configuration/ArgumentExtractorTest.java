@@ -27,19 +27,36 @@ import static info.archinnov.achilles.configuration.ConfigurationParameters.CONS
 import static info.archinnov.achilles.configuration.ConfigurationParameters.DISABLE_JMX;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.DISABLE_METRICS;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.ENTITY_PACKAGES_PARAM;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.EVENT_INTERCEPTORS_ASYNC_EXECUTOR_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.EVENT_INTERCEPTORS_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.FORCE_TABLE_CREATION_PARAM;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.HEDGED_READS_PERCENTILE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.INSERT_STRATEGY_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.KEYSPACE_NAME_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.LOAD_BALANCING_POLICY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.METRICS_ENABLED;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.METRICS_JMX_ENABLED;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.METRICS_REGISTRY;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.NATIVE_SESSION_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.OBJECT_MAPPER_FACTORY_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.OBJECT_MAPPER_PARAM;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.PASSWORD;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.RECONNECTION_POLICY;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.RETRY_POLICY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SCAN_CONCURRENCY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SCAN_PAGE_SIZE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SLICE_PREFETCH_THRESHOLD;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SLOW_STATEMENT_LISTENERS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SLOW_STATEMENT_SAMPLING_RATE;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.SLOW_STATEMENT_THRESHOLD_IN_MS;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.SSL_ENABLED;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.SSL_OPTIONS;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.THROTTLING_MAX_IN_FLIGHT;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.THROTTLING_PERMITS_PER_SECOND;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.THROTTLING_SCOPE;
 import static info.archinnov.achilles.configuration.ConfigurationParameters.USERNAME;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_BEHIND_OVERFLOW_POLICY;
+import static info.archinnov.achilles.configuration.ConfigurationParameters.WRITE_RETRY_MAX_RETRIES;
 import static info.archinnov.achilles.type.ConsistencyLevel.ALL;
 import static info.archinnov.achilles.type.ConsistencyLevel.ANY;
 import static info.archinnov.achilles.type.ConsistencyLevel.LOCAL_QUORUM;
@@ -47,19 +64,32 @@ import static info.archinnov.achilles.type.ConsistencyLevel.ONE;
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import info.archinnov.achilles.context.ConfigurationContext;
 import info.archinnov.achilles.exception.AchillesException;
 import info.archinnov.achilles.interceptor.Event;
 import info.archinnov.achilles.interceptor.EventInterceptor;
 import info.archinnov.achilles.json.ObjectMapperFactory;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.statement.hedging.HedgedReadExecutor;
+import info.archinnov.achilles.statement.retry.WriteRetryPolicy;
+import info.archinnov.achilles.statement.slowlog.SlowStatementListener;
+import info.archinnov.achilles.statement.slowlog.SlowStatementLogger;
+import info.archinnov.achilles.statement.slowlog.SlowStatementTracker;
+import info.archinnov.achilles.statement.throttling.StatementThrottler;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.InsertStrategy;
+import info.archinnov.achilles.type.OverflowPolicy;
+import info.archinnov.achilles.type.ThrottlingScope;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.codehaus.jackson.map.AnnotationIntrospector;
 import org.codehaus.jackson.map.DeserializationConfig;
@@ -75,7 +105,9 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.powermock.reflect.Whitebox;
 
+import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ProtocolOptions;
 import com.datastax.driver.core.SSLOptions;
@@ -212,6 +244,35 @@ public class ArgumentExtractorTest {
 		assertThat(extractor.initDefaultWriteConsistencyLevel(configMap)).isEqualTo(LOCAL_QUORUM);
 	}
 
+	@Test
+	public void should_init_insert_strategy() throws Exception {
+		// Given
+		configMap.put(INSERT_STRATEGY_PARAM, "NOT_NULL_FIELDS");
+
+		// When
+		InsertStrategy insertStrategy = extractor.initInsertStrategy(configMap);
+
+		// Then
+		assertThat(insertStrategy).isSameAs(InsertStrategy.NOT_NULL_FIELDS);
+	}
+
+	@Test
+	public void should_init_default_insert_strategy() throws Exception {
+		assertThat(extractor.initInsertStrategy(configMap)).isSameAs(InsertStrategy.ALL_FIELDS);
+	}
+
+	@Test
+	public void should_exception_when_invalid_insert_strategy() throws Exception {
+		// Given
+		configMap.put(INSERT_STRATEGY_PARAM, "SOME_FIELDS");
+
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage("'SOME_FIELDS' is not a valid insert strategy");
+
+		// When
+		extractor.initInsertStrategy(configMap);
+	}
+
 	@Test
 	public void should_return_default_one_level_when_no_parameter() throws Exception {
 		assertThat(extractor.initDefaultReadConsistencyLevel(configMap)).isEqualTo(ONE);
@@ -407,4 +468,352 @@ public class ArgumentExtractorTest {
 		assertThat(configContext.getDefaultWriteConsistencyLevel()).isEqualTo(ALL);
 
 	}
+
+	@Test
+	public void should_init_disabled_metrics_by_default() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+
+		// When
+		AchillesMetrics metrics = extractor.initMetrics(params);
+
+		// Then
+		assertThat(metrics).isSameAs(AchillesMetrics.disabled());
+		assertThat(metrics.isEnabled()).isFalse();
+	}
+
+	@Test
+	public void should_init_metrics_with_new_registry() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(METRICS_ENABLED, true);
+
+		// When
+		AchillesMetrics metrics = extractor.initMetrics(params);
+
+		// Then
+		assertThat(metrics.isEnabled()).isTrue();
+		assertThat(metrics.getRegistry()).isNotNull();
+	}
+
+	@Test
+	public void should_init_metrics_with_provided_registry() throws Exception {
+		// Given
+		MetricRegistry registry = new MetricRegistry();
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(METRICS_REGISTRY, registry);
+
+		// When
+		AchillesMetrics metrics = extractor.initMetrics(params);
+
+		// Then
+		assertThat(metrics.isEnabled()).isTrue();
+		assertThat(metrics.getRegistry()).isSameAs(registry);
+	}
+
+	@Test
+	public void should_init_metrics_without_starting_jmx_reporting() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(METRICS_ENABLED, true);
+		params.put(METRICS_JMX_ENABLED, true);
+
+		// When
+		AchillesMetrics metrics = extractor.initMetrics(params);
+		boolean jmxReporting = extractor.initMetricsJmxReporting(params);
+
+		// Then
+		assertThat(metrics.isEnabled()).isTrue();
+		assertThat(Whitebox.getInternalState(metrics, "jmxReporter")).isNull();
+		assertThat(jmxReporting).isTrue();
+		assertThat(extractor.initMetricsJmxReporting(new HashMap<String, Object>())).isFalse();
+	}
+
+	@Test
+	public void should_init_disabled_slow_statement_tracker_by_default() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+
+		// When
+		SlowStatementTracker tracker = extractor.initSlowStatementTracker(params);
+
+		// Then
+		assertThat(tracker).isSameAs(SlowStatementTracker.disabled());
+	}
+
+	@Test
+	public void should_init_slow_statement_tracker_with_default_logger() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(SLOW_STATEMENT_THRESHOLD_IN_MS, 100L);
+
+		// When
+		SlowStatementTracker tracker = extractor.initSlowStatementTracker(params);
+
+		// Then
+		assertThat(tracker.isEnabled()).isTrue();
+		assertThat(tracker.getThresholdInMillis()).isEqualTo(100L);
+		assertThat(tracker.getSamplingRate()).isEqualTo(1.0);
+		assertThat(tracker.getListeners()).hasSize(1);
+		assertThat(tracker.getListeners().get(0)).isInstanceOf(SlowStatementLogger.class);
+	}
+
+	@Test
+	public void should_init_slow_statement_tracker_with_listeners() throws Exception {
+		// Given
+		SlowStatementListener listener = mock(SlowStatementListener.class);
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(SLOW_STATEMENT_THRESHOLD_IN_MS, 10L);
+		params.put(SLOW_STATEMENT_SAMPLING_RATE, 0.1);
+		params.put(SLOW_STATEMENT_LISTENERS, Arrays.asList(listener));
+
+		// When
+		SlowStatementTracker tracker = extractor.initSlowStatementTracker(params);
+
+		// Then
+		assertThat(tracker.getSamplingRate()).isEqualTo(0.1);
+		assertThat(tracker.getListeners()).containsExactly(listener);
+	}
+
+	@Test
+	public void should_exception_when_invalid_sampling_rate() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(SLOW_STATEMENT_THRESHOLD_IN_MS, 10L);
+		params.put(SLOW_STATEMENT_SAMPLING_RATE, 1.5);
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("achilles.slow.statement.sampling.rate property should be in ]0,1]");
+
+		// When
+		extractor.initSlowStatementTracker(params);
+	}
+
+	@Test
+	public void should_init_default_slice_prefetch_threshold() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+
+		// When
+		double threshold = extractor.initSlicePrefetchThreshold(params);
+
+		// Then
+		assertThat(threshold).isEqualTo(0.5);
+	}
+
+	@Test
+	public void should_init_slice_prefetch_threshold() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(SLICE_PREFETCH_THRESHOLD, 0.8);
+
+		// When
+		double threshold = extractor.initSlicePrefetchThreshold(params);
+
+		// Then
+		assertThat(threshold).isEqualTo(0.8);
+	}
+
+	@Test
+	public void should_exception_when_invalid_slice_prefetch_threshold() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(SLICE_PREFETCH_THRESHOLD, -0.1);
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("achilles.slice.prefetch.threshold property should be in [0,1]");
+
+		// When
+		extractor.initSlicePrefetchThreshold(params);
+	}
+
+	@Test
+	public void should_init_default_scan_concurrency_and_page_size() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+
+		// When
+		int concurrency = extractor.initScanConcurrency(params);
+		int pageSize = extractor.initScanPageSize(params);
+
+		// Then
+		assertThat(concurrency).isEqualTo(4);
+		assertThat(pageSize).isEqualTo(100);
+	}
+
+	@Test
+	public void should_init_scan_concurrency_and_page_size() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(SCAN_CONCURRENCY, 8);
+		params.put(SCAN_PAGE_SIZE, 500);
+
+		// When
+		int concurrency = extractor.initScanConcurrency(params);
+		int pageSize = extractor.initScanPageSize(params);
+
+		// Then
+		assertThat(concurrency).isEqualTo(8);
+		assertThat(pageSize).isEqualTo(500);
+	}
+
+	@Test
+	public void should_exception_when_invalid_scan_page_size() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(SCAN_PAGE_SIZE, 0);
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("achilles.scan.page.size property should be strictly positive");
+
+		// When
+		extractor.initScanPageSize(params);
+	}
+
+	@Test
+	public void should_init_default_write_behind_parameters() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+
+		// When
+		int capacity = extractor.initWriteBehindQueueCapacity(params);
+		int workers = extractor.initWriteBehindWorkers(params);
+		int batchSize = extractor.initWriteBehindBatchSize(params);
+		OverflowPolicy overflowPolicy = extractor.initWriteBehindOverflowPolicy(params);
+
+		// Then
+		assertThat(capacity).isEqualTo(10000);
+		assertThat(workers).isEqualTo(2);
+		assertThat(batchSize).isEqualTo(100);
+		assertThat(overflowPolicy).isSameAs(OverflowPolicy.BLOCK);
+	}
+
+	@Test
+	public void should_init_write_behind_overflow_policy_from_string() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(WRITE_BEHIND_OVERFLOW_POLICY, "DROP");
+
+		// When
+		OverflowPolicy overflowPolicy = extractor.initWriteBehindOverflowPolicy(params);
+
+		// Then
+		assertThat(overflowPolicy).isSameAs(OverflowPolicy.DROP);
+	}
+
+	@Test
+	public void should_exception_when_invalid_write_behind_overflow_policy() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(WRITE_BEHIND_OVERFLOW_POLICY, "WAIT");
+
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage("'WAIT' is not a valid write-behind overflow policy");
+
+		// When
+		extractor.initWriteBehindOverflowPolicy(params);
+	}
+
+	@Test
+	public void should_init_disabled_statement_throttler_by_default() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+
+		// When
+		StatementThrottler throttler = extractor.initStatementThrottler(params, AchillesMetrics.disabled());
+
+		// Then
+		assertThat(throttler.isEnabled()).isFalse();
+	}
+
+	@Test
+	public void should_init_statement_throttler() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(THROTTLING_PERMITS_PER_SECOND, 500.0);
+		params.put(THROTTLING_MAX_IN_FLIGHT, 64);
+		params.put(THROTTLING_SCOPE, "ENTITY");
+
+		// When
+		StatementThrottler throttler = extractor.initStatementThrottler(params, AchillesMetrics.disabled());
+
+		// Then
+		assertThat(throttler.isEnabled()).isTrue();
+		assertThat(throttler.getPermitsPerSecond()).isEqualTo(500.0);
+		assertThat(throttler.getMaxInFlight()).isEqualTo(64);
+		assertThat(throttler.getScope()).isSameAs(ThrottlingScope.ENTITY);
+	}
+
+	@Test
+	public void should_exception_when_invalid_throttling_max_in_flight() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(THROTTLING_MAX_IN_FLIGHT, 0);
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("achilles.throttling.max.in.flight property should be strictly positive");
+
+		// When
+		extractor.initStatementThrottler(params, AchillesMetrics.disabled());
+	}
+
+	@Test
+	public void should_init_event_interceptor_executor() throws Exception {
+		// Given
+		Executor executor = mock(Executor.class);
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(EVENT_INTERCEPTORS_ASYNC_EXECUTOR_PARAM, executor);
+
+		// When
+		Executor actual = extractor.initEventInterceptorExecutor(params);
+
+		// Then
+		assertThat(actual).isSameAs(executor);
+		assertThat(extractor.initEventInterceptorExecutor(new HashMap<String, Object>())).isNull();
+	}
+
+	@Test
+	public void should_init_hedged_read_executor() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(HEDGED_READS_PERCENTILE, 0.99);
+
+		// When
+		HedgedReadExecutor hedgedReadExecutor = extractor.initHedgedReadExecutor(params, AchillesMetrics.disabled());
+
+		// Then
+		assertThat(hedgedReadExecutor.isEnabled()).isTrue();
+		assertThat(hedgedReadExecutor.getPercentile()).isEqualTo(0.99);
+		assertThat(extractor.initHedgedReadExecutor(new HashMap<String, Object>(), AchillesMetrics.disabled())
+				.isEnabled()).isFalse();
+	}
+
+	@Test
+	public void should_exception_when_invalid_hedged_reads_percentile() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(HEDGED_READS_PERCENTILE, 1.0);
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("achilles.hedged.reads.percentile property should be in ]0,1[");
+
+		// When
+		extractor.initHedgedReadExecutor(params, AchillesMetrics.disabled());
+	}
+
+	@Test
+	public void should_init_write_retry_policy() throws Exception {
+		// Given
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put(WRITE_RETRY_MAX_RETRIES, 3);
+
+		// When
+		WriteRetryPolicy retryPolicy = extractor.initWriteRetryPolicy(params);
+
+		// Then
+		assertThat(retryPolicy.isEnabled()).isTrue();
+		assertThat(retryPolicy.getMaxRetries()).isEqualTo(3);
+		assertThat(retryPolicy.getBaseBackoffInMillis()).isEqualTo(50L);
+		assertThat(extractor.initWriteRetryPolicy(new HashMap<String, Object>()).isEnabled()).isFalse();
+	}
 }
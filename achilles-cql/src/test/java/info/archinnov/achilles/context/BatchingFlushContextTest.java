@@ -18,17 +18,24 @@ package info.archinnov.achilles.context;
 
 import static info.archinnov.achilles.type.ConsistencyLevel.EACH_QUORUM;
 import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+import static org.mockito.Mockito.*;
 import info.archinnov.achilles.context.AbstractFlushContext.FlushType;
+import info.archinnov.achilles.entity.cache.CacheInvalidation;
 import info.archinnov.achilles.statement.wrapper.BoundStatementWrapper;
 import info.archinnov.achilles.type.ConsistencyLevel;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.WriteType;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
 
 @RunWith(MockitoJUnitRunner.class)
 public class BatchingFlushContextTest {
@@ -44,6 +51,9 @@ public class BatchingFlushContextTest {
 	@Mock
 	private RegularStatement query;
 
+	@Mock
+	private CacheInvalidation cacheInvalidation;
+
 	@Before
 	public void setUp() {
 		context = new BatchingFlushContext(daoContext, EACH_QUORUM);
@@ -78,6 +88,40 @@ public class BatchingFlushContextTest {
 		assertThat(context.consistencyLevel).isEqualTo(ConsistencyLevel.TWO);
 	}
 
+	@Test
+	public void should_invalidate_cache_only_when_batch_is_executed() throws Exception {
+		context.statementWrappers.add(bsWrapper);
+		context.pushCacheInvalidation(cacheInvalidation);
+
+		context.flush();
+		verifyZeroInteractions(cacheInvalidation);
+
+		context.endBatch(ConsistencyLevel.TWO);
+
+		InOrder inOrder = inOrder(daoContext, cacheInvalidation);
+		inOrder.verify(daoContext).executeBatch(any(BatchStatement.class), anyBoolean());
+		inOrder.verify(cacheInvalidation).invalidate();
+		assertThat(context.cacheInvalidations).isEmpty();
+	}
+
+	@Test
+	public void should_invalidate_cache_when_batch_fails() throws Exception {
+		context.statementWrappers.add(bsWrapper);
+		context.pushCacheInvalidation(cacheInvalidation);
+		WriteTimeoutException timeout = new WriteTimeoutException(com.datastax.driver.core.ConsistencyLevel.ONE,
+				WriteType.BATCH, 1, 0);
+		doThrow(timeout).when(daoContext).executeBatch(any(BatchStatement.class), anyBoolean());
+
+		try {
+			context.endBatch(ConsistencyLevel.TWO);
+			fail("The batch should have failed");
+		} catch (WriteTimeoutException e) {
+			assertThat(e).isSameAs(timeout);
+		}
+
+		verify(cacheInvalidation).invalidate();
+	}
+
 	@Test
 	public void should_get_type() throws Exception {
 		assertThat(context.type()).isSameAs(FlushType.BATCH);
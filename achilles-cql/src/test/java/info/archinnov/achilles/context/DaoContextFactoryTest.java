@@ -58,6 +58,9 @@ public class DaoContextFactoryTest {
 	@Mock
 	private Session session;
 
+	@Mock
+	private ConfigurationContext configContext;
+
 	@Mock
 	private PreparedStatementGenerator queryGenerator;
 
@@ -154,7 +157,7 @@ public class DaoContextFactoryTest {
 		when(queryGenerator.prepareRemovePSs(session, meta)).thenReturn(removePSs);
 		when(queryGenerator.prepareSimpleCounterQueryMap(session)).thenReturn(counterQueryMap);
 
-		DaoContext actual = builder.build(session, entityMetaMap, true);
+		DaoContext actual = builder.build(session, entityMetaMap, configContext, true);
 
 		// Then
 		assertThat((Map<Class<?>, PreparedStatement>) Whitebox.getInternalState(actual, "insertPSs")).containsValue(
@@ -169,6 +172,7 @@ public class DaoContextFactoryTest {
 
 		assertThat((Map<CQLQueryType, PreparedStatement>) Whitebox.getInternalState(actual, "counterQueryMap"))
 				.isSameAs(counterQueryMap);
+		assertThat(Whitebox.getInternalState(actual, "configContext")).isSameAs(configContext);
 	}
 
 	@Test
@@ -187,7 +191,7 @@ public class DaoContextFactoryTest {
 		when(queryGenerator.prepareSelectEagerPS(session, meta)).thenReturn(selectEagerPS);
 		when(queryGenerator.prepareRemovePSs(session, meta)).thenReturn(removePSs);
 
-		DaoContext actual = builder.build(session, entityMetaMap, false);
+		DaoContext actual = builder.build(session, entityMetaMap, configContext, false);
 
 		// Then
 		assertThat((Map<Class<?>, PreparedStatement>) Whitebox.getInternalState(actual, "insertPSs")).containsValue(
@@ -23,17 +23,27 @@ import static org.mockito.Mockito.*;
 import info.archinnov.achilles.counter.AchillesCounter.CQLQueryType;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.entity.metadata.PropertyType;
 import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.metrics.AchillesMetrics.Operation;
+import info.archinnov.achilles.proxy.ReflectionInvoker;
 import info.archinnov.achilles.statement.StatementGenerator;
 import info.archinnov.achilles.statement.cache.CacheManager;
 import info.archinnov.achilles.statement.cache.StatementCacheKey;
+import info.archinnov.achilles.statement.hedging.HedgedReadExecutor;
 import info.archinnov.achilles.statement.prepared.PreparedStatementBinder;
+import info.archinnov.achilles.statement.retry.WriteRetryPolicy;
+import info.archinnov.achilles.statement.slowlog.SlowStatementTracker;
+import info.archinnov.achilles.statement.throttling.StatementThrottler;
+import info.archinnov.achilles.statement.throttling.StatementThrottler.Permit;
 import info.archinnov.achilles.statement.wrapper.BoundStatementWrapper;
 import info.archinnov.achilles.statement.wrapper.RegularStatementWrapper;
 import info.archinnov.achilles.test.builders.CompleteBeanTestBuilder;
 import info.archinnov.achilles.test.builders.PropertyMetaTestBuilder;
 import info.archinnov.achilles.test.mapping.entity.CompleteBean;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.InsertStrategy;
 import info.archinnov.achilles.type.OptionsBuilder;
 import info.archinnov.achilles.type.Pair;
 
@@ -41,6 +51,9 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.math.RandomUtils;
 import org.junit.Before;
@@ -52,7 +65,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 import org.powermock.reflect.Whitebox;
 
 import com.datastax.driver.core.BatchStatement;
@@ -60,18 +75,23 @@ import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.RegularStatement;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.WriteType;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
 import com.datastax.driver.core.querybuilder.Insert;
 import com.datastax.driver.core.querybuilder.Insert.Options;
 import com.datastax.driver.core.querybuilder.Update;
 import com.datastax.driver.core.querybuilder.Update.Where;
 import com.datastax.driver.core.querybuilder.Using;
 import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
 import com.google.common.cache.Cache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
 
 @RunWith(MockitoJUnitRunner.class)
 public class DaoContextTest {
@@ -112,6 +132,9 @@ public class DaoContextTest {
 	@Mock
 	private CacheManager cacheManager;
 
+	@Mock
+	private ConfigurationContext configContext;
+
 	@Mock
 	private PersistenceContext context;
 
@@ -153,6 +176,12 @@ public class DaoContextTest {
 		Whitebox.setInternalState(daoContext, "clusteredCounterQueryMap", clusteredCounterQueryMap);
 		Whitebox.setInternalState(daoContext, Session.class, session);
 		Whitebox.setInternalState(daoContext, StatementGenerator.class, statementGenerator);
+		Whitebox.setInternalState(daoContext, ConfigurationContext.class, configContext);
+		when(configContext.getMetrics()).thenReturn(AchillesMetrics.disabled());
+		when(configContext.getSlowStatementTracker()).thenReturn(SlowStatementTracker.disabled());
+		when(configContext.getStatementThrottler()).thenReturn(StatementThrottler.disabled());
+		when(configContext.getHedgedReadExecutor()).thenReturn(HedgedReadExecutor.disabled());
+		when(configContext.getWriteRetryPolicy()).thenReturn(WriteRetryPolicy.disabled());
 		clusteredCounterQueryMap.clear();
 		entityMeta = new EntityMeta();
 		entityMeta.setEntityClass(CompleteBean.class);
@@ -186,6 +215,32 @@ public class DaoContextTest {
 		verify(context).pushStatement(bsWrapper);
 	}
 
+	@Test
+	public void should_push_insert_with_not_null_fields() throws Exception {
+		// Given
+		PropertyMeta nameMeta = PropertyMetaTestBuilder.completeBean(Void.class, String.class).field("name")
+				.type(PropertyType.SIMPLE).accessors().invoker(new ReflectionInvoker()).build();
+		PropertyMeta ageMeta = PropertyMetaTestBuilder.completeBean(Void.class, Long.class).field("age")
+				.type(PropertyType.SIMPLE).accessors().invoker(new ReflectionInvoker()).build();
+		entityMeta.setAllMetasExceptIdMeta(Arrays.asList(nameMeta, ageMeta));
+		entityMeta.setInsertStrategy(InsertStrategy.NOT_NULL_FIELDS);
+		entity.setName("name");
+		List<PropertyMeta> pms = Arrays.asList(nameMeta);
+
+		// When
+		when(context.getTtt()).thenReturn(Optional.<Integer> absent());
+		when(context.getTimestamp()).thenReturn(Optional.<Long> fromNullable(null));
+		when(context.getConsistencyLevel()).thenReturn(Optional.<ConsistencyLevel> fromNullable(null));
+		when(cacheManager.getCacheForFieldsInsert(session, dynamicPSCache, context, pms)).thenReturn(ps);
+		when(binder.bindForInsert(ps, entityMeta, pms, entity, EACH_QUORUM, ttlO)).thenReturn(bsWrapper);
+
+		daoContext.pushInsertStatement(context);
+
+		// Then
+		verify(context).pushStatement(bsWrapper);
+		verify(insertPSs, never()).get(CompleteBean.class);
+	}
+
 	@Test
 	public void should_push_insert_with_timestamp() throws Exception {
 		// Given
@@ -355,7 +410,7 @@ public class DaoContextTest {
 		when(binder.bindStatementWithOnlyPKInWhereClause(ps, entityMeta, entity.getId(), LOCAL_QUORUM)).thenReturn(
 				bsWrapper);
 		when(resultSet.all()).thenReturn(Arrays.asList(row));
-		when(context.executeImmediate(bsWrapper)).thenReturn(resultSet);
+		when(bsWrapper.execute(session)).thenReturn(resultSet);
 		when(context.getConsistencyLevel()).thenReturn(Optional.<ConsistencyLevel> fromNullable(null));
 
 		// Then
@@ -377,7 +432,7 @@ public class DaoContextTest {
 				bsWrapper);
 		when(resultSet.all()).thenReturn(Arrays.asList(row));
 		when(context.getConsistencyLevel()).thenReturn(Optional.<ConsistencyLevel> fromNullable(EACH_QUORUM));
-		when(context.executeImmediate(bsWrapper)).thenReturn(resultSet);
+		when(bsWrapper.execute(session)).thenReturn(resultSet);
 
 		// Then
 		Row actual = daoContext.loadProperty(context, pm);
@@ -398,7 +453,7 @@ public class DaoContextTest {
 				bsWrapper);
 		when(resultSet.all()).thenReturn(Lists.<Row> newLinkedList());
 		when(context.getConsistencyLevel()).thenReturn(Optional.<ConsistencyLevel> fromNullable(EACH_QUORUM));
-		when(context.executeImmediate(bsWrapper)).thenReturn(resultSet);
+		when(bsWrapper.execute(session)).thenReturn(resultSet);
 
 		// Then
 		assertThat(daoContext.loadProperty(context, pm)).isNull();
@@ -418,6 +473,175 @@ public class DaoContextTest {
 		assertThat(actual).isSameAs(resultSet);
 	}
 
+	@Test
+	public void should_track_slow_statement_on_execute() throws Exception {
+		// Given
+		ResultSet resultSet = mock(ResultSet.class);
+		SlowStatementTracker tracker = mock(SlowStatementTracker.class);
+		when(configContext.getSlowStatementTracker()).thenReturn(tracker);
+		when(tracker.isEnabled()).thenReturn(true);
+		when(bsWrapper.execute(session)).thenReturn(resultSet);
+
+		// When
+		ResultSet actual = daoContext.execute(bsWrapper);
+
+		// Then
+		assertThat(actual).isSameAs(resultSet);
+		verify(tracker).track(eq(bsWrapper), anyLong(), eq(resultSet));
+	}
+
+	@Test
+	public void should_throttle_execute() throws Exception {
+		// Given
+		ResultSet resultSet = mock(ResultSet.class);
+		StatementThrottler throttler = mock(StatementThrottler.class);
+		Permit permit = mock(Permit.class);
+		when(configContext.getStatementThrottler()).thenReturn(throttler);
+		when(bsWrapper.getEntityClass()).thenReturn((Class) CompleteBean.class);
+		when(bsWrapper.getConsistencyLevel()).thenReturn("ONE");
+		when(throttler.acquire(CompleteBean.class, "ONE")).thenReturn(permit);
+		when(bsWrapper.execute(session)).thenReturn(resultSet);
+
+		// When
+		ResultSet actual = daoContext.execute(bsWrapper);
+
+		// Then
+		assertThat(actual).isSameAs(resultSet);
+		verify(throttler).release(permit);
+	}
+
+	@Test
+	public void should_release_throttling_permit_when_async_execution_completes() throws Exception {
+		// Given
+		ResultSetFuture future = mock(ResultSetFuture.class);
+		StatementThrottler throttler = mock(StatementThrottler.class);
+		Permit permit = mock(Permit.class);
+		when(configContext.getStatementThrottler()).thenReturn(throttler);
+		when(throttler.acquire(null, "DEFAULT")).thenReturn(permit);
+		when(bsWrapper.getConsistencyLevel()).thenReturn("DEFAULT");
+		when(bsWrapper.executeAsync(session)).thenReturn(future);
+		ArgumentCaptor<Runnable> listenerCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+		// When
+		ResultSetFuture actual = daoContext.executeAsync(bsWrapper);
+
+		// Then
+		assertThat(actual).isSameAs(future);
+		verify(future).addListener(listenerCaptor.capture(), any(Executor.class));
+		verify(throttler, never()).release(permit);
+
+		listenerCaptor.getValue().run();
+		verify(throttler).release(permit);
+	}
+
+	@Test
+	public void should_execute_hedged_read() throws Exception {
+		// Given
+		ResultSet resultSet = mock(ResultSet.class);
+		HedgedReadExecutor hedgedReadExecutor = mock(HedgedReadExecutor.class);
+		when(configContext.getHedgedReadExecutor()).thenReturn(hedgedReadExecutor);
+		when(hedgedReadExecutor.isEnabled()).thenReturn(true);
+		when(bsWrapper.getEntityClass()).thenReturn((Class) CompleteBean.class);
+		when(hedgedReadExecutor.execute(eq(CompleteBean.class), eq(Operation.FIND), any(Supplier.class))).thenReturn(
+				resultSet);
+
+		// When
+		ResultSet actual = daoContext.executeRead(bsWrapper, Operation.FIND);
+
+		// Then
+		assertThat(actual).isSameAs(resultSet);
+		verify(bsWrapper, never()).execute(session);
+	}
+
+	@Test
+	public void should_retry_idempotent_write_on_timeout() throws Exception {
+		// Given
+		ResultSet resultSet = mock(ResultSet.class);
+		when(configContext.getWriteRetryPolicy()).thenReturn(new WriteRetryPolicy(2, 0));
+		when(bsWrapper.isIdempotent()).thenReturn(true);
+		when(bsWrapper.execute(session)).thenThrow(
+				new WriteTimeoutException(com.datastax.driver.core.ConsistencyLevel.ONE, WriteType.SIMPLE, 1, 0))
+				.thenReturn(resultSet);
+
+		// When
+		ResultSet actual = daoContext.execute(bsWrapper);
+
+		// Then
+		assertThat(actual).isSameAs(resultSet);
+		verify(bsWrapper, times(2)).execute(session);
+	}
+
+	@Test
+	public void should_not_retry_non_idempotent_write_on_timeout() throws Exception {
+		// Given
+		when(configContext.getWriteRetryPolicy()).thenReturn(new WriteRetryPolicy(2, 0));
+		when(bsWrapper.isIdempotent()).thenReturn(false);
+		when(bsWrapper.execute(session)).thenThrow(
+				new WriteTimeoutException(com.datastax.driver.core.ConsistencyLevel.ONE, WriteType.SIMPLE, 1, 0));
+
+		exception.expect(WriteTimeoutException.class);
+
+		// When
+		try {
+			daoContext.execute(bsWrapper);
+		} finally {
+			verify(bsWrapper).execute(session);
+		}
+	}
+
+	@Test
+	public void should_retry_idempotent_batch_on_timeout() throws Exception {
+		// Given
+		BatchStatement batch = mock(BatchStatement.class);
+		when(configContext.getWriteRetryPolicy()).thenReturn(new WriteRetryPolicy(2, 0));
+		when(session.execute(batch)).thenThrow(
+				new WriteTimeoutException(com.datastax.driver.core.ConsistencyLevel.ONE, WriteType.BATCH, 1, 0))
+				.thenReturn(mock(ResultSet.class));
+
+		// When
+		daoContext.executeBatch(batch, true);
+
+		// Then
+		verify(session, times(2)).execute(batch);
+	}
+
+	@Test
+	public void should_retry_idempotent_async_write_on_timeout() throws Exception {
+		// Given
+		ResultSet resultSet = mock(ResultSet.class);
+		ResultSetFuture failed = completedFuture(null, new WriteTimeoutException(
+				com.datastax.driver.core.ConsistencyLevel.ONE, WriteType.SIMPLE, 1, 0));
+		ResultSetFuture succeeded = completedFuture(resultSet, null);
+		when(configContext.getWriteRetryPolicy()).thenReturn(new WriteRetryPolicy(2, 0));
+		when(bsWrapper.isIdempotent()).thenReturn(true);
+		when(bsWrapper.executeAsync(session)).thenReturn(failed, succeeded);
+
+		// When
+		ListenableFuture<ResultSet> actual = daoContext.executeWriteAsync(bsWrapper);
+
+		// Then
+		assertThat(actual.get(1, TimeUnit.SECONDS)).isSameAs(resultSet);
+		verify(bsWrapper, times(2)).executeAsync(session);
+	}
+
+	@Test
+	public void should_not_retry_non_idempotent_async_write_on_timeout() throws Exception {
+		// Given
+		WriteTimeoutException timeout = new WriteTimeoutException(com.datastax.driver.core.ConsistencyLevel.ONE,
+				WriteType.SIMPLE, 1, 0);
+		ResultSetFuture failed = completedFuture(null, timeout);
+		when(configContext.getWriteRetryPolicy()).thenReturn(new WriteRetryPolicy(2, 0));
+		when(bsWrapper.isIdempotent()).thenReturn(false);
+		when(bsWrapper.executeAsync(session)).thenReturn(failed);
+
+		// When
+		ListenableFuture<ResultSet> actual = daoContext.executeWriteAsync(bsWrapper);
+
+		// Then
+		assertThat(actual).isSameAs(failed);
+		verify(bsWrapper).executeAsync(session);
+	}
+
 	// Simple counter
 	@Test
 	public void should_bind_simple_counter_increment() throws Exception {
@@ -694,9 +918,26 @@ public class DaoContextTest {
 		BatchStatement batch = mock(BatchStatement.class);
 
 		// When
-		daoContext.executeBatch(batch);
+		daoContext.executeBatch(batch, true);
 
 		// Then
 		verify(session).execute(batch);
 	}
+
+	private ResultSetFuture completedFuture(ResultSet resultSet, Exception failure) throws Exception {
+		ResultSetFuture future = mock(ResultSetFuture.class);
+		doAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				((Runnable) invocation.getArguments()[0]).run();
+				return null;
+			}
+		}).when(future).addListener(any(Runnable.class), any(Executor.class));
+		if (failure == null) {
+			when(future.get()).thenReturn(resultSet);
+		} else {
+			when(future.get()).thenThrow(new ExecutionException(failure));
+		}
+		return future;
+	}
 }
@@ -18,8 +18,10 @@ package info.archinnov.achilles.context;
 
 import static info.archinnov.achilles.type.ConsistencyLevel.LOCAL_QUORUM;
 import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
 import static org.mockito.Mockito.*;
 import info.archinnov.achilles.context.AbstractFlushContext.FlushType;
+import info.archinnov.achilles.entity.cache.CacheInvalidation;
 import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
 import info.archinnov.achilles.statement.wrapper.BoundStatementWrapper;
 import info.archinnov.achilles.type.ConsistencyLevel;
@@ -37,6 +39,8 @@ import org.powermock.reflect.Whitebox;
 import com.datastax.driver.core.RegularStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.WriteType;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ImmediateFlushContextTest {
@@ -96,6 +100,25 @@ public class ImmediateFlushContextTest {
 		assertThat(statementWrappers).isEmpty();
 	}
 
+	@Test
+	public void should_invalidate_cache_when_write_fails() throws Exception {
+		CacheInvalidation cacheInvalidation = mock(CacheInvalidation.class);
+		context.pushStatement(bsWrapper);
+		context.pushCacheInvalidation(cacheInvalidation);
+		WriteTimeoutException timeout = new WriteTimeoutException(com.datastax.driver.core.ConsistencyLevel.ONE,
+				WriteType.SIMPLE, 1, 0);
+		when(daoContext.execute(bsWrapper)).thenThrow(timeout);
+
+		try {
+			context.flush();
+			fail("The write should have failed");
+		} catch (WriteTimeoutException e) {
+			assertThat(e).isSameAs(timeout);
+		}
+
+		verify(cacheInvalidation).invalidate();
+	}
+
 	@Test
 	public void should_duplicate() throws Exception {
 		context = new ImmediateFlushContext(daoContext, LOCAL_QUORUM);
@@ -21,6 +21,8 @@ import static info.archinnov.achilles.type.ConsistencyLevel.LOCAL_QUORUM;
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
+import info.archinnov.achilles.entity.cache.CacheInvalidation;
+import info.archinnov.achilles.entity.cache.EntityCache;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.entity.operations.EntityInitializer;
@@ -45,6 +47,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.powermock.reflect.Whitebox;
@@ -67,6 +71,9 @@ public class PersistenceContextTest {
 	@Mock
 	private ConfigurationContext configurationContext;
 
+	@Mock
+	private EntityCache entityCache;
+
 	@Mock
 	private EntityLoader loader;
 
@@ -103,6 +110,7 @@ public class PersistenceContextTest {
 		when(meta.getIdMeta()).thenReturn(idMeta);
 		when(meta.<CompleteBean> getEntityClass()).thenReturn(CompleteBean.class);
         when(configurationContext.getDefaultWriteConsistencyLevel()).thenReturn(ConsistencyLevel.ONE);
+		when(configurationContext.getEntityCache()).thenReturn(entityCache);
 
 		context = new PersistenceContext(meta, configurationContext, daoContext, flushContext, CompleteBean.class,
 				primaryKey, OptionsBuilder.noOptions());
@@ -355,26 +363,54 @@ public class PersistenceContextTest {
 
 	@Test
 	public void should_persist() throws Exception {
+		when(entityCache.isCached(meta)).thenReturn(true);
+
 		context.persist();
+
 		verify(persister).persist(context);
-		verify(flushContext).flush();
+		verifyCacheInvalidatedAfterFlush();
 	}
 
 	@Test
 	public void should_merge() throws Exception {
+		when(entityCache.isCached(meta)).thenReturn(true);
 		when(merger.merge(context, entity)).thenReturn(entity);
 
 		CompleteBean merged = context.merge(entity);
 
 		assertThat(merged).isSameAs(entity);
-		verify(flushContext).flush();
+		verifyCacheInvalidatedAfterFlush();
 	}
 
 	@Test
 	public void should_remove() throws Exception {
+		when(entityCache.isCached(meta)).thenReturn(true);
+
 		context.remove();
+
 		verify(persister).remove(context);
+		verifyCacheInvalidatedAfterFlush();
+	}
+
+	@Test
+	public void should_not_register_cache_invalidation_when_entity_not_cached() throws Exception {
+		when(entityCache.isCached(meta)).thenReturn(false);
+
+		context.persist();
+
 		verify(flushContext).flush();
+		verify(flushContext, never()).pushCacheInvalidation(any(CacheInvalidation.class));
+	}
+
+	private void verifyCacheInvalidatedAfterFlush() {
+		ArgumentCaptor<CacheInvalidation> invalidationCaptor = ArgumentCaptor.forClass(CacheInvalidation.class);
+		InOrder inOrder = inOrder(flushContext);
+		inOrder.verify(flushContext).pushCacheInvalidation(invalidationCaptor.capture());
+		inOrder.verify(flushContext).flush();
+		verify(entityCache, never()).invalidate(meta, primaryKey);
+
+		invalidationCaptor.getValue().invalidate();
+		verify(entityCache).invalidate(meta, primaryKey);
 	}
 
 	@Test
@@ -411,6 +447,7 @@ public class PersistenceContextTest {
 	@Test
 	public void should_refresh() throws Exception {
 		context.refresh();
+		verify(entityCache).invalidate(meta, primaryKey);
 		verify(refresher).refresh(context);
 	}
 
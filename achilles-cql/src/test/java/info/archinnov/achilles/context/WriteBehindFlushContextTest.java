@@ -0,0 +1,120 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.context;
+
+import static info.archinnov.achilles.type.ConsistencyLevel.LOCAL_QUORUM;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+import static org.mockito.Mockito.*;
+import info.archinnov.achilles.context.AbstractFlushContext.FlushType;
+import info.archinnov.achilles.entity.cache.CacheInvalidation;
+import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
+import info.archinnov.achilles.statement.wrapper.BoundStatementWrapper;
+import info.archinnov.achilles.type.ConsistencyLevel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.powermock.reflect.Whitebox;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WriteBehindFlushContextTest {
+
+	private WriteBehindFlushContext context;
+
+	@Mock
+	private DaoContext daoContext;
+
+	@Mock
+	private WriteBehindQueue writeBehindQueue;
+
+	@Mock
+	private BoundStatementWrapper bsWrapper;
+
+	@Mock
+	private BoundStatementWrapper otherWrapper;
+
+	@Mock
+	private CacheInvalidation cacheInvalidation;
+
+	private Object partitionKey = 10L;
+
+	@Before
+	public void setUp() {
+		context = new WriteBehindFlushContext(daoContext, null, writeBehindQueue, partitionKey);
+	}
+
+	@Test
+	public void should_return_WRITE_BEHIND_type() throws Exception {
+		assertThat(context.type()).isSameAs(FlushType.WRITE_BEHIND);
+	}
+
+	@Test
+	public void should_queue_statements_on_flush() throws Exception {
+		List<AbstractStatementWrapper> statementWrappers = new ArrayList<AbstractStatementWrapper>();
+		statementWrappers.add(bsWrapper);
+		statementWrappers.add(otherWrapper);
+		Whitebox.setInternalState(context, "statementWrappers", statementWrappers);
+		context.pushCacheInvalidation(cacheInvalidation);
+
+		context.flush();
+
+		verify(writeBehindQueue).offerAll(partitionKey, Arrays.<AbstractStatementWrapper> asList(bsWrapper, otherWrapper),
+				Arrays.asList(cacheInvalidation));
+		verifyZeroInteractions(daoContext, cacheInvalidation);
+		assertThat(statementWrappers).isEmpty();
+	}
+
+	@Test
+	public void should_clean_up_when_queue_rejects_statements() throws Exception {
+		context.pushStatement(bsWrapper);
+		context.pushCacheInvalidation(cacheInvalidation);
+		when(writeBehindQueue.offerAll(eq(partitionKey), anyListOf(AbstractStatementWrapper.class),
+				anyListOf(CacheInvalidation.class))).thenThrow(new AchillesException("full"));
+
+		try {
+			context.flush();
+			fail("The queue should have rejected the statements");
+		} catch (AchillesException e) {
+			assertThat(e).hasMessage("full");
+		}
+
+		assertThat(context.statementWrappers).isEmpty();
+		assertThat(context.cacheInvalidations).isEmpty();
+	}
+
+	@Test
+	public void should_duplicate() throws Exception {
+		context = new WriteBehindFlushContext(daoContext, LOCAL_QUORUM, writeBehindQueue, partitionKey);
+		WriteBehindFlushContext actual = context.duplicate();
+
+		assertThat(actual.consistencyLevel).isEqualTo(LOCAL_QUORUM);
+		assertThat(Whitebox.getInternalState(actual, "partitionKey")).isSameAs(partitionKey);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void should_exception_when_calling_start_batch() throws Exception {
+		context.startBatch(ConsistencyLevel.ONE);
+	}
+}
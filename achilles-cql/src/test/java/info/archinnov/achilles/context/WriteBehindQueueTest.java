@@ -0,0 +1,282 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.context;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+import info.archinnov.achilles.entity.cache.CacheInvalidation;
+import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
+import info.archinnov.achilles.type.OverflowPolicy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.powermock.reflect.Whitebox;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Statement;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WriteBehindQueueTest {
+
+	private static final long NEVER = 3600 * 1000L;
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Mock
+	private DaoContext daoContext;
+
+	@Mock
+	private ResultSetFuture future;
+
+	private WriteBehindQueue queue;
+
+	@Before
+	public void setUp() {
+		doAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				((Runnable) invocation.getArguments()[0]).run();
+				return null;
+			}
+		}).when(future).addListener(any(Runnable.class), any(Executor.class));
+		when(daoContext.executeWriteAsync(any(AbstractStatementWrapper.class))).thenReturn(future);
+		when(daoContext.executeBatchAsync(any(BatchStatement.class), anyBoolean())).thenReturn(future);
+	}
+
+	@After
+	public void tearDown() {
+		queue.shutdown();
+	}
+
+	@Test
+	public void should_write_statements_of_same_partition_in_one_batch() throws Exception {
+		queue = new WriteBehindQueue(daoContext, 10, 1, 10, OverflowPolicy.BLOCK, NEVER);
+		AbstractStatementWrapper first = mockWrapper();
+		AbstractStatementWrapper second = mockWrapper();
+		AbstractStatementWrapper other = mockWrapper();
+
+		queue.offer(10L, first);
+		queue.offer(11L, other);
+		queue.offer(10L, second);
+		assertThat(queue.getPendingCount()).isEqualTo(3);
+
+		queue.flush();
+
+		ArgumentCaptor<BatchStatement> batchCaptor = ArgumentCaptor.forClass(BatchStatement.class);
+		verify(daoContext).executeBatchAsync(batchCaptor.capture(), eq(true));
+		List<Statement> batched = Whitebox.getInternalState(batchCaptor.getValue(), "statements");
+		assertThat(batched).containsExactly(first.getStatement(), second.getStatement());
+		verify(daoContext).executeWriteAsync(other);
+		verify(daoContext, never()).executeWriteAsync(first);
+		assertThat(queue.getPendingCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void should_invalidate_cache_once_statement_is_written() throws Exception {
+		queue = new WriteBehindQueue(daoContext, 10, 1, 10, OverflowPolicy.BLOCK, NEVER);
+		CacheInvalidation cacheInvalidation = mock(CacheInvalidation.class);
+
+		queue.offer(10L, mockWrapper(), Arrays.asList(cacheInvalidation));
+		verifyZeroInteractions(cacheInvalidation);
+
+		queue.flush();
+
+		verify(cacheInvalidation).invalidate();
+	}
+
+	@Test
+	public void should_flush_only_statements_queued_before_the_call() throws Exception {
+		queue = new WriteBehindQueue(daoContext, 10, 1, 10, OverflowPolicy.BLOCK, NEVER);
+		AbstractStatementWrapper first = mockWrapper();
+		AbstractStatementWrapper next = mockWrapper();
+		ResultSetFuture firstFuture = mock(ResultSetFuture.class);
+		ResultSetFuture nextFuture = mock(ResultSetFuture.class);
+		when(daoContext.executeWriteAsync(first)).thenReturn(firstFuture);
+		when(daoContext.executeWriteAsync(next)).thenReturn(nextFuture);
+		queue.offer(10L, first);
+
+		ExecutorService flusher = Executors.newSingleThreadExecutor();
+		Future<Boolean> flushed = flusher.submit(new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				return queue.flush(5, TimeUnit.SECONDS);
+			}
+		});
+		verify(daoContext, timeout(1000)).executeWriteAsync(first);
+		queue.offer(11L, next);
+		queue.drain();
+		complete(firstFuture);
+
+		assertThat(flushed.get(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(queue.getPendingCount()).isEqualTo(1);
+
+		complete(nextFuture);
+		flusher.shutdown();
+	}
+
+	@Test
+	public void should_return_false_when_flush_times_out() throws Exception {
+		queue = new WriteBehindQueue(daoContext, 10, 1, 10, OverflowPolicy.BLOCK, NEVER);
+		AbstractStatementWrapper wrapper = mockWrapper();
+		ResultSetFuture pendingFuture = mock(ResultSetFuture.class);
+		when(daoContext.executeWriteAsync(wrapper)).thenReturn(pendingFuture);
+		queue.offer(10L, wrapper);
+
+		assertThat(queue.flush(10, TimeUnit.MILLISECONDS)).isFalse();
+		assertThat(queue.getPendingCount()).isEqualTo(1);
+
+		complete(pendingFuture);
+		assertThat(queue.flush(10, TimeUnit.MILLISECONDS)).isTrue();
+	}
+
+	@Test
+	public void should_fail_fast_when_full() throws Exception {
+		queue = new WriteBehindQueue(daoContext, 1, 1, 10, OverflowPolicy.FAIL_FAST, NEVER);
+		queue.offer(10L, mockWrapper());
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("The write-behind queue is full (capacity 1)");
+
+		queue.offer(11L, mockWrapper());
+	}
+
+	@Test
+	public void should_fail_fast_without_queuing_any_statement_of_the_entity() throws Exception {
+		queue = new WriteBehindQueue(daoContext, 2, 1, 10, OverflowPolicy.FAIL_FAST, NEVER);
+		CacheInvalidation cacheInvalidation = mock(CacheInvalidation.class);
+		queue.offer(10L, mockWrapper());
+
+		try {
+			queue.offerAll(11L, Arrays.asList(mockWrapper(), mockWrapper()), Arrays.asList(cacheInvalidation));
+			fail("The queue should be full");
+		} catch (AchillesException e) {
+			assertThat(e).hasMessage("The write-behind queue is full (capacity 2)");
+		}
+
+		assertThat(queue.getPendingCount()).isEqualTo(1);
+		queue.flush();
+		verify(daoContext, times(1)).executeWriteAsync(any(AbstractStatementWrapper.class));
+		verifyZeroInteractions(cacheInvalidation);
+	}
+
+	@Test
+	public void should_invalidate_cache_once_last_statement_of_the_entity_is_written() throws Exception {
+		queue = new WriteBehindQueue(daoContext, 10, 1, 1, OverflowPolicy.BLOCK, NEVER);
+		CacheInvalidation cacheInvalidation = mock(CacheInvalidation.class);
+		ResultSetFuture pendingFuture = mock(ResultSetFuture.class);
+		AbstractStatementWrapper first = mockWrapper();
+		AbstractStatementWrapper last = mockWrapper();
+		when(daoContext.executeWriteAsync(last)).thenReturn(pendingFuture);
+
+		queue.offerAll(10L, Arrays.asList(first, last), Arrays.asList(cacheInvalidation));
+		queue.drain();
+
+		verifyZeroInteractions(cacheInvalidation);
+		complete(pendingFuture);
+		verify(cacheInvalidation).invalidate();
+	}
+
+	@Test
+	public void should_drop_all_statements_of_the_entity_when_full() throws Exception {
+		queue = new WriteBehindQueue(daoContext, 2, 1, 10, OverflowPolicy.DROP, NEVER);
+		CacheInvalidation cacheInvalidation = mock(CacheInvalidation.class);
+		queue.offer(10L, mockWrapper());
+
+		assertThat(queue.offerAll(11L, Arrays.asList(mockWrapper(), mockWrapper()), Arrays.asList(cacheInvalidation)))
+				.isFalse();
+
+		assertThat(queue.getDroppedCount()).isEqualTo(2L);
+		assertThat(queue.getPendingCount()).isEqualTo(1);
+		verify(cacheInvalidation).invalidate();
+	}
+
+	@Test
+	public void should_drop_when_full() throws Exception {
+		queue = new WriteBehindQueue(daoContext, 1, 1, 10, OverflowPolicy.DROP, NEVER);
+
+		assertThat(queue.offer(10L, mockWrapper())).isTrue();
+		assertThat(queue.offer(11L, mockWrapper())).isFalse();
+
+		assertThat(queue.getDroppedCount()).isEqualTo(1L);
+		assertThat(queue.getPendingCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void should_count_failed_writes_and_free_their_slots() throws Exception {
+		queue = new WriteBehindQueue(daoContext, 10, 1, 10, OverflowPolicy.BLOCK, NEVER);
+		AbstractStatementWrapper wrapper = mockWrapper();
+		when(daoContext.executeWriteAsync(wrapper)).thenThrow(new RuntimeException("test"));
+
+		queue.offer(10L, wrapper);
+		queue.flush();
+
+		assertThat(queue.getFailedCount()).isEqualTo(1L);
+		assertThat(queue.getPendingCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void should_write_pending_statements_on_shutdown() throws Exception {
+		queue = new WriteBehindQueue(daoContext, 10, 1, 10, OverflowPolicy.BLOCK, NEVER);
+		AbstractStatementWrapper wrapper = mockWrapper();
+		queue.offer(10L, wrapper);
+
+		queue.shutdown();
+
+		verify(daoContext).executeWriteAsync(wrapper);
+		exception.expect(AchillesException.class);
+		queue.offer(10L, wrapper);
+	}
+
+	private void complete(ResultSetFuture pendingFuture) {
+		ArgumentCaptor<Runnable> listenerCaptor = ArgumentCaptor.forClass(Runnable.class);
+		verify(pendingFuture).addListener(listenerCaptor.capture(), any(Executor.class));
+		listenerCaptor.getValue().run();
+	}
+
+	private AbstractStatementWrapper mockWrapper() {
+		AbstractStatementWrapper wrapper = mock(AbstractStatementWrapper.class);
+		Statement statement = mock(Statement.class);
+		when(wrapper.getStatement()).thenReturn(statement);
+		when(wrapper.isIdempotent()).thenReturn(true);
+		return wrapper;
+	}
+}
@@ -16,7 +16,7 @@
  */
 package info.archinnov.achilles.entity;
 
-import static info.archinnov.achilles.entity.metadata.PropertyType.EMBEDDED_ID;
+import static info.archinnov.achilles.entity.metadata.PropertyType.*;
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +30,7 @@ import info.archinnov.achilles.test.mapping.entity.ClusteredEntity;
 import info.archinnov.achilles.test.mapping.entity.CompleteBean;
 import info.archinnov.achilles.test.parser.entity.EmbeddedKey;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -47,6 +48,7 @@ import com.datastax.driver.core.ColumnDefinitions;
 import com.datastax.driver.core.ColumnDefinitions.Definition;
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.Row;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -133,6 +135,35 @@ public class EntityMapperTest {
 		verify(invoker).setValueToField(entity, pm.getSetter(), embeddedKey);
 	}
 
+	@Test
+	public void should_map_row_to_snapshot_with_immutable_collections() throws Exception {
+		ReflectionInvoker reflectionInvoker = new ReflectionInvoker();
+		PropertyMeta nameMeta = PropertyMetaTestBuilder.completeBean(Void.class, String.class).field("name")
+				.accessors().type(SIMPLE).invoker(reflectionInvoker).build();
+		PropertyMeta friendsMeta = PropertyMetaTestBuilder.completeBean(Void.class, String.class).field("friends")
+				.accessors().type(LIST).invoker(reflectionInvoker).build();
+		PropertyMeta preferencesMeta = PropertyMetaTestBuilder.completeBean(Integer.class, String.class)
+				.field("preferences").accessors().type(MAP).invoker(reflectionInvoker).build();
+
+		CompleteBean snapshot = new CompleteBean();
+		Map<Integer, String> preferences = new HashMap<Integer, String>();
+		preferences.put(1, "FR");
+
+		when(entityMeta.getEagerMetas()).thenReturn(Arrays.asList(nameMeta, friendsMeta, preferencesMeta));
+		when(entityMeta.instanciate()).thenReturn(snapshot);
+		when(cqlRowInvoker.invokeOnRowForFields(row, nameMeta)).thenReturn("John");
+		when(cqlRowInvoker.invokeOnRowForFields(row, friendsMeta)).thenReturn(
+				new ArrayList<String>(Arrays.asList("foo", "bar")));
+		when(cqlRowInvoker.invokeOnRowForFields(row, preferencesMeta)).thenReturn(preferences);
+
+		CompleteBean actual = entityMapper.mapRowToSnapshot(row, entityMeta);
+
+		assertThat(actual).isSameAs(snapshot);
+		assertThat(actual.getName()).isEqualTo("John");
+		assertThat(actual.getFriends()).isInstanceOf(ImmutableList.class).containsExactly("foo", "bar");
+		assertThat(actual.getPreferences()).isInstanceOf(ImmutableMap.class).isEqualTo(preferences);
+	}
+
 	@Test
 	public void should_map_row_to_entity() throws Exception {
 		Long id = RandomUtils.nextLong();
@@ -0,0 +1,173 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.cache;
+
+import static info.archinnov.achilles.entity.metadata.PropertyType.*;
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.entity.metadata.CacheProperties;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.proxy.ReflectionInvoker;
+import info.archinnov.achilles.test.builders.CompleteBeanTestBuilder;
+import info.archinnov.achilles.test.builders.PropertyMetaTestBuilder;
+import info.archinnov.achilles.test.mapping.entity.CompleteBean;
+import info.archinnov.achilles.test.mapping.entity.UserBean;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+
+public class EntityCacheTest {
+
+	private EntityCache entityCache;
+
+	private EntityMeta meta;
+
+	private Long primaryKey = 10L;
+
+	private ReflectionInvoker invoker = new ReflectionInvoker();
+
+	@Before
+	public void setUp() throws Exception {
+		PropertyMeta idMeta = PropertyMetaTestBuilder.completeBean(Void.class, Long.class).field("id").type(ID)
+				.accessors().invoker(invoker).build();
+		PropertyMeta nameMeta = PropertyMetaTestBuilder.completeBean(Void.class, String.class).field("name")
+				.type(SIMPLE).accessors().invoker(invoker).build();
+		PropertyMeta friendsMeta = PropertyMetaTestBuilder.completeBean(Void.class, String.class).field("friends")
+				.type(LIST).accessors().invoker(invoker).build();
+		PropertyMeta userMeta = PropertyMetaTestBuilder.completeBean(Void.class, UserBean.class).field("user")
+				.type(SIMPLE).accessors().invoker(invoker).build();
+
+		meta = new EntityMeta();
+		meta.setEntityClass(CompleteBean.class);
+		meta.setClassName(CompleteBean.class.getCanonicalName());
+		meta.setIdMeta(idMeta);
+		meta.setEagerMetas(Arrays.asList(idMeta, nameMeta, friendsMeta, userMeta));
+		meta.setCacheProperties(new CacheProperties(60, 100, true));
+
+		entityCache = new EntityCache(ImmutableMap.<Class<?>, EntityMeta> of(CompleteBean.class, meta));
+	}
+
+	@Test
+	public void should_return_null_on_cache_miss() throws Exception {
+		assertThat(entityCache.get(meta, primaryKey)).isNull();
+		assertThat(entityCache.getStats(CompleteBean.class).missCount()).isEqualTo(1L);
+	}
+
+	@Test
+	public void should_return_copy_of_cached_entity() throws Exception {
+		UserBean user = new UserBean();
+		user.setName("user");
+		CompleteBean entity = CompleteBeanTestBuilder.builder().id(primaryKey).name("name").addFriends("foo", "bar")
+				.buid();
+		entity.setUser(user);
+
+		entityCache.put(meta, primaryKey, entity, entityCache.generation(meta, primaryKey));
+		entity.getFriends().add("qux");
+		user.setName("changed");
+
+		Optional<CompleteBean> cached = entityCache.get(meta, primaryKey);
+
+		assertThat(cached.isPresent()).isTrue();
+		CompleteBean actual = cached.get();
+		assertThat(actual).isNotSameAs(entity);
+		assertThat(actual.getId()).isNull();
+		assertThat(actual.getName()).isEqualTo("name");
+		assertThat(actual.getFriends()).containsExactly("foo", "bar");
+		assertThat(actual.getUser().getName()).isEqualTo("user");
+		assertThat(entityCache.getStats(CompleteBean.class).hitCount()).isEqualTo(1L);
+	}
+
+	@Test
+	public void should_cache_absent_entity() throws Exception {
+		entityCache.put(meta, primaryKey, null, entityCache.generation(meta, primaryKey));
+
+		Optional<CompleteBean> cached = entityCache.get(meta, primaryKey);
+
+		assertThat(cached.isPresent()).isFalse();
+	}
+
+	@Test
+	public void should_not_cache_absent_entity_when_disabled() throws Exception {
+		meta.setCacheProperties(new CacheProperties(60, 100, false));
+
+		entityCache.put(meta, primaryKey, null, entityCache.generation(meta, primaryKey));
+
+		assertThat(entityCache.get(meta, primaryKey)).isNull();
+	}
+
+	@Test
+	public void should_invalidate_entity() throws Exception {
+		entityCache.put(meta, primaryKey, CompleteBeanTestBuilder.builder().id(primaryKey).name("name").buid(),
+				entityCache.generation(meta, primaryKey));
+		entityCache.put(meta, 11L, CompleteBeanTestBuilder.builder().id(11L).name("name").buid(),
+				entityCache.generation(meta, 11L));
+
+		entityCache.invalidate(meta, primaryKey);
+
+		assertThat(entityCache.get(meta, primaryKey)).isNull();
+		assertThat(entityCache.get(meta, 11L)).isNotNull();
+
+		entityCache.invalidateAll(meta);
+
+		assertThat(entityCache.get(meta, 11L)).isNull();
+	}
+
+	@Test
+	public void should_not_cache_entity_invalidated_during_load() throws Exception {
+		long generation = entityCache.generation(meta, primaryKey);
+
+		// A write is executed while the entity is loaded
+		entityCache.invalidate(meta, primaryKey);
+		entityCache.put(meta, primaryKey, CompleteBeanTestBuilder.builder().id(primaryKey).name("stale").buid(),
+				generation);
+
+		assertThat(entityCache.get(meta, primaryKey)).isNull();
+
+		entityCache.put(meta, primaryKey, CompleteBeanTestBuilder.builder().id(primaryKey).name("fresh").buid(),
+				entityCache.generation(meta, primaryKey));
+
+		assertThat(entityCache.<CompleteBean> get(meta, primaryKey).get().getName()).isEqualTo("fresh");
+	}
+
+	@Test
+	public void should_not_cache_entity_loaded_before_invalidate_all() throws Exception {
+		long generation = entityCache.generation(meta, primaryKey);
+
+		entityCache.invalidateAll(meta);
+		entityCache.put(meta, primaryKey, CompleteBeanTestBuilder.builder().id(primaryKey).name("stale").buid(),
+				generation);
+
+		assertThat(entityCache.get(meta, primaryKey)).isNull();
+	}
+
+	@Test
+	public void should_ignore_non_cached_entity() throws Exception {
+		entityCache = new EntityCache(new HashMap<Class<?>, EntityMeta>());
+
+		entityCache.put(meta, primaryKey, new CompleteBean(), entityCache.generation(meta, primaryKey));
+
+		assertThat(entityCache.isCached(meta)).isFalse();
+		assertThat(entityCache.get(meta, primaryKey)).isNull();
+		assertThat(entityCache.getStats(CompleteBean.class)).isNull();
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.cache;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import info.archinnov.achilles.entity.cache.SnapshotInterner.SnapshotKey;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.test.mapping.entity.CompleteBean;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.datastax.driver.core.Row;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SnapshotInternerTest {
+
+	private SnapshotInterner interner = new SnapshotInterner();
+
+	@Mock
+	private EntityMeta meta;
+
+	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
+	private Row row;
+
+	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
+	private Row otherRow;
+
+	@Before
+	public void setUp() {
+		when(meta.getEntityClass()).thenReturn((Class) CompleteBean.class);
+		stubRow(row, "John");
+		stubRow(otherRow, "Helen");
+	}
+
+	@Test
+	public void should_build_same_key_for_same_row_content() throws Exception {
+		Row sameRow = mock(Row.class, RETURNS_DEEP_STUBS);
+		stubRow(sameRow, "John");
+
+		SnapshotKey key = interner.keyFor(meta, 10L, row);
+
+		assertThat(interner.keyFor(meta, 10L, sameRow)).isEqualTo(key);
+		assertThat(interner.keyFor(meta, 11L, sameRow)).isNotEqualTo(key);
+		assertThat(interner.keyFor(meta, 10L, otherRow)).isNotEqualTo(key);
+	}
+
+	@Test
+	public void should_keep_first_interned_snapshot() throws Exception {
+		SnapshotKey key = interner.keyFor(meta, 10L, row);
+		CompleteBean first = new CompleteBean();
+		CompleteBean second = new CompleteBean();
+
+		assertThat(interner.<CompleteBean> get(key)).isNull();
+		assertThat(interner.intern(key, first)).isSameAs(first);
+		assertThat(interner.intern(key, second)).isSameAs(first);
+		assertThat(interner.<CompleteBean> get(key)).isSameAs(first);
+		assertThat(interner.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void should_not_share_snapshot_between_versions() throws Exception {
+		CompleteBean first = new CompleteBean();
+		CompleteBean second = new CompleteBean();
+
+		interner.intern(interner.keyFor(meta, 10L, row), first);
+
+		assertThat(interner.intern(interner.keyFor(meta, 10L, otherRow), second)).isSameAs(second);
+	}
+
+	private void stubRow(Row row, String name) {
+		when(row.getColumnDefinitions().size()).thenReturn(2);
+		when(row.getBytesUnsafe(0)).thenReturn(ByteBuffer.wrap(new byte[] { 0, 0, 0, 10 }));
+		when(row.getBytesUnsafe(1)).thenReturn(ByteBuffer.wrap(name.getBytes()));
+	}
+}
@@ -199,9 +199,9 @@ public class AchillesBootstraperTest {
 		DaoContext daoContext = mock(DaoContext.class);
 
 		// When
-		when(factory.build(session, entityMetaMap, true)).thenReturn(daoContext);
+		when(factory.build(session, entityMetaMap, configContext, true)).thenReturn(daoContext);
 
-		DaoContext actual = bootstraper.buildDaoContext(session, entityMetaMap, true);
+		DaoContext actual = bootstraper.buildDaoContext(session, entityMetaMap, configContext, true);
 
 		// Then
 		assertThat(actual).isSameAs(daoContext);
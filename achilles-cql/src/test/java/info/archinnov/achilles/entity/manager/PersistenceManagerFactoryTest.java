@@ -25,8 +25,11 @@ import info.archinnov.achilles.context.DaoContext;
 import info.archinnov.achilles.context.PersistenceContextFactory;
 import info.archinnov.achilles.context.ConfigurationContext;
 import info.archinnov.achilles.context.SchemaContext;
+import info.archinnov.achilles.context.WriteBehindQueue;
 import info.archinnov.achilles.entity.discovery.AchillesBootstraper;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.type.OverflowPolicy;
 import info.archinnov.achilles.type.Pair;
 
 import java.util.Arrays;
@@ -106,7 +109,8 @@ public class PersistenceManagerFactoryTest {
 		when(configMap.get(KEYSPACE_NAME_PARAM)).thenReturn("keyspace");
 		when(boostraper.buildMetaDatas(configContext, candidateClasses)).thenReturn(pair);
 		when(configContext.isForceColumnFamilyCreation()).thenReturn(true);
-		when(boostraper.buildDaoContext(session, entityMetaMap, true)).thenReturn(daoContext);
+		when(configContext.getMetrics()).thenReturn(AchillesMetrics.disabled());
+		when(boostraper.buildDaoContext(session, entityMetaMap, configContext, true)).thenReturn(daoContext);
 
 		pmf.bootstrap();
 
@@ -166,4 +170,67 @@ public class PersistenceManagerFactoryTest {
 		// Then
 		assertThat(manager).isNotNull();
 	}
+
+	@Test
+	public void should_create_unit_of_work_persistence_manager() throws Exception {
+		// Given
+		Map<Class<?>, EntityMeta> entityMetaMap = new HashMap<Class<?>, EntityMeta>();
+		PersistenceContextFactory contextFactory = mock(PersistenceContextFactory.class);
+
+		// When
+		pmf.entityMetaMap = entityMetaMap;
+		pmf.configContext = configContext;
+		pmf.daoContext = daoContext;
+		pmf.contextFactory = contextFactory;
+
+		PersistenceManager manager = pmf.createUnitOfWorkPersistenceManager();
+
+		// Then
+		assertThat(manager).isInstanceOf(UnitOfWorkPersistenceManager.class);
+	}
+
+	@Test
+	public void should_create_write_tracking_persistence_manager() throws Exception {
+		// Given
+		Map<Class<?>, EntityMeta> entityMetaMap = new HashMap<Class<?>, EntityMeta>();
+		PersistenceContextFactory contextFactory = mock(PersistenceContextFactory.class);
+
+		// When
+		pmf.entityMetaMap = entityMetaMap;
+		pmf.configContext = configContext;
+		pmf.daoContext = daoContext;
+		pmf.contextFactory = contextFactory;
+
+		PersistenceManager manager = pmf.createWriteTrackingPersistenceManager();
+
+		// Then
+		assertThat(manager).isInstanceOf(WriteTrackingPersistenceManager.class);
+	}
+
+	@Test
+	public void should_create_write_behind_persistence_manager_sharing_one_queue() throws Exception {
+		// Given
+		Map<Class<?>, EntityMeta> entityMetaMap = new HashMap<Class<?>, EntityMeta>();
+		PersistenceContextFactory contextFactory = mock(PersistenceContextFactory.class);
+		when(configContext.getWriteBehindQueueCapacity()).thenReturn(10);
+		when(configContext.getWriteBehindWorkers()).thenReturn(1);
+		when(configContext.getWriteBehindBatchSize()).thenReturn(5);
+		when(configContext.getWriteBehindOverflowPolicy()).thenReturn(OverflowPolicy.BLOCK);
+
+		// When
+		pmf.entityMetaMap = entityMetaMap;
+		pmf.configContext = configContext;
+		pmf.daoContext = daoContext;
+		pmf.contextFactory = contextFactory;
+
+		PersistenceManager manager = pmf.createWriteBehindPersistenceManager();
+		WriteBehindQueue queue = pmf.writeBehindQueue;
+		pmf.createWriteBehindPersistenceManager();
+
+		// Then
+		assertThat(manager).isInstanceOf(WriteBehindPersistenceManager.class);
+		assertThat(pmf.writeBehindQueue).isSameAs(queue);
+
+		pmf.shutdownWriteBehindQueue();
+	}
 }
@@ -22,6 +22,7 @@ import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import info.archinnov.achilles.context.ConfigurationContext;
@@ -34,7 +35,11 @@ import info.archinnov.achilles.entity.operations.EntityInitializer;
 import info.archinnov.achilles.entity.operations.EntityProxifier;
 import info.archinnov.achilles.entity.operations.EntityValidator;
 import info.archinnov.achilles.entity.operations.SliceQueryExecutor;
+import info.archinnov.achilles.metrics.AchillesMetrics;
 import info.archinnov.achilles.query.cql.NativeQueryBuilder;
+import info.archinnov.achilles.interceptor.Event;
+import info.archinnov.achilles.query.projection.ProjectionMapper;
+import info.archinnov.achilles.query.projection.ProjectionQueryBuilder;
 import info.archinnov.achilles.query.slice.SliceQueryBuilder;
 import info.archinnov.achilles.query.typed.TypedQueryBuilder;
 import info.archinnov.achilles.query.typed.TypedQueryValidator;
@@ -51,6 +56,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import org.apache.commons.lang.math.RandomUtils;
 import org.junit.Before;
 import org.junit.Rule;
@@ -125,6 +131,7 @@ public class PersistenceManagerTest {
     public void setUp() throws Exception {
         when(contextFactory.newContext(eq(entity), optionsCaptor.capture())).thenReturn(context);
         when(configContext.getDefaultReadConsistencyLevel()).thenReturn(ConsistencyLevel.EACH_QUORUM);
+        when(configContext.getMetrics()).thenReturn(AchillesMetrics.disabled());
         when(meta.getIdMeta()).thenReturn(idMeta);
         manager = new PersistenceManager(entityMetaMap, contextFactory, daoContext, configContext);
         manager = Mockito.spy(this.manager);
@@ -137,6 +144,48 @@ public class PersistenceManagerTest {
         entityMetaMap.put(CompleteBean.class, meta);
     }
 
+    @Test
+    public void should_skip_interceptors_when_none_registered() throws Exception {
+        when(configContext.hasEventInterceptors()).thenReturn(false);
+
+        manager.intercept(entity, Event.PRE_PERSIST);
+
+        verify(proxifier, never()).deriveBaseClass(entity);
+        verify(meta, never()).intercept(entity, Event.PRE_PERSIST);
+    }
+
+    @Test
+    public void should_run_post_write_interceptors_on_executor() throws Exception {
+        Executor executor = mock(Executor.class);
+        when(configContext.hasEventInterceptors()).thenReturn(true);
+        when(configContext.getEventInterceptorExecutor()).thenReturn(executor);
+        when(proxifier.deriveBaseClass(entity)).thenReturn((Class) CompleteBean.class);
+        when(entityMetaMap.get(CompleteBean.class)).thenReturn(meta);
+        when(meta.hasInterceptors(any(Event.class))).thenReturn(true);
+        when(proxifier.unwrap(entity)).thenReturn(entity);
+
+        manager.intercept(entity, Event.POST_PERSIST);
+        manager.intercept(entity, Event.POST_LOAD);
+
+        verify(meta).interceptAsync(entity, Event.POST_PERSIST, executor);
+        verify(meta).intercept(entity, Event.POST_LOAD);
+    }
+
+    @Test
+    public void should_skip_interceptors_when_none_registered_for_event() throws Exception {
+        Executor executor = mock(Executor.class);
+        when(configContext.hasEventInterceptors()).thenReturn(true);
+        when(configContext.getEventInterceptorExecutor()).thenReturn(executor);
+        when(proxifier.deriveBaseClass(entity)).thenReturn((Class) CompleteBean.class);
+        when(entityMetaMap.get(CompleteBean.class)).thenReturn(meta);
+        when(meta.hasInterceptors(Event.POST_PERSIST)).thenReturn(false);
+
+        manager.intercept(entity, Event.POST_PERSIST);
+
+        verify(proxifier, never()).unwrap(entity);
+        verify(meta, never()).interceptAsync(entity, Event.POST_PERSIST, executor);
+    }
+
     @Test
     public void should_persist() throws Exception {
         when(proxifier.isProxy(entity)).thenReturn(false);
@@ -270,6 +319,19 @@ public class PersistenceManagerTest {
         assertThat(options.getTimestamp().isPresent()).isFalse();
     }
 
+    @Test
+    public void should_find_snapshot() throws Exception {
+        when(contextFactory.newContext(eq(CompleteBean.class), eq(primaryKey), optionsCaptor.capture())).thenReturn(context);
+        when(context.findSnapshot(CompleteBean.class)).thenReturn(entity);
+        when(context.getIdMeta()).thenReturn(idMeta);
+        when(entityMetaMap.containsKey(CompleteBean.class)).thenReturn(true);
+        CompleteBean bean = manager.findSnapshot(CompleteBean.class, primaryKey, EACH_QUORUM);
+        verify(entityValidator).validatePrimaryKey(idMeta, primaryKey);
+        verify(manager, never()).intercept(Matchers.anyObject(), any(info.archinnov.achilles.interceptor.Event.class));
+        assertThat(bean).isSameAs(entity);
+        assertThat(optionsCaptor.getValue().getConsistencyLevel().get()).isSameAs(EACH_QUORUM);
+    }
+
     @Test
     public void should_get_reference() throws Exception {
         when(contextFactory.newContext(eq(CompleteBean.class), eq(primaryKey), optionsCaptor.capture())).thenReturn(context);
@@ -450,6 +512,21 @@ public class PersistenceManagerTest {
         assertThat(Whitebox.getInternalState(builder, String.class)).isEqualTo("querystring");
     }
 
+    @Test
+    public void should_return_projection_query_builder() throws Exception {
+        ProjectionMapper projectionMapper = new ProjectionMapper();
+        when(entityMetaMap.containsKey(CompleteBean.class)).thenReturn(true);
+        when(entityMetaMap.get(CompleteBean.class)).thenReturn(meta);
+        when(configContext.getProjectionMapper()).thenReturn(projectionMapper);
+        ProjectionQueryBuilder<String> builder = manager.projectionQuery(CompleteBean.class, String.class, "queryString");
+        assertThat(builder).isNotNull();
+        verify(typedQueryValidator).validateRawTypedQuery(CompleteBean.class, "queryString", meta);
+        assertThat(Whitebox.getInternalState(builder, DaoContext.class)).isSameAs(daoContext);
+        assertThat(Whitebox.getInternalState(builder, EntityMeta.class)).isSameAs(meta);
+        assertThat(Whitebox.getInternalState(builder, ProjectionMapper.class)).isSameAs(projectionMapper);
+        assertThat(Whitebox.getInternalState(builder, String.class)).isEqualTo("queryString");
+    }
+
     @Test
     public void should_get_native_session() throws Exception {
         Session session = mock(Session.class);
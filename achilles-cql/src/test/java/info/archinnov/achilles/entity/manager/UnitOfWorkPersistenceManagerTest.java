@@ -0,0 +1,241 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.manager;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+import info.archinnov.achilles.context.ConfigurationContext;
+import info.archinnov.achilles.context.DaoContext;
+import info.archinnov.achilles.context.PersistenceContext;
+import info.archinnov.achilles.context.PersistenceContextFactory;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.operations.EntityProxifier;
+import info.archinnov.achilles.entity.operations.EntityValidator;
+import info.archinnov.achilles.interceptor.Event;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.test.builders.CompleteBeanTestBuilder;
+import info.archinnov.achilles.test.mapping.entity.CompleteBean;
+import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.Options;
+import info.archinnov.achilles.type.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.powermock.reflect.Whitebox;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UnitOfWorkPersistenceManagerTest {
+
+	private UnitOfWorkPersistenceManager manager;
+
+	@Mock
+	private PersistenceContextFactory contextFactory;
+
+	@Mock
+	private DaoContext daoContext;
+
+	@Mock
+	private ConfigurationContext configContext;
+
+	@Mock
+	private PersistenceContext context;
+
+	@Mock
+	private EntityProxifier proxifier;
+
+	@Mock
+	private EntityValidator entityValidator;
+
+	@Mock
+	private EntityMeta meta;
+
+	private Map<Class<?>, EntityMeta> entityMetaMap = new HashMap<Class<?>, EntityMeta>();
+
+	private Long primaryKey = RandomUtils.nextLong();
+
+	private CompleteBean entity = CompleteBeanTestBuilder.builder().id(primaryKey).buid();
+
+	@Before
+	public void setUp() {
+		entityMetaMap.put(CompleteBean.class, meta);
+		when(configContext.getMetrics()).thenReturn(AchillesMetrics.disabled());
+		when(contextFactory.newContext(eq(CompleteBean.class), eq(primaryKey), any(Options.class))).thenReturn(
+				context);
+		when(contextFactory.newContext(eq(entity), any(Options.class))).thenReturn(context);
+		when(proxifier.deriveBaseClass(entity)).thenReturn((Class) CompleteBean.class);
+		when(proxifier.getRealObject(entity)).thenReturn(entity);
+		when(meta.getPrimaryKey(entity)).thenReturn(primaryKey);
+
+		manager = new UnitOfWorkPersistenceManager(entityMetaMap, contextFactory, daoContext, configContext);
+		Whitebox.setInternalState(manager, EntityProxifier.class, proxifier);
+		Whitebox.setInternalState(manager, EntityValidator.class, entityValidator);
+	}
+
+	@Test
+	public void should_return_same_entity_for_repeated_find() throws Exception {
+		when(context.find(CompleteBean.class)).thenReturn(entity);
+
+		CompleteBean first = manager.find(CompleteBean.class, primaryKey);
+		CompleteBean second = manager.find(CompleteBean.class, primaryKey);
+
+		assertThat(first).isSameAs(entity);
+		assertThat(second).isSameAs(entity);
+		verify(context, times(1)).find(CompleteBean.class);
+	}
+
+	@Test
+	public void should_remember_absent_entity() throws Exception {
+		when(context.find(CompleteBean.class)).thenReturn(null);
+
+		assertThat(manager.find(CompleteBean.class, primaryKey)).isNull();
+		assertThat(manager.find(CompleteBean.class, primaryKey)).isNull();
+
+		verify(context, times(1)).find(CompleteBean.class);
+	}
+
+	@Test
+	public void should_bypass_identity_map_when_consistency_level_given() throws Exception {
+		when(context.find(CompleteBean.class)).thenReturn(entity);
+
+		manager.find(CompleteBean.class, primaryKey);
+		manager.find(CompleteBean.class, primaryKey, ConsistencyLevel.ALL);
+
+		verify(context, times(2)).find(CompleteBean.class);
+	}
+
+	@Test
+	public void should_coalesce_merges_until_flush() throws Exception {
+		when(proxifier.isProxy(entity)).thenReturn(true);
+		when(context.merge(entity)).thenReturn(entity);
+
+		assertThat(manager.merge(entity)).isSameAs(entity);
+		assertThat(manager.merge(entity)).isSameAs(entity);
+
+		assertThat(manager.hasPendingMerges()).isTrue();
+		verify(context, never()).merge(entity);
+
+		manager.flush();
+
+		assertThat(manager.hasPendingMerges()).isFalse();
+		verify(context, times(1)).merge(entity);
+		assertThat(manager.find(CompleteBean.class, primaryKey)).isSameAs(entity);
+	}
+
+	@Test
+	public void should_flush_pending_merges_on_close() throws Exception {
+		when(proxifier.isProxy(entity)).thenReturn(true);
+		when(context.find(CompleteBean.class)).thenReturn(entity);
+		when(context.merge(entity)).thenReturn(entity);
+
+		manager.find(CompleteBean.class, primaryKey);
+		manager.merge(entity);
+		manager.close();
+
+		assertThat(manager.hasPendingMerges()).isFalse();
+		verify(context).merge(entity);
+		manager.find(CompleteBean.class, primaryKey);
+		verify(context, times(2)).find(CompleteBean.class);
+	}
+
+	@Test
+	public void should_discard_pending_merges_on_clear() throws Exception {
+		when(proxifier.isProxy(entity)).thenReturn(true);
+
+		manager.merge(entity);
+		manager.clear();
+		manager.flush();
+
+		assertThat(manager.hasPendingMerges()).isFalse();
+		verify(context, never()).merge(entity);
+	}
+
+	@Test
+	public void should_merge_immediately_with_options() throws Exception {
+		when(proxifier.isProxy(entity)).thenReturn(true);
+		when(context.merge(entity)).thenReturn(entity);
+
+		manager.merge(entity);
+		manager.merge(entity, OptionsBuilder.withTtl(10));
+
+		assertThat(manager.hasPendingMerges()).isFalse();
+		verify(context, times(1)).merge(entity);
+	}
+
+	@Test
+	public void should_discard_pending_merge_on_remove() throws Exception {
+		when(proxifier.isProxy(entity)).thenReturn(true);
+		when(context.find(CompleteBean.class)).thenReturn(entity);
+
+		manager.find(CompleteBean.class, primaryKey);
+		manager.merge(entity);
+		manager.remove(entity);
+		manager.flush();
+
+		verify(context).remove();
+		verify(context, never()).merge(entity);
+		manager.find(CompleteBean.class, primaryKey);
+		verify(context, times(2)).find(CompleteBean.class);
+	}
+
+	@Test
+	public void should_run_update_interceptors_when_deferred_merge_is_flushed() throws Exception {
+		when(configContext.hasEventInterceptors()).thenReturn(true);
+		when(meta.hasInterceptors(any(Event.class))).thenReturn(true);
+		when(proxifier.isProxy(entity)).thenReturn(true);
+		when(context.merge(entity)).thenReturn(entity);
+
+		manager.merge(entity);
+
+		verify(meta, never()).intercept(entity, Event.PRE_UPDATE);
+		verify(meta, never()).intercept(entity, Event.POST_UPDATE);
+
+		manager.flush();
+
+		InOrder inOrder = inOrder(meta, context);
+		inOrder.verify(meta).intercept(entity, Event.PRE_UPDATE);
+		inOrder.verify(context).merge(entity);
+		inOrder.verify(meta).intercept(entity, Event.POST_UPDATE);
+	}
+
+	@Test
+	public void should_discard_pending_merge_on_persist() throws Exception {
+		CompleteBean transientEntity = CompleteBeanTestBuilder.builder().id(primaryKey).buid();
+		when(proxifier.deriveBaseClass(transientEntity)).thenReturn((Class) CompleteBean.class);
+		when(proxifier.getRealObject(transientEntity)).thenReturn(transientEntity);
+		when(meta.getPrimaryKey(transientEntity)).thenReturn(primaryKey);
+		when(contextFactory.newContext(eq(transientEntity), any(Options.class))).thenReturn(context);
+		when(proxifier.isProxy(entity)).thenReturn(true);
+
+		manager.merge(entity);
+		manager.persist(transientEntity);
+		manager.flush();
+
+		verify(context).persist();
+		verify(context, never()).merge(entity);
+		assertThat(manager.hasPendingMerges()).isFalse();
+	}
+}
@@ -0,0 +1,172 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.manager;
+
+import static info.archinnov.achilles.counter.AchillesCounter.CQL_COUNTER_TABLE;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+import info.archinnov.achilles.context.BatchingFlushContext;
+import info.archinnov.achilles.context.ConfigurationContext;
+import info.archinnov.achilles.context.DaoContext;
+import info.archinnov.achilles.context.PersistenceContext;
+import info.archinnov.achilles.context.PersistenceContextFactory;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.entity.metadata.PropertyType;
+import info.archinnov.achilles.entity.operations.EntityProxifier;
+import info.archinnov.achilles.entity.operations.EntityValidator;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.test.builders.CompleteBeanTestBuilder;
+import info.archinnov.achilles.test.mapping.entity.CompleteBean;
+import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.Options;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.powermock.reflect.Whitebox;
+
+import com.datastax.driver.core.BatchStatement;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WriteTrackingPersistenceManagerTest {
+
+	private WriteTrackingPersistenceManager manager;
+
+	@Mock
+	private PersistenceContextFactory contextFactory;
+
+	@Mock
+	private DaoContext daoContext;
+
+	@Mock
+	private ConfigurationContext configContext;
+
+	@Mock
+	private PersistenceContext context;
+
+	@Mock
+	private EntityProxifier proxifier;
+
+	@Mock
+	private EntityValidator entityValidator;
+
+	@Mock
+	private EntityMeta meta;
+
+	@Mock
+	private PropertyMeta idMeta;
+
+	private Map<Class<?>, EntityMeta> entityMetaMap = new HashMap<Class<?>, EntityMeta>();
+
+	private Long primaryKey = RandomUtils.nextLong();
+
+	private CompleteBean entity = CompleteBeanTestBuilder.builder().id(primaryKey).buid();
+
+	@Before
+	public void setUp() {
+		entityMetaMap.put(CompleteBean.class, meta);
+		when(configContext.getMetrics()).thenReturn(AchillesMetrics.disabled());
+		when(configContext.getDefaultWriteConsistencyLevel()).thenReturn(ConsistencyLevel.ONE);
+		when(contextFactory.newContext(eq(entity), any(Options.class))).thenReturn(context);
+		when(contextFactory.newContextWithFlushContext(eq(CompleteBean.class), eq(primaryKey), any(Options.class),
+				any(BatchingFlushContext.class))).thenReturn(context);
+		when(context.getIdMeta()).thenReturn(idMeta);
+		when(proxifier.deriveBaseClass(entity)).thenReturn((Class) CompleteBean.class);
+		when(proxifier.getRealObject(entity)).thenReturn(entity);
+		when(meta.getPrimaryKey(entity)).thenReturn(primaryKey);
+		when(meta.getTableName()).thenReturn("CompleteBean");
+
+		manager = new WriteTrackingPersistenceManager(entityMetaMap, contextFactory, daoContext, configContext);
+		Whitebox.setInternalState(manager, EntityProxifier.class, proxifier);
+		Whitebox.setInternalState(manager, EntityValidator.class, entityValidator);
+	}
+
+	@Test
+	public void should_track_persisted_and_merged_entities_once() throws Exception {
+		when(context.merge(entity)).thenReturn(entity);
+
+		manager.persist(entity);
+		manager.merge(entity);
+
+		assertThat(manager.getTrackedWritesCount()).isEqualTo(1);
+		assertThat(manager.hasUntrackedWrites()).isFalse();
+		assertThat(manager.getUntrackedTables()).isEmpty();
+	}
+
+	@Test
+	public void should_report_entities_with_counters_as_untracked() throws Exception {
+		PropertyMeta counterMeta = mock(PropertyMeta.class);
+		when(counterMeta.type()).thenReturn(PropertyType.COUNTER);
+		when(meta.getAllMetasExceptIdMeta()).thenReturn(Arrays.asList(counterMeta));
+
+		manager.persist(entity);
+
+		assertThat(manager.getTrackedWritesCount()).isEqualTo(0);
+		assertThat(manager.getUntrackedTables()).containsOnly("completebean", CQL_COUNTER_TABLE);
+	}
+
+	@Test
+	public void should_report_native_writes_as_untracked() throws Exception {
+		manager.nativeQuery("SELECT * FROM CompleteBean");
+		assertThat(manager.hasUntrackedWrites()).isFalse();
+
+		manager.nativeQuery("UPDATE CompleteBean SET name='name' WHERE id=10");
+		assertThat(manager.hasUntrackedWrites()).isTrue();
+
+		manager.clearTrackedWrites();
+		assertThat(manager.hasUntrackedWrites()).isFalse();
+	}
+
+	@Test
+	public void should_report_native_session_usage_as_untracked() throws Exception {
+		manager.getNativeSession();
+
+		assertThat(manager.hasUntrackedWrites()).isTrue();
+	}
+
+	@Test
+	public void should_remove_tracked_entities_of_given_tables_in_one_batch() throws Exception {
+		manager.persist(entity);
+
+		manager.removeTrackedEntities(Arrays.asList("completebean"));
+
+		verify(context).remove();
+		verify(daoContext).executeBatch(any(BatchStatement.class), anyBoolean());
+		assertThat(manager.getTrackedWritesCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void should_not_remove_tracked_entities_of_other_tables() throws Exception {
+		manager.persist(entity);
+
+		manager.removeTrackedEntities(Arrays.asList("other_table"));
+
+		verify(context, never()).remove();
+		verifyZeroInteractions(daoContext);
+		assertThat(manager.getTrackedWritesCount()).isEqualTo(0);
+	}
+}
@@ -18,6 +18,8 @@ package info.archinnov.achilles.entity.metadata;
 
 import static info.archinnov.achilles.entity.metadata.PropertyType.COUNTER;
 import static info.archinnov.achilles.entity.metadata.PropertyType.EMBEDDED_ID;
+import static info.archinnov.achilles.entity.metadata.PropertyType.ID;
+import static info.archinnov.achilles.entity.metadata.PropertyType.LIST;
 import static info.archinnov.achilles.entity.metadata.PropertyType.SIMPLE;
 import static info.archinnov.achilles.type.ConsistencyLevel.ALL;
 import static info.archinnov.achilles.type.ConsistencyLevel.ONE;
@@ -28,6 +30,7 @@ import info.archinnov.achilles.proxy.ReflectionInvoker;
 import info.archinnov.achilles.test.builders.CompleteBeanTestBuilder;
 import info.archinnov.achilles.test.builders.PropertyMetaTestBuilder;
 import info.archinnov.achilles.test.mapping.entity.CompleteBean;
+import info.archinnov.achilles.type.InsertStrategy;
 import info.archinnov.achilles.type.Pair;
 
 import java.util.ArrayList;
@@ -35,6 +38,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.fest.assertions.api.Assertions;
 import org.junit.Test;
@@ -224,6 +228,126 @@ public class EntityMetaTest {
 		Assertions.assertThat(bean.getAge()).isEqualTo(35L);
 	}
 
+	@Test
+	public void should_run_interceptors_on_executor_with_detached_copy() throws Exception {
+		CompleteBean bean = CompleteBeanTestBuilder.builder().id(12L).name("name").addFriends("foo").buid();
+		EntityMeta entityMeta = new EntityMeta();
+		entityMeta.setEntityClass(CompleteBean.class);
+		entityMeta.setPropertyMetas(ImmutableMap.<String, PropertyMeta> of("id", fieldMeta("id", Long.class, ID),
+				"name", fieldMeta("name", String.class, SIMPLE), "friends", fieldMeta("friends", String.class, LIST)));
+		final List<CompleteBean> intercepted = new ArrayList<CompleteBean>();
+		entityMeta.addInterceptor(createEventInterceptor(Event.POST_PERSIST, 35L));
+		entityMeta.addInterceptor(new EventInterceptor<CompleteBean>() {
+			@Override
+			public CompleteBean onEvent(CompleteBean entity) {
+				intercepted.add(entity);
+				return entity;
+			}
+
+			@Override
+			public List<Event> events() {
+				return Arrays.asList(Event.POST_PERSIST);
+			}
+		});
+		final List<Runnable> tasks = new ArrayList<Runnable>();
+		Executor executor = new Executor() {
+			@Override
+			public void execute(Runnable task) {
+				tasks.add(task);
+			}
+		};
+
+		entityMeta.interceptAsync(bean, Event.POST_PERSIST, executor);
+		entityMeta.interceptAsync(bean, Event.POST_REMOVE, executor);
+		bean.setName("changed");
+		bean.getFriends().add("bar");
+
+		assertThat(tasks).hasSize(1);
+		tasks.get(0).run();
+		assertThat(bean.getAge()).isNull();
+		CompleteBean copy = intercepted.get(0);
+		assertThat(copy).isNotSameAs(bean);
+		assertThat(copy.getId()).isEqualTo(12L);
+		assertThat(copy.getName()).isEqualTo("name");
+		assertThat(copy.getFriends()).containsExactly("foo");
+		assertThat(copy.getAge()).isEqualTo(35L);
+	}
+
+	@Test
+	public void should_return_read_only_view_of_interceptors() throws Exception {
+		EntityMeta entityMeta = new EntityMeta();
+		entityMeta.addInterceptor(createEventInterceptor(Event.PRE_PERSIST));
+
+		List<EventInterceptor<?>> interceptors = entityMeta.getEventsInterceptor();
+
+		assertThat(interceptors).hasSize(1);
+		try {
+			interceptors.add(createEventInterceptor(Event.POST_PERSIST));
+			Assertions.fail("The interceptors should not be modifiable");
+		} catch (UnsupportedOperationException e) {
+			assertThat(entityMeta.hasInterceptors(Event.POST_PERSIST)).isFalse();
+		}
+	}
+
+	@Test
+	public void should_resolve_interceptor_chains_per_event() throws Exception {
+		EntityMeta entityMeta = new EntityMeta();
+		assertThat(entityMeta.hasInterceptors(Event.PRE_PERSIST)).isFalse();
+
+		entityMeta.addInterceptor(createEventInterceptor(Event.PRE_PERSIST));
+
+		assertThat(entityMeta.hasInterceptors(Event.PRE_PERSIST)).isTrue();
+		assertThat(entityMeta.hasInterceptors(Event.POST_PERSIST)).isFalse();
+	}
+
+	@Test
+	public void should_get_all_columns_to_insert_but_counters() throws Exception {
+		PropertyMeta nameMeta = PropertyMetaTestBuilder.completeBean(Void.class, String.class).field("name")
+				.type(SIMPLE).build();
+		PropertyMeta counterMeta = PropertyMetaTestBuilder.completeBean(Void.class, Long.class).field("count")
+				.type(COUNTER).build();
+
+		EntityMeta entityMeta = new EntityMeta();
+		entityMeta.setAllMetasExceptIdMeta(Arrays.asList(nameMeta, counterMeta));
+
+		assertThat(entityMeta.getColumnsMetaToInsert(new CompleteBean())).containsExactly(nameMeta);
+	}
+
+	@Test
+	public void should_compute_columns_to_insert_once() throws Exception {
+		PropertyMeta nameMeta = PropertyMetaTestBuilder.completeBean(Void.class, String.class).field("name")
+				.type(SIMPLE).build();
+
+		EntityMeta entityMeta = new EntityMeta();
+		entityMeta.setAllMetasExceptIdMeta(Arrays.asList(nameMeta));
+
+		assertThat(entityMeta.getColumnsMetaToInsert()).isSameAs(entityMeta.getColumnsMetaToInsert());
+	}
+
+	@Test
+	public void should_get_only_not_null_columns_to_insert() throws Exception {
+		CompleteBean bean = CompleteBeanTestBuilder.builder().randomId().name("name").buid();
+		bean.setFriends(new ArrayList<String>());
+
+		PropertyMeta nameMeta = PropertyMetaTestBuilder.completeBean(Void.class, String.class).field("name")
+				.type(SIMPLE).accessors().invoker(new ReflectionInvoker()).build();
+		PropertyMeta ageMeta = PropertyMetaTestBuilder.completeBean(Void.class, Long.class).field("age")
+				.type(SIMPLE).accessors().invoker(new ReflectionInvoker()).build();
+		PropertyMeta friendsMeta = PropertyMetaTestBuilder.completeBean(Void.class, String.class).field("friends")
+				.type(PropertyType.LIST).accessors().invoker(new ReflectionInvoker()).build();
+
+		EntityMeta entityMeta = new EntityMeta();
+		entityMeta.setAllMetasExceptIdMeta(Arrays.asList(nameMeta, ageMeta, friendsMeta));
+		entityMeta.setInsertStrategy(InsertStrategy.NOT_NULL_FIELDS);
+
+		assertThat(entityMeta.getColumnsMetaToInsert(bean)).containsExactly(nameMeta);
+	}
+
+	private PropertyMeta fieldMeta(String field, Class<?> valueClass, PropertyType type) throws Exception {
+		return PropertyMetaTestBuilder.completeBean(Void.class, valueClass).field(field).type(type).accessors()
+				.invoker(new ReflectionInvoker()).build();
+	}
+
 	private EventInterceptor<CompleteBean> createEventInterceptor(final Event event, final long age) {
 		EventInterceptor<CompleteBean> eventInterceptor = new EventInterceptor<CompleteBean>() {
 
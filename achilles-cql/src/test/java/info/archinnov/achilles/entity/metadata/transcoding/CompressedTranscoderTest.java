@@ -0,0 +1,103 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.metadata.transcoding;
+
+import static info.archinnov.achilles.entity.metadata.PropertyType.SIMPLE;
+import static info.archinnov.achilles.type.CompressionAlgorithm.DEFLATE;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import info.archinnov.achilles.entity.metadata.CompressionProperties;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.test.builders.PropertyMetaTestBuilder;
+import info.archinnov.achilles.test.mapping.entity.UserBean;
+
+import java.nio.ByteBuffer;
+
+import org.apache.commons.lang.StringUtils;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CompressedTranscoderTest {
+
+	@Mock
+	private AchillesMetrics metrics;
+
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	private CompressedTranscoder transcoder;
+
+	@Test
+	public void should_compress_text_above_threshold() throws Exception {
+		transcoder = new CompressedTranscoder(objectMapper, new CompressionProperties(DEFLATE, 1024), metrics);
+		PropertyMeta pm = PropertyMetaTestBuilder.valueClass(String.class).type(SIMPLE).field("document")
+				.entityClassName("Entity").build();
+		String document = StringUtils.repeat("lorem ipsum ", 200);
+
+		ByteBuffer stored = (ByteBuffer) transcoder.encode(pm, document);
+
+		assertThat(stored.remaining()).isLessThan(document.length());
+		assertThat(transcoder.decode(pm, stored)).isEqualTo(document);
+		verify(metrics).markCompression("Entity", "document", document.length(), stored.remaining());
+	}
+
+	@Test
+	public void should_store_small_text_uncompressed_without_metrics() throws Exception {
+		transcoder = new CompressedTranscoder(objectMapper, new CompressionProperties(DEFLATE, 1024), metrics);
+		PropertyMeta pm = PropertyMetaTestBuilder.valueClass(String.class).type(SIMPLE).build();
+
+		ByteBuffer stored = (ByteBuffer) transcoder.encode(pm, "short");
+
+		assertThat(stored.remaining()).isEqualTo(6);
+		assertThat(transcoder.decode(pm, stored)).isEqualTo("short");
+		verifyZeroInteractions(metrics);
+	}
+
+	@Test
+	public void should_compress_json_serialized_object() throws Exception {
+		transcoder = new CompressedTranscoder(objectMapper, new CompressionProperties(DEFLATE, 0), metrics);
+		PropertyMeta pm = PropertyMetaTestBuilder.valueClass(UserBean.class).type(SIMPLE).build();
+		UserBean user = new UserBean();
+		user.setName(StringUtils.repeat("name", 100));
+		user.setUserId(10L);
+
+		Object stored = transcoder.encode(pm, user);
+
+		assertThat(stored).isInstanceOf(ByteBuffer.class);
+		UserBean actual = (UserBean) transcoder.decode(pm, stored);
+		assertThat(actual.getName()).isEqualTo(user.getName());
+		assertThat(actual.getUserId()).isEqualTo(10L);
+	}
+
+	@Test
+	public void should_compress_bytes() throws Exception {
+		transcoder = new CompressedTranscoder(objectMapper, new CompressionProperties(DEFLATE, 0), metrics);
+		PropertyMeta bytesMeta = PropertyMetaTestBuilder.valueClass(byte[].class).type(SIMPLE).build();
+		PropertyMeta bufferMeta = PropertyMetaTestBuilder.valueClass(ByteBuffer.class).type(SIMPLE).build();
+		byte[] bytes = new byte[4096];
+
+		Object storedBytes = transcoder.encode(bytesMeta, bytes);
+		Object storedBuffer = transcoder.encode(bufferMeta, ByteBuffer.wrap(bytes));
+
+		assertThat(transcoder.decode(bytesMeta, storedBytes)).isEqualTo(bytes);
+		assertThat(transcoder.decode(bufferMeta, storedBuffer)).isEqualTo(ByteBuffer.wrap(bytes));
+	}
+}
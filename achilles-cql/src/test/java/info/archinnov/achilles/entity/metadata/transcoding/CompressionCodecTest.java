@@ -0,0 +1,90 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.entity.metadata.transcoding;
+
+import static info.archinnov.achilles.type.CompressionAlgorithm.*;
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.type.CompressionAlgorithm;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.google.common.base.Charsets;
+
+public class CompressionCodecTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	private byte[] document = StringUtils.repeat("{\"name\":\"DuyHai\",\"age\":35}", 100).getBytes(Charsets.UTF_8);
+
+	@Test
+	public void should_compress_and_decompress_with_every_algorithm() throws Exception {
+		for (CompressionAlgorithm algorithm : CompressionAlgorithm.values()) {
+			assertThat(CompressionCodec.isAvailable(algorithm)).isTrue();
+
+			ByteBuffer stored = CompressionCodec.forAlgorithm(algorithm).encode(document, 1024);
+
+			assertThat(stored.remaining()).isLessThan(document.length / 4);
+			assertThat(stored.get(0)).isNotEqualTo(CompressionCodec.UNCOMPRESSED);
+			assertThat(stored.getInt(1)).isEqualTo(document.length);
+			assertThat(CompressionCodec.decode(stored)).isEqualTo(document);
+		}
+	}
+
+	@Test
+	public void should_not_compress_below_threshold() throws Exception {
+		ByteBuffer stored = CompressionCodec.forAlgorithm(LZ4).encode(document, document.length + 1);
+
+		assertThat(stored.remaining()).isEqualTo(document.length + 1);
+		assertThat(stored.get(0)).isEqualTo(CompressionCodec.UNCOMPRESSED);
+		assertThat(CompressionCodec.decode(stored)).isEqualTo(document);
+	}
+
+	@Test
+	public void should_store_uncompressed_when_compression_does_not_save_space() throws Exception {
+		byte[] random = new byte[2048];
+		new Random(42).nextBytes(random);
+
+		ByteBuffer stored = CompressionCodec.forAlgorithm(DEFLATE).encode(random, 1024);
+
+		assertThat(stored.get(0)).isEqualTo(CompressionCodec.UNCOMPRESSED);
+		assertThat(CompressionCodec.decode(stored)).isEqualTo(random);
+	}
+
+	@Test
+	public void should_decode_from_header_whatever_the_algorithm() throws Exception {
+		ByteBuffer storedWithSnappy = CompressionCodec.forAlgorithm(SNAPPY).encode(document, 0);
+
+		assertThat(CompressionCodec.decode(storedWithSnappy)).isEqualTo(document);
+		assertThat(storedWithSnappy.position()).isEqualTo(0);
+	}
+
+	@Test
+	public void should_exception_when_unknown_codec() throws Exception {
+		exception.expect(AchillesException.class);
+		exception.expectMessage("Unknown compression codec '9' in stored value header");
+
+		CompressionCodec.decode(ByteBuffer.wrap(new byte[] { 9, 0, 0, 0, 1, 0 }));
+	}
+}
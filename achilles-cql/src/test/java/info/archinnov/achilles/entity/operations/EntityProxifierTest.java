@@ -34,6 +34,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import com.google.common.collect.ImmutableMap;
+
 @RunWith(MockitoJUnitRunner.class)
 public class EntityProxifierTest {
 
@@ -95,6 +97,28 @@ public class EntityProxifierTest {
 		assertThat(factory.getCallback(0)).isInstanceOf(EntityInterceptor.class);
 	}
 
+	@Test
+	public void should_build_read_only_proxy() throws Exception {
+		CompleteBean entity = CompleteBeanTestBuilder.builder().id(10L).name("name").buid();
+		Method nameSetter = CompleteBean.class.getMethod("setName", String.class);
+		Method idSetter = CompleteBean.class.getMethod("setId", Long.class);
+		when(entityMeta.getSetterMetas()).thenReturn(ImmutableMap.of(nameSetter, mock(PropertyMeta.class)));
+		when(entityMeta.getIdMeta()).thenReturn(idMeta);
+		when(idMeta.getSetter()).thenReturn(idSetter);
+
+		CompleteBean snapshot = proxifier.buildReadOnlyProxy(entity, entityMeta);
+
+		assertThat(snapshot.getId()).isEqualTo(10L);
+		assertThat(snapshot.getName()).isEqualTo("name");
+		assertThat(proxifier.isProxy(snapshot)).isFalse();
+		assertThat(proxifier.isReadOnlyProxy(snapshot)).isTrue();
+		assertThat(proxifier.<CompleteBean> deriveBaseClass(snapshot)).isEqualTo(CompleteBean.class);
+
+		exception.expect(UnsupportedOperationException.class);
+		exception.expectMessage("Cannot call setter 'setName' on a read-only snapshot of entity");
+		snapshot.setName("changed");
+	}
+
 	@Test
 	public void should_build_null_proxy() throws Exception {
 		assertThat(proxifier.buildProxy(null, context)).isNull();
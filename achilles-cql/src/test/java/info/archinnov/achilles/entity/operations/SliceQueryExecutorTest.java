@@ -16,6 +16,7 @@
  */
 package info.archinnov.achilles.entity.operations;
 
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.SLICE;
 import static info.archinnov.achilles.type.BoundingMode.EXCLUSIVE_BOUNDS;
 import static info.archinnov.achilles.type.ConsistencyLevel.*;
 import static info.archinnov.achilles.type.OrderingMode.ASCENDING;
@@ -29,6 +30,7 @@ import info.archinnov.achilles.context.PersistenceContextFactory;
 import info.archinnov.achilles.entity.EntityMapper;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.iterator.MergedSliceQueryIterator;
 import info.archinnov.achilles.iterator.SliceQueryIterator;
 import info.archinnov.achilles.query.SliceQuery;
 import info.archinnov.achilles.query.slice.CQLSliceQuery;
@@ -131,7 +133,7 @@ public class SliceQueryExecutorTest {
 		List<Row> rows = Arrays.asList(row);
 
 		when(generator.generateSelectSliceQuery(anySliceQuery(), eq(limit),eq(batchSize))).thenReturn(regularWrapper);
-		when(daoContext.execute(regularWrapper).all()).thenReturn(rows);
+		when(daoContext.executeRead(regularWrapper, SLICE).all()).thenReturn(rows);
 
 		when(meta.instanciate()).thenReturn(entity);
 		when(contextFactory.newContext(entity)).thenReturn(context);
@@ -147,10 +149,11 @@ public class SliceQueryExecutorTest {
 	public void should_create_iterator_for_clustered_entities() throws Exception {
 		RegularStatementWrapper regularWrapper = mock(RegularStatementWrapper.class);
 		when(generator.generateSelectSliceQuery(anySliceQuery(), eq(limit),eq(batchSize))).thenReturn(regularWrapper);
-		when(daoContext.execute(regularWrapper).iterator()).thenReturn(iterator);
+		when(daoContext.executeRead(regularWrapper, SLICE).iterator()).thenReturn(iterator);
 
 		when(contextFactory.newContextForSliceQuery(ClusteredEntity.class, partitionComponents, LOCAL_QUORUM))
 				.thenReturn(context);
+		when(context.getConfigContext()).thenReturn(configContext);
 
 		when(idMeta.getCQLComponentNames()).thenReturn(Arrays.asList("id", "comp1"));
 		Iterator<ClusteredEntity> iter = executor.iterator(sliceQuery);
@@ -159,6 +162,34 @@ public class SliceQueryExecutorTest {
 		assertThat(iter).isInstanceOf(SliceQueryIterator.class);
 	}
 
+	@Test
+	public void should_create_merged_iterator_over_partitions() throws Exception {
+		Long otherPartitionKey = RandomUtils.nextLong();
+		SliceQuery<ClusteredEntity> otherSliceQuery = new SliceQuery(ClusteredEntity.class, meta,
+				Arrays.<Object> asList(otherPartitionKey), clusteringsFrom, clusteringsTo, ASCENDING,
+				EXCLUSIVE_BOUNDS, LOCAL_QUORUM, limit, batchSize, true);
+
+		RegularStatementWrapper regularWrapper = mock(RegularStatementWrapper.class);
+		RegularStatementWrapper otherRegularWrapper = mock(RegularStatementWrapper.class);
+		when(generator.generateSelectSliceQuery(anySliceQuery(), eq(limit), eq(batchSize))).thenReturn(
+				regularWrapper, otherRegularWrapper);
+		when(daoContext.executeAsync(regularWrapper).getUninterruptibly().iterator()).thenReturn(iterator);
+		when(daoContext.executeAsync(otherRegularWrapper).getUninterruptibly().iterator()).thenReturn(iterator);
+
+		when(contextFactory.newContextForSliceQuery(eq(ClusteredEntity.class), anyListOf(Object.class),
+				eq(LOCAL_QUORUM))).thenReturn(context);
+		when(context.getConfigContext()).thenReturn(configContext);
+
+		Iterator<ClusteredEntity> iter = executor.iterator(Arrays.asList(sliceQuery, otherSliceQuery));
+
+		assertThat(iter).isInstanceOf(MergedSliceQueryIterator.class);
+		assertThat(iter.hasNext()).isFalse();
+		verify(daoContext, atLeastOnce()).executeAsync(regularWrapper);
+		verify(daoContext, atLeastOnce()).executeAsync(otherRegularWrapper);
+		verify(contextFactory).newContextForSliceQuery(ClusteredEntity.class, Arrays.<Object> asList(otherPartitionKey),
+				LOCAL_QUORUM);
+	}
+
 	@Test
 	public void should_remove_clustered_entities() throws Exception {
 		sliceQuery = new SliceQuery(ClusteredEntity.class, meta, partitionComponents,
@@ -171,6 +202,7 @@ public class SliceQueryExecutorTest {
 		executor.remove(sliceQuery);
 
 		verify(daoContext).execute(regularWrapper);
+		verify(configContext.getEntityCache()).invalidateAll(meta);
 
 	}
 
@@ -19,12 +19,17 @@ package info.archinnov.achilles.entity.operations.impl;
 import static info.archinnov.achilles.type.ConsistencyLevel.EACH_QUORUM;
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
+import info.archinnov.achilles.context.ConfigurationContext;
 import info.archinnov.achilles.context.PersistenceContext;
 import info.archinnov.achilles.entity.EntityMapper;
+import info.archinnov.achilles.entity.cache.EntityCache;
+import info.archinnov.achilles.entity.cache.SnapshotInterner;
+import info.archinnov.achilles.entity.cache.SnapshotInterner.SnapshotKey;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.entity.metadata.PropertyType;
 import info.archinnov.achilles.entity.operations.EntityLoader;
+import info.archinnov.achilles.entity.operations.EntityProxifier;
 import info.archinnov.achilles.proxy.ReflectionInvoker;
 import info.archinnov.achilles.proxy.RowMethodInvoker;
 import info.archinnov.achilles.test.builders.PropertyMetaTestBuilder;
@@ -43,6 +48,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -61,6 +67,9 @@ public class LoaderImplTest {
 	@Mock
 	private EntityLoader entityLoader;
 
+	@Mock
+	private EntityProxifier proxifier;
+
 	@Mock
 	private RowMethodInvoker cqlRowInvoker;
 
@@ -73,6 +82,18 @@ public class LoaderImplTest {
 	@Mock
 	private EntityMeta entityMeta;
 
+	@Mock
+	private ConfigurationContext configContext;
+
+	@Mock
+	private EntityCache entityCache;
+
+	@Mock
+	private SnapshotInterner snapshotInterner;
+
+	@Mock
+	private SnapshotKey snapshotKey;
+
 	@Mock
 	private ReflectionInvoker invoker;
 
@@ -87,14 +108,21 @@ public class LoaderImplTest {
 
 	private PropertyMeta idMeta;
 
+	private Long primaryKey = RandomUtils.nextLong();
+
 	@Before
 	public void setUp() throws Exception {
 		when(context.getEntityMeta()).thenReturn(entityMeta);
 		idMeta = PropertyMetaTestBuilder.completeBean(Void.class, Long.class).field("id").type(PropertyType.ID)
-				.accessors().build();
+				.accessors().invoker(new ReflectionInvoker()).build();
 
 		when(entityMeta.getIdMeta()).thenReturn(idMeta);
 		when(entityMeta.isClusteredCounter()).thenReturn(false);
+		when(context.getConfigContext()).thenReturn(configContext);
+		when(configContext.getEntityCache()).thenReturn(entityCache);
+		when(configContext.getSnapshotInterner()).thenReturn(snapshotInterner);
+		when(context.getPrimaryKey()).thenReturn(primaryKey);
+		when(context.getConsistencyLevel()).thenReturn(Optional.<ConsistencyLevel> absent());
 	}
 
 	@Test
@@ -120,6 +148,58 @@ public class LoaderImplTest {
 		verifyZeroInteractions(mapper);
 	}
 
+	@Test
+	public void should_cache_eager_loaded_entity() throws Exception {
+		CompleteBean entity = new CompleteBean();
+		when(context.eagerLoadEntity()).thenReturn(row);
+		when(entityMeta.instanciate()).thenReturn(entity);
+
+		when(entityCache.generation(entityMeta, primaryKey)).thenReturn(3L);
+
+		loaderImpl.eagerLoadEntity(context);
+
+		InOrder inOrder = inOrder(entityCache, context);
+		inOrder.verify(entityCache).generation(entityMeta, primaryKey);
+		inOrder.verify(context).eagerLoadEntity();
+		inOrder.verify(entityCache).put(entityMeta, primaryKey, entity, 3L);
+	}
+
+	@Test
+	public void should_load_entity_from_cache() throws Exception {
+		CompleteBean entity = new CompleteBean();
+		when(entityCache.<CompleteBean> get(entityMeta, primaryKey)).thenReturn(Optional.of(entity));
+
+		CompleteBean actual = loaderImpl.eagerLoadEntity(context);
+
+		assertThat(actual).isSameAs(entity);
+		verify(context, never()).eagerLoadEntity();
+		verifyZeroInteractions(mapper);
+	}
+
+	@Test
+	public void should_return_null_when_absent_from_cache() throws Exception {
+		when(entityCache.<CompleteBean> get(entityMeta, primaryKey)).thenReturn(Optional.<CompleteBean> absent());
+
+		CompleteBean actual = loaderImpl.eagerLoadEntity(context);
+
+		assertThat(actual).isNull();
+		verify(context, never()).eagerLoadEntity();
+	}
+
+	@Test
+	public void should_bypass_cache_when_consistency_level_is_given() throws Exception {
+		CompleteBean entity = new CompleteBean();
+		when(context.getConsistencyLevel()).thenReturn(Optional.<ConsistencyLevel> fromNullable(EACH_QUORUM));
+		when(context.eagerLoadEntity()).thenReturn(row);
+		when(entityMeta.instanciate()).thenReturn(entity);
+
+		CompleteBean actual = loaderImpl.eagerLoadEntity(context);
+
+		assertThat(actual).isSameAs(entity);
+		verify(entityCache, never()).get(entityMeta, primaryKey);
+		verify(entityCache).put(entityMeta, primaryKey, entity, 0L);
+	}
+
 	@Test
 	public void should_eager_load_clustered_counter_entity_with_runtime_consistency() throws Exception {
 		Long counterValue = RandomUtils.nextLong();
@@ -173,6 +253,47 @@ public class LoaderImplTest {
 		assertThat(actual).isNull();
 	}
 
+	@Test
+	public void should_load_and_intern_snapshot() throws Exception {
+		CompleteBean snapshot = new CompleteBean();
+		CompleteBean readOnly = new CompleteBean();
+		CompleteBean interned = new CompleteBean();
+		when(context.eagerLoadEntity()).thenReturn(row);
+		when(snapshotInterner.keyFor(entityMeta, primaryKey, row)).thenReturn(snapshotKey);
+		when(snapshotInterner.get(snapshotKey)).thenReturn(null);
+		when(mapper.mapRowToSnapshot(row, entityMeta)).thenReturn(snapshot);
+		when(proxifier.buildReadOnlyProxy(snapshot, entityMeta)).thenReturn(readOnly);
+		when(snapshotInterner.intern(snapshotKey, readOnly)).thenReturn(interned);
+
+		CompleteBean actual = loaderImpl.loadSnapshot(context);
+
+		assertThat(actual).isSameAs(interned);
+		assertThat(snapshot.getId()).isEqualTo(primaryKey);
+	}
+
+	@Test
+	public void should_return_interned_snapshot_without_mapping_row() throws Exception {
+		CompleteBean interned = new CompleteBean();
+		when(context.eagerLoadEntity()).thenReturn(row);
+		when(snapshotInterner.keyFor(entityMeta, primaryKey, row)).thenReturn(snapshotKey);
+		when(snapshotInterner.<CompleteBean> get(snapshotKey)).thenReturn(interned);
+
+		CompleteBean actual = loaderImpl.loadSnapshot(context);
+
+		assertThat(actual).isSameAs(interned);
+		verifyZeroInteractions(mapper);
+	}
+
+	@Test
+	public void should_return_null_snapshot_when_not_found() throws Exception {
+		when(context.eagerLoadEntity()).thenReturn(null);
+
+		CompleteBean actual = loaderImpl.loadSnapshot(context);
+
+		assertThat(actual).isNull();
+		verifyZeroInteractions(snapshotInterner);
+	}
+
 	@Test
 	public void should_load_property_into_entity() throws Exception {
 		PropertyMeta pm = PropertyMetaTestBuilder.valueClass(String.class).field("name").type(PropertyType.SIMPLE)
@@ -16,9 +16,11 @@
  */
 package info.archinnov.achilles.entity.parsing;
 
+import static info.archinnov.achilles.type.CompressionAlgorithm.SNAPPY;
 import static info.archinnov.achilles.type.ConsistencyLevel.*;
 import static org.fest.assertions.api.Assertions.assertThat;
 import info.archinnov.achilles.annotations.Column;
+import info.archinnov.achilles.annotations.Compressed;
 import info.archinnov.achilles.annotations.Consistency;
 import info.archinnov.achilles.annotations.EmbeddedId;
 import info.archinnov.achilles.annotations.Id;
@@ -29,6 +31,7 @@ import info.archinnov.achilles.context.ConfigurationContext;
 import info.archinnov.achilles.entity.metadata.EmbeddedIdProperties;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.entity.metadata.PropertyType;
+import info.archinnov.achilles.entity.metadata.transcoding.CompressedTranscoder;
 import info.archinnov.achilles.entity.parsing.context.EntityParsingContext;
 import info.archinnov.achilles.entity.parsing.context.PropertyParsingContext;
 import info.archinnov.achilles.exception.AchillesBeanMappingException;
@@ -38,6 +41,7 @@ import info.archinnov.achilles.type.Counter;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -423,6 +427,55 @@ public class PropertyParserTest {
 		assertThat(meta.isIndexed()).isTrue();
 	}
 
+	@Test
+	public void should_parse_compressed() throws Exception {
+		@SuppressWarnings("unused")
+		class Test {
+			@Column
+			@Compressed(algorithm = SNAPPY, threshold = 256)
+			private String document;
+
+			public String getDocument() {
+				return document;
+			}
+
+			public void setDocument(String document) {
+				this.document = document;
+			}
+		}
+		PropertyParsingContext context = newContext(Test.class, Test.class.getDeclaredField("document"));
+		PropertyMeta meta = parser.parse(context);
+
+		assertThat(meta.isCompressed()).isTrue();
+		assertThat(meta.getCompressionProperties().getAlgorithm()).isEqualTo(SNAPPY);
+		assertThat(meta.getCompressionProperties().getThreshold()).isEqualTo(256);
+		assertThat(meta.getValueClassForTableCreation()).isEqualTo((Class) ByteBuffer.class);
+		assertThat(meta.getTranscoder()).isInstanceOf(CompressedTranscoder.class);
+	}
+
+	@Test
+	public void should_exception_when_compressing_collection() throws Exception {
+		@SuppressWarnings("unused")
+		class Test {
+			@Column
+			@Compressed
+			private List<String> friends;
+
+			public List<String> getFriends() {
+				return friends;
+			}
+
+			public void setFriends(List<String> friends) {
+				this.friends = friends;
+			}
+		}
+		expectedEx.expect(AchillesBeanMappingException.class);
+		expectedEx
+				.expectMessage("Property 'friends' of entity 'null' cannot be compressed, only simple properties are supported");
+		PropertyParsingContext context = newContext(Test.class, Test.class.getDeclaredField("friends"));
+		parser.parse(context);
+	}
+
 	@SuppressWarnings("rawtypes")
 	@Test
 	public void should_parse_list() throws Exception {
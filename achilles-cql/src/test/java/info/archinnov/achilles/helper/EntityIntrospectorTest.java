@@ -18,11 +18,16 @@ package info.archinnov.achilles.helper;
 
 import static info.archinnov.achilles.type.ConsistencyLevel.*;
 import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.annotations.Cached;
 import info.archinnov.achilles.annotations.Column;
 import info.archinnov.achilles.annotations.Consistency;
 import info.archinnov.achilles.annotations.Entity;
 import info.archinnov.achilles.annotations.Id;
+import info.archinnov.achilles.annotations.Strategy;
+import info.archinnov.achilles.annotations.TableOptions;
 import info.archinnov.achilles.annotations.TimeUUID;
+import info.archinnov.achilles.entity.metadata.CacheProperties;
+import info.archinnov.achilles.entity.metadata.TableProperties;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.exception.AchillesBeanMappingException;
@@ -30,6 +35,7 @@ import info.archinnov.achilles.test.mapping.entity.CompleteBean;
 import info.archinnov.achilles.test.parser.entity.BeanWithColumnFamilyName;
 import info.archinnov.achilles.test.parser.entity.ChildBean;
 import info.archinnov.achilles.type.ConsistencyLevel;
+import info.archinnov.achilles.type.InsertStrategy;
 import info.archinnov.achilles.type.Pair;
 
 import java.lang.reflect.Field;
@@ -360,6 +366,91 @@ public class EntityIntrospectorTest {
 		assertThat(levels.right).isEqualTo(ONE);
 	}
 
+	@Test
+	public void should_find_cache_properties() throws Exception {
+		@Cached(ttl = 10, maxSize = 500, cacheAbsent = true)
+		class Test {
+		}
+
+		CacheProperties cacheProperties = introspector.findCacheProperties(Test.class);
+
+		assertThat(cacheProperties.getTtl()).isEqualTo(10);
+		assertThat(cacheProperties.getMaxSize()).isEqualTo(500L);
+		assertThat(cacheProperties.isCacheAbsent()).isTrue();
+	}
+
+	@Test
+	public void should_find_insert_strategy_from_annotation() throws Exception {
+		@Strategy(insert = InsertStrategy.NOT_NULL_FIELDS)
+		class Test {
+		}
+
+		assertThat(introspector.findInsertStrategy(Test.class, InsertStrategy.ALL_FIELDS)).isSameAs(
+				InsertStrategy.NOT_NULL_FIELDS);
+	}
+
+	@Test
+	public void should_find_default_insert_strategy_when_no_annotation() throws Exception {
+		class Test {
+		}
+
+		assertThat(introspector.findInsertStrategy(Test.class, InsertStrategy.NOT_NULL_FIELDS)).isSameAs(
+				InsertStrategy.NOT_NULL_FIELDS);
+	}
+
+	@Test
+	public void should_not_find_cache_properties_when_not_cached() throws Exception {
+		class Test {
+		}
+
+		assertThat(introspector.findCacheProperties(Test.class)).isNull();
+	}
+
+	@Test
+	public void should_exception_when_cache_ttl_not_positive() throws Exception {
+		@Cached(ttl = 0)
+		class Test {
+		}
+
+		expectedEx.expect(AchillesBeanMappingException.class);
+		expectedEx.expectMessage("The cache ttl of entity '" + Test.class.getCanonicalName()
+				+ "' should be strictly positive");
+
+		introspector.findCacheProperties(Test.class);
+	}
+
+	@Test
+	public void should_find_table_properties() throws Exception {
+		@TableOptions(compaction = "LeveledCompactionStrategy", compactionOptions = "sstable_size_in_mb = 160", compression = "LZ4Compressor", compressionChunkLengthKb = 16, caching = "keys_only", bloomFilterFpChance = 0.01, gcGraceSeconds = 3600)
+		class Test {
+		}
+
+		TableProperties tableProperties = introspector.findTableProperties(Test.class);
+
+		assertThat(tableProperties.getCompaction()).isEqualTo("LeveledCompactionStrategy");
+		assertThat(tableProperties.getCompactionOptions()).containsKey("sstable_size_in_mb");
+		assertThat(tableProperties.getCompactionOptions().get("sstable_size_in_mb")).isEqualTo("160");
+		assertThat(tableProperties.getCompression()).isEqualTo("LZ4Compressor");
+		assertThat(tableProperties.getCompressionChunkLengthKb()).isEqualTo(16);
+		assertThat(tableProperties.getCaching()).isEqualTo("keys_only");
+		assertThat(tableProperties.getBloomFilterFpChance()).isEqualTo(0.01);
+		assertThat(tableProperties.getGcGraceSeconds()).isEqualTo(3600);
+		assertThat(tableProperties.getDefaultTimeToLive()).isNull();
+	}
+
+	@Test
+	public void should_exception_when_compaction_option_malformed() throws Exception {
+		@TableOptions(compaction = "LeveledCompactionStrategy", compactionOptions = "sstable_size_in_mb")
+		class Test {
+		}
+
+		expectedEx.expect(AchillesBeanMappingException.class);
+		expectedEx.expectMessage("The compaction option 'sstable_size_in_mb' of entity '"
+				+ Test.class.getCanonicalName() + "' should be of the form key=value");
+
+		introspector.findTableProperties(Test.class);
+	}
+
 	class Bean {
 
 		private String complicatedAttributeName;
@@ -0,0 +1,81 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.iterator;
+
+import static info.archinnov.achilles.type.OrderingMode.ASCENDING;
+import static info.archinnov.achilles.type.OrderingMode.DESCENDING;
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.type.OrderingMode;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class ClusteringKeyComparatorTest {
+
+	@Test
+	public void should_compare_components_in_order() throws Exception {
+		ClusteringKeyComparator comparator = new ClusteringKeyComparator(-1, ASCENDING);
+
+		assertThat(comparator.compare(key("a", 2), key("b", 1))).isLessThan(0);
+		assertThat(comparator.compare(key("a", 2), key("a", 1))).isGreaterThan(0);
+		assertThat(comparator.compare(key("a", 1), key("a", 1))).isEqualTo(0);
+	}
+
+	@Test
+	public void should_invert_comparison_for_descending_order() throws Exception {
+		ClusteringKeyComparator comparator = new ClusteringKeyComparator(-1, DESCENDING);
+
+		assertThat(comparator.compare(key("a", 2), key("b", 1))).isGreaterThan(0);
+	}
+
+	@Test
+	public void should_compare_reversed_component_in_descending_order() throws Exception {
+		ClusteringKeyComparator comparator = new ClusteringKeyComparator(1, ASCENDING);
+
+		assertThat(comparator.compare(key("a", 2), key("a", 1))).isLessThan(0);
+		assertThat(comparator.compare(key("a", 2), key("b", 1))).isLessThan(0);
+	}
+
+	@Test
+	public void should_compare_enums_by_name() throws Exception {
+		assertThat(ClusteringKeyComparator.compareComponent(OrderingMode.DESCENDING, OrderingMode.ASCENDING))
+				.isGreaterThan(0);
+	}
+
+	@Test
+	public void should_compare_time_uuids_by_timestamp() throws Exception {
+		UUID older = UUID.fromString("ffffffff-0000-1000-8000-000000000000");
+		UUID newer = UUID.fromString("00000000-0001-1000-8000-000000000000");
+
+		assertThat(ClusteringKeyComparator.compareUUID(older, newer)).isLessThan(0);
+	}
+
+	@Test
+	public void should_compare_random_uuids_as_unsigned() throws Exception {
+		UUID small = UUID.fromString("00000000-0000-4000-8000-000000000000");
+		UUID big = UUID.fromString("f0000000-0000-4000-8000-000000000000");
+
+		assertThat(ClusteringKeyComparator.compareUUID(small, big)).isLessThan(0);
+	}
+
+	private List<Object> key(Object... components) {
+		return Arrays.asList(components);
+	}
+}
@@ -0,0 +1,170 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.iterator;
+
+import static info.archinnov.achilles.type.OrderingMode.ASCENDING;
+import static info.archinnov.achilles.type.OrderingMode.DESCENDING;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.*;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.test.mapping.entity.ClusteredEntity;
+import info.archinnov.achilles.test.parser.entity.EmbeddedKey;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MergedSliceQueryIteratorTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Mock
+	private PropertyMeta idMeta;
+
+	@Before
+	public void setUp() throws Exception {
+		Method userIdGetter = EmbeddedKey.class.getDeclaredMethod("getUserId");
+		Method nameGetter = EmbeddedKey.class.getDeclaredMethod("getName");
+		when(idMeta.getComponentGetters()).thenReturn(Arrays.asList(userIdGetter, nameGetter));
+		when(idMeta.getPrimaryKey(any())).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				return ((ClusteredEntity) invocation.getArguments()[0]).getId();
+			}
+		});
+		when(idMeta.extractClusteringComponents(anyListOf(Object.class))).thenAnswer(new Answer<List<Object>>() {
+			@Override
+			public List<Object> answer(InvocationOnMock invocation) throws Throwable {
+				List<Object> components = (List<Object>) invocation.getArguments()[0];
+				return components.subList(1, components.size());
+			}
+		});
+	}
+
+	@Test
+	public void should_merge_partitions_by_clustering_order() throws Exception {
+		Iterator<ClusteredEntity> partition1 = Arrays.asList(entity(10L, "a"), entity(10L, "d")).iterator();
+		Iterator<ClusteredEntity> partition2 = Arrays.asList(entity(11L, "b"), entity(11L, "c"), entity(11L, "e"))
+				.iterator();
+
+		MergedSliceQueryIterator<ClusteredEntity> iterator = new MergedSliceQueryIterator<ClusteredEntity>(idMeta,
+				ASCENDING, Arrays.asList(partition1, partition2), 100);
+
+		assertThat(names(iterator)).containsExactly("a", "b", "c", "d", "e");
+	}
+
+	@Test
+	public void should_merge_partitions_in_descending_order() throws Exception {
+		Iterator<ClusteredEntity> partition1 = Arrays.asList(entity(10L, "d"), entity(10L, "a")).iterator();
+		Iterator<ClusteredEntity> partition2 = Arrays.asList(entity(11L, "e"), entity(11L, "b")).iterator();
+
+		MergedSliceQueryIterator<ClusteredEntity> iterator = new MergedSliceQueryIterator<ClusteredEntity>(idMeta,
+				DESCENDING, Arrays.asList(partition1, partition2), 100);
+
+		assertThat(names(iterator)).containsExactly("e", "d", "b", "a");
+	}
+
+	@Test
+	public void should_stop_at_limit_without_pulling_more_entities() throws Exception {
+		Iterator<ClusteredEntity> partition1 = mock(Iterator.class);
+		Iterator<ClusteredEntity> partition2 = mock(Iterator.class);
+		when(partition1.hasNext()).thenReturn(true);
+		when(partition1.next()).thenReturn(entity(10L, "a"), entity(10L, "c"));
+		when(partition2.hasNext()).thenReturn(true);
+		when(partition2.next()).thenReturn(entity(11L, "b"), entity(11L, "d"));
+
+		MergedSliceQueryIterator<ClusteredEntity> iterator = new MergedSliceQueryIterator<ClusteredEntity>(idMeta,
+				ASCENDING, Arrays.asList(partition1, partition2), 2);
+
+		assertThat(names(iterator)).containsExactly("a", "b");
+		verify(partition1, times(2)).next();
+		verify(partition2, times(1)).next();
+	}
+
+	@Test
+	public void should_keep_partition_order_for_same_clustering() throws Exception {
+		ClusteredEntity first = entity(10L, "a");
+		ClusteredEntity second = entity(11L, "a");
+
+		MergedSliceQueryIterator<ClusteredEntity> iterator = new MergedSliceQueryIterator<ClusteredEntity>(idMeta,
+				ASCENDING, Arrays.asList(Arrays.asList(first).iterator(), Arrays.asList(second).iterator()), 100);
+
+		assertThat(iterator.next()).isSameAs(first);
+		assertThat(iterator.next()).isSameAs(second);
+	}
+
+	@Test
+	public void should_handle_empty_partitions() throws Exception {
+		Iterator<ClusteredEntity> empty = new ArrayList<ClusteredEntity>().iterator();
+
+		MergedSliceQueryIterator<ClusteredEntity> iterator = new MergedSliceQueryIterator<ClusteredEntity>(idMeta,
+				ASCENDING, Arrays.asList(empty, Arrays.asList(entity(11L, "a")).iterator()), 100);
+
+		assertThat(names(iterator)).containsExactly("a");
+	}
+
+	@Test
+	public void should_exception_when_no_more_entity() throws Exception {
+		Iterator<ClusteredEntity> empty = new ArrayList<ClusteredEntity>().iterator();
+		MergedSliceQueryIterator<ClusteredEntity> iterator = new MergedSliceQueryIterator<ClusteredEntity>(idMeta,
+				ASCENDING, Arrays.asList(empty), 100);
+
+		exception.expect(NoSuchElementException.class);
+
+		iterator.next();
+	}
+
+	@Test
+	public void should_find_reversed_clustering_index() throws Exception {
+		when(idMeta.hasReversedComponent()).thenReturn(true);
+		when(idMeta.getReversedComponent()).thenReturn("date");
+		when(idMeta.getClusteringComponentNames()).thenReturn(Arrays.asList("name", "date"));
+
+		assertThat(MergedSliceQueryIterator.findReversedIndex(idMeta)).isEqualTo(1);
+	}
+
+	private ClusteredEntity entity(Long userId, String name) {
+		ClusteredEntity entity = new ClusteredEntity();
+		entity.setId(new EmbeddedKey(userId, name));
+		return entity;
+	}
+
+	private List<String> names(Iterator<ClusteredEntity> iterator) {
+		List<String> names = new ArrayList<String>();
+		while (iterator.hasNext()) {
+			names.add(iterator.next().getId().getName());
+		}
+		return names;
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.iterator;
+
+import static com.datastax.driver.core.ColumnDefinitionBuilder.*;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.query.cql.NativeRow;
+
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NativeQueryIteratorTest {
+
+	@Mock
+	private ResultSet resultSet;
+
+	@Mock
+	private Iterator<Row> iterator;
+
+	private MetricRegistry registry = new MetricRegistry();
+
+	private NativeQueryIterator nativeIterator;
+
+	@Before
+	public void setUp() {
+		when(resultSet.iterator()).thenReturn(iterator);
+		when(resultSet.getColumnDefinitions()).thenReturn(
+				buildColumnDefinitions(buildColumnDef("keyspace", "table", "name", DataType.text())));
+		when(resultSet.getAvailableWithoutFetching()).thenReturn(100);
+
+		nativeIterator = new NativeQueryIterator(resultSet, new AchillesMetrics(registry), 0.5);
+	}
+
+	@Test
+	public void should_return_same_view_for_each_row() throws Exception {
+		// Given
+		Row row1 = mock(Row.class);
+		Row row2 = mock(Row.class);
+		when(iterator.hasNext()).thenReturn(true);
+		when(iterator.next()).thenReturn(row1, row2);
+		when(row1.getBytesUnsafe(0)).thenReturn(DataType.text().serialize("name1"));
+		when(row2.getBytesUnsafe(0)).thenReturn(DataType.text().serialize("name2"));
+		when(resultSet.isFullyFetched()).thenReturn(true);
+
+		// When
+		NativeRow first = nativeIterator.next();
+		Object firstName = first.get(0);
+		NativeRow second = nativeIterator.next();
+
+		// Then
+		assertThat(second).isSameAs(first);
+		assertThat(firstName).isEqualTo("name1");
+		assertThat(second.get(0)).isEqualTo("name2");
+	}
+
+	@Test
+	public void should_prefetch_next_page_when_threshold_reached() throws Exception {
+		// Given
+		when(iterator.hasNext()).thenReturn(true);
+		when(iterator.next()).thenReturn(mock(Row.class));
+		when(resultSet.isFullyFetched()).thenReturn(false);
+		when(resultSet.getAvailableWithoutFetching()).thenReturn(50);
+
+		// When
+		nativeIterator.next();
+
+		// Then
+		verify(resultSet).fetchMoreResults();
+	}
+
+	@Test
+	public void should_mark_row_count_once_exhausted() throws Exception {
+		// Given
+		when(iterator.hasNext()).thenReturn(true, true, false);
+		when(iterator.next()).thenReturn(mock(Row.class));
+		when(resultSet.isFullyFetched()).thenReturn(true);
+
+		// When
+		nativeIterator.next();
+		nativeIterator.hasNext();
+		nativeIterator.hasNext();
+
+		// Then
+		assertThat(registry.histogram("native.native.rows").getSnapshot().getValues()).containsOnly(1L);
+	}
+}
@@ -18,10 +18,12 @@ package info.archinnov.achilles.iterator;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
+import info.archinnov.achilles.context.ConfigurationContext;
 import info.archinnov.achilles.context.PersistenceContext;
 import info.archinnov.achilles.entity.EntityMapper;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.operations.EntityProxifier;
+import info.archinnov.achilles.metrics.AchillesMetrics;
 import info.archinnov.achilles.proxy.RowMethodInvoker;
 import info.archinnov.achilles.proxy.ReflectionInvoker;
 import info.archinnov.achilles.query.slice.CQLSliceQuery;
@@ -37,7 +39,9 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.powermock.reflect.Whitebox;
 
+import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -63,9 +67,16 @@ public class SliceQueryIteratorTest {
 	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
 	private PersistenceContext context;
 
+	@Mock
+	private ResultSet resultSet;
+
 	@Mock
 	private Iterator<Row> iterator;
 
+	private ConfigurationContext configContext = new ConfigurationContext();
+
+	private MetricRegistry registry = new MetricRegistry();
+
 	private EntityMeta meta = new EntityMeta();
 
 	private int batchSize = 99;
@@ -77,8 +88,13 @@ public class SliceQueryIteratorTest {
 		when(sliceQuery.getVaryingComponentName()).thenReturn("name");
 		when(sliceQuery.getVaryingComponentClass()).thenReturn((Class) String.class);
 		when(sliceQuery.getBatchSize()).thenReturn(batchSize);
+		when(context.getConfigContext()).thenReturn(configContext);
+		when(resultSet.iterator()).thenReturn(iterator);
 
-		sliceIterator = new SliceQueryIterator(sliceQuery, context, iterator);
+		configContext.setSlicePrefetchThreshold(0.5);
+		configContext.setMetrics(new AchillesMetrics(registry));
+
+		sliceIterator = new SliceQueryIterator(sliceQuery, context, resultSet);
 
 		Whitebox.setInternalState(sliceIterator, "mapper", mapper);
 		Whitebox.setInternalState(sliceIterator, "proxifier", proxifier);
@@ -119,6 +135,100 @@ public class SliceQueryIteratorTest {
 		verify(mapper).setEagerPropertiesToEntity(row, meta, entity);
 	}
 
+	@Test
+	public void should_prefetch_next_page_when_threshold_reached() throws Exception {
+		// Given
+		Row row = mock(Row.class);
+		meta.setEntityClass(ClusteredEntity.class);
+		Whitebox.setInternalState(meta, ReflectionInvoker.class, invoker);
+
+		when(iterator.next()).thenReturn(row);
+		when(invoker.instantiate(ClusteredEntity.class)).thenReturn(new ClusteredEntity());
+		when(resultSet.isFullyFetched()).thenReturn(false);
+		when(resultSet.getAvailableWithoutFetching()).thenReturn(49);
+
+		// When
+		sliceIterator.next();
+
+		// Then
+		verify(resultSet).fetchMoreResults();
+	}
+
+	@Test
+	public void should_not_prefetch_before_threshold() throws Exception {
+		// Given
+		Row row = mock(Row.class);
+		meta.setEntityClass(ClusteredEntity.class);
+		Whitebox.setInternalState(meta, ReflectionInvoker.class, invoker);
+
+		when(iterator.next()).thenReturn(row);
+		when(invoker.instantiate(ClusteredEntity.class)).thenReturn(new ClusteredEntity());
+		when(resultSet.isFullyFetched()).thenReturn(false);
+		when(resultSet.getAvailableWithoutFetching()).thenReturn(50);
+
+		// When
+		sliceIterator.next();
+
+		// Then
+		verify(resultSet, never()).fetchMoreResults();
+	}
+
+	@Test
+	public void should_not_prefetch_when_fully_fetched() throws Exception {
+		// Given
+		Row row = mock(Row.class);
+		meta.setEntityClass(ClusteredEntity.class);
+		Whitebox.setInternalState(meta, ReflectionInvoker.class, invoker);
+
+		when(iterator.next()).thenReturn(row);
+		when(invoker.instantiate(ClusteredEntity.class)).thenReturn(new ClusteredEntity());
+		when(resultSet.isFullyFetched()).thenReturn(true);
+		when(resultSet.getAvailableWithoutFetching()).thenReturn(0);
+
+		// When
+		sliceIterator.next();
+
+		// Then
+		verify(resultSet, never()).fetchMoreResults();
+	}
+
+	@Test
+	public void should_record_page_wait_when_page_exhausted() throws Exception {
+		// Given
+		when(resultSet.isFullyFetched()).thenReturn(false);
+		when(resultSet.getAvailableWithoutFetching()).thenReturn(0);
+		when(iterator.hasNext()).thenReturn(true);
+
+		// When
+		sliceIterator.hasNext();
+
+		// Then
+		String name = ClusteredEntity.class.getCanonicalName() + ".slice.page-wait";
+		assertThat(registry.getTimers().get(name).getCount()).isEqualTo(1L);
+	}
+
+	@Test
+	public void should_not_record_page_wait_when_rows_available() throws Exception {
+		// Given
+		when(resultSet.isFullyFetched()).thenReturn(false);
+		when(resultSet.getAvailableWithoutFetching()).thenReturn(10);
+		when(iterator.hasNext()).thenReturn(true);
+
+		// When
+		sliceIterator.hasNext();
+
+		// Then
+		assertThat(registry.getTimers()).isEmpty();
+	}
+
+	@Test
+	public void should_compute_prefetch_watermark() throws Exception {
+		assertThat(SliceQueryIterator.computePrefetchWatermark(100, 0.5)).isEqualTo(50);
+		assertThat(SliceQueryIterator.computePrefetchWatermark(100, 0.75)).isEqualTo(25);
+		assertThat(SliceQueryIterator.computePrefetchWatermark(100, 0)).isEqualTo(100);
+		assertThat(SliceQueryIterator.computePrefetchWatermark(100, 1)).isEqualTo(0);
+	}
+
 	@Test(expected = UnsupportedOperationException.class)
 	public void should_exception_when_calling_remove() throws Exception {
 		sliceIterator.remove();
@@ -0,0 +1,116 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.metrics;
+
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.FIND;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.NATIVE;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.PERSIST;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.SLICE;
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.test.mapping.entity.CompleteBean;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+public class AchillesMetricsTest {
+
+	private MetricRegistry registry = new MetricRegistry();
+
+	private AchillesMetrics metrics = new AchillesMetrics(registry);
+
+	@Test
+	public void should_not_time_when_disabled() throws Exception {
+		// When
+		Timer.Context timerContext = AchillesMetrics.disabled().start(CompleteBean.class, FIND);
+		AchillesMetrics.disabled().stop(timerContext);
+		AchillesMetrics.disabled().markRows(CompleteBean.class, FIND, 10);
+
+		// Then
+		assertThat(timerContext).isNull();
+		assertThat(AchillesMetrics.disabled().getRegistry()).isNull();
+	}
+
+	@Test
+	public void should_time_operation_per_entity() throws Exception {
+		// When
+		metrics.stop(metrics.start(CompleteBean.class, FIND));
+		metrics.stop(metrics.start(CompleteBean.class, FIND));
+
+		// Then
+		String name = CompleteBean.class.getCanonicalName() + ".find.latency";
+		assertThat(registry.getTimers().get(name).getCount()).isEqualTo(2L);
+	}
+
+	@Test
+	public void should_mark_rows_for_native_query() throws Exception {
+		// When
+		metrics.markRows(null, NATIVE, 5);
+
+		// Then
+		assertThat(registry.getHistograms().get("native.native.rows").getSnapshot().getMax()).isEqualTo(5L);
+	}
+
+	@Test
+	public void should_mark_page_wait() throws Exception {
+		// When
+		metrics.markPageWait(CompleteBean.class, SLICE, 1000000L);
+		AchillesMetrics.disabled().markPageWait(CompleteBean.class, SLICE, 1000000L);
+
+		// Then
+		String name = CompleteBean.class.getCanonicalName() + ".slice.page-wait";
+		assertThat(registry.getTimers().get(name).getSnapshot().getMax()).isEqualTo(1000000L);
+	}
+
+	@Test
+	public void should_mark_bound_bytes() throws Exception {
+		// When
+		metrics.markBoundBytes(CompleteBean.class, PERSIST, new Object[] { "abc", 10L, null });
+
+		// Then
+		String name = CompleteBean.class.getCanonicalName() + ".persist.bound-bytes";
+		assertThat(registry.getHistograms().get(name).getSnapshot().getMax()).isEqualTo(11L);
+	}
+
+	@Test
+	public void should_mark_compression_ratio_per_property() throws Exception {
+		// When
+		metrics.markCompression(CompleteBean.class.getCanonicalName(), "document", 2000, 500);
+
+		// Then
+		String prefix = CompleteBean.class.getCanonicalName() + ".compression.document";
+		assertThat(registry.getHistograms().get(prefix + ".ratio").getSnapshot().getMax()).isEqualTo(25L);
+		assertThat(registry.getMeters().get(prefix + ".saved-bytes").getCount()).isEqualTo(1500L);
+	}
+
+	@Test
+	public void should_estimate_size_of_bound_values() throws Exception {
+		// Given
+		Object[] values = new Object[] { UUID.randomUUID(), ByteBuffer.wrap(new byte[5]), Arrays.asList("a", "bc"), 1 };
+
+		// When
+		long size = AchillesMetrics.estimateSize(values);
+
+		// Then
+		assertThat(size).isEqualTo(16 + 5 + 3 + 4);
+	}
+}
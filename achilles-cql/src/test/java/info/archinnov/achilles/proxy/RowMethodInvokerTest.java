@@ -22,6 +22,7 @@ import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.entity.metadata.PropertyType;
 import info.archinnov.achilles.exception.AchillesException;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -136,6 +137,21 @@ public class RowMethodInvokerTest {
 		assertThat(actual).isEqualTo("value");
 	}
 
+	@Test
+	public void should_get_compressed_value_from_blob_column() throws Exception {
+		when(pm.type()).thenReturn(PropertyType.SIMPLE);
+		when(pm.isCompressed()).thenReturn(true);
+		ByteBuffer stored = ByteBuffer.wrap(new byte[] { 0, 'a' });
+
+		when(row.getBytes("property")).thenReturn(stored);
+		when(pm.decode(stored)).thenReturn("a");
+
+		Object actual = invoker.invokeOnRowForFields(row, pm);
+
+		assertThat(actual).isEqualTo("a");
+		verify(row, never()).getString("property");
+	}
+
 	@Test
 	public void should_get_id_value_from_row() throws Exception {
 		when(pm.type()).thenReturn(PropertyType.ID);
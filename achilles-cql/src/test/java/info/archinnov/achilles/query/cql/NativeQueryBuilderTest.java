@@ -18,13 +18,14 @@ package info.archinnov.achilles.query.cql;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import info.archinnov.achilles.context.DaoContext;
 import info.archinnov.achilles.entity.operations.NativeQueryMapper;
 import info.archinnov.achilles.statement.wrapper.SimpleStatementWrapper;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,11 +34,13 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.powermock.reflect.Whitebox;
 
+import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -104,4 +107,37 @@ public class NativeQueryBuilderTest {
 		assertThat(actual).isNull();
 	}
 
+	@Test
+	public void should_stream_rows_to_callback() throws Exception {
+		ResultSet resultSet = mock(ResultSet.class, RETURNS_DEEP_STUBS);
+		when(daoContext.execute(any(SimpleStatementWrapper.class))).thenReturn(resultSet);
+		when(resultSet.isFullyFetched()).thenReturn(true);
+		when(resultSet.iterator()).thenReturn(Arrays.asList(row, row).iterator());
+
+		final List<NativeRow> views = new ArrayList<NativeRow>();
+		query.forEachRow(new NativeRowCallback() {
+			@Override
+			public void onRow(NativeRow nativeRow) {
+				views.add(nativeRow);
+			}
+		});
+
+		assertThat(views).hasSize(2);
+		assertThat(views.get(0)).isSameAs(views.get(1));
+	}
+
+	@Test
+	public void should_iterate_by_pages_of_given_fetch_size() throws Exception {
+		ResultSet resultSet = mock(ResultSet.class, RETURNS_DEEP_STUBS);
+		when(daoContext.execute(any(SimpleStatementWrapper.class))).thenReturn(resultSet);
+		when(resultSet.isFullyFetched()).thenReturn(true);
+		when(resultSet.iterator()).thenReturn(Arrays.asList(row).iterator());
+
+		Iterator<NativeRow> iterator = query.iterator(500);
+
+		ArgumentCaptor<SimpleStatementWrapper> wrapperCaptor = ArgumentCaptor.forClass(SimpleStatementWrapper.class);
+		verify(daoContext).execute(wrapperCaptor.capture());
+		assertThat(wrapperCaptor.getValue().getStatement().getFetchSize()).isEqualTo(500);
+		assertThat(iterator.hasNext()).isTrue();
+	}
 }
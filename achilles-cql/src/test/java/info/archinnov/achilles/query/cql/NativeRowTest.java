@@ -0,0 +1,109 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.cql;
+
+import static com.datastax.driver.core.ColumnDefinitionBuilder.*;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import info.archinnov.achilles.exception.AchillesException;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Row;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NativeRowTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Mock
+	private Row row;
+
+	private NativeRow nativeRow;
+
+	@Before
+	public void setUp() {
+		ColumnDefinitions columnDefs = buildColumnDefinitions(
+				buildColumnDef("keyspace", "table", "id", DataType.bigint()),
+				buildColumnDef("keyspace", "table", "name", DataType.text()),
+				buildColumnDef("keyspace", "table", "friends", DataType.list(DataType.text())));
+		nativeRow = new NativeRow(columnDefs);
+	}
+
+	@Test
+	public void should_decode_values_by_index_and_name() throws Exception {
+		// Given
+		when(row.getBytesUnsafe(0)).thenReturn(DataType.bigint().serialize(10L));
+		when(row.getBytesUnsafe(1)).thenReturn(DataType.text().serialize("DuyHai"));
+		when(row.getBytesUnsafe(2)).thenReturn(DataType.list(DataType.text()).serialize(Arrays.asList("foo", "bar")));
+
+		// When
+		nativeRow.wrap(row);
+
+		// Then
+		assertThat(nativeRow.size()).isEqualTo(3);
+		assertThat(nativeRow.getName(1)).isEqualTo("name");
+		assertThat(nativeRow.get(0, Long.class)).isEqualTo(10L);
+		assertThat(nativeRow.get("name")).isEqualTo("DuyHai");
+		assertThat((Iterable<Object>) nativeRow.get(2)).containsExactly("foo", "bar");
+	}
+
+	@Test
+	public void should_decode_null_values() throws Exception {
+		// When
+		nativeRow.wrap(row);
+
+		// Then
+		assertThat(nativeRow.get(1)).isNull();
+		assertThat((Iterable<Object>) nativeRow.get(2)).isEmpty();
+	}
+
+	@Test
+	public void should_copy_row_to_ordered_map() throws Exception {
+		// Given
+		when(row.getBytesUnsafe(0)).thenReturn(DataType.bigint().serialize(10L));
+		when(row.getBytesUnsafe(1)).thenReturn(DataType.text().serialize("DuyHai"));
+
+		// When
+		Map<String, Object> line = nativeRow.wrap(row).toMap();
+
+		// Then
+		assertThat(line.keySet()).containsExactly("id", "name", "friends");
+		assertThat(line.get("id")).isEqualTo(10L);
+		assertThat(line.get("name")).isEqualTo("DuyHai");
+	}
+
+	@Test
+	public void should_exception_when_unknown_column() throws Exception {
+		exception.expect(AchillesException.class);
+		exception.expectMessage("Column 'age' is not part of the native query result");
+
+		nativeRow.wrap(row).get("age");
+	}
+}
@@ -0,0 +1,195 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.projection;
+
+import static info.archinnov.achilles.entity.metadata.PropertyType.ID;
+import static info.archinnov.achilles.entity.metadata.PropertyType.SIMPLE;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.test.builders.PropertyMetaTestBuilder;
+import info.archinnov.achilles.test.mapping.entity.CompleteBean;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.datastax.driver.core.ColumnDefinitionBuilder;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Row;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProjectionMapperTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Mock
+	private Row row;
+
+	private ProjectionMapper mapper = new ProjectionMapper();
+
+	private EntityMeta meta;
+
+	private Long id = RandomUtils.nextLong();
+
+	@Before
+	public void setUp() throws Exception {
+		PropertyMeta idMeta = PropertyMetaTestBuilder.completeBean(Void.class, Long.class).field("id").type(ID)
+				.accessors().build();
+		PropertyMeta nameMeta = PropertyMetaTestBuilder.completeBean(Void.class, String.class).field("name")
+				.type(SIMPLE).accessors().build();
+		PropertyMeta ageMeta = PropertyMetaTestBuilder.completeBean(Void.class, Long.class).field("age")
+				.type(SIMPLE).accessors().build();
+
+		Map<String, PropertyMeta> propertyMetas = new HashMap<String, PropertyMeta>();
+		propertyMetas.put("id", idMeta);
+		propertyMetas.put("name", nameMeta);
+		propertyMetas.put("age", ageMeta);
+
+		meta = new EntityMeta();
+		meta.setEntityClass(CompleteBean.class);
+		meta.setClassName(CompleteBean.class.getCanonicalName());
+		meta.setIdMeta(idMeta);
+		meta.setPropertyMetas(propertyMetas);
+
+		when(row.getLong("id")).thenReturn(id);
+		when(row.getString("name")).thenReturn("DuyHai");
+	}
+
+	@Test
+	public void should_map_rows_to_constructor_projection() throws Exception {
+		withColumns(columns("id", DataType.bigint()), columns("name", DataType.text()));
+
+		List<BeanSummary> actual = mapper.mapRows(meta, BeanSummary.class, Arrays.asList(row));
+
+		assertThat(actual).hasSize(1);
+		assertThat(actual.get(0).id).isEqualTo(id);
+		assertThat(actual.get(0).name).isEqualTo("DuyHai");
+	}
+
+	@Test
+	public void should_map_row_to_interface_projection() throws Exception {
+		withColumns(columns("name", DataType.text()), columns("age", DataType.bigint()));
+		when(row.isNull("age")).thenReturn(true);
+
+		BeanView actual = mapper.mapRow(meta, BeanView.class, row);
+
+		assertThat(actual.getName()).isEqualTo("DuyHai");
+		assertThat(actual.getAge()).isEqualTo(0L);
+		assertThat(actual.toString()).isEqualTo("BeanView{name=DuyHai, age=null}");
+	}
+
+	@Test
+	public void should_map_unmapped_column_with_its_cql_type() throws Exception {
+		withColumns(columns("id", DataType.bigint()), columns("count", DataType.bigint()));
+		when(row.getLong("count")).thenReturn(3L);
+
+		CountView actual = mapper.mapRow(meta, CountView.class, row);
+
+		assertThat(actual.getCount()).isEqualTo(3L);
+	}
+
+	@Test
+	public void should_compile_plan_once_per_column_list() throws Exception {
+		withColumns(columns("id", DataType.bigint()), columns("name", DataType.text()));
+
+		mapper.mapRows(meta, BeanSummary.class, Arrays.asList(row, row));
+		mapper.mapRow(meta, BeanSummary.class, row);
+
+		assertThat(mapper.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void should_return_null_when_no_row() throws Exception {
+		assertThat(mapper.mapRow(meta, BeanSummary.class, null)).isNull();
+		assertThat(mapper.mapRows(meta, BeanSummary.class, Arrays.<Row> asList())).isEmpty();
+	}
+
+	@Test
+	public void should_exception_when_no_constructor_matches_selected_columns() throws Exception {
+		withColumns(columns("name", DataType.text()));
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("Projection class '" + BeanSummary.class.getCanonicalName()
+				+ "' should have a public constructor with 1 parameters");
+
+		mapper.mapRow(meta, BeanSummary.class, row);
+	}
+
+	@Test
+	public void should_exception_when_constructor_parameter_type_does_not_match() throws Exception {
+		withColumns(columns("name", DataType.text()), columns("id", DataType.bigint()));
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("Column 'name' of type 'java.lang.String' cannot be mapped to 'java.lang.Long'");
+
+		mapper.mapRow(meta, BeanSummary.class, row);
+	}
+
+	@Test
+	public void should_exception_when_getter_does_not_match_selected_column() throws Exception {
+		withColumns(columns("name", DataType.text()));
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("Method 'getAge' of projection interface '"
+				+ BeanView.class.getCanonicalName() + "' does not match any selected column");
+
+		mapper.mapRow(meta, BeanView.class, row);
+	}
+
+	private ColumnDefinitions.Definition columns(String name, DataType type) {
+		return ColumnDefinitionBuilder.buildColumnDef("keyspace", "table", name, type);
+	}
+
+	private void withColumns(ColumnDefinitions.Definition... definitions) {
+		when(row.getColumnDefinitions()).thenReturn(ColumnDefinitionBuilder.buildColumnDefinitions(definitions));
+	}
+
+	public static class BeanSummary {
+		private final Long id;
+		private final String name;
+
+		public BeanSummary(Long id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+	}
+
+	public static interface BeanView {
+		String getName();
+
+		long getAge();
+	}
+
+	public static interface CountView {
+		long getCount();
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.scan;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+import info.archinnov.achilles.exception.AchillesException;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScanIteratorTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Mock
+	private TokenRangeReader<String> reader;
+
+	private TokenRange range1 = new TokenRange(BigInteger.ZERO, BigInteger.ONE);
+	private TokenRange range2 = new TokenRange(BigInteger.ONE, BigInteger.TEN);
+
+	@Test
+	public void should_iterate_over_all_ranges() throws Exception {
+		when(reader.read(range1)).thenReturn(Arrays.asList("a", "b").iterator());
+		when(reader.read(range2)).thenReturn(Arrays.asList("c").iterator());
+
+		ScanIterator<String> iterator = new ScanIterator<String>(reader, Arrays.asList(range1, range2), 2, 1);
+
+		List<String> entities = new ArrayList<String>();
+		while (iterator.hasNext()) {
+			entities.add(iterator.next());
+		}
+
+		assertThat(entities).containsOnly("a", "b", "c");
+		assertThat(iterator.hasNext()).isFalse();
+	}
+
+	@Test
+	public void should_handle_empty_ranges() throws Exception {
+		when(reader.read(any(TokenRange.class))).thenReturn(new ArrayList<String>().iterator());
+
+		ScanIterator<String> iterator = new ScanIterator<String>(reader, Arrays.asList(range1, range2), 4, 10);
+
+		assertThat(iterator.hasNext()).isFalse();
+	}
+
+	@Test
+	public void should_rethrow_reader_failure() throws Exception {
+		when(reader.read(any(TokenRange.class))).thenThrow(new IllegalStateException("read failure"));
+
+		ScanIterator<String> iterator = new ScanIterator<String>(reader, Arrays.asList(range1, range2), 1, 10);
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("Error while scanning token ranges : read failure");
+
+		iterator.hasNext();
+	}
+
+	@Test
+	public void should_stop_when_closed() throws Exception {
+		List<String> manyEntities = new ArrayList<String>();
+		for (int i = 0; i < 100; i++) {
+			manyEntities.add("entity" + i);
+		}
+		when(reader.read(range1)).thenReturn(manyEntities.iterator());
+
+		ScanIterator<String> iterator = new ScanIterator<String>(reader, Arrays.asList(range1), 1, 2);
+		assertThat(iterator.next()).isEqualTo("entity0");
+
+		iterator.close();
+
+		assertThat(iterator.hasNext()).isFalse();
+	}
+}
@@ -0,0 +1,205 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.scan;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import info.archinnov.achilles.context.DaoContext;
+import info.archinnov.achilles.context.PersistenceContext;
+import info.archinnov.achilles.context.PersistenceContextFactory;
+import info.archinnov.achilles.entity.EntityMapper;
+import info.archinnov.achilles.entity.metadata.EntityMeta;
+import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.entity.operations.EntityProxifier;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.statement.wrapper.BoundStatementWrapper;
+import info.archinnov.achilles.test.mapping.entity.CompleteBean;
+
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.powermock.reflect.Whitebox;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TokenRangeReaderTest {
+
+	@Mock
+	private EntityMeta meta;
+
+	@Mock
+	private PropertyMeta idMeta;
+
+	@Mock
+	private PreparedStatement rangePs;
+
+	@Mock
+	private PreparedStatement afterPartitionPs;
+
+	@Mock
+	private PreparedStatement partitionPs;
+
+	@Mock
+	private DaoContext daoContext;
+
+	@Mock
+	private PersistenceContextFactory contextFactory;
+
+	@Mock
+	private EntityMapper mapper;
+
+	@Mock
+	private EntityProxifier proxifier;
+
+	private TokenRing ring = new TokenRing("org.apache.cassandra.dht.Murmur3Partitioner", Arrays.asList("0"));
+
+	private TokenRange range = new TokenRange(BigInteger.ZERO, BigInteger.TEN);
+
+	private List<CompleteBean> entities = new ArrayList<CompleteBean>();
+
+	@Before
+	public void setUp() {
+		when(meta.getIdMeta()).thenReturn(idMeta);
+		when(meta.getEagerGetters()).thenReturn(new ArrayList<Method>());
+		when(daoContext.getMetrics()).thenReturn(AchillesMetrics.disabled());
+		when(rangePs.bind(Mockito.<Object> anyVararg())).thenReturn(mock(BoundStatement.class));
+		when(afterPartitionPs.bind(Mockito.<Object> anyVararg())).thenReturn(mock(BoundStatement.class));
+		when(partitionPs.bind(Mockito.<Object> anyVararg())).thenReturn(mock(BoundStatement.class));
+		when(contextFactory.newContext(any())).thenReturn(mock(PersistenceContext.class));
+		when(proxifier.buildProxy(any(), any(PersistenceContext.class), anySetOf(Method.class))).thenAnswer(
+				returnsFirstArg());
+	}
+
+	@Test
+	public void should_read_range_page_by_page() throws Exception {
+		TokenRangeReader<CompleteBean> reader = buildReader(2);
+		prepareEntities(1L, 2L, 3L);
+		when(idMeta.encode(any())).thenAnswer(returnsFirstArg());
+		ResultSet firstPage = resultSet(2);
+		ResultSet secondPage = resultSet(1);
+		when(daoContext.execute(any(BoundStatementWrapper.class))).thenReturn(firstPage, secondPage);
+
+		List<CompleteBean> actual = consume(reader.read(range));
+
+		assertThat(actual).containsExactly(entities.toArray(new CompleteBean[3]));
+		verify(rangePs).bind(0L, 10L);
+		verify(afterPartitionPs).bind(2L, 10L);
+		verifyZeroInteractions(partitionPs);
+	}
+
+	@Test
+	public void should_read_again_trailing_partition_of_clustered_entity() throws Exception {
+		TokenRangeReader<CompleteBean> reader = buildReader(3);
+		when(meta.isClusteredEntity()).thenReturn(true);
+		when(idMeta.isEmbeddedId()).thenReturn(true);
+		when(idMeta.encodeToComponents(any())).thenAnswer(new Answer<List<Object>>() {
+			@Override
+			public List<Object> answer(InvocationOnMock invocation) throws Throwable {
+				return (List<Object>) invocation.getArguments()[0];
+			}
+		});
+		when(idMeta.extractPartitionComponents(Mockito.<List<Object>> any())).thenAnswer(
+				new Answer<List<Object>>() {
+					@Override
+					public List<Object> answer(InvocationOnMock invocation) throws Throwable {
+						List<?> components = (List<?>) invocation.getArguments()[0];
+						return Arrays.<Object> asList(components.get(0));
+					}
+				});
+
+		// first page: A1 B1 B2, B is read again by the second page
+		// second page: B1 B2 B3 fills the page, B is read on its own
+		// partition B: B1 B2 B3 B4
+		// third page: C1
+		prepareEntities(key("A", 1), key("B", 1), key("B", 2), key("B", 1), key("B", 2), key("B", 3), key("B", 1),
+				key("B", 2), key("B", 3), key("B", 4), key("C", 1));
+		ResultSet firstPage = resultSet(3);
+		ResultSet secondPage = resultSet(3);
+		ResultSet partition = resultSet(4);
+		ResultSet thirdPage = resultSet(1);
+		when(daoContext.execute(any(BoundStatementWrapper.class))).thenReturn(firstPage, secondPage, partition,
+				thirdPage);
+
+		List<CompleteBean> actual = consume(reader.read(range));
+
+		assertThat(actual).containsExactly(entities.get(0), entities.get(6), entities.get(7), entities.get(8),
+				entities.get(9), entities.get(10));
+		verify(rangePs).bind(0L, 10L);
+		verify(afterPartitionPs).bind("A", 10L);
+		verify(partitionPs).bind("B");
+		verify(afterPartitionPs).bind("B", 10L);
+	}
+
+	private TokenRangeReader<CompleteBean> buildReader(int pageSize) {
+		TokenRangeReader<CompleteBean> reader = new TokenRangeReader<CompleteBean>(meta, rangePs, afterPartitionPs,
+				partitionPs, ring, ConsistencyLevel.ONE, pageSize, daoContext, contextFactory);
+		Whitebox.setInternalState(reader, EntityMapper.class, mapper);
+		Whitebox.setInternalState(reader, EntityProxifier.class, proxifier);
+		return reader;
+	}
+
+	private void prepareEntities(Object... primaryKeys) {
+		for (Object primaryKey : primaryKeys) {
+			CompleteBean entity = new CompleteBean();
+			when(idMeta.getPrimaryKey(entity)).thenReturn(primaryKey);
+			entities.add(entity);
+		}
+		CompleteBean[] others = entities.subList(1, entities.size()).toArray(new CompleteBean[entities.size() - 1]);
+		when(meta.<CompleteBean> instanciate()).thenReturn(entities.get(0), others);
+	}
+
+	private List<Object> key(Object partition, Object clustering) {
+		return Arrays.asList(partition, clustering);
+	}
+
+	private ResultSet resultSet(int rowCount) {
+		List<Row> rows = new ArrayList<Row>();
+		for (int i = 0; i < rowCount; i++) {
+			rows.add(mock(Row.class));
+		}
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.iterator()).thenReturn(rows.iterator());
+		return resultSet;
+	}
+
+	private List<CompleteBean> consume(Iterator<CompleteBean> iterator) {
+		List<CompleteBean> result = new ArrayList<CompleteBean>();
+		while (iterator.hasNext()) {
+			result.add(iterator.next());
+		}
+		return result;
+	}
+}
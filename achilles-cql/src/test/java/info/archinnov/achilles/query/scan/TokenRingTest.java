@@ -0,0 +1,108 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.query.scan;
+
+import static info.archinnov.achilles.query.scan.TokenRing.MURMUR3_PARTITIONER;
+import static info.archinnov.achilles.query.scan.TokenRing.RANDOM_PARTITIONER;
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.exception.AchillesException;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class TokenRingTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Test
+	public void should_cut_ring_at_each_token() throws Exception {
+		TokenRing ring = new TokenRing(MURMUR3_PARTITIONER, Arrays.asList("100", "-100"));
+
+		List<TokenRange> ranges = ring.split(1);
+
+		assertThat(ranges).containsExactly(range(Long.MIN_VALUE, -100), range(-100, 100),
+				range(100, Long.MAX_VALUE));
+	}
+
+	@Test
+	public void should_split_ranges_evenly() throws Exception {
+		TokenRing ring = new TokenRing(RANDOM_PARTITIONER, Arrays.asList("9"));
+
+		List<TokenRange> ranges = ring.split(4);
+
+		assertThat(ranges).hasSize(4);
+		assertThat(ranges.get(0)).isEqualTo(range(-1, 4));
+		assertThat(ranges.get(1)).isEqualTo(range(4, 9));
+		assertThat(ranges.get(3).getEnd()).isEqualTo(BigInteger.valueOf(2).pow(127));
+	}
+
+	@Test
+	public void should_cover_whole_ring_without_gap() throws Exception {
+		TokenRing ring = new TokenRing(MURMUR3_PARTITIONER, Arrays.asList("-4611686018427387904", "0",
+				"4611686018427387904"));
+
+		List<TokenRange> ranges = ring.split(10);
+
+		assertThat(ranges.size()).isGreaterThanOrEqualTo(10);
+		assertThat(ranges.get(0).getStart()).isEqualTo(BigInteger.valueOf(Long.MIN_VALUE));
+		assertThat(ranges.get(ranges.size() - 1).getEnd()).isEqualTo(BigInteger.valueOf(Long.MAX_VALUE));
+		for (int i = 1; i < ranges.size(); i++) {
+			assertThat(ranges.get(i).getStart()).isEqualTo(ranges.get(i - 1).getEnd());
+		}
+	}
+
+	@Test
+	public void should_not_create_empty_ranges() throws Exception {
+		TokenRing ring = new TokenRing(RANDOM_PARTITIONER, Arrays.asList("0"));
+
+		List<TokenRange> ranges = ring.split(8);
+
+		assertThat(ranges.get(0)).isEqualTo(range(-1, 0));
+	}
+
+	@Test
+	public void should_bind_token_as_long_for_murmur3() throws Exception {
+		TokenRing ring = new TokenRing(MURMUR3_PARTITIONER, Arrays.asList("0"));
+
+		assertThat(ring.toBoundValue(BigInteger.TEN)).isEqualTo(10L);
+	}
+
+	@Test
+	public void should_bind_token_as_varint_for_random_partitioner() throws Exception {
+		TokenRing ring = new TokenRing(RANDOM_PARTITIONER, Arrays.asList("0"));
+
+		assertThat(ring.toBoundValue(BigInteger.TEN)).isEqualTo(BigInteger.TEN);
+	}
+
+	@Test
+	public void should_exception_when_partitioner_not_supported() throws Exception {
+		exception.expect(AchillesException.class);
+		exception.expectMessage("Full table scan is not supported for partitioner 'org.apache.cassandra.dht.ByteOrderedPartitioner'");
+
+		new TokenRing("org.apache.cassandra.dht.ByteOrderedPartitioner", Arrays.asList("0"));
+	}
+
+	private TokenRange range(long start, long end) {
+		return new TokenRange(BigInteger.valueOf(start), BigInteger.valueOf(end));
+	}
+}
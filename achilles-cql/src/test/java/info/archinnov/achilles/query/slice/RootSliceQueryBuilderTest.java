@@ -17,7 +17,10 @@
 package info.archinnov.achilles.query.slice;
 
 import static info.archinnov.achilles.type.BoundingMode.EXCLUSIVE_BOUNDS;
+import static info.archinnov.achilles.type.BoundingMode.INCLUSIVE_BOUNDS;
+import static info.archinnov.achilles.type.BoundingMode.INCLUSIVE_END_BOUND_ONLY;
 import static info.archinnov.achilles.type.ConsistencyLevel.EACH_QUORUM;
+import static info.archinnov.achilles.type.OrderingMode.ASCENDING;
 import static info.archinnov.achilles.type.OrderingMode.DESCENDING;
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Matchers.*;
@@ -27,8 +30,11 @@ import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.entity.operations.SliceQueryExecutor;
 import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.query.CursorCodec;
 import info.archinnov.achilles.query.SliceQuery;
 import info.archinnov.achilles.test.mapping.entity.ClusteredEntity;
+import info.archinnov.achilles.type.Cursor;
+import info.archinnov.achilles.type.Page;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -42,9 +48,13 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 import org.powermock.reflect.Whitebox;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -75,6 +85,12 @@ public class RootSliceQueryBuilderTest {
 	@Mock
 	private Iterator<ClusteredEntity> iterator;
 
+	@Mock
+	private CursorCodec cursorCodec;
+
+	@Captor
+	private ArgumentCaptor<SliceQuery<ClusteredEntity>> sliceQueryCaptor;
+
 	@Before
 	public void setUp() {
 		Whitebox.setInternalState(builder, "sliceQueryExecutor", sliceQueryExecutor);
@@ -82,8 +98,10 @@ public class RootSliceQueryBuilderTest {
 		Whitebox.setInternalState(builder, "meta", meta);
 		Whitebox.setInternalState(builder, "idMeta", idMeta);
 		Whitebox.setInternalState(builder, "partitionComponents", new ArrayList<Object>());
+		Whitebox.setInternalState(builder, "partitionsIn", new ArrayList<List<Object>>());
 		Whitebox.setInternalState(builder, "fromClusterings", new ArrayList<Object>());
 		Whitebox.setInternalState(builder, "toClusterings", new ArrayList<Object>());
+		Whitebox.setInternalState(builder, "cursorCodec", cursorCodec);
 
 		when(meta.getIdMeta()).thenReturn(idMeta);
 		when(meta.getClassName()).thenReturn("entityClass");
@@ -523,4 +541,172 @@ public class RootSliceQueryBuilderTest {
 	private SliceQuery<ClusteredEntity> anySliceQuery() {
 		return Mockito.<SliceQuery<ClusteredEntity>> any();
 	}
+
+	@Test
+	public void should_get_in_partitions() throws Exception {
+		List<List<Object>> partitions = Arrays.asList(Arrays.<Object> asList(10L), Arrays.<Object> asList(11L));
+		ArgumentCaptor<List> sliceQueriesCaptor = ArgumentCaptor.forClass(List.class);
+		when(sliceQueryExecutor.get(sliceQueriesCaptor.capture())).thenReturn(result);
+
+		List<ClusteredEntity> actual = builder.partitionsInInternal(partitions).fromClusteringsInternal("a")
+				.getInPartitions(5);
+
+		assertThat(actual).isSameAs(result);
+		verify(idMeta).validatePartitionComponents(Arrays.<Object> asList(10L));
+		verify(idMeta).validatePartitionComponents(Arrays.<Object> asList(11L));
+
+		List<SliceQuery<ClusteredEntity>> sliceQueries = sliceQueriesCaptor.getValue();
+		assertThat(sliceQueries).hasSize(2);
+		assertThat(sliceQueries.get(0).getPartitionComponents()).containsExactly(10L);
+		assertThat(sliceQueries.get(1).getPartitionComponents()).containsExactly(11L);
+		assertThat(sliceQueries.get(1).getLimit()).isEqualTo(5);
+	}
+
+	@Test
+	public void should_get_iterator_in_partitions_with_batch_size() throws Exception {
+		List<List<Object>> partitions = Arrays.asList(Arrays.<Object> asList(10L), Arrays.<Object> asList(11L));
+		when(sliceQueryExecutor.iterator(Mockito.<List<SliceQuery<ClusteredEntity>>> any())).thenReturn(iterator);
+
+		Iterator<ClusteredEntity> actual = builder.partitionsInInternal(partitions).iteratorInPartitions(7);
+
+		assertThat(actual).isSameAs(iterator);
+		assertThat(Whitebox.getInternalState(builder, "batchSize")).isEqualTo(7);
+	}
+
+	@Test
+	public void should_exception_when_no_partition() throws Exception {
+		exception.expect(AchillesException.class);
+		exception.expectMessage("There should be at least one partition key provided for querying on entity 'entityClass'");
+
+		builder.partitionsInInternal(new ArrayList<List<Object>>());
+	}
+
+	@Test
+	public void should_get_first_page() throws Exception {
+		// Given
+		initPaging();
+		ClusteredEntity entity1 = new ClusteredEntity(), entity2 = new ClusteredEntity();
+		Cursor cursor = new Cursor(Arrays.asList("2", "b"));
+
+		when(sliceQueryExecutor.get(sliceQueryCaptor.capture())).thenReturn(
+				Arrays.asList(entity1, entity2, new ClusteredEntity()));
+		when(cursorCodec.encodeClusterings(idMeta, entity2)).thenReturn(cursor);
+
+		// When
+		Page<ClusteredEntity> page = builder.partitionComponentsInternal(10L).page(2, null);
+
+		// Then
+		assertThat(page.getEntities()).containsExactly(entity1, entity2);
+		assertThat(page.getNextCursor()).isSameAs(cursor);
+		assertThat(sliceQueryCaptor.getValue().getLimit()).isEqualTo(3);
+	}
+
+	@Test
+	public void should_reuse_builder_for_successive_pages() throws Exception {
+		// Given
+		initPaging();
+		ClusteredEntity entity1 = new ClusteredEntity(), entity2 = new ClusteredEntity();
+		Cursor cursor = new Cursor(Arrays.asList("2", "b"));
+
+		when(sliceQueryExecutor.get(sliceQueryCaptor.capture())).thenReturn(Arrays.asList(entity1, entity2));
+		when(cursorCodec.encodeClusterings(idMeta, entity1)).thenReturn(cursor);
+		builder.partitionComponentsInternal(10L);
+
+		// When
+		Page<ClusteredEntity> first = builder.page(1, null);
+		Page<ClusteredEntity> second = builder.page(1, null);
+
+		// Then
+		assertThat(first.getEntities()).containsExactly(entity1);
+		assertThat(second.getEntities()).containsExactly(entity1);
+		assertThat(Whitebox.getInternalState(builder, "limitHasBeenSet")).isEqualTo(false);
+	}
+
+	@Test
+	public void should_resume_page_level_by_level() throws Exception {
+		// Given
+		initPaging();
+		ClusteredEntity entity1 = new ClusteredEntity(), entity2 = new ClusteredEntity();
+		Cursor cursor = new Cursor(Arrays.asList("5", "b"));
+
+		when(cursorCodec.decodeClusterings(idMeta, cursor)).thenReturn(Arrays.<Object> asList(5L, "b"));
+		when(sliceQueryExecutor.get(sliceQueryCaptor.capture())).thenReturn(Arrays.asList(entity1),
+				Arrays.asList(entity2));
+
+		// When
+		Page<ClusteredEntity> page = builder.partitionComponentsInternal(10L).page(2, cursor);
+
+		// Then
+		assertThat(page.getEntities()).containsExactly(entity1, entity2);
+		assertThat(page.hasNextPage()).isFalse();
+
+		List<SliceQuery<ClusteredEntity>> levelQueries = sliceQueryCaptor.getAllValues();
+		assertThat(levelQueries).hasSize(2);
+		assertThat(levelQueries.get(0).getClusteringsFrom()).containsExactly(10L, 5L, "b");
+		assertThat(levelQueries.get(0).getClusteringsTo()).containsExactly(10L, 5L);
+		assertThat(levelQueries.get(0).getBounding()).isEqualTo(EXCLUSIVE_BOUNDS);
+		assertThat(levelQueries.get(0).getLimit()).isEqualTo(3);
+		assertThat(levelQueries.get(1).getClusteringsFrom()).containsExactly(10L, 5L);
+		assertThat(levelQueries.get(1).getClusteringsTo()).containsExactly(10L);
+		assertThat(levelQueries.get(1).getLimit()).isEqualTo(2);
+	}
+
+	@Test
+	public void should_resume_page_up_to_end_bound() throws Exception {
+		// Given
+		initPaging();
+		Whitebox.setInternalState(builder, "toClusterings", Arrays.<Object> asList(9L));
+		Cursor cursor = new Cursor(Arrays.asList("5", "b"));
+
+		when(cursorCodec.decodeClusterings(idMeta, cursor)).thenReturn(Arrays.<Object> asList(5L, "b"));
+		when(sliceQueryExecutor.get(sliceQueryCaptor.capture())).thenReturn(new ArrayList<ClusteredEntity>());
+
+		// When
+		builder.partitionComponentsInternal(10L).page(2, cursor);
+
+		// Then
+		SliceQuery<ClusteredEntity> lastLevelQuery = sliceQueryCaptor.getAllValues().get(1);
+		assertThat(lastLevelQuery.getClusteringsFrom()).containsExactly(10L, 5L);
+		assertThat(lastLevelQuery.getClusteringsTo()).containsExactly(10L, 9L);
+		assertThat(lastLevelQuery.getBounding()).isEqualTo(INCLUSIVE_END_BOUND_ONLY);
+	}
+
+	@Test
+	public void should_stop_resuming_when_end_bound_reached() throws Exception {
+		// Given
+		initPaging();
+		Whitebox.setInternalState(builder, "toClusterings", Arrays.<Object> asList(5L));
+		Cursor cursor = new Cursor(Arrays.asList("5", "b"));
+
+		when(cursorCodec.decodeClusterings(idMeta, cursor)).thenReturn(Arrays.<Object> asList(5L, "b"));
+		when(sliceQueryExecutor.get(sliceQueryCaptor.capture())).thenReturn(new ArrayList<ClusteredEntity>());
+
+		// When
+		Page<ClusteredEntity> page = builder.partitionComponentsInternal(10L).page(2, cursor);
+
+		// Then
+		assertThat(page.getEntities()).isEmpty();
+		assertThat(sliceQueryCaptor.getAllValues()).hasSize(1);
+	}
+
+	@Test
+	public void should_exception_when_limit_set_for_page() throws Exception {
+		initPaging();
+		exception.expect(AchillesException.class);
+		exception.expectMessage("You should not set 'limit' parameter when calling page()");
+
+		builder.partitionComponentsInternal(10L).limit(10).page(10, null);
+	}
+
+	private void initPaging() {
+		Whitebox.setInternalState(builder, "ordering", ASCENDING);
+		Whitebox.setInternalState(builder, "bounding", INCLUSIVE_BOUNDS);
+		doCallRealMethod().when(builder).limit(anyInt());
+		when(idMeta.encodeToComponents(anyListOf(Object.class))).thenAnswer(new Answer<List<Object>>() {
+			@Override
+			public List<Object> answer(InvocationOnMock invocation) throws Throwable {
+				return (List<Object>) invocation.getArguments()[0];
+			}
+		});
+	}
 }
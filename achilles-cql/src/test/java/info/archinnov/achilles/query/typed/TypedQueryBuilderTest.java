@@ -28,9 +28,13 @@ import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
 import info.archinnov.achilles.entity.metadata.PropertyType;
 import info.archinnov.achilles.entity.operations.EntityProxifier;
+import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.proxy.ReflectionInvoker;
 import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
 import info.archinnov.achilles.test.builders.PropertyMetaTestBuilder;
 import info.archinnov.achilles.test.mapping.entity.CompleteBean;
+import info.archinnov.achilles.type.Cursor;
+import info.archinnov.achilles.type.Page;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -40,7 +44,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
@@ -55,6 +61,9 @@ import com.datastax.driver.core.Row;
 @RunWith(MockitoJUnitRunner.class)
 public class TypedQueryBuilderTest {
 
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
 	private TypedQueryBuilder<CompleteBean> builder;
 
 	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
@@ -81,6 +90,9 @@ public class TypedQueryBuilderTest {
 	@Captor
 	private ArgumentCaptor<Set<Method>> alreadyLoadedCaptor;
 
+	@Captor
+	private ArgumentCaptor<AbstractStatementWrapper> statementCaptor;
+
 	private Class<CompleteBean> entityClass = CompleteBean.class;
 
 	private CompleteBean entity = new CompleteBean();
@@ -257,6 +269,110 @@ public class TypedQueryBuilderTest {
 		verifyZeroInteractions(contextFactory, proxifier);
 	}
 
+	@Test
+	public void should_get_first_page_with_next_cursor() throws Exception {
+		// Given
+		PropertyMeta idMeta = PropertyMetaTestBuilder.completeBean(Void.class, Long.class).field("id").type(ID)
+				.accessors().invoker(new ReflectionInvoker()).build();
+		EntityMeta meta = buildEntityMeta(idMeta);
+		meta.setIdMeta(idMeta);
+		initBuilder("select * from test", meta, meta.getPropertyMetas(), false);
+
+		CompleteBean entity1 = new CompleteBean(), entity2 = new CompleteBean();
+		entity1.setId(10L);
+		entity2.setId(11L);
+		Row row1 = mock(Row.class), row2 = mock(Row.class), row3 = mock(Row.class);
+
+		when(daoContext.execute(statementCaptor.capture()).all()).thenReturn(Arrays.asList(row1, row2, row3));
+		when(mapper.mapRowToEntityWithPrimaryKey(eq(meta), eq(row1), Mockito.<Map<String, PropertyMeta>> any(),
+				eq(false))).thenReturn(entity1);
+		when(mapper.mapRowToEntityWithPrimaryKey(eq(meta), eq(row2), Mockito.<Map<String, PropertyMeta>> any(),
+				eq(false))).thenReturn(entity2);
+
+		// When
+		Page<CompleteBean> page = builder.page(2, null);
+
+		// Then
+		assertThat(page.getEntities()).containsExactly(entity1, entity2);
+		assertThat(page.hasNextPage()).isTrue();
+		assertThat(page.getNextCursor().getComponents()).containsExactly("11");
+		assertThat(statementCaptor.getValue().getQueryString()).isEqualTo("select * from test LIMIT 3");
+		verify(mapper, never()).mapRowToEntityWithPrimaryKey(eq(meta), eq(row3),
+				Mockito.<Map<String, PropertyMeta>> any(), eq(false));
+	}
+
+	@Test
+	public void should_get_last_page_from_cursor() throws Exception {
+		// Given
+		PropertyMeta idMeta = PropertyMetaTestBuilder.completeBean(Void.class, Long.class).field("id").type(ID)
+				.accessors().invoker(new ReflectionInvoker()).build();
+		EntityMeta meta = buildEntityMeta(idMeta);
+		meta.setIdMeta(idMeta);
+		initBuilder("select * from test", meta, meta.getPropertyMetas(), false);
+
+		when(daoContext.execute(statementCaptor.capture()).all()).thenReturn(Arrays.asList(row));
+		when(mapper.mapRowToEntityWithPrimaryKey(eq(meta), eq(row), Mockito.<Map<String, PropertyMeta>> any(),
+				eq(false))).thenReturn(entity);
+
+		// When
+		Page<CompleteBean> page = builder.page(2, new Cursor(Arrays.asList("11")));
+
+		// Then
+		assertThat(page.getEntities()).containsExactly(entity);
+		assertThat(page.hasNextPage()).isFalse();
+		assertThat(statementCaptor.getValue().getQueryString()).isEqualTo(
+				"select * from test WHERE token(id)>token(?) LIMIT 3");
+		assertThat(statementCaptor.getValue().getValues()).isEqualTo(new Object[] { "a", 11L });
+	}
+
+	@Test
+	public void should_build_paged_query() throws Exception {
+		// Given
+		PropertyMeta idMeta = PropertyMetaTestBuilder.completeBean(Void.class, Long.class).field("id").type(ID)
+				.build();
+		EntityMeta meta = buildEntityMeta(idMeta);
+		meta.setIdMeta(idMeta);
+
+		// When
+		initBuilder("SELECT * FROM test WHERE name=?;", meta, meta.getPropertyMetas(), true);
+		String indexedQuery = builder.buildPagedQuery(11, true);
+
+		initBuilder("select * from test where age > 10 allow filtering", meta, meta.getPropertyMetas(), true);
+		String filteringQuery = builder.buildPagedQuery(11, false);
+
+		// Then
+		assertThat(indexedQuery).isEqualTo("SELECT * FROM test WHERE name=? AND token(id)>token(?) LIMIT 11");
+		assertThat(filteringQuery).isEqualTo("select * from test where age > 10 LIMIT 11 ALLOW FILTERING");
+	}
+
+	@Test
+	public void should_exception_when_paging_query_with_limit() throws Exception {
+		// Given
+		EntityMeta meta = buildEntityMeta();
+		initBuilder("select * from test limit 10", meta, meta.getPropertyMetas(), true);
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("Typed query 'select * from test limit 10' should not define a LIMIT to be paged");
+
+		// When
+		builder.page(10, null);
+	}
+
+	@Test
+	public void should_exception_when_paging_clustered_entity() throws Exception {
+		// Given
+		EntityMeta meta = buildEntityMeta();
+		meta.setClusteredEntity(true);
+		meta.setClassName("ClusteredEntity");
+		initBuilder("select * from test", meta, meta.getPropertyMetas(), true);
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("Paging typed query is not supported for clustered entity 'ClusteredEntity'");
+
+		// When
+		builder.page(10, null);
+	}
+
 	private EntityMeta buildEntityMeta(PropertyMeta... pms) {
 		EntityMeta meta = new EntityMeta();
 		Map<String, PropertyMeta> propertyMetas = new HashMap<String, PropertyMeta>();
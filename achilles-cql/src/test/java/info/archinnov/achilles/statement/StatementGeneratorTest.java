@@ -107,6 +107,35 @@ public class StatementGeneratorTest {
 		assertThat(statement.getQueryString()).isEqualTo("SELECT id,a,b,age,name,label FROM table;");
 	}
 
+	@Test
+	public void should_create_select_statement_on_token_range() throws Exception {
+		EntityMeta meta = prepareEntityMeta("id");
+
+		RegularStatement statement = generator.generateSelectTokenRange(meta, 100);
+
+		assertThat(statement.getQueryString()).isEqualTo(
+				"SELECT id,age,name,label FROM table WHERE token(id)>? AND token(id)<=? LIMIT 100;");
+	}
+
+	@Test
+	public void should_create_select_statement_on_token_range_after_partition() throws Exception {
+		EntityMeta meta = prepareEntityMeta("id", "a", "b");
+
+		RegularStatement statement = generator.generateSelectTokenRangeAfterPartition(meta, 100);
+
+		assertThat(statement.getQueryString()).isEqualTo(
+				"SELECT id,a,b,age,name,label FROM table WHERE token(id)>token(?) AND token(id)<=? LIMIT 100;");
+	}
+
+	@Test
+	public void should_create_select_statement_on_partition() throws Exception {
+		EntityMeta meta = prepareEntityMeta("id", "a", "b");
+
+		RegularStatement statement = generator.generateSelectPartition(meta);
+
+		assertThat(statement.getQueryString()).isEqualTo("SELECT id,a,b,age,name,label FROM table WHERE id=?;");
+	}
+
 	@Test
 	public void should_generate_slice_select_query() throws Exception {
 		EntityMeta meta = prepareEntityMeta("id", "comp1", "comp2");
@@ -151,6 +151,30 @@ public class CacheManagerTest {
 		assertThat(cacheKey.getFields()).containsOnly("name", "age");
 	}
 
+	@Test
+	public void should_generate_insert_prepared_statement_when_not_found_in_cache() throws Exception {
+		EntityMeta meta = new EntityMeta();
+		meta.setTableName("table");
+
+		PropertyMeta nameMeta = PropertyMetaTestBuilder.completeBean(Void.class, String.class).field("name")
+				.type(PropertyType.SIMPLE).build();
+
+		List<PropertyMeta> pms = Arrays.asList(nameMeta);
+
+		when(context.<CompleteBean> getEntityClass()).thenReturn(CompleteBean.class);
+		when(context.getEntityMeta()).thenReturn(meta);
+		when(cache.getIfPresent(cacheKeyCaptor.capture())).thenReturn(null);
+		when(generator.prepareInsertPS(session, meta, pms)).thenReturn(ps);
+
+		PreparedStatement actual = manager.getCacheForFieldsInsert(session, cache, context, pms);
+
+		assertThat(actual).isSameAs(ps);
+		StatementCacheKey cacheKey = cacheKeyCaptor.getValue();
+		assertThat(cacheKey.getType()).isEqualTo(CacheType.INSERT_FIELDS);
+		assertThat(cacheKey.getFields()).containsOnly("name");
+		verify(cache).put(cacheKey, ps);
+	}
+
 	@Test
 	public void should_generate_update_prepared_statement_when_not_found_in_cache() throws Exception {
 		EntityMeta meta = new EntityMeta();
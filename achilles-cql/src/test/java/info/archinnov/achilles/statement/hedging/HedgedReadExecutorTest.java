@@ -0,0 +1,169 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.statement.hedging;
+
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.FIND;
+import static info.archinnov.achilles.metrics.AchillesMetrics.Operation.SLICE;
+import static info.archinnov.achilles.statement.hedging.HedgedReadExecutor.MIN_SAMPLES;
+import static info.archinnov.achilles.statement.hedging.HedgedReadExecutor.NO_HEDGING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.*;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.test.mapping.entity.CompleteBean;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.google.common.base.Supplier;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HedgedReadExecutorTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Mock
+	private AchillesMetrics metrics;
+
+	@Mock
+	private Supplier<ResultSetFuture> attempt;
+
+	@Mock
+	private ResultSetFuture first;
+
+	@Mock
+	private ResultSetFuture second;
+
+	@Mock
+	private ResultSet resultSet;
+
+	private HedgedReadExecutor executor;
+
+	@Before
+	public void setUp() {
+		executor = new HedgedReadExecutor(0.95, 5, metrics);
+		when(attempt.get()).thenReturn(first, second);
+	}
+
+	@Test
+	public void should_execute_single_attempt_when_disabled() throws Exception {
+		when(first.getUninterruptibly()).thenReturn(resultSet);
+
+		ResultSet actual = HedgedReadExecutor.disabled().execute(CompleteBean.class, FIND, attempt);
+
+		assertThat(actual).isSameAs(resultSet);
+		verify(attempt).get();
+	}
+
+	@Test
+	public void should_not_hedge_before_enough_latencies_are_known() throws Exception {
+		when(first.getUninterruptibly()).thenReturn(resultSet);
+
+		ResultSet actual = executor.execute(CompleteBean.class, FIND, attempt);
+
+		assertThat(actual).isSameAs(resultSet);
+		assertThat(executor.getDelayInNanos(CompleteBean.class, FIND)).isEqualTo(NO_HEDGING);
+		verify(attempt).get();
+	}
+
+	@Test
+	public void should_compute_delay_from_percentile_with_lower_bound() throws Exception {
+		when(attempt.get()).thenReturn(first);
+		when(first.getUninterruptibly()).thenReturn(resultSet);
+		when(first.getUninterruptibly(anyLong(), any(TimeUnit.class))).thenReturn(resultSet);
+
+		for (int i = 0; i < MIN_SAMPLES; i++) {
+			executor.execute(CompleteBean.class, FIND, attempt);
+		}
+
+		assertThat(executor.getDelayInNanos(CompleteBean.class, FIND)).isEqualTo(MILLISECONDS.toNanos(5));
+		assertThat(executor.getHedgeCount()).isEqualTo(0L);
+	}
+
+	@Test
+	public void should_track_delay_per_entity_class_and_operation() throws Exception {
+		when(attempt.get()).thenReturn(first);
+		when(first.getUninterruptibly()).thenReturn(resultSet);
+		when(first.getUninterruptibly(anyLong(), any(TimeUnit.class))).thenReturn(resultSet);
+
+		for (int i = 0; i < MIN_SAMPLES; i++) {
+			executor.execute(CompleteBean.class, FIND, attempt);
+		}
+
+		assertThat(executor.getDelayInNanos(CompleteBean.class, FIND)).isEqualTo(MILLISECONDS.toNanos(5));
+		assertThat(executor.getDelayInNanos(CompleteBean.class, SLICE)).isEqualTo(NO_HEDGING);
+		assertThat(executor.getDelayInNanos(String.class, FIND)).isEqualTo(NO_HEDGING);
+	}
+
+	@Test
+	public void should_return_hedged_response_when_first_attempt_is_slow() throws Exception {
+		executor.latencyTracker(CompleteBean.class, FIND).delayInNanos = MILLISECONDS.toNanos(1);
+		when(first.getUninterruptibly(anyLong(), any(TimeUnit.class))).thenThrow(new TimeoutException());
+		completeImmediately(second);
+		when(second.get()).thenReturn(resultSet);
+
+		ResultSet actual = executor.execute(CompleteBean.class, FIND, attempt);
+
+		assertThat(actual).isSameAs(resultSet);
+		assertThat(executor.getHedgeCount()).isEqualTo(1L);
+		assertThat(executor.getHedgeWinCount()).isEqualTo(1L);
+		verify(metrics).markHedgedRead(CompleteBean.class, true);
+		verify(first).cancel(true);
+	}
+
+	@Test
+	public void should_throw_last_failure_when_both_attempts_fail() throws Exception {
+		executor.latencyTracker(CompleteBean.class, FIND).delayInNanos = MILLISECONDS.toNanos(1);
+		when(first.getUninterruptibly(anyLong(), any(TimeUnit.class))).thenThrow(new TimeoutException());
+		completeImmediately(first);
+		completeImmediately(second);
+		when(first.get()).thenThrow(new ExecutionException(new IllegalStateException("first")));
+		when(second.get()).thenThrow(new ExecutionException(new IllegalStateException("second")));
+
+		exception.expect(IllegalStateException.class);
+		exception.expectMessage("second");
+
+		executor.execute(CompleteBean.class, FIND, attempt);
+	}
+
+	private void completeImmediately(ResultSetFuture future) {
+		doAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				((Runnable) invocation.getArguments()[0]).run();
+				return null;
+			}
+		}).when(future).addListener(any(Runnable.class), any(Executor.class));
+	}
+}
@@ -50,6 +50,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.policies.FallthroughRetryPolicy;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
@@ -253,6 +254,7 @@ public class PreparedStatementBinderTest {
 
 		verify(bs).setConsistencyLevel(ConsistencyLevel.ALL);
 		assertThat(Arrays.asList(actual.getValues())).containsExactly(0,name, age, primaryKey);
+		verify(ps).bind(actual.getValues());
 	}
 
 	@Test
@@ -280,6 +282,8 @@ public class PreparedStatementBinderTest {
 		verify(bs).setConsistencyLevel(ConsistencyLevel.ALL);
 		assertThat(Arrays.asList(actual.getValues())).containsExactly(counter, "CompleteBean", primaryKey.toString(),
 				"counter");
+		assertThat(actual.isIdempotent()).isFalse();
+		verify(bs).setRetryPolicy(FallthroughRetryPolicy.INSTANCE);
 	}
 
 	@Test
@@ -349,7 +353,7 @@ public class PreparedStatementBinderTest {
 
 		verify(bs).setConsistencyLevel(ConsistencyLevel.ALL);
 		assertThat(Arrays.asList(actual.getValues())).containsExactly(counter, primaryKey);
-
+		assertThat(actual.isIdempotent()).isFalse();
 	}
 
 	@Test
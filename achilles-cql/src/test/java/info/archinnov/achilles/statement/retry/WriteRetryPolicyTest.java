@@ -0,0 +1,87 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.statement.retry;
+
+import static info.archinnov.achilles.statement.retry.WriteRetryPolicy.MAX_BACKOFF_IN_MILLIS;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.WriteType;
+import com.datastax.driver.core.exceptions.ReadTimeoutException;
+import com.datastax.driver.core.exceptions.UnavailableException;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WriteRetryPolicyTest {
+
+	@Mock
+	private AbstractStatementWrapper statementWrapper;
+
+	private WriteRetryPolicy retryPolicy = new WriteRetryPolicy(2, 50);
+
+	@Test
+	public void should_retry_idempotent_write_on_timeout_and_unavailable() throws Exception {
+		when(statementWrapper.isIdempotent()).thenReturn(true);
+
+		assertThat(retryPolicy.shouldRetry(statementWrapper, writeTimeout(WriteType.SIMPLE), 0)).isTrue();
+		assertThat(retryPolicy.shouldRetry(statementWrapper, writeTimeout(WriteType.BATCH), 1)).isTrue();
+		assertThat(retryPolicy.shouldRetry(statementWrapper, new UnavailableException(ConsistencyLevel.ONE, 1, 0), 0))
+				.isTrue();
+	}
+
+	@Test
+	public void should_not_retry_beyond_max_retries_or_on_other_failures() throws Exception {
+		when(statementWrapper.isIdempotent()).thenReturn(true);
+
+		assertThat(retryPolicy.shouldRetry(statementWrapper, writeTimeout(WriteType.SIMPLE), 2)).isFalse();
+		assertThat(retryPolicy.shouldRetry(statementWrapper, writeTimeout(WriteType.COUNTER), 0)).isFalse();
+		assertThat(
+				retryPolicy.shouldRetry(statementWrapper, new ReadTimeoutException(ConsistencyLevel.ONE, 1, 0, false),
+						0)).isFalse();
+	}
+
+	@Test
+	public void should_never_retry_non_idempotent_write() throws Exception {
+		when(statementWrapper.isIdempotent()).thenReturn(false);
+
+		assertThat(retryPolicy.shouldRetry(statementWrapper, writeTimeout(WriteType.SIMPLE), 0)).isFalse();
+	}
+
+	@Test
+	public void should_double_backoff_up_to_max() throws Exception {
+		assertThat(retryPolicy.backoffInMillis(0)).isEqualTo(50L);
+		assertThat(retryPolicy.backoffInMillis(1)).isEqualTo(100L);
+		assertThat(retryPolicy.backoffInMillis(3)).isEqualTo(400L);
+		assertThat(retryPolicy.backoffInMillis(40)).isEqualTo(MAX_BACKOFF_IN_MILLIS);
+	}
+
+	@Test
+	public void should_be_disabled_by_default() throws Exception {
+		assertThat(WriteRetryPolicy.disabled().isEnabled()).isFalse();
+	}
+
+	private WriteTimeoutException writeTimeout(WriteType writeType) {
+		return new WriteTimeoutException(ConsistencyLevel.ONE, writeType, 1, 0);
+	}
+}
@@ -0,0 +1,123 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.statement.slowlog;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import info.archinnov.achilles.statement.wrapper.SimpleStatementWrapper;
+import info.archinnov.achilles.test.mapping.entity.CompleteBean;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.datastax.driver.core.ResultSet;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SlowStatementTrackerTest {
+
+	@Mock
+	private SlowStatementListener listener;
+
+	@Mock
+	private ResultSet resultSet;
+
+	@Captor
+	private ArgumentCaptor<SlowStatementRecord> recordCaptor;
+
+	@Test
+	public void should_notify_listener_for_slow_statement() throws Exception {
+		// Given
+		SlowStatementTracker tracker = new SlowStatementTracker(10, 1.0,
+				Arrays.<SlowStatementListener> asList(listener));
+		SimpleStatementWrapper wrapper = new SimpleStatementWrapper(CompleteBean.class,
+				"SELECT * FROM CompleteBean WHERE id=?", new Object[] { 10L });
+		when(resultSet.getAvailableWithoutFetching()).thenReturn(3);
+
+		// When
+		tracker.track(wrapper, TimeUnit.MILLISECONDS.toNanos(25), resultSet);
+
+		// Then
+		verify(listener).onSlowStatement(recordCaptor.capture());
+		SlowStatementRecord record = recordCaptor.getValue();
+		assertThat(record.getEntityClass()).isSameAs((Class) CompleteBean.class);
+		assertThat(record.getQueryType()).isEqualTo("Simple statement");
+		assertThat(record.getQueryShape()).isEqualTo("SELECT * FROM CompleteBean WHERE id=?");
+		assertThat(record.getConsistencyLevel()).isEqualTo("DEFAULT");
+		assertThat(record.getLatencyInMillis()).isEqualTo(25L);
+		assertThat(record.getRowCount()).isEqualTo(3);
+		assertThat(record.getRedactedValues()).containsExactly("<Long>");
+	}
+
+	@Test
+	public void should_not_notify_listener_below_threshold() throws Exception {
+		// Given
+		SlowStatementTracker tracker = new SlowStatementTracker(10, 1.0,
+				Arrays.<SlowStatementListener> asList(listener));
+		SimpleStatementWrapper wrapper = new SimpleStatementWrapper("SELECT * FROM table", new Object[] {});
+
+		// When
+		tracker.track(wrapper, TimeUnit.MILLISECONDS.toNanos(5), resultSet);
+
+		// Then
+		verify(listener, never()).onSlowStatement(any(SlowStatementRecord.class));
+	}
+
+	@Test
+	public void should_not_notify_listener_when_disabled() throws Exception {
+		// Given
+		SlowStatementTracker tracker = SlowStatementTracker.disabled();
+		SimpleStatementWrapper wrapper = new SimpleStatementWrapper("SELECT * FROM table", new Object[] {});
+
+		// When
+		tracker.track(wrapper, TimeUnit.SECONDS.toNanos(5), resultSet);
+
+		// Then
+		assertThat(tracker.isEnabled()).isFalse();
+		assertThat(tracker.getListeners()).isEmpty();
+	}
+
+	@Test
+	public void should_redact_literals_from_query() throws Exception {
+		// Given
+		String query = "SELECT * FROM ks.table1 WHERE id=10 AND name='it''s' AND uuid=0b4c4b80-3e1f-11e3-aa6e-0800200c9a66 "
+				+ "AND data=0xCAFE AND ratio>=-1.5e3 LIMIT 100";
+
+		// When
+		String shape = SlowStatementTracker.redactQuery(query);
+
+		// Then
+		assertThat(shape).isEqualTo(
+				"SELECT * FROM ks.table1 WHERE id=? AND name=? AND uuid=? AND data=? AND ratio>=? LIMIT ?");
+	}
+
+	@Test
+	public void should_redact_values() throws Exception {
+		assertThat(SlowStatementTracker.redactValues(new Object[] { "secret", null, 12 })).containsExactly(
+				"<String>", "null", "<Integer>");
+	}
+}
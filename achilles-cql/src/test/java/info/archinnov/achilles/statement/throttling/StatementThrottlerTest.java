@@ -0,0 +1,88 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.statement.throttling;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
+import info.archinnov.achilles.metrics.AchillesMetrics;
+import info.archinnov.achilles.statement.throttling.StatementThrottler.Permit;
+import info.archinnov.achilles.test.mapping.entity.CompleteBean;
+import info.archinnov.achilles.test.mapping.entity.UserBean;
+import info.archinnov.achilles.type.ThrottlingScope;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StatementThrottlerTest {
+
+	@Mock
+	private AchillesMetrics metrics;
+
+	@Test
+	public void should_not_throttle_when_disabled() throws Exception {
+		StatementThrottler throttler = StatementThrottler.disabled();
+
+		assertThat(throttler.isEnabled()).isFalse();
+		assertThat(throttler.acquire(CompleteBean.class, "ONE")).isNull();
+	}
+
+	@Test
+	public void should_limit_in_flight_statements() throws Exception {
+		StatementThrottler throttler = new StatementThrottler(0, 2, ThrottlingScope.GLOBAL, metrics);
+
+		Permit permit = throttler.acquire(CompleteBean.class, "ONE");
+		throttler.acquire(UserBean.class, "QUORUM");
+		assertThat(permit.availableInFlight()).isEqualTo(0);
+
+		throttler.release(permit);
+		assertThat(permit.availableInFlight()).isEqualTo(1);
+		verify(metrics).markThrottleWait(eq(CompleteBean.class), anyLong());
+	}
+
+	@Test
+	public void should_share_permits_by_scope() throws Exception {
+		StatementThrottler global = new StatementThrottler(0, 2, ThrottlingScope.GLOBAL, metrics);
+		StatementThrottler byEntity = new StatementThrottler(0, 2, ThrottlingScope.ENTITY, metrics);
+		StatementThrottler byLevel = new StatementThrottler(0, 2, ThrottlingScope.CONSISTENCY_LEVEL, metrics);
+
+		assertThat(global.getPermit(CompleteBean.class, "ONE")).isSameAs(global.getPermit(UserBean.class, "ALL"));
+		assertThat(byEntity.getPermit(CompleteBean.class, "ONE")).isSameAs(
+				byEntity.getPermit(CompleteBean.class, "ALL"));
+		assertThat(byEntity.getPermit(CompleteBean.class, "ONE")).isNotSameAs(byEntity.getPermit(null, "ONE"));
+		assertThat(byLevel.getPermit(CompleteBean.class, "ONE")).isSameAs(byLevel.getPermit(UserBean.class, "ONE"));
+		assertThat(byLevel.getPermit(CompleteBean.class, "ONE"))
+				.isNotSameAs(byLevel.getPermit(CompleteBean.class, "ALL"));
+	}
+
+	@Test
+	public void should_limit_rate() throws Exception {
+		StatementThrottler throttler = new StatementThrottler(20, 0, ThrottlingScope.GLOBAL, metrics);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 5; i++) {
+			throttler.release(throttler.acquire(CompleteBean.class, "ONE"));
+		}
+		long elapsedInMillis = (System.nanoTime() - start) / 1000000;
+
+		assertThat(elapsedInMillis).isGreaterThanOrEqualTo(150L);
+	}
+}
@@ -31,7 +31,7 @@ public class SimpleStatementWrapperTest {
         wrapper.execute(session);
 
         //Then
-        verify(session).execute("SELECT",values);
+        verify(session).execute(wrapper.getStatement());
     }
 
     @Test
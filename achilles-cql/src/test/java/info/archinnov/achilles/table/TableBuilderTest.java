@@ -19,6 +19,7 @@ package info.archinnov.achilles.table;
 import static org.fest.assertions.api.Assertions.assertThat;
 import info.archinnov.achilles.entity.metadata.IndexProperties;
 import info.archinnov.achilles.entity.metadata.PropertyType;
+import info.archinnov.achilles.entity.metadata.TableProperties;
 import info.archinnov.achilles.test.mapping.entity.UserBean;
 import info.archinnov.achilles.type.Counter;
 
@@ -26,6 +27,8 @@ import java.util.Collection;
 
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableMap;
+
 public class TableBuilderTest {
 
 	@Test
@@ -55,6 +58,25 @@ public class TableBuilderTest {
 
 	}
 
+	@Test
+	public void should_build_table_with_table_options() throws Exception {
+		TableProperties tableProperties = new TableProperties("LeveledCompactionStrategy", ImmutableMap.of(
+				"sstable_size_in_mb", "160"), "LZ4Compressor", 16, "keys_only", 0.01, 3600, 86400);
+
+		String ddlScript = TableBuilder.createTable("tableName").addColumn("longCol", Long.class)
+				.addColumn("name", String.class).addPartitionComponent("longCol")
+				.addComment("This is a comment for 'tableName'").addTableProperties(tableProperties)
+				.generateDDLScript();
+
+		assertThat(ddlScript).isEqualTo(
+				"\n\tCREATE TABLE tableName(\n" + "\t\tlongCol bigint,\n" + "\t\tname text,\n"
+						+ "\t\tPRIMARY KEY(longCol)\n" + "\t) WITH COMMENT = 'This is a comment for \"tableName\"'"
+						+ " AND compaction = {'class': 'LeveledCompactionStrategy', 'sstable_size_in_mb': '160'}"
+						+ " AND compression = {'sstable_compression': 'LZ4Compressor', 'chunk_length_kb': '16'}"
+						+ " AND caching = 'keys_only' AND bloom_filter_fp_chance = 0.01"
+						+ " AND gc_grace_seconds = 3600 AND default_time_to_live = 86400");
+	}
+
 	@Test
 	public void should_generate_indices_scripts() throws Exception {
 		Collection<String> indicesScript = TableBuilder.createTable("tableName").addColumn("longCol", Long.class)
@@ -19,16 +19,19 @@ package info.archinnov.achilles.table;
 import static com.datastax.driver.core.DataType.*;
 import static info.archinnov.achilles.counter.AchillesCounter.*;
 import static info.archinnov.achilles.entity.metadata.PropertyType.*;
+import static org.fest.assertions.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import info.archinnov.achilles.entity.metadata.EntityMeta;
 import info.archinnov.achilles.entity.metadata.IndexProperties;
 import info.archinnov.achilles.entity.metadata.PropertyMeta;
+import info.archinnov.achilles.entity.metadata.TableProperties;
 import info.archinnov.achilles.exception.AchillesBeanMappingException;
 import info.archinnov.achilles.exception.AchillesInvalidTableException;
 import info.archinnov.achilles.test.builders.PropertyMetaTestBuilder;
 import info.archinnov.achilles.test.parser.entity.EmbeddedKey;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.Before;
@@ -48,6 +51,7 @@ import com.datastax.driver.core.ColumnMetadata.IndexMetadata;
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.KeyspaceMetadata;
 import com.datastax.driver.core.TableMetadata;
+import com.datastax.driver.core.TableMetadata.Options;
 import com.google.common.collect.ImmutableMap;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -292,6 +296,46 @@ public class TableValidatorTest {
 		validator.validateForEntity(entityMeta, tableMetaData);
 	}
 
+	@Test
+	public void should_find_no_drift_when_table_options_match() throws Exception {
+		TableProperties tableProperties = new TableProperties("LeveledCompactionStrategy",
+				ImmutableMap.of("sstable_size_in_mb", "160"), "LZ4Compressor", 16, "keys_only", 0.01, 3600, null);
+
+		Options options = mock(Options.class);
+		when(tableMetaData.getOptions()).thenReturn(options);
+		when(options.getCompaction()).thenReturn(
+				ImmutableMap.of("class", "org.apache.cassandra.db.compaction.LeveledCompactionStrategy",
+						"sstable_size_in_mb", "160"));
+		when(options.getCompression()).thenReturn(
+				ImmutableMap.of("sstable_compression", "org.apache.cassandra.io.compress.LZ4Compressor",
+						"chunk_length_kb", "16"));
+		when(options.getCaching()).thenReturn("KEYS_ONLY");
+		when(options.getBloomFilterFalsePositiveChance()).thenReturn(0.01);
+		when(options.getGcGraceInSeconds()).thenReturn(3600);
+
+		assertThat(validator.findTablePropertiesDrift(tableProperties, tableMetaData)).isEmpty();
+	}
+
+	@Test
+	public void should_report_drift_of_table_options() throws Exception {
+		TableProperties tableProperties = new TableProperties("LeveledCompactionStrategy",
+				ImmutableMap.<String, String> of(), null, null, null, null, 3600, 60);
+
+		Options options = mock(Options.class);
+		when(tableMetaData.getName()).thenReturn("table");
+		when(tableMetaData.getOptions()).thenReturn(options);
+		when(options.getCompaction()).thenReturn(
+				ImmutableMap.of("class", "org.apache.cassandra.db.compaction.SizeTieredCompactionStrategy"));
+		when(options.getGcGraceInSeconds()).thenReturn(864000);
+		when(options.getDefaultTimeToLive()).thenReturn(60);
+
+		List<String> drifts = validator.findTablePropertiesDrift(tableProperties, tableMetaData);
+
+		assertThat(drifts).containsExactly(
+				"Table 'table' has compaction 'org.apache.cassandra.db.compaction.SizeTieredCompactionStrategy' whereas entity metadata declares 'LeveledCompactionStrategy'",
+				"Table 'table' has gc_grace_seconds '864000' whereas entity metadata declares '3600'");
+	}
+
 	@Test
 	public void should_validate_achilles_counter() throws Exception {
 		KeyspaceMetadata keyspaceMeta = mock(KeyspaceMetadata.class);
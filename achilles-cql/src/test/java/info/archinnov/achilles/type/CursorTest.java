@@ -0,0 +1,73 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.type;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.exception.AchillesException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class CursorTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Test
+	public void should_convert_to_token_and_back() throws Exception {
+		// Given
+		Cursor cursor = new Cursor(Arrays.asList("10", "name,\"1\""));
+
+		// When
+		Cursor actual = Cursor.fromToken(cursor.toToken());
+
+		// Then
+		assertThat(actual).isEqualTo(cursor);
+		assertThat(actual.getComponents()).containsExactly("10", "name,\"1\"");
+	}
+
+	@Test
+	public void should_be_serializable() throws Exception {
+		// Given
+		Cursor cursor = new Cursor(Arrays.asList("10", "name"));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		// When
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(cursor);
+		out.close();
+		Object actual = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+		// Then
+		assertThat(actual).isEqualTo(cursor);
+	}
+
+	@Test
+	public void should_exception_when_invalid_token() throws Exception {
+		exception.expect(AchillesException.class);
+		exception.expectMessage("Cannot read cursor from token 'not a token'");
+
+		Cursor.fromToken("not a token");
+	}
+}
@@ -3,7 +3,14 @@ package info.archinnov.achilles.utils;
 import static org.fest.assertions.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Collections;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -21,4 +28,39 @@ public class UUIDGenTest {
             timestampInMicros = newTimestampInMicros;
         }
     }
+
+    @Test
+    public void should_generate_unique_time_uuids_across_threads() throws Exception {
+        final int threads = 8;
+        final int uuidsPerThread = 10000;
+        final Set<UUID> uuids = Collections.newSetFromMap(new ConcurrentHashMap<UUID, Boolean>());
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    UUID previous = UUIDGen.getTimeUUID();
+                    uuids.add(previous);
+                    for (int j = 1; j < uuidsPerThread; j++) {
+                        UUID uuid = UUIDGen.getTimeUUID();
+                        if (uuid.timestamp() > previous.timestamp()) {
+                            uuids.add(uuid);
+                        }
+                        previous = uuid;
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        assertThat(uuids).hasSize(threads * uuidsPerThread);
+    }
 }
@@ -104,6 +104,32 @@ public class CassandraConfig {
 		// Tuning for perf
 		config.memtable_total_space_in_mb = 64;
 		config.commitlog_total_space_in_mb = 32;
+
+		if (parameters.get(TEST_PROFILE) == TestProfile.FAST) {
+			applyFastProfile();
+		}
+	}
+
+	private void applyFastProfile() {
+		log.info(" Embedded Cassandra tuned with the FAST test profile");
+		config.auto_snapshot = false;
+		config.hinted_handoff_enabled = false;
+		config.concurrent_reads = 4;
+		config.concurrent_writes = 4;
+		config.concurrent_replicates = 2;
+		config.concurrent_compactors = 1;
+		config.memtable_flush_writers = 1;
+		config.memtable_flush_queue_size = 2;
+		config.memtable_total_space_in_mb = 16;
+		config.rpc_min_threads = 1;
+		config.rpc_max_threads = 16;
+		config.native_transport_max_threads = 16;
+		config.commitlog_segment_size_in_mb = 4;
+		config.commitlog_total_space_in_mb = 8;
+		config.key_cache_size_in_mb = 1L;
+		config.compaction_throughput_mb_per_sec = 0;
+		config.compaction_preheat_key_cache = false;
+		config.internode_compression = InternodeCompression.none;
 	}
 
 	private void updateWithHomePath() {
@@ -43,6 +43,8 @@ public class CassandraEmbeddedConfigParameters {
 
 	public static final String BUILD_NATIVE_SESSION_ONLY = "buildNativeSessionOnly";
 
+	public static final String TEST_PROFILE = "testProfile";
+
 	/*
 	 * Default values
 	 */
@@ -83,6 +85,10 @@ public class CassandraEmbeddedConfigParameters {
 		defaultParams.put(KEYSPACE_NAME, DEFAULT_CASSANDRA_EMBEDDED_KEYSPACE_NAME);
 		defaultParams.put(KEYSPACE_DURABLE_WRITE, DEFAULT_CASSANDRA_EMBEDDED_KEYSPACE_DURABLE_WRITE);
 		defaultParams.put(BUILD_NATIVE_SESSION_ONLY, false);
+		defaultParams.put(TEST_PROFILE, TestProfile.DEFAULT);
+		if (parameters.get(TEST_PROFILE) == TestProfile.FAST) {
+			defaultParams.put(KEYSPACE_DURABLE_WRITE, false);
+		}
 		defaultParams.putAll(parameters);
 
 		return defaultParams;
@@ -38,6 +38,7 @@ import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters
 import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.KEYSPACE_DURABLE_WRITE;
 import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.KEYSPACE_NAME;
 import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.SAVED_CACHES_FOLDER;
+import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.TEST_PROFILE;
 import static info.archinnov.achilles.embedded.CassandraEmbeddedServerStarter.CASSANDRA_EMBEDDED;
 import static info.archinnov.achilles.statement.wrapper.AbstractStatementWrapper.ACHILLES_DML_STATEMENT;
 import info.archinnov.achilles.entity.manager.PersistenceManager;
@@ -47,11 +48,15 @@ import info.archinnov.achilles.interceptor.EventInterceptor;
 import info.archinnov.achilles.validation.Validator;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
+import org.apache.cassandra.service.StorageService;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
@@ -73,6 +78,10 @@ public class CassandraEmbeddedServer {
 
 	private static final Pattern KEYSPACE_NAME_PATTERN = Pattern.compile("[a-zA-Z][_a-zA-Z0-9]{0,31}");
 
+	private static final String TMPFS_FOLDER = "/dev/shm";
+
+	private static final long CASSANDRA_DRAIN_TIMEOUT_IN_SECONDS = 60;
+
 	private static final Object SEMAPHORE = new Object();
 
 	private static int cqlPort;
@@ -83,11 +92,11 @@ public class CassandraEmbeddedServer {
 
 	private static final Map<String, Boolean> KEYSPACE_BOOTSTRAP_MAP = new HashMap<String, Boolean>();
 
-	private static final Map<String, Session> SESSIONS_MAP = new HashMap<String, Session>();
+	private static final Map<String, Session> SESSIONS_MAP = new ConcurrentHashMap<String, Session>();
 
-	private static final Map<String, PersistenceManagerFactory> FACTORIES_MAP = new HashMap<String, PersistenceManagerFactory>();
+	private static final Map<String, PersistenceManagerFactory> FACTORIES_MAP = new ConcurrentHashMap<String, PersistenceManagerFactory>();
 
-	private static final Map<String, PersistenceManager> MANAGERS_MAP = new HashMap<String, PersistenceManager>();
+	private static final Map<String, PersistenceManager> MANAGERS_MAP = new ConcurrentHashMap<String, PersistenceManager>();
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(CassandraEmbeddedServer.class);
 
@@ -246,6 +255,9 @@ public class CassandraEmbeddedServer {
 		String cassandraHost = System.getProperty(CASSANDRA_HOST);
 		if (StringUtils.isBlank(cassandraHost)) {
 
+			if (parameters.get(TEST_PROFILE) == TestProfile.FAST) {
+				useTmpfsFoldersIfAvailable(parameters);
+			}
 			validateDataFolders(parameters);
 			cleanCassandraDataFiles(parameters);
 			cleanCassandraConfigFile(parameters);
@@ -284,6 +296,65 @@ public class CassandraEmbeddedServer {
 
 	}
 
+	/**
+	 * Move the default data, commit log and saved caches folders to tmpfs.
+	 * The folder name depends on the user and the working directory so that
+	 * data survive across runs when data files are not cleaned at startup.
+	 * Otherwise the folders are deleted on JVM shutdown to free the memory
+	 */
+	private void useTmpfsFoldersIfAvailable(Map<String, Object> parameters) {
+		File tmpfs = new File(TMPFS_FOLDER);
+		if (tmpfs.isDirectory() && tmpfs.canWrite()) {
+			String workingDirHash = Integer.toHexString(new File("").getAbsolutePath().hashCode());
+			File root = new File(tmpfs, "achilles_" + System.getProperty("user.name") + "_" + workingDirHash);
+			if ((Boolean) parameters.get(CLEAN_CASSANDRA_DATA_FILES)) {
+				deleteOnShutdown(root);
+			}
+			for (String folderParameter : Arrays.asList(DATA_FILE_FOLDER, COMMIT_LOG_FOLDER, SAVED_CACHES_FOLDER)) {
+				String folderPath = (String) parameters.get(folderParameter);
+				if (DEFAULT_ACHILLES_TEST_FOLDERS.contains(folderPath)) {
+					File tmpfsFolder = new File(root, new File(folderPath).getName());
+					tmpfsFolder.mkdirs();
+					log.info(" Embedded Cassandra folder '{}' moved to tmpfs '{}'", folderPath,
+							tmpfsFolder.getAbsolutePath());
+					parameters.put(folderParameter, tmpfsFolder.getAbsolutePath());
+				}
+			}
+		} else {
+			log.debug(" No tmpfs mount found at '{}', keeping default data folders", TMPFS_FOLDER);
+		}
+	}
+
+	/**
+	 * Shutdown hooks run concurrently. Cassandra is drained before deleting
+	 * the folder so that the memtables are flushed first, otherwise the flush
+	 * never completes and the JVM hangs on exit. Cassandra's own shutdown hook
+	 * drains too and whichever comes second fails early, so the folder is only
+	 * deleted once the task executor, shut down last by both, has terminated
+	 */
+	private void deleteOnShutdown(final File folder) {
+		Runtime.getRuntime().addShutdownHook(new Thread("achilles-tmpfs-cleanup") {
+			@Override
+			public void run() {
+				try {
+					StorageService.instance.drain();
+				} catch (Throwable throwable) {
+					log.debug(" Embedded Cassandra already draining", throwable);
+				}
+				try {
+					if (!StorageService.tasks.awaitTermination(CASSANDRA_DRAIN_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+						log.warn(" Embedded Cassandra still draining, keeping tmpfs folder '{}'",
+								folder.getAbsolutePath());
+						return;
+					}
+				} catch (InterruptedException e) {
+					return;
+				}
+				FileUtils.deleteQuietly(folder);
+			}
+		});
+	}
+
 	private void validateFolder(String folderPath) {
 		String currentUser = System.getProperty("user.name");
 		final File folder = new File(folderPath);
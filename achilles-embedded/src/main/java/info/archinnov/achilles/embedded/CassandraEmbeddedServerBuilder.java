@@ -16,6 +16,7 @@ import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters
 import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.KEYSPACE_DURABLE_WRITE;
 import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.KEYSPACE_NAME;
 import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.SAVED_CACHES_FOLDER;
+import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.TEST_PROFILE;
 import info.archinnov.achilles.entity.manager.PersistenceManager;
 import info.archinnov.achilles.entity.manager.PersistenceManagerFactory;
 import info.archinnov.achilles.interceptor.EventInterceptor;
@@ -57,7 +58,9 @@ public class CassandraEmbeddedServerBuilder {
 
 	private String keyspaceName;
 
-	private boolean durableWrite = true;
+	private Boolean durableWrite;
+
+	private TestProfile testProfile = TestProfile.DEFAULT;
 
 	private boolean buildNativeSessionOnly = false;
 	private List<EventInterceptor<?>> eventsInterceptor = new ArrayList<EventInterceptor<?>>();
@@ -253,6 +256,22 @@ public class CassandraEmbeddedServerBuilder {
 		return this;
 	}
 
+	/**
+	 * Specify the tuning of the embedded Cassandra server. Default value is
+	 * TestProfile.DEFAULT. TestProfile.FAST disables auto snapshot, hinted
+	 * handoff and durable writes, shrinks memtables and thread pools and keeps
+	 * the default data folders on tmpfs when available. Durable writes can
+	 * still be re-enabled with withDurableWrite(true)
+	 * 
+	 * @param testProfile
+	 *            tuning profile of the embedded server
+	 * @return
+	 */
+	public CassandraEmbeddedServerBuilder withTestProfile(TestProfile testProfile) {
+		this.testProfile = testProfile;
+		return this;
+	}
+
 	/**
 	 * Build CQL Persistence Manager Factory
 	 * 
@@ -332,7 +351,10 @@ public class CassandraEmbeddedServerBuilder {
 			config.put(EVENT_INTERCEPTORS, eventsInterceptor);
 		}
 
-		config.put(KEYSPACE_DURABLE_WRITE, durableWrite);
+		if (durableWrite != null)
+			config.put(KEYSPACE_DURABLE_WRITE, durableWrite);
+
+		config.put(TEST_PROFILE, testProfile);
 		config.put(BUILD_NATIVE_SESSION_ONLY, buildNativeSessionOnly);
 
 		Map<String, Object> parameters = CassandraEmbeddedConfigParameters.mergeWithDefaultParameters(config);
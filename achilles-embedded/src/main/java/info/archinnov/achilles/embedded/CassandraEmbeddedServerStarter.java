@@ -34,6 +34,8 @@ public enum CassandraEmbeddedServerStarter {
 
 	private ExecutorService executor;
 
+	private long startupTimeInMillis;
+
 	public void start(final CassandraConfig config) {
 
 		if (isAlreadyRunning()) {
@@ -51,6 +53,7 @@ public enum CassandraEmbeddedServerStarter {
 		System.setProperty("cassandra.config", "file:" + config.getConfigFile().getAbsolutePath());
 		System.setProperty("cassandra-foreground", "true");
 
+		final long startTime = System.currentTimeMillis();
 		final CountDownLatch startupLatch = new CountDownLatch(1);
 		executor = Executors.newSingleThreadExecutor();
 		executor.execute(new Runnable() {
@@ -68,6 +71,16 @@ public enum CassandraEmbeddedServerStarter {
 			log.error("Timeout starting Cassandra embedded", e);
 			throw new IllegalStateException("Timeout starting Cassandra embedded", e);
 		}
+		startupTimeInMillis = System.currentTimeMillis() - startTime;
+		log.info("Cassandra embedded started in {} ms", startupTimeInMillis);
+	}
+
+	/**
+	 * Time taken by the last start of the embedded server, 0 if it was
+	 * already running
+	 */
+	public long getStartupTimeInMillis() {
+		return startupTimeInMillis;
 	}
 
 	private boolean isAlreadyRunning() {
@@ -0,0 +1,160 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.embedded;
+
+import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.KEYSPACE_NAME;
+import info.archinnov.achilles.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of keyspaces bootstrapped up-front on the embedded server, named
+ * <em>prefix_1</em> to <em>prefix_N</em>, with their tables already created.
+ * 
+ * Each test thread leases its own keyspace so that tests running in parallel
+ * on the same server never see each other's data. Pools are shared per
+ * prefix in the JVM
+ */
+public class KeyspacePool {
+
+	private static final Logger log = LoggerFactory.getLogger(KeyspacePool.class);
+
+	private static final Map<String, KeyspacePool> POOLS = new HashMap<String, KeyspacePool>();
+
+	private final String prefix;
+
+	private final List<String> keyspaceNames;
+
+	private final BlockingQueue<String> availableKeyspaces;
+
+	private final CassandraEmbeddedServer server;
+
+	private KeyspacePool(String prefix, List<String> keyspaceNames, CassandraEmbeddedServer server) {
+		this.prefix = prefix;
+		this.server = server;
+		this.keyspaceNames = Collections.unmodifiableList(keyspaceNames);
+		this.availableKeyspaces = new LinkedBlockingQueue<String>(keyspaceNames);
+	}
+
+	/**
+	 * Return the pool of the given prefix, bootstrapping its keyspaces with
+	 * the given parameters on first call
+	 * 
+	 * @param prefix
+	 *            prefix of the keyspace names
+	 * @param size
+	 *            number of keyspaces in the pool
+	 * @param parameters
+	 *            embedded server parameters, the keyspace name is overriden
+	 *            for each keyspace of the pool
+	 */
+	public static KeyspacePool getOrCreate(String prefix, int size, Map<String, Object> parameters) {
+		Validator.validateTrue(size > 0, "The keyspace pool size should be strictly positive");
+		synchronized (POOLS) {
+			KeyspacePool pool = POOLS.get(prefix);
+			if (pool == null) {
+				log.info("Bootstrapping a pool of {} keyspaces with prefix '{}'", size, prefix);
+				List<String> keyspaceNames = new ArrayList<String>();
+				CassandraEmbeddedServer server = null;
+				for (int i = 1; i <= size; i++) {
+					String keyspaceName = prefix + "_" + i;
+					Map<String, Object> keyspaceParameters = new HashMap<String, Object>(parameters);
+					keyspaceParameters.put(KEYSPACE_NAME, keyspaceName);
+					server = new CassandraEmbeddedServer(keyspaceParameters);
+					keyspaceNames.add(keyspaceName);
+				}
+				pool = new KeyspacePool(prefix, keyspaceNames, server);
+				POOLS.put(prefix, pool);
+			} else {
+				Validator.validateTrue(pool.size() == size,
+						"A keyspace pool with prefix '%s' already exists with size %s instead of %s", prefix,
+						pool.size(), size);
+			}
+			return pool;
+		}
+	}
+
+	/**
+	 * Lease a keyspace, waiting for one to be released if they are all in use
+	 * 
+	 * @param timeout
+	 *            maximum time to wait for a keyspace
+	 * @param unit
+	 *            unit of the timeout
+	 * @return name of the leased keyspace
+	 */
+	public String acquire(long timeout, TimeUnit unit) {
+		try {
+			String keyspaceName = availableKeyspaces.poll(timeout, unit);
+			if (keyspaceName == null) {
+				throw new IllegalStateException(String.format(
+						"No keyspace of the pool '%s' was released within %s %s. "
+								+ "All %s keyspaces are leased, check that every lease is released", prefix,
+						timeout, unit.name().toLowerCase(), size()));
+			}
+			log.debug("Keyspace '{}' leased", keyspaceName);
+			return keyspaceName;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(String.format(
+					"Interrupted while waiting for a keyspace of the pool '%s'", prefix), e);
+		}
+	}
+
+	/**
+	 * Give back a leased keyspace to the pool
+	 * 
+	 * @param keyspaceName
+	 *            name of the leased keyspace
+	 */
+	public void release(String keyspaceName) {
+		Validator.validateTrue(keyspaceNames.contains(keyspaceName), "Keyspace '%s' does not belong to the pool '%s'",
+				keyspaceName, prefix);
+		log.debug("Keyspace '{}' released", keyspaceName);
+		availableKeyspaces.offer(keyspaceName);
+	}
+
+	/**
+	 * Embedded server hosting the keyspaces of the pool, started by the
+	 * bootstrap of the first one
+	 */
+	public CassandraEmbeddedServer getServer() {
+		return server;
+	}
+
+	public List<String> getKeyspaceNames() {
+		return keyspaceNames;
+	}
+
+	public int size() {
+		return keyspaceNames.size();
+	}
+
+	public int availableCount() {
+		return availableKeyspaces.size();
+	}
+}
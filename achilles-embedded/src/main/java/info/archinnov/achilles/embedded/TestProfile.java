@@ -0,0 +1,33 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.embedded;
+
+/**
+ * Tuning of the embedded Cassandra server
+ * 
+ * <ul>
+ * <li>DEFAULT: production-like settings, auto snapshot on truncate, hinted
+ * handoff, 32 read/write threads</li>
+ * <li>FAST: for test suites. No auto snapshot, no hints, no durable writes on
+ * the keyspace, tiny memtables and thread pools. When the default folders are
+ * used, data are kept under /dev/shm if this tmpfs mount is available and
+ * deleted on JVM shutdown when data files are cleaned</li>
+ * </ul>
+ */
+public enum TestProfile {
+	DEFAULT, FAST;
+}
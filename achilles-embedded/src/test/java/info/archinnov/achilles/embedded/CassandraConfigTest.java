@@ -0,0 +1,61 @@
+package info.archinnov.achilles.embedded;
+
+import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.*;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+public class CassandraConfigTest {
+
+	@Test
+	public void should_keep_production_like_settings_by_default() throws Exception {
+		String yaml = writeConfig(TestProfile.DEFAULT, "target/cassandra_config_test/default.yaml");
+
+		assertThat(yaml).contains("auto_snapshot: true");
+		assertThat(yaml).contains("hinted_handoff_enabled: true");
+		assertThat(yaml).contains("concurrent_writes: 32");
+	}
+
+	@Test
+	public void should_apply_fast_test_profile() throws Exception {
+		String yaml = writeConfig(TestProfile.FAST, "target/cassandra_config_test/fast.yaml");
+
+		assertThat(yaml).contains("auto_snapshot: false");
+		assertThat(yaml).contains("hinted_handoff_enabled: false");
+		assertThat(yaml).contains("concurrent_writes: 4");
+		assertThat(yaml).contains("memtable_total_space_in_mb: 16");
+	}
+
+	@Test
+	public void should_disable_durable_writes_by_default_with_fast_profile() throws Exception {
+		Map<String, Object> fast = new HashMap<String, Object>();
+		fast.put(TEST_PROFILE, TestProfile.FAST);
+		Map<String, Object> fastAndDurable = new HashMap<String, Object>(fast);
+		fastAndDurable.put(KEYSPACE_DURABLE_WRITE, true);
+
+		assertThat(mergeWithDefaultParameters(fast).get(KEYSPACE_DURABLE_WRITE)).isEqualTo(false);
+		assertThat(mergeWithDefaultParameters(fastAndDurable).get(KEYSPACE_DURABLE_WRITE)).isEqualTo(true);
+		assertThat(mergeWithDefaultParameters(new HashMap<String, Object>()).get(KEYSPACE_DURABLE_WRITE)).isEqualTo(
+				true);
+	}
+
+	private String writeConfig(TestProfile profile, String configFile) throws Exception {
+		Map<String, Object> parameters = new HashMap<String, Object>();
+		parameters.put(TEST_PROFILE, profile);
+		parameters.put(CONFIG_YAML_FILE, configFile);
+		parameters.put(CASSANDRA_THRIFT_PORT, 9160);
+		parameters.put(CASSANDRA_CQL_PORT, 9042);
+		parameters.put(CASSANDRA_STORAGE_PORT, 7000);
+		parameters.put(CASSANDRA_STORAGE_SSL_PORT, 7001);
+
+		CassandraConfig config = new CassandraConfig(mergeWithDefaultParameters(parameters));
+		config.write();
+
+		return FileUtils.readFileToString(new File(configFile));
+	}
+}
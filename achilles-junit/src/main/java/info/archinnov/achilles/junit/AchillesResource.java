@@ -18,26 +18,46 @@ package info.archinnov.achilles.junit;
 
 import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang.StringUtils;
 import com.datastax.driver.core.Session;
 import com.google.common.collect.ImmutableMap;
 import info.archinnov.achilles.embedded.CassandraEmbeddedServer;
+import info.archinnov.achilles.embedded.KeyspacePool;
+import info.archinnov.achilles.embedded.TestProfile;
 import info.archinnov.achilles.entity.manager.PersistenceManager;
 import info.archinnov.achilles.entity.manager.PersistenceManagerFactory;
+import info.archinnov.achilles.entity.manager.WriteTrackingPersistenceManager;
 import info.archinnov.achilles.validation.Validator;
 
 public class AchillesResource extends AchillesTestResource {
 
-	private final PersistenceManagerFactory pmf;
+	private static final long KEYSPACE_LEASE_TIMEOUT_IN_MINUTES = 5;
 
-	private final PersistenceManager manager;
+	private static final Map<String, WriteTrackingPersistenceManager> TRACKING_MANAGERS = new HashMap<String, WriteTrackingPersistenceManager>();
+
+	private PersistenceManagerFactory pmf;
+
+	private PersistenceManager manager;
 
 	private final CassandraEmbeddedServer server;
 
-	private final Session session;
+	private Session session;
+
+	private String keyspaceName;
+
+	private final KeyspacePool keyspacePool;
+
+	private final boolean trackWrites;
+
+	private WriteTrackingPersistenceManager trackingManager;
 
+	private boolean nativeSessionExposed = false;
 
 	AchillesResource(String keyspaceName,String entityPackages, String... tables) {
 		super(tables);
@@ -45,31 +65,67 @@ public class AchillesResource extends AchillesTestResource {
         String keyspaceToUse = StringUtils.isNotBlank(keyspaceName) ? keyspaceName: DEFAULT_ACHILLES_TEST_KEYSPACE_NAME;
 
         Map<String, Object> config = ImmutableMap.<String, Object> of(CLEAN_CASSANDRA_DATA_FILES, true,
-				 KEYSPACE_NAME, keyspaceToUse,KEYSPACE_DURABLE_WRITE, false);
+				 KEYSPACE_NAME, keyspaceToUse,KEYSPACE_DURABLE_WRITE, false, TEST_PROFILE, TestProfile.DEFAULT);
 
         config = addEntityPackagesIfNeeded(entityPackages, config);
 
         server = new CassandraEmbeddedServer(config);
-		pmf = server.getPersistenceManagerFactory(DEFAULT_ACHILLES_TEST_KEYSPACE_NAME);
-		manager = server.getPersistenceManager(DEFAULT_ACHILLES_TEST_KEYSPACE_NAME);
-		session = server.getNativeSession(DEFAULT_ACHILLES_TEST_KEYSPACE_NAME);
+		keyspacePool = null;
+		trackWrites = false;
+		useKeyspace(keyspaceToUse);
 	}
 
     AchillesResource(String keyspaceName,String entityPackages, Steps cleanUpSteps, String... tables) {
+		this(keyspaceName, entityPackages, cleanUpSteps, false, 0, TestProfile.DEFAULT, tables);
+	}
+
+    AchillesResource(String keyspaceName, String entityPackages, Steps cleanUpSteps, boolean trackWrites,
+			int keyspacePoolSize, TestProfile testProfile, String... tables) {
 		super(cleanUpSteps, tables);
 
         String keyspaceToUse = StringUtils.isNotBlank(keyspaceName) ? keyspaceName: DEFAULT_ACHILLES_TEST_KEYSPACE_NAME;
 
         Validator.validateNotBlank(entityPackages, "Entity packages should be provided");
 		Map<String, Object> config = ImmutableMap.<String, Object> of(CLEAN_CASSANDRA_DATA_FILES, true,
-				KEYSPACE_NAME, keyspaceToUse, KEYSPACE_DURABLE_WRITE, false);
+				KEYSPACE_NAME, keyspaceToUse, KEYSPACE_DURABLE_WRITE, false, TEST_PROFILE, testProfile);
 
         config = addEntityPackagesIfNeeded(entityPackages, config);
 
-		server = new CassandraEmbeddedServer(config);
-		pmf = server.getPersistenceManagerFactory(DEFAULT_ACHILLES_TEST_KEYSPACE_NAME);
-		manager = server.getPersistenceManager(DEFAULT_ACHILLES_TEST_KEYSPACE_NAME);
-		session = server.getNativeSession(DEFAULT_ACHILLES_TEST_KEYSPACE_NAME);
+		this.trackWrites = trackWrites;
+		if (keyspacePoolSize > 0) {
+			// The keyspace name is only the prefix of the pool, no keyspace is bootstrapped with it
+			keyspacePool = KeyspacePool.getOrCreate(keyspaceToUse, keyspacePoolSize, config);
+			server = keyspacePool.getServer();
+		} else {
+			keyspacePool = null;
+			server = new CassandraEmbeddedServer(config);
+			useKeyspace(keyspaceToUse);
+		}
+	}
+
+	private void useKeyspace(String keyspaceName) {
+		this.keyspaceName = keyspaceName;
+		pmf = server.getPersistenceManagerFactory(keyspaceName);
+		session = server.getNativeSession(keyspaceName);
+		if (trackWrites) {
+			trackingManager = getOrCreateTrackingManager(pmf, keyspaceName);
+			manager = trackingManager;
+		} else {
+			trackingManager = null;
+			manager = server.getPersistenceManager(keyspaceName);
+		}
+	}
+
+	private static WriteTrackingPersistenceManager getOrCreateTrackingManager(PersistenceManagerFactory pmf,
+			String keyspaceName) {
+		synchronized (TRACKING_MANAGERS) {
+			WriteTrackingPersistenceManager trackingManager = TRACKING_MANAGERS.get(keyspaceName);
+			if (trackingManager == null) {
+				trackingManager = pmf.createWriteTrackingPersistenceManager();
+				TRACKING_MANAGERS.put(keyspaceName, trackingManager);
+			}
+			return trackingManager;
+		}
 	}
 
     private Map<String, Object> addEntityPackagesIfNeeded(String entityPackages, Map<String, Object> config) {
@@ -88,15 +144,19 @@ public class AchillesResource extends AchillesTestResource {
 	 * @return PersistenceManagerFactory singleton
 	 */
 	public PersistenceManagerFactory getPersistenceManagerFactory() {
+		validateKeyspaceLeased();
 		return pmf;
 	}
 
 	/**
-	 * Return a singleton PersistenceManager
+	 * Return a singleton PersistenceManager. When writes are tracked, only the
+	 * entities persisted or merged with this PersistenceManager are removed
+	 * at clean-up
 	 * 
 	 * @return PersistenceManager singleton
 	 */
 	public PersistenceManager getPersistenceManager() {
+		validateKeyspaceLeased();
 		return manager;
 	}
 
@@ -106,16 +166,96 @@ public class AchillesResource extends AchillesTestResource {
 	 * @return native CQL3 Session
 	 */
 	public Session getNativeSession() {
+		validateKeyspaceLeased();
+		nativeSessionExposed = true;
 		return session;
 	}
 
+	/**
+	 * Return the name of the keyspace used by this resource. With a keyspace
+	 * pool, the keyspace is leased when the test starts and released when it
+	 * ends
+	 * 
+	 * @return keyspace name
+	 */
+	public String getKeyspaceName() {
+		validateKeyspaceLeased();
+		return keyspaceName;
+	}
+
+	@Override
+	protected void before() throws Throwable {
+		if (keyspacePool != null) {
+			useKeyspace(keyspacePool.acquire(KEYSPACE_LEASE_TIMEOUT_IN_MINUTES, TimeUnit.MINUTES));
+		}
+		try {
+			super.before();
+		} catch (Throwable throwable) {
+			releaseKeyspace();
+			throw throwable;
+		}
+	}
+
+	@Override
+	protected void after() {
+		try {
+			super.after();
+		} finally {
+			releaseKeyspace();
+		}
+	}
+
+	private void releaseKeyspace() {
+		if (keyspacePool != null && keyspaceName != null) {
+			keyspacePool.release(keyspaceName);
+			keyspaceName = null;
+			pmf = null;
+			manager = null;
+			session = null;
+			trackingManager = null;
+			nativeSessionExposed = false;
+		}
+	}
+
+	private void validateKeyspaceLeased() {
+		Validator.validateTrue(keyspaceName != null,
+				"The keyspace of the pool is only leased while the test runs, between before() and after()");
+	}
+
 	@Override
 	protected void truncateTables() {
-		if (tables != null) {
+		if (tables == null) {
+			return;
+		}
+		if (trackingManager == null) {
 			for (String table : tables) {
-				server.truncateTable(DEFAULT_ACHILLES_TEST_KEYSPACE_NAME, table);
+				server.truncateTable(keyspaceName, table);
+			}
+		} else {
+			removeTrackedWrites();
+		}
+	}
+
+	/**
+	 * Remove the entities written since the last clean-up in one batch. Tables
+	 * whose writes could not be tracked are truncated instead, which is the
+	 * case of all of them when the native session has been handed out since
+	 * the last clean-up
+	 */
+	private void removeTrackedWrites() {
+		Set<String> untrackedTables = trackingManager.getUntrackedTables();
+		boolean truncateAll = nativeSessionExposed || trackingManager.hasUntrackedWrites();
+
+		List<String> tablesToClean = new ArrayList<String>();
+		for (String table : tables) {
+			if (truncateAll || untrackedTables.contains(table.toLowerCase())) {
+				server.truncateTable(keyspaceName, table);
+			} else {
+				tablesToClean.add(table);
 			}
 		}
+		trackingManager.removeTrackedEntities(tablesToClean);
+		nativeSessionExposed = false;
 	}
 
 }
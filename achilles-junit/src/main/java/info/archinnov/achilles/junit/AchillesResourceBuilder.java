@@ -17,6 +17,7 @@
 
 package info.archinnov.achilles.junit;
 
+import info.archinnov.achilles.embedded.TestProfile;
 import info.archinnov.achilles.junit.AchillesTestResource.Steps;
 
 public class AchillesResourceBuilder {
@@ -25,6 +26,9 @@ public class AchillesResourceBuilder {
 	private String[] tablesToCleanUp;
     private String keyspaceName;
 	private String entityPackages;
+	private boolean trackWrites = false;
+	private int keyspacePoolSize = 0;
+	private TestProfile testProfile = TestProfile.DEFAULT;
 
 	private AchillesResourceBuilder() {
 	}
@@ -102,7 +106,52 @@ public class AchillesResourceBuilder {
 		return this;
 	}
 
+	/**
+	 * Instead of truncating the tables, remove in one batch the entities
+	 * persisted or merged with the resource PersistenceManager since the last
+	 * clean-up. Tables are still truncated when their writes cannot be
+	 * tracked: entities with counters, native queries other than SELECT and
+	 * as soon as the native session is requested
+	 */
+	public AchillesResourceBuilder trackWritesInsteadOfTruncating() {
+		this.trackWrites = true;
+		return this;
+	}
+
+	/**
+	 * Lease the keyspace from a pool of keyspaces bootstrapped once per JVM,
+	 * named after the keyspace name followed by _1 to _N. The keyspace is
+	 * leased before the test and released after it, or around the class when
+	 * used as a @ClassRule, so the resource getters can only be called while
+	 * the test runs. Tests running in parallel threads then never share a
+	 * keyspace
+	 * 
+	 * @param size
+	 *            number of keyspaces in the pool, usually the number of
+	 *            parallel test threads
+	 */
+	public AchillesResourceBuilder withKeyspacePool(int size) {
+		this.keyspacePoolSize = size;
+		return this;
+	}
+
+	/**
+	 * Tune the embedded Cassandra server for tests. Default value is
+	 * TestProfile.DEFAULT. TestProfile.FAST disables auto snapshot and hinted
+	 * handoff, shrinks memtables and thread pools and keeps the default data
+	 * folders on tmpfs when available. The embedded server is started once per
+	 * JVM, by the first resource created
+	 * 
+	 * @param testProfile
+	 *            test profile of the embedded server
+	 */
+	public AchillesResourceBuilder withTestProfile(TestProfile testProfile) {
+		this.testProfile = testProfile;
+		return this;
+	}
+
 	public AchillesResource build() {
-		return new AchillesResource(keyspaceName,entityPackages, cleanupSteps, tablesToCleanUp);
+		return new AchillesResource(keyspaceName,entityPackages, cleanupSteps, trackWrites, keyspacePoolSize,
+				testProfile, tablesToCleanUp);
 	}
 }
@@ -0,0 +1,107 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.junit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import info.archinnov.achilles.embedded.KeyspacePool;
+import info.archinnov.achilles.entity.manager.PersistenceManager;
+import info.archinnov.achilles.exception.AchillesException;
+import info.archinnov.achilles.test.integration.entity.User;
+
+import com.datastax.driver.core.Metadata;
+
+public class AchillesResourceKeyspacePoolTest {
+
+	private static final String ENTITY_PACKAGE = "info.archinnov.achilles.test.integration.entity";
+
+	@Rule
+	public AchillesResource resource = poolResource();
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Test
+	public void should_lease_distinct_keyspaces_from_pool() throws Throwable {
+		AchillesResource other = poolResource();
+		other.before();
+
+		assertThat(resource.getKeyspaceName()).startsWith("achilles_pool_");
+		assertThat(other.getKeyspaceName()).startsWith("achilles_pool_");
+		assertThat(other.getKeyspaceName()).isNotEqualTo(resource.getKeyspaceName());
+
+		other.after();
+	}
+
+	@Test
+	public void should_isolate_entities_between_leased_keyspaces() throws Throwable {
+		PersistenceManager manager = resource.getPersistenceManager();
+		AchillesResource other = poolResource();
+		other.before();
+		Long id = RandomUtils.nextLong();
+
+		manager.persist(new User(id, "fn", "ln"));
+
+		assertThat(manager.find(User.class, id)).isNotNull();
+		assertThat(other.getPersistenceManager().find(User.class, id)).isNull();
+
+		other.after();
+	}
+
+	@Test
+	public void should_not_bootstrap_keyspace_named_after_pool_prefix() throws Exception {
+		Metadata metadata = resource.getNativeSession().getCluster().getMetadata();
+
+		assertThat(metadata.getKeyspace(resource.getKeyspaceName())).isNotNull();
+		assertThat(metadata.getKeyspace("achilles_pool")).isNull();
+	}
+
+	@Test
+	public void should_not_lease_keyspace_before_test_starts() throws Exception {
+		AchillesResource other = poolResource();
+
+		exception.expect(AchillesException.class);
+		exception.expectMessage("The keyspace of the pool is only leased while the test runs");
+
+		other.getPersistenceManager();
+	}
+
+	@Test
+	public void should_fail_when_no_keyspace_is_released_in_time() throws Throwable {
+		AchillesResource other = poolResource();
+		other.before();
+		try {
+			exception.expect(IllegalStateException.class);
+			exception.expectMessage("No keyspace of the pool 'achilles_pool' was released within 10 milliseconds");
+
+			KeyspacePool.getOrCreate("achilles_pool", 2, null).acquire(10, TimeUnit.MILLISECONDS);
+		} finally {
+			other.after();
+		}
+	}
+
+	private static AchillesResource poolResource() {
+		return AchillesResourceBuilder.withEntityPackages(ENTITY_PACKAGE).keyspaceName("achilles_pool")
+				.tablesToTruncate("User").truncateAfterTest().withKeyspacePool(2).build();
+	}
+}
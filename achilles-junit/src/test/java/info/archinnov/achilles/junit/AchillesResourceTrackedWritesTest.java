@@ -0,0 +1,83 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.junit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import info.archinnov.achilles.entity.manager.PersistenceManager;
+import info.archinnov.achilles.test.integration.entity.User;
+
+public class AchillesResourceTrackedWritesTest {
+
+	@Rule
+	public AchillesResource resource = AchillesResourceBuilder
+			.withEntityPackages("info.archinnov.achilles.test.integration.entity").tablesToTruncate("User")
+			.truncateAfterTest().trackWritesInsteadOfTruncating().build();
+
+	private PersistenceManager manager = resource.getPersistenceManager();
+
+	private PersistenceManager otherManager = resource.getPersistenceManagerFactory().createPersistenceManager();
+
+	@Test
+	public void should_remove_only_tracked_entities() throws Exception {
+		Long trackedId = RandomUtils.nextLong();
+		Long otherId = RandomUtils.nextLong();
+		manager.persist(new User(trackedId, "fn", "ln"));
+		otherManager.persist(new User(otherId, "fn", "ln"));
+
+		resource.truncateTables();
+
+		assertThat(manager.find(User.class, trackedId)).isNull();
+		assertThat(manager.find(User.class, otherId)).isNotNull();
+
+		otherManager.removeById(User.class, otherId);
+	}
+
+	@Test
+	public void should_truncate_tables_after_native_write() throws Exception {
+		Long nativeId = RandomUtils.nextLong();
+		Long otherId = RandomUtils.nextLong();
+		manager.nativeQuery("INSERT INTO User(id,firstname,lastname) VALUES(" + nativeId + ",'fn','ln')").execute();
+		otherManager.persist(new User(otherId, "fn", "ln"));
+
+		resource.truncateTables();
+
+		assertThat(manager.find(User.class, nativeId)).isNull();
+		assertThat(manager.find(User.class, otherId)).isNull();
+	}
+
+	@Test
+	public void should_track_writes_again_after_clean_up_following_native_session_use() throws Exception {
+		resource.getNativeSession();
+		resource.truncateTables();
+
+		Long trackedId = RandomUtils.nextLong();
+		Long otherId = RandomUtils.nextLong();
+		manager.persist(new User(trackedId, "fn", "ln"));
+		otherManager.persist(new User(otherId, "fn", "ln"));
+
+		resource.truncateTables();
+
+		assertThat(manager.find(User.class, trackedId)).isNull();
+		assertThat(manager.find(User.class, otherId)).isNotNull();
+
+		otherManager.removeById(User.class, otherId);
+	}
+}
@@ -0,0 +1,56 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+@Documented
+/**
+ * <p>
+ * Keep the entities found by primary key in a cache shared by all the PersistenceManagers of the factory.
+ * Entries are invalidated by persist, merge and remove through these PersistenceManagers. Writes done
+ * outside of Achilles (native queries, other clients) are only seen after the entry expires
+ * </p>
+ */
+public @interface Cached {
+	/**
+	 * <p>
+	 * Time to live of a cache entry, in seconds
+	 * </p>
+	 */
+	int ttl() default 60;
+
+	/**
+	 * <p>
+	 * Maximum number of entities kept in the cache
+	 * </p>
+	 */
+	long maxSize() default 10000;
+
+	/**
+	 * <p>
+	 * Whether primary keys with no entity in Cassandra should be cached too
+	 * </p>
+	 */
+	boolean cacheAbsent() default false;
+}
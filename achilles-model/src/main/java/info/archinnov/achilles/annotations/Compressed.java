@@ -0,0 +1,51 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.annotations;
+
+import info.archinnov.achilles.type.CompressionAlgorithm;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD })
+@Documented
+/**
+ * <p>
+ * Store the property in a blob column, compressed when its serialized form is larger than the threshold.
+ * Values are decompressed transparently when read. Only simple properties of type String, byte[], ByteBuffer
+ * or serialized to JSON can be compressed. They cannot be part of the primary key nor indexed
+ * </p>
+ */
+public @interface Compressed {
+	/**
+	 * <p>
+	 * Compression algorithm. Values written with another algorithm can still be read
+	 * </p>
+	 */
+	CompressionAlgorithm algorithm() default CompressionAlgorithm.DEFLATE;
+
+	/**
+	 * <p>
+	 * Size in bytes of the serialized value below which it is stored uncompressed
+	 * </p>
+	 */
+	int threshold() default 1024;
+}
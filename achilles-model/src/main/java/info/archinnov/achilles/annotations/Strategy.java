@@ -0,0 +1,43 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.annotations;
+
+import info.archinnov.achilles.type.InsertStrategy;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+@Documented
+/**
+ * <p>
+ * Define the write strategies of an Entity, overriding the ones configured globally
+ * </p>
+ */
+public @interface Strategy {
+	/**
+	 * <p>
+	 * Columns written when the entity is persisted. Sparse entities should use
+	 * NOT_NULL_FIELDS to avoid writing one tombstone per null property
+	 * </p>
+	 */
+	InsertStrategy insert();
+}
@@ -0,0 +1,92 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+@Documented
+/**
+ * <p>
+ * Storage options of the entity table, applied when the table is created by Achilles (forceTableCreation)
+ * and checked against the existing table at bootstrap. Options left to their default value are not
+ * set, Cassandra defaults apply
+ * </p>
+ */
+public @interface TableOptions {
+	/**
+	 * <p>
+	 * Compaction strategy class, either its simple name (<em>LeveledCompactionStrategy</em>) or its fully
+	 * qualified name for custom strategies
+	 * </p>
+	 */
+	String compaction() default "";
+
+	/**
+	 * <p>
+	 * Sub-options of the compaction strategy, as <em>key=value</em> pairs (e.g. <em>sstable_size_in_mb=160</em>)
+	 * </p>
+	 */
+	String[] compactionOptions() default {};
+
+	/**
+	 * <p>
+	 * SSTable compressor class, either its simple name (<em>LZ4Compressor</em>) or its fully qualified name
+	 * </p>
+	 */
+	String compression() default "";
+
+	/**
+	 * <p>
+	 * Size in KB of the compressed chunks. Smaller chunks favor random reads of small rows
+	 * </p>
+	 */
+	int compressionChunkLengthKb() default -1;
+
+	/**
+	 * <p>
+	 * Caching mode: <em>all</em>, <em>keys_only</em>, <em>rows_only</em> or <em>none</em>
+	 * </p>
+	 */
+	String caching() default "";
+
+	/**
+	 * <p>
+	 * Target false positive chance of the SSTable bloom filters, between 0 excluded and 1 included
+	 * </p>
+	 */
+	double bloomFilterFpChance() default -1;
+
+	/**
+	 * <p>
+	 * Time in seconds to wait before garbage-collecting tombstones
+	 * </p>
+	 */
+	int gcGraceSeconds() default -1;
+
+	/**
+	 * <p>
+	 * Default time to live in seconds of the columns written in the table
+	 * </p>
+	 */
+	int defaultTimeToLive() default -1;
+}
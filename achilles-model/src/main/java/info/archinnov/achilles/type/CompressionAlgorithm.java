@@ -0,0 +1,32 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.type;
+
+/**
+ * Algorithm used to compress the value of a property annotated with
+ * {@link info.archinnov.achilles.annotations.Compressed}
+ * 
+ * <ul>
+ * <li>DEFLATE: java.util.zip implementation, always available. Best ratio,
+ * slowest</li>
+ * <li>LZ4: requires net.jpountz.lz4:lz4 on the classpath. Fastest</li>
+ * <li>SNAPPY: requires org.xerial.snappy:snappy-java on the classpath</li>
+ * </ul>
+ */
+public enum CompressionAlgorithm {
+	DEFLATE, LZ4, SNAPPY;
+}
@@ -0,0 +1,32 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.type;
+
+/**
+ * Columns written by the INSERT statement of a persist
+ * 
+ * <ul>
+ * <li>ALL_FIELDS: every column is written, null values included, which leaves
+ * a tombstone for each null property</li>
+ * <li>NOT_NULL_FIELDS: only the properties which are neither null nor empty
+ * collections are written. The other columns of an existing row are left
+ * untouched</li>
+ * </ul>
+ */
+public enum InsertStrategy {
+	ALL_FIELDS, NOT_NULL_FIELDS;
+}
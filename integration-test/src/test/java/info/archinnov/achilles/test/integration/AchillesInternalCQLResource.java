@@ -19,6 +19,7 @@ package info.archinnov.achilles.test.integration;
 import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.*;
 import org.apache.commons.lang.StringUtils;
 import info.archinnov.achilles.embedded.CassandraEmbeddedServer;
+import info.archinnov.achilles.embedded.TestProfile;
 import info.archinnov.achilles.entity.manager.PersistenceManager;
 import info.archinnov.achilles.entity.manager.PersistenceManagerFactory;
 import info.archinnov.achilles.junit.AchillesTestResource;
@@ -53,7 +54,7 @@ public class AchillesInternalCQLResource extends AchillesTestResource {
         setCleanDataFiles();
         final ImmutableMap<String, Object> config = ImmutableMap.<String, Object> of(CLEAN_CASSANDRA_DATA_FILES, cleanDataFiles,
 				ENTITY_PACKAGES, ACHILLES_ENTITY_PACKAGES, KEYSPACE_NAME, DEFAULT_ACHILLES_TEST_KEYSPACE_NAME,
-				KEYSPACE_DURABLE_WRITE, false);
+				KEYSPACE_DURABLE_WRITE, false, TEST_PROFILE, TestProfile.FAST);
 
 		server = new CassandraEmbeddedServer(config);
 		pmf = server.getPersistenceManagerFactory(DEFAULT_ACHILLES_TEST_KEYSPACE_NAME);
@@ -78,7 +79,7 @@ public class AchillesInternalCQLResource extends AchillesTestResource {
         setCleanDataFiles();
 		final ImmutableMap<String, Object> config = ImmutableMap.<String, Object> of(CLEAN_CASSANDRA_DATA_FILES, cleanDataFiles,
 				ENTITY_PACKAGES, ACHILLES_ENTITY_PACKAGES, KEYSPACE_NAME, DEFAULT_ACHILLES_TEST_KEYSPACE_NAME,
-				KEYSPACE_DURABLE_WRITE, false);
+				KEYSPACE_DURABLE_WRITE, false, TEST_PROFILE, TestProfile.FAST);
 
 		server = new CassandraEmbeddedServer(config);
 		pmf = server.getPersistenceManagerFactory(DEFAULT_ACHILLES_TEST_KEYSPACE_NAME);
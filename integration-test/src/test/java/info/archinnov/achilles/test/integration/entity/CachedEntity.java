@@ -0,0 +1,74 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.entity;
+
+import static info.archinnov.achilles.test.integration.entity.CachedEntity.TABLE_NAME;
+import info.archinnov.achilles.annotations.Cached;
+import info.archinnov.achilles.annotations.Column;
+import info.archinnov.achilles.annotations.Entity;
+import info.archinnov.achilles.annotations.Id;
+
+import java.util.List;
+
+@Entity(table = TABLE_NAME)
+@Cached(ttl = 300, maxSize = 100, cacheAbsent = true)
+public class CachedEntity {
+
+	public static final String TABLE_NAME = "cached_entity";
+
+	@Id
+	private Long id;
+
+	@Column
+	private String name;
+
+	@Column
+	private List<String> labels;
+
+	public CachedEntity() {
+	}
+
+	public CachedEntity(Long id, String name, List<String> labels) {
+		this.id = id;
+		this.name = name;
+		this.labels = labels;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public List<String> getLabels() {
+		return labels;
+	}
+
+	public void setLabels(List<String> labels) {
+		this.labels = labels;
+	}
+}
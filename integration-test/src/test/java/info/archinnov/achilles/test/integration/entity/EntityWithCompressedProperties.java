@@ -0,0 +1,87 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.entity;
+
+import static info.archinnov.achilles.test.integration.entity.EntityWithCompressedProperties.TABLE_NAME;
+import static info.archinnov.achilles.type.CompressionAlgorithm.*;
+import info.archinnov.achilles.annotations.Column;
+import info.archinnov.achilles.annotations.Compressed;
+import info.archinnov.achilles.annotations.Entity;
+import info.archinnov.achilles.annotations.Id;
+
+@Entity(table = TABLE_NAME)
+public class EntityWithCompressedProperties {
+
+	public static final String TABLE_NAME = "entity_with_compressed_properties";
+
+	@Id
+	private Long id;
+
+	@Column
+	@Compressed(algorithm = LZ4, threshold = 64)
+	private String document;
+
+	@Column
+	@Compressed(algorithm = SNAPPY, threshold = 0)
+	private byte[] payload;
+
+	@Column
+	@Compressed(algorithm = DEFLATE)
+	private User author;
+
+	public EntityWithCompressedProperties() {
+	}
+
+	public EntityWithCompressedProperties(Long id, String document, byte[] payload, User author) {
+		this.id = id;
+		this.document = document;
+		this.payload = payload;
+		this.author = author;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getDocument() {
+		return document;
+	}
+
+	public void setDocument(String document) {
+		this.document = document;
+	}
+
+	public byte[] getPayload() {
+		return payload;
+	}
+
+	public void setPayload(byte[] payload) {
+		this.payload = payload;
+	}
+
+	public User getAuthor() {
+		return author;
+	}
+
+	public void setAuthor(User author) {
+		this.author = author;
+	}
+}
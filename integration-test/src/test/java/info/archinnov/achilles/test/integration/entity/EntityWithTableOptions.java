@@ -0,0 +1,60 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.entity;
+
+import static info.archinnov.achilles.test.integration.entity.EntityWithTableOptions.TABLE_NAME;
+import info.archinnov.achilles.annotations.Column;
+import info.archinnov.achilles.annotations.Entity;
+import info.archinnov.achilles.annotations.Id;
+import info.archinnov.achilles.annotations.TableOptions;
+
+@Entity(table = TABLE_NAME)
+@TableOptions(compaction = "LeveledCompactionStrategy", compactionOptions = "sstable_size_in_mb=64", compression = "LZ4Compressor", compressionChunkLengthKb = 16, caching = "keys_only", bloomFilterFpChance = 0.01, gcGraceSeconds = 3600, defaultTimeToLive = 86400)
+public class EntityWithTableOptions {
+
+	public static final String TABLE_NAME = "entity_with_table_options";
+
+	@Id
+	private Long id;
+
+	@Column
+	private String name;
+
+	public EntityWithTableOptions() {
+	}
+
+	public EntityWithTableOptions(Long id, String name) {
+		this.id = id;
+		this.name = name;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+}
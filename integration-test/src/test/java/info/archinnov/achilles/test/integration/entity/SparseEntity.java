@@ -0,0 +1,87 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.entity;
+
+import static info.archinnov.achilles.test.integration.entity.SparseEntity.TABLE_NAME;
+import info.archinnov.achilles.annotations.Column;
+import info.archinnov.achilles.annotations.Entity;
+import info.archinnov.achilles.annotations.Id;
+import info.archinnov.achilles.annotations.Strategy;
+import info.archinnov.achilles.type.InsertStrategy;
+
+import java.util.List;
+
+@Entity(table = TABLE_NAME)
+@Strategy(insert = InsertStrategy.NOT_NULL_FIELDS)
+public class SparseEntity {
+
+	public static final String TABLE_NAME = "sparse_entity";
+
+	@Id
+	private Long id;
+
+	@Column
+	private String name;
+
+	@Column
+	private String label;
+
+	@Column
+	private List<String> tags;
+
+	public SparseEntity() {
+	}
+
+	public SparseEntity(Long id, String name, String label, List<String> tags) {
+		this.id = id;
+		this.name = name;
+		this.label = label;
+		this.tags = tags;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	public void setLabel(String label) {
+		this.label = label;
+	}
+
+	public List<String> getTags() {
+		return tags;
+	}
+
+	public void setTags(List<String> tags) {
+		this.tags = tags;
+	}
+}
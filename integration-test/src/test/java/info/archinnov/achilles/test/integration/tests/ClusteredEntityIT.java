@@ -38,7 +38,9 @@ import info.archinnov.achilles.test.integration.AchillesInternalCQLResource;
 import info.archinnov.achilles.test.integration.entity.ClusteredEntity;
 import info.archinnov.achilles.test.integration.entity.ClusteredEntity.ClusteredKey;
 import info.archinnov.achilles.type.BoundingMode;
+import info.archinnov.achilles.type.Cursor;
 import info.archinnov.achilles.type.OptionsBuilder;
+import info.archinnov.achilles.type.Page;
 
 public class ClusteredEntityIT {
 	@Rule
@@ -364,6 +366,63 @@ public class ClusteredEntityIT {
 
 	}
 
+	@Test
+	public void should_page_across_clustering_components() throws Exception {
+		long partitionKey = RandomUtils.nextLong();
+		insertValues(partitionKey, 1, 3);
+		insertValues(partitionKey, 2, 3);
+
+		Page<ClusteredEntity> page = manager.sliceQuery(ClusteredEntity.class).partitionComponents(partitionKey)
+				.page(4, null);
+
+		assertThat(page.getEntities()).hasSize(4);
+		assertThat(page.getEntities().get(3).getId().getCount()).isEqualTo(2);
+		assertThat(page.getEntities().get(3).getId().getName()).isEqualTo("name1");
+		assertThat(page.hasNextPage()).isTrue();
+
+		Cursor cursor = Cursor.fromToken(page.getNextCursor().toToken());
+		page = manager.sliceQuery(ClusteredEntity.class).partitionComponents(partitionKey).page(4, cursor);
+
+		assertThat(page.getEntities()).hasSize(2);
+		assertThat(page.getEntities().get(0).getId().getCount()).isEqualTo(2);
+		assertThat(page.getEntities().get(0).getId().getName()).isEqualTo("name2");
+		assertThat(page.getEntities().get(1).getId().getName()).isEqualTo("name3");
+		assertThat(page.hasNextPage()).isFalse();
+	}
+
+	@Test
+	public void should_merge_slices_of_several_partitions() throws Exception {
+		long partitionKey1 = RandomUtils.nextLong();
+		long partitionKey2 = RandomUtils.nextLong();
+		insertValues(partitionKey1, 1, 3);
+		insertValues(partitionKey1, 3, 2);
+		insertValues(partitionKey2, 2, 2);
+
+		List<ClusteredEntity> entities = manager.sliceQuery(ClusteredEntity.class)
+				.partitionComponentsIn(partitionKey1, partitionKey2).limit(6).get();
+
+		assertThat(entities).hasSize(6);
+		assertThat(entities.get(2).getId().getId()).isEqualTo(partitionKey1);
+		assertThat(entities.get(2).getId().getName()).isEqualTo("name3");
+		assertThat(entities.get(3).getId().getId()).isEqualTo(partitionKey2);
+		assertThat(entities.get(3).getId().getCount()).isEqualTo(2);
+		assertThat(entities.get(4).getId().getName()).isEqualTo("name2");
+		assertThat(entities.get(5).getId().getId()).isEqualTo(partitionKey1);
+		assertThat(entities.get(5).getId().getCount()).isEqualTo(3);
+		assertThat(entities.get(5).getId().getName()).isEqualTo("name1");
+
+		Iterator<ClusteredEntity> iter = manager.sliceQuery(ClusteredEntity.class)
+				.partitionComponentsIn(partitionKey1, partitionKey2).ordering(DESCENDING).iterator(1);
+
+		ClusteredEntity next = iter.next();
+		assertThat(next.getId().getCount()).isEqualTo(3);
+		assertThat(next.getId().getName()).isEqualTo("name2");
+		iter.next();
+		next = iter.next();
+		assertThat(next.getId().getId()).isEqualTo(partitionKey2);
+		assertThat(next.getId().getName()).isEqualTo("name2");
+	}
+
 	@Test
 	public void should_iterate_with_default_params() throws Exception {
 		long partitionKey = RandomUtils.nextLong();
@@ -0,0 +1,88 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.tests;
+
+import static info.archinnov.achilles.test.integration.entity.EntityWithCompressedProperties.TABLE_NAME;
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters;
+import info.archinnov.achilles.entity.manager.PersistenceManager;
+import info.archinnov.achilles.junit.AchillesTestResource.Steps;
+import info.archinnov.achilles.test.integration.AchillesInternalCQLResource;
+import info.archinnov.achilles.test.integration.entity.EntityWithCompressedProperties;
+import info.archinnov.achilles.test.integration.entity.User;
+
+import java.nio.ByteBuffer;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+
+public class CompressionIT {
+
+	@Rule
+	public AchillesInternalCQLResource resource = new AchillesInternalCQLResource(Steps.AFTER_TEST, TABLE_NAME);
+
+	private PersistenceManager manager = resource.getPersistenceManager();
+
+	private Session session = resource.getNativeSession();
+
+	@Test
+	public void should_store_compressed_values_and_read_them_back() throws Exception {
+		Long id = RandomUtils.nextLong();
+		String document = StringUtils.repeat("{\"key\":\"value\"}", 500);
+		byte[] payload = new byte[10000];
+		User author = new User(RandomUtils.nextLong(), StringUtils.repeat("first", 300), "last");
+
+		manager.persist(new EntityWithCompressedProperties(id, document, payload, author));
+
+		Row row = session.execute("SELECT document,payload,author FROM " + TABLE_NAME + " WHERE id=" + id).one();
+		assertThat(row.getBytes("document").remaining()).isLessThan(document.length() / 4);
+		assertThat(row.getBytes("payload").remaining()).isLessThan(payload.length / 4);
+		assertThat(row.getBytes("author").remaining()).isLessThan(1500);
+
+		EntityWithCompressedProperties found = manager.find(EntityWithCompressedProperties.class, id);
+		assertThat(found.getDocument()).isEqualTo(document);
+		assertThat(found.getPayload()).isEqualTo(payload);
+		assertThat(found.getAuthor().getFirstname()).isEqualTo(author.getFirstname());
+		assertThat(found.getAuthor().getLastname()).isEqualTo("last");
+	}
+
+	@Test
+	public void should_create_blob_columns_and_update_compressed_value() throws Exception {
+		Long id = RandomUtils.nextLong();
+		manager.persist(new EntityWithCompressedProperties(id, "short", null, null));
+
+		EntityWithCompressedProperties managed = manager.find(EntityWithCompressedProperties.class, id);
+		assertThat(managed.getDocument()).isEqualTo("short");
+		managed.setDocument(StringUtils.repeat("long document ", 100));
+		manager.merge(managed);
+
+		EntityWithCompressedProperties found = manager.find(EntityWithCompressedProperties.class, id);
+		assertThat(found.getDocument()).isEqualTo(StringUtils.repeat("long document ", 100));
+		assertThat(found.getPayload()).isNull();
+
+		DataType documentType = session.getCluster().getMetadata()
+				.getKeyspace(CassandraEmbeddedConfigParameters.DEFAULT_ACHILLES_TEST_KEYSPACE_NAME)
+				.getTable(TABLE_NAME).getColumn("document").getType();
+		assertThat(documentType.asJavaClass()).isEqualTo((Class) ByteBuffer.class);
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.tests;
+
+import static info.archinnov.achilles.test.integration.entity.CachedEntity.TABLE_NAME;
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.entity.manager.BatchingPersistenceManager;
+import info.archinnov.achilles.entity.manager.PersistenceManager;
+import info.archinnov.achilles.entity.manager.PersistenceManagerFactory;
+import info.archinnov.achilles.junit.AchillesTestResource.Steps;
+import info.archinnov.achilles.test.integration.AchillesInternalCQLResource;
+import info.archinnov.achilles.test.integration.entity.CachedEntity;
+import info.archinnov.achilles.type.ConsistencyLevel;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.datastax.driver.core.Session;
+import com.google.common.cache.CacheStats;
+
+public class EntityCacheIT {
+
+	@Rule
+	public AchillesInternalCQLResource resource = new AchillesInternalCQLResource(Steps.AFTER_TEST, TABLE_NAME);
+
+	private PersistenceManagerFactory pmf = resource.getPersistenceManagerFactory();
+
+	private PersistenceManager manager = resource.getPersistenceManager();
+
+	private Session session = resource.getNativeSession();
+
+	@Test
+	public void should_serve_find_from_cache() throws Exception {
+		Long id = RandomUtils.nextLong();
+		manager.persist(new CachedEntity(id, "name", Arrays.asList("a", "b")));
+		CacheStats before = pmf.getEntityCacheStats(CachedEntity.class);
+
+		manager.find(CachedEntity.class, id);
+		session.execute("UPDATE " + TABLE_NAME + " SET name='changed' WHERE id=" + id);
+		CachedEntity found = manager.find(CachedEntity.class, id);
+
+		assertThat(found.getName()).isEqualTo("name");
+		assertThat(found.getLabels()).containsExactly("a", "b");
+		CacheStats stats = pmf.getEntityCacheStats(CachedEntity.class).minus(before);
+		assertThat(stats.missCount()).isEqualTo(1L);
+		assertThat(stats.hitCount()).isEqualTo(1L);
+
+		found = manager.find(CachedEntity.class, id, ConsistencyLevel.ONE);
+		assertThat(found.getName()).isEqualTo("changed");
+	}
+
+	@Test
+	public void should_invalidate_cache_on_merge_and_remove() throws Exception {
+		Long id = RandomUtils.nextLong();
+		manager.persist(new CachedEntity(id, "name", Arrays.asList("a")));
+
+		CachedEntity found = manager.find(CachedEntity.class, id);
+		found.setName("merged");
+		found.getLabels().add("b");
+		manager.merge(found);
+
+		found = manager.find(CachedEntity.class, id);
+		assertThat(found.getName()).isEqualTo("merged");
+		assertThat(found.getLabels()).containsExactly("a", "b");
+
+		manager.remove(found);
+
+		assertThat(manager.find(CachedEntity.class, id)).isNull();
+	}
+
+	@Test
+	public void should_cache_absent_entity() throws Exception {
+		Long id = RandomUtils.nextLong();
+
+		assertThat(manager.find(CachedEntity.class, id)).isNull();
+		session.execute("INSERT INTO " + TABLE_NAME + "(id,name) VALUES(" + id + ",'name')");
+
+		assertThat(manager.find(CachedEntity.class, id)).isNull();
+
+		manager.persist(new CachedEntity(id, "persisted", null));
+
+		assertThat(manager.find(CachedEntity.class, id).getName()).isEqualTo("persisted");
+	}
+
+	@Test
+	public void should_invalidate_cache_when_batch_ends() throws Exception {
+		Long id = RandomUtils.nextLong();
+		BatchingPersistenceManager batchingManager = pmf.createBatchingPersistenceManager();
+		batchingManager.startBatch();
+
+		batchingManager.persist(new CachedEntity(id, "batched", null));
+		assertThat(batchingManager.find(CachedEntity.class, id)).isNull();
+
+		batchingManager.endBatch();
+
+		assertThat(batchingManager.find(CachedEntity.class, id).getName()).isEqualTo("batched");
+		assertThat(manager.find(CachedEntity.class, id).getName()).isEqualTo("batched");
+	}
+}
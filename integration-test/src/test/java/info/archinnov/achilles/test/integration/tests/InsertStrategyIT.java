@@ -0,0 +1,68 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.tests;
+
+import static info.archinnov.achilles.test.integration.entity.SparseEntity.TABLE_NAME;
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.entity.manager.PersistenceManager;
+import info.archinnov.achilles.junit.AchillesTestResource.Steps;
+import info.archinnov.achilles.test.integration.AchillesInternalCQLResource;
+import info.archinnov.achilles.test.integration.entity.SparseEntity;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+
+public class InsertStrategyIT {
+
+	@Rule
+	public AchillesInternalCQLResource resource = new AchillesInternalCQLResource(Steps.AFTER_TEST, TABLE_NAME);
+
+	private PersistenceManager manager = resource.getPersistenceManager();
+
+	private Session session = resource.getNativeSession();
+
+	@Test
+	public void should_not_overwrite_columns_left_null() throws Exception {
+		Long id = RandomUtils.nextLong();
+		manager.persist(new SparseEntity(id, "name", "label", Arrays.asList("a", "b")));
+
+		manager.persist(new SparseEntity(id, null, "new_label", Collections.<String> emptyList()));
+
+		SparseEntity found = manager.find(SparseEntity.class, id);
+		assertThat(found.getName()).isEqualTo("name");
+		assertThat(found.getLabel()).isEqualTo("new_label");
+		assertThat(found.getTags()).containsExactly("a", "b");
+	}
+
+	@Test
+	public void should_insert_only_primary_key_when_all_columns_null() throws Exception {
+		Long id = RandomUtils.nextLong();
+		manager.persist(new SparseEntity(id, null, null, null));
+
+		Row row = session.execute("SELECT id,name,label,tags FROM " + TABLE_NAME + " WHERE id=" + id).one();
+		assertThat(row).isNotNull();
+		assertThat(row.isNull("name")).isTrue();
+		assertThat(row.isNull("label")).isTrue();
+	}
+}
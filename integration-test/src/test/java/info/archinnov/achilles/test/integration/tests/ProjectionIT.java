@@ -0,0 +1,112 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.tests;
+
+import static info.archinnov.achilles.test.integration.entity.ClusteredEntity.TABLE_NAME;
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.entity.manager.PersistenceManager;
+import info.archinnov.achilles.junit.AchillesTestResource.Steps;
+import info.archinnov.achilles.test.integration.AchillesInternalCQLResource;
+import info.archinnov.achilles.test.integration.entity.ClusteredEntity;
+import info.archinnov.achilles.test.integration.entity.CompleteBean;
+import info.archinnov.achilles.test.integration.entity.CompleteBeanTestBuilder;
+
+import java.util.List;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ProjectionIT {
+
+	@Rule
+	public AchillesInternalCQLResource resource = new AchillesInternalCQLResource(Steps.AFTER_TEST,
+			CompleteBean.class.getSimpleName(), TABLE_NAME);
+
+	private PersistenceManager manager = resource.getPersistenceManager();
+
+	@Test
+	public void should_project_columns_into_constructor_dto() throws Exception {
+		CompleteBean entity = CompleteBeanTestBuilder.builder().randomId().name("DuyHai").age(35L)
+				.addFriends("foo", "bar").buid();
+		manager.persist(entity);
+
+		BeanSummary summary = manager.projectionQuery(CompleteBean.class, BeanSummary.class,
+				"SELECT id,name,age_in_years FROM CompleteBean WHERE id=?", entity.getId()).getFirst();
+
+		assertThat(summary.id).isEqualTo(entity.getId());
+		assertThat(summary.name).isEqualTo("DuyHai");
+		assertThat(summary.age).isEqualTo(35L);
+	}
+
+	@Test
+	public void should_project_columns_into_interface_dto() throws Exception {
+		CompleteBean entity = CompleteBeanTestBuilder.builder().randomId().name("DuyHai")
+				.addFriends("foo", "bar").buid();
+		manager.persist(entity);
+
+		BeanView view = manager.projectionQuery(CompleteBean.class, BeanView.class,
+				"SELECT name,age_in_years,friends FROM CompleteBean WHERE id=?", entity.getId()).getFirst();
+
+		assertThat(view.getName()).isEqualTo("DuyHai");
+		assertThat(view.getAge()).isNull();
+		assertThat(view.getFriends()).containsExactly("foo", "bar");
+	}
+
+	@Test
+	public void should_project_clustering_components_of_a_partition() throws Exception {
+		Long partitionKey = RandomUtils.nextLong();
+		for (int i = 1; i <= 5; i++) {
+			manager.persist(new ClusteredEntity(partitionKey, i, "name" + i, "value" + i));
+		}
+
+		List<ClusteredView> views = manager.projectionQuery(ClusteredEntity.class, ClusteredView.class,
+				"SELECT count,value FROM " + TABLE_NAME + " WHERE id=?", partitionKey).get();
+
+		assertThat(views).hasSize(5);
+		assertThat(views.get(0).getCount()).isEqualTo(1);
+		assertThat(views.get(0).getValue()).isEqualTo("value1");
+		assertThat(views.get(4).getCount()).isEqualTo(5);
+		assertThat(views.get(4).getValue()).isEqualTo("value5");
+	}
+
+	public static class BeanSummary {
+		private final Long id;
+		private final String name;
+		private final long age;
+
+		public BeanSummary(Long id, String name, long age) {
+			this.id = id;
+			this.name = name;
+			this.age = age;
+		}
+	}
+
+	public static interface BeanView {
+		String getName();
+
+		Long getAge();
+
+		List<String> getFriends();
+	}
+
+	public static interface ClusteredView {
+		int getCount();
+
+		String getValue();
+	}
+}
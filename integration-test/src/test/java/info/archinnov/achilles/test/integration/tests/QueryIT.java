@@ -22,6 +22,8 @@ import info.archinnov.achilles.counter.AchillesCounter;
 import info.archinnov.achilles.entity.manager.PersistenceManager;
 import info.archinnov.achilles.junit.AchillesTestResource.Steps;
 import info.archinnov.achilles.proxy.EntityInterceptor;
+import info.archinnov.achilles.query.cql.NativeRow;
+import info.archinnov.achilles.query.cql.NativeRowCallback;
 import info.archinnov.achilles.test.integration.AchillesInternalCQLResource;
 import info.archinnov.achilles.test.integration.entity.ClusteredEntity;
 import info.archinnov.achilles.test.integration.entity.ClusteredEntity.ClusteredKey;
@@ -32,7 +34,9 @@ import info.archinnov.achilles.type.Counter;
 import info.archinnov.achilles.type.CounterBuilder;
 import info.archinnov.achilles.type.OptionsBuilder;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -111,6 +115,65 @@ public class QueryIT {
 		assertThat(row.get("name")).isEqualTo("DuyHai");
 	}
 
+	@Test
+	public void should_iterate_over_rows_for_native_query() throws Exception {
+		long partitionKey = RandomUtils.nextLong();
+		for (int i = 1; i <= 10; i++) {
+			manager.persist(new ClusteredEntity(partitionKey, i, "name" + i, "value" + i));
+		}
+
+		Iterator<NativeRow> iterator = manager.nativeQuery(
+				"SELECT count,value FROM " + TABLE_NAME + " WHERE id=?", partitionKey).iterator();
+
+		int count = 0;
+		while (iterator.hasNext()) {
+			NativeRow row = iterator.next();
+			count++;
+			assertThat(row.get("count")).isEqualTo(count);
+			assertThat(row.get(1)).isEqualTo("value" + count);
+		}
+		assertThat(count).isEqualTo(10);
+	}
+
+	@Test
+	public void should_iterate_over_rows_by_pages_for_native_query() throws Exception {
+		long partitionKey = RandomUtils.nextLong();
+		for (int i = 1; i <= 10; i++) {
+			manager.persist(new ClusteredEntity(partitionKey, i, "name" + i, "value" + i));
+		}
+
+		Iterator<NativeRow> iterator = manager.nativeQuery(
+				"SELECT count,value FROM " + TABLE_NAME + " WHERE id=?", partitionKey).iterator(3);
+
+		int count = 0;
+		while (iterator.hasNext()) {
+			count++;
+			assertThat(iterator.next().get("count")).isEqualTo(count);
+		}
+		assertThat(count).isEqualTo(10);
+	}
+
+	@Test
+	public void should_stream_rows_to_callback_for_native_query() throws Exception {
+		CompleteBean entity = CompleteBeanTestBuilder.builder().randomId().name("DuyHai").addFriends("foo", "bar")
+				.buid();
+		manager.persist(entity);
+
+		final List<Map<String, Object>> lines = new ArrayList<Map<String, Object>>();
+		manager.nativeQuery("SELECT name,friends,followers FROM CompleteBean WHERE id=?", entity.getId())
+				.forEachRow(new NativeRowCallback() {
+					@Override
+					public void onRow(NativeRow row) {
+						lines.add(row.toMap());
+					}
+				});
+
+		assertThat(lines).hasSize(1);
+		assertThat(lines.get(0).get("name")).isEqualTo("DuyHai");
+		assertThat((List<Object>) lines.get(0).get("friends")).containsExactly("foo", "bar");
+		assertThat((Set<Object>) lines.get(0).get("followers")).isEmpty();
+	}
+
 	@Test
 	public void should_return_count_for_native_query() throws Exception {
 		CompleteBean entity = CompleteBeanTestBuilder.builder().randomId().name("DuyHai").buid();
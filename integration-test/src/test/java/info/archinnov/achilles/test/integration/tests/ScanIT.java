@@ -0,0 +1,88 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.tests;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.entity.manager.PersistenceManager;
+import info.archinnov.achilles.junit.AchillesTestResource.Steps;
+import info.archinnov.achilles.query.scan.ScanCallback;
+import info.archinnov.achilles.query.scan.ScanIterator;
+import info.archinnov.achilles.test.integration.AchillesInternalCQLResource;
+import info.archinnov.achilles.test.integration.entity.ClusteredEntityWithCompositePartitionKey;
+import info.archinnov.achilles.test.integration.entity.User;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ScanIT {
+
+	@Rule
+	public AchillesInternalCQLResource resource = new AchillesInternalCQLResource(Steps.BOTH, "User",
+			ClusteredEntityWithCompositePartitionKey.TABLE_NAME);
+
+	private PersistenceManager manager = resource.getPersistenceManager();
+
+	@Test
+	public void should_scan_all_entities() throws Exception {
+		Set<Long> ids = new HashSet<Long>();
+		for (int i = 0; i < 20; i++) {
+			User user = new User(RandomUtils.nextLong(), "firstname" + i, "lastname" + i);
+			manager.persist(user);
+			ids.add(user.getId());
+		}
+
+		Set<Long> scannedIds = new HashSet<Long>();
+		ScanIterator<User> iterator = manager.scan(User.class).concurrency(3).pageSize(5).iterator();
+		try {
+			while (iterator.hasNext()) {
+				User found = iterator.next();
+				assertThat(found.getFirstname()).startsWith("firstname");
+				scannedIds.add(found.getId());
+			}
+		} finally {
+			iterator.close();
+		}
+
+		assertThat(scannedIds).isEqualTo(ids);
+	}
+
+	@Test
+	public void should_scan_clustered_entities_with_callback() throws Exception {
+		long id = RandomUtils.nextLong();
+		for (int i = 0; i < 5; i++) {
+			manager.persist(new ClusteredEntityWithCompositePartitionKey(id, "type", i, "value" + i));
+			manager.persist(new ClusteredEntityWithCompositePartitionKey(id + 1, "type", i, "value" + i));
+		}
+
+		final AtomicInteger count = new AtomicInteger(0);
+		manager.scan(ClusteredEntityWithCompositePartitionKey.class).pageSize(2)
+				.forEach(new ScanCallback<ClusteredEntityWithCompositePartitionKey>() {
+					@Override
+					public void onEntity(ClusteredEntityWithCompositePartitionKey entity) {
+						assertThat(entity.getValue()).startsWith("value");
+						count.incrementAndGet();
+					}
+				});
+
+		assertThat(count.get()).isEqualTo(10);
+	}
+}
@@ -2,7 +2,9 @@ package info.archinnov.achilles.test.integration.tests;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -17,6 +19,7 @@ import info.archinnov.achilles.test.integration.entity.EntityWithSecondaryIndex;
 import info.archinnov.achilles.type.Counter;
 import info.archinnov.achilles.type.CounterBuilder;
 import info.archinnov.achilles.type.IndexCondition;
+import info.archinnov.achilles.type.Page;
 
 public class SecondaryIndexIT {
 
@@ -51,6 +54,36 @@ public class SecondaryIndexIT {
 
 	}
 
+	@Test
+	public void should_page_entities_for_indexed_query() throws Exception {
+		Set<Long> ids = new HashSet<Long>();
+		for (int i = 0; i < 5; i++) {
+			CompleteBean entity = CompleteBeanTestBuilder.builder().randomId().name("paged").buid();
+			manager.persist(entity);
+			ids.add(entity.getId());
+		}
+
+		IndexCondition condition = new IndexCondition("name", "paged");
+		Page<CompleteBean> page = manager.indexedQuery(CompleteBean.class, condition).page(3, null);
+
+		assertThat(page.getEntities()).hasSize(3);
+		assertThat(page.hasNextPage()).isTrue();
+
+		Set<Long> foundIds = new HashSet<Long>();
+		for (CompleteBean found : page) {
+			foundIds.add(found.getId());
+		}
+
+		page = manager.indexedQuery(CompleteBean.class, condition).page(3, page.getNextCursor());
+
+		assertThat(page.getEntities()).hasSize(2);
+		assertThat(page.hasNextPage()).isFalse();
+		for (CompleteBean found : page) {
+			foundIds.add(found.getId());
+		}
+		assertThat(foundIds).isEqualTo(ids);
+	}
+
 	@Test
 	public void should_throw_clustered_exception_for_indexed_query() throws Exception {
 		IndexCondition condition = new IndexCondition("name", "John DOO");
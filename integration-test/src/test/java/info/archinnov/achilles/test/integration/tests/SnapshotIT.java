@@ -0,0 +1,96 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.tests;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.entity.manager.PersistenceManager;
+import info.archinnov.achilles.junit.AchillesTestResource.Steps;
+import info.archinnov.achilles.test.integration.AchillesInternalCQLResource;
+import info.archinnov.achilles.test.integration.entity.CompleteBean;
+import info.archinnov.achilles.test.integration.entity.CompleteBeanTestBuilder;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+public class SnapshotIT {
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Rule
+	public AchillesInternalCQLResource resource = new AchillesInternalCQLResource(Steps.AFTER_TEST, "CompleteBean");
+
+	private PersistenceManager manager = resource.getPersistenceManager();
+
+	private CompleteBean bean;
+
+	@Before
+	public void setUp() {
+		bean = CompleteBeanTestBuilder.builder().randomId().name("DuyHai").age(35L).addFriends("foo", "bar")
+				.addFollowers("George", "Paul").addPreference(1, "FR").label("label").buid();
+
+		manager.persist(bean);
+	}
+
+	@Test
+	public void should_find_immutable_snapshot() throws Exception {
+		CompleteBean snapshot = manager.findSnapshot(CompleteBean.class, bean.getId());
+
+		assertThat(snapshot.getId()).isEqualTo(bean.getId());
+		assertThat(snapshot.getName()).isEqualTo("DuyHai");
+		assertThat(snapshot.getFollowers()).isInstanceOf(ImmutableSet.class).containsOnly("George", "Paul");
+		assertThat(snapshot.getPreferences()).isInstanceOf(ImmutableMap.class).containsKey(1);
+		assertThat(snapshot.getFriends()).isNull();
+		assertThat(snapshot.getLabel()).isNull();
+	}
+
+	@Test
+	public void should_not_modify_snapshot() throws Exception {
+		CompleteBean snapshot = manager.findSnapshot(CompleteBean.class, bean.getId());
+
+		exception.expect(UnsupportedOperationException.class);
+		exception.expectMessage("Cannot call setter 'setName' on a read-only snapshot");
+
+		snapshot.setName("Jonathan");
+	}
+
+	@Test
+	public void should_share_snapshot_of_same_version() throws Exception {
+		CompleteBean snapshot = manager.findSnapshot(CompleteBean.class, bean.getId());
+
+		assertThat(manager.findSnapshot(CompleteBean.class, bean.getId())).isSameAs(snapshot);
+
+		CompleteBean managed = manager.find(CompleteBean.class, bean.getId());
+		managed.setName("Jonathan");
+		manager.merge(managed);
+
+		CompleteBean updated = manager.findSnapshot(CompleteBean.class, bean.getId());
+		assertThat(updated).isNotSameAs(snapshot);
+		assertThat(updated.getName()).isEqualTo("Jonathan");
+		assertThat(snapshot.getName()).isEqualTo("DuyHai");
+	}
+
+	@Test
+	public void should_return_null_snapshot_when_not_found() throws Exception {
+		assertThat(manager.findSnapshot(CompleteBean.class, RandomUtils.nextLong())).isNull();
+	}
+}
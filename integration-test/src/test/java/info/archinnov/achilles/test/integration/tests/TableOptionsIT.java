@@ -0,0 +1,65 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.tests;
+
+import static info.archinnov.achilles.embedded.CassandraEmbeddedConfigParameters.DEFAULT_ACHILLES_TEST_KEYSPACE_NAME;
+import static info.archinnov.achilles.test.integration.entity.EntityWithTableOptions.TABLE_NAME;
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.entity.manager.PersistenceManager;
+import info.archinnov.achilles.junit.AchillesTestResource.Steps;
+import info.archinnov.achilles.test.integration.AchillesInternalCQLResource;
+import info.archinnov.achilles.test.integration.entity.EntityWithTableOptions;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.TableMetadata.Options;
+
+public class TableOptionsIT {
+
+	@Rule
+	public AchillesInternalCQLResource resource = new AchillesInternalCQLResource(Steps.AFTER_TEST, TABLE_NAME);
+
+	private PersistenceManager manager = resource.getPersistenceManager();
+
+	private Session session = resource.getNativeSession();
+
+	@Test
+	public void should_create_table_with_options() throws Exception {
+		Options options = session.getCluster().getMetadata().getKeyspace(DEFAULT_ACHILLES_TEST_KEYSPACE_NAME)
+				.getTable(TABLE_NAME).getOptions();
+
+		assertThat(options.getCompaction().get("class")).endsWith("LeveledCompactionStrategy");
+		assertThat(options.getCompaction().get("sstable_size_in_mb")).isEqualTo("64");
+		assertThat(options.getCompression().get("sstable_compression")).endsWith("LZ4Compressor");
+		assertThat(options.getCompression().get("chunk_length_kb")).isEqualTo("16");
+		assertThat(options.getCaching()).isEqualToIgnoringCase("keys_only");
+		assertThat(options.getBloomFilterFalsePositiveChance()).isEqualTo(0.01);
+		assertThat(options.getGcGraceInSeconds()).isEqualTo(3600);
+		assertThat(options.getDefaultTimeToLive()).isEqualTo(86400);
+	}
+
+	@Test
+	public void should_persist_and_find_in_table_with_options() throws Exception {
+		Long id = RandomUtils.nextLong();
+		manager.persist(new EntityWithTableOptions(id, "name"));
+
+		assertThat(manager.find(EntityWithTableOptions.class, id).getName()).isEqualTo("name");
+	}
+}
@@ -0,0 +1,89 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.tests;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.entity.manager.PersistenceManager;
+import info.archinnov.achilles.entity.manager.PersistenceManagerFactory;
+import info.archinnov.achilles.entity.manager.UnitOfWorkPersistenceManager;
+import info.archinnov.achilles.junit.AchillesTestResource.Steps;
+import info.archinnov.achilles.test.integration.AchillesInternalCQLResource;
+import info.archinnov.achilles.test.integration.entity.CompleteBean;
+import info.archinnov.achilles.test.integration.entity.CompleteBeanTestBuilder;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class UnitOfWorkIT {
+
+	@Rule
+	public AchillesInternalCQLResource resource = new AchillesInternalCQLResource(Steps.AFTER_TEST, "CompleteBean");
+
+	private PersistenceManagerFactory pmf = resource.getPersistenceManagerFactory();
+
+	private PersistenceManager manager = resource.getPersistenceManager();
+
+	@Test
+	public void should_return_same_proxy_for_repeated_finds() throws Exception {
+		CompleteBean bean = CompleteBeanTestBuilder.builder().randomId().name("DuyHai").buid();
+		manager.persist(bean);
+		UnitOfWorkPersistenceManager unitOfWork = pmf.createUnitOfWorkPersistenceManager();
+
+		CompleteBean first = unitOfWork.find(CompleteBean.class, bean.getId());
+		CompleteBean second = unitOfWork.find(CompleteBean.class, bean.getId());
+
+		assertThat(second).isSameAs(first);
+		assertThat(unitOfWork.find(CompleteBean.class, RandomUtils.nextLong())).isNull();
+	}
+
+	@Test
+	public void should_coalesce_merges_until_flush() throws Exception {
+		CompleteBean bean = CompleteBeanTestBuilder.builder().randomId().name("DuyHai").age(35L).buid();
+		manager.persist(bean);
+		UnitOfWorkPersistenceManager unitOfWork = pmf.createUnitOfWorkPersistenceManager();
+
+		CompleteBean found = unitOfWork.find(CompleteBean.class, bean.getId());
+		found.setName("Jonathan");
+		unitOfWork.merge(found);
+		unitOfWork.find(CompleteBean.class, bean.getId()).setAge(36L);
+		unitOfWork.merge(found);
+
+		assertThat(manager.find(CompleteBean.class, bean.getId()).getName()).isEqualTo("DuyHai");
+
+		unitOfWork.flush();
+
+		CompleteBean reloaded = manager.find(CompleteBean.class, bean.getId());
+		assertThat(reloaded.getName()).isEqualTo("Jonathan");
+		assertThat(reloaded.getAge()).isEqualTo(36L);
+	}
+
+	@Test
+	public void should_not_merge_removed_entity_on_flush() throws Exception {
+		CompleteBean bean = CompleteBeanTestBuilder.builder().randomId().name("DuyHai").buid();
+		manager.persist(bean);
+		UnitOfWorkPersistenceManager unitOfWork = pmf.createUnitOfWorkPersistenceManager();
+
+		CompleteBean found = unitOfWork.find(CompleteBean.class, bean.getId());
+		found.setName("Jonathan");
+		unitOfWork.merge(found);
+		unitOfWork.remove(found);
+		unitOfWork.flush();
+
+		assertThat(unitOfWork.find(CompleteBean.class, bean.getId())).isNull();
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ *
+ * Copyright (C) 2012-2013 DuyHai DOAN
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package info.archinnov.achilles.test.integration.tests;
+
+import static info.archinnov.achilles.test.integration.entity.ClusteredEntity.TABLE_NAME;
+import static org.fest.assertions.api.Assertions.assertThat;
+import info.archinnov.achilles.entity.manager.PersistenceManager;
+import info.archinnov.achilles.entity.manager.PersistenceManagerFactory;
+import info.archinnov.achilles.entity.manager.WriteBehindPersistenceManager;
+import info.archinnov.achilles.junit.AchillesTestResource.Steps;
+import info.archinnov.achilles.test.integration.AchillesInternalCQLResource;
+import info.archinnov.achilles.test.integration.entity.ClusteredEntity;
+import info.archinnov.achilles.test.integration.entity.ClusteredEntity.ClusteredKey;
+import info.archinnov.achilles.test.integration.entity.CompleteBean;
+import info.archinnov.achilles.test.integration.entity.CompleteBeanTestBuilder;
+
+import java.util.List;
+
+import org.apache.commons.lang.math.RandomUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class WriteBehindIT {
+
+	@Rule
+	public AchillesInternalCQLResource resource = new AchillesInternalCQLResource(Steps.AFTER_TEST, TABLE_NAME,
+			"CompleteBean");
+
+	private PersistenceManagerFactory pmf = resource.getPersistenceManagerFactory();
+
+	private PersistenceManager manager = resource.getPersistenceManager();
+
+	@Test
+	public void should_write_behind_clustered_entities_of_same_partition() throws Exception {
+		Long partitionKey = RandomUtils.nextLong();
+		WriteBehindPersistenceManager writeBehind = pmf.createWriteBehindPersistenceManager();
+
+		for (int i = 1; i <= 50; i++) {
+			writeBehind.persist(new ClusteredEntity(partitionKey, i, "name" + i, "value" + i));
+		}
+		writeBehind.flush();
+
+		assertThat(writeBehind.getPendingCount()).isEqualTo(0);
+		List<ClusteredEntity> entities = manager.sliceQuery(ClusteredEntity.class)
+				.partitionComponents(partitionKey).get(100);
+		assertThat(entities).hasSize(50);
+		assertThat(entities.get(49).getValue()).isEqualTo("value50");
+	}
+
+	@Test
+	public void should_apply_merges_in_submission_order() throws Exception {
+		ClusteredKey compoundKey = new ClusteredKey(RandomUtils.nextLong(), RandomUtils.nextInt(), "name");
+		WriteBehindPersistenceManager writeBehind = pmf.createWriteBehindPersistenceManager();
+
+		writeBehind.persist(new ClusteredEntity(compoundKey, "initial"));
+		writeBehind.flush();
+
+		ClusteredEntity proxy = writeBehind.find(ClusteredEntity.class, compoundKey);
+		proxy.setValue("first");
+		writeBehind.merge(proxy);
+		proxy.setValue("second");
+		writeBehind.merge(proxy);
+		writeBehind.flush();
+
+		assertThat(manager.find(ClusteredEntity.class, compoundKey).getValue()).isEqualTo("second");
+	}
+
+	@Test
+	public void should_write_entity_with_counter_immediately() throws Exception {
+		CompleteBean bean = CompleteBeanTestBuilder.builder().randomId().name("DuyHai").buid();
+		WriteBehindPersistenceManager writeBehind = pmf.createWriteBehindPersistenceManager();
+
+		writeBehind.persist(bean);
+
+		assertThat(writeBehind.getPendingCount()).isEqualTo(0);
+		assertThat(manager.find(CompleteBean.class, bean.getId()).getName()).isEqualTo("DuyHai");
+	}
+}